@@ -22,6 +22,9 @@ repositories {
 dependencies {
     testImplementation(platform("org.junit:junit-bom:5.9.1"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    // https://mvnrepository.com/artifact/org.mockito/mockito-core
+    testImplementation("org.mockito:mockito-core:5.11.0")
+    testImplementation("io.papermc.paper:paper-api:1.21.1-R0.1-SNAPSHOT")
 
     // https://mvnrepository.com/artifact/com.fasterxml.jackson.core/jackson-databind
     implementation("com.fasterxml.jackson.core:jackson-databind:2.16.1")
@@ -31,6 +34,20 @@ dependencies {
     implementation("org.hibernate.orm:hibernate-core:6.4.4.Final")
     // https://mvnrepository.com/artifact/com.mysql/mysql-connector-j
     implementation("com.mysql:mysql-connector-j:8.2.0")
+    // https://mvnrepository.com/artifact/com.h2database/h2
+    implementation("com.h2database:h2:2.2.224")
+    // https://mvnrepository.com/artifact/org.xerial/sqlite-jdbc
+    implementation("org.xerial:sqlite-jdbc:3.45.1.0")
+    // https://mvnrepository.com/artifact/org.hibernate.orm/hibernate-community-dialects
+    implementation("org.hibernate.orm:hibernate-community-dialects:6.4.4.Final")
+    // https://mvnrepository.com/artifact/org.hibernate.orm/hibernate-jcache
+    implementation("org.hibernate.orm:hibernate-jcache:6.4.4.Final")
+    // https://mvnrepository.com/artifact/com.zaxxer/HikariCP
+    implementation("com.zaxxer:HikariCP:5.1.0")
+    // https://mvnrepository.com/artifact/com.github.ben-manes.caffeine/caffeine
+    implementation("com.github.ben-manes.caffeine:caffeine:3.1.8")
+    // https://mvnrepository.com/artifact/com.github.ben-manes.caffeine/jcache
+    implementation("com.github.ben-manes.caffeine:jcache:3.1.8")
 
     compileOnly("io.papermc.paper:paper-api:1.21.1-R0.1-SNAPSHOT")
 }
@@ -41,6 +58,34 @@ java {
     }
 }
 
+val entityIndexDir = layout.buildDirectory.dir("generated/resources/entity-index")
+
+val generateEntityIndex by tasks.registering {
+    group = "Westonia"
+    description = "Writes the index of all @Entity classes, which is read by the DatabaseFactory instead of scanning the classpath."
+
+    val sourceDir = file("src/main/java")
+    inputs.dir(sourceDir)
+    outputs.dir(entityIndexDir)
+
+    doLast {
+        val entityClasses = sourceDir.walkTopDown()
+            .filter { it.isFile && it.extension == "java" }
+            .filter { file -> file.readLines().map { it.trim() }.any { it == "@Entity" || it.startsWith("@Entity(") } }
+            .map { it.relativeTo(sourceDir).invariantSeparatorsPath.removeSuffix(".java").replace('/', '.') }
+            .sorted()
+            .toList()
+
+        val indexFile = entityIndexDir.get().file("META-INF/westonia/entities.idx").asFile
+        indexFile.parentFile.mkdirs()
+        indexFile.writeText(entityClasses.joinToString(separator = "\n", postfix = "\n"))
+    }
+}
+
+sourceSets.main {
+    resources.srcDir(generateEntityIndex)
+}
+
 tasks.withType<JavaCompile> {
     options.encoding = "UTF-8"
 }
@@ -55,6 +100,11 @@ tasks.withType<Javadoc>{
 
 tasks.test {
     useJUnitPlatform()
+    // The embedded databases of the tests are created in "plugins/Westonia" relative to the working directory
+    workingDir = layout.buildDirectory.dir("test-run").get().asFile
+    // Mockito attaches its agent to mock the plugin classes
+    jvmArgs("-XX:+EnableDynamicAgentLoading")
+    doFirst { workingDir.mkdirs() }
 }
 
 val serverDir = "C:\\Dev\\Minecraft Server\\Westonia 1.21.X"
@@ -2,6 +2,7 @@ package coffee.j4n.westonia;
 
 import coffee.j4n.westonia.database.daos.PlayerDao;
 import coffee.j4n.westonia.database.entities.WstPlayer;
+import coffee.j4n.westonia.database.journal.JournalEntry;
 import coffee.j4n.westonia.database.results.DbResult;
 import coffee.j4n.westonia.database.results.DbReturn;
 import coffee.j4n.westonia.utils.Helpers;
@@ -18,6 +19,7 @@ import org.bukkit.entity.Player;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The BasePlayer class is a wrapper for the org.bukkit.entity.Player class.
@@ -37,7 +39,9 @@ public class BasePlayer {
 
     // <editor-fold defaultstate="collapsed" desc="Constructors, Initialization and Fields">
     private String currentLocale;
-    private boolean isInitialized = false;
+    private WstPlayer wstPlayer;
+    private volatile boolean isInitialized = false;
+    private volatile boolean isDegraded = false;
 
     /**
      * Creates a new BasePlayer object with the specified player and PlayerDao.
@@ -78,62 +82,90 @@ public class BasePlayer {
 
     /**
      * Initializes the BasePlayer synchronously.
+     * The player is loaded and - if necessary - registered with a single database operation.
+     * <br/><br/>
+     * If the database is not reachable, the player is not kicked but initialized in the degraded mode with the client language:
+     * changes are written to the write journal and the player is initialized again once the database is reachable.
      */
     public void init() {
-        isInitialized = false;
-        DbReturn playerRegisteredResult = this.playerDao.isPlayerRegistered(this.player.getUniqueId().toString());
-        if (playerRegisteredResult.getResultType() == ResultType.ERROR) {
+        // A degraded player stays usable while it is initialized again
+        if (!isDegraded) {
+            isInitialized = false;
+        }
+
+        DbResult<WstPlayer> playerResult = this.playerDao.loadOrRegister(this.player.getUniqueId(), this.currentLocale);
+
+        if (playerResult.getResultType() == ResultType.ERROR) {
+            this.wstPlayer = null;
+            isDegraded = true;
+            isInitialized = true;
+            return;
+        }
+
+        WstPlayer wstPlayer = playerResult.getResult();
+
+        if (!playerResult.isSuccessful() || wstPlayer == null) {
             Helpers.runOnMainThread(() -> {
                 Component kickMessage = getMessageFromKey(Messages.COMMON_HEADER, Prefixes.WESTONIA_RAW_STRING)
                         .append(MessageHelpers.getMiniMessage().deserialize(
-                                "<gray><newline><newline>Ein <red>Fehler</red> ist aufgetreten, während deine Spieler-Daten geladen wurden.<newline>Die <dark_purple>Datenbank</dark_purple> scheint <red>nicht</red> erreichbar zu sein.<newline><newline>Versuche es bitte <aqua>später</aqua> erneut.<newline><newline><aqua>▶</aqua> Sollte der <red>Fehler</red> weiterhin auftreten, gebe bitte <gold>J4N</gold> / <gold>Jan</gold> bescheid :) <aqua>◀</aqua>"));
+                                "<gray><newline><newline>Ein <red>Fehler</red> ist aufgetreten, während deine Spieler-Daten angelegt wurden.<newline><newline>Versuche es bitte erneut.<newline><newline><aqua>▶</aqua> Sollte der <red>Fehler</red> weiterhin auftreten, gebe bitte <gold>J4N</gold> / <gold>Jan</gold> bescheid :) <aqua>◀</aqua>"));
                 this.player.kick(kickMessage);
             });
             return;
         }
 
-        if (playerRegisteredResult.getResultType() == ResultType.NOT_FOUND) {
-            DbReturn registerPlayerResult = this.playerDao.registerPlayer(new WstPlayer(this));
+        this.wstPlayer = wstPlayer;
 
-            if (!registerPlayerResult.isSuccessful()) {
-                Helpers.runOnMainThread(() -> {
-                    Component kickMessage = getMessageFromKey(Messages.COMMON_HEADER, Prefixes.WESTONIA_RAW_STRING)
-                            .append(MessageHelpers.getMiniMessage().deserialize(
-                                    "<gray><newline><newline>Ein <red>Fehler</red> ist aufgetreten, während deine Spieler-Daten angelegt wurden.<newline><newline>Versuche es bitte erneut.<newline><newline><aqua>▶</aqua> Sollte der <red>Fehler</red> weiterhin auftreten, gebe bitte <gold>J4N</gold> / <gold>Jan</gold> bescheid :) <aqua>◀</aqua>"));
-                    this.player.kick(kickMessage);
-                });
-                return;
-            }
-
-            // Proceed to load the player data after registration
-            loadPlayerData();
-            isInitialized = true;
+        // The language that has been chosen in the degraded mode is newer than the stored one
+        if (isDegraded && !wstPlayer.getLanguage().equals(this.currentLocale)) {
+            wstPlayer.setLanguage(this.currentLocale);
         } else {
-            // Player is already registered, proceed to load player data
-            loadPlayerData();
-            isInitialized = true;
+            this.currentLocale = wstPlayer.getLanguage();
         }
+
+        wstPlayer.markSeen();
+        Westonia.getInstance().getPlayerWriteBehindQueue().enqueue(wstPlayer);
+
+        isDegraded = false;
+        isInitialized = true;
     }
 
     /**
-     * Loads the player data Synchronously.
+     * Initializes the BasePlayer with the player data that has been loaded during the pre-login, without any database access.
+     * If the player has just been registered during the pre-login, the default language is replaced by the client language.
+     *
+     * @param prefetchedPlayer The result of loading or registering the player during the pre-login.
+     * @return Whether the player has been initialized, if not, {@link #initAsync()} has to be used.
      */
-    private void loadPlayerData() {
-        DbResult<WstPlayer> networkPlayerResult = this.playerDao.getPlayer(this.player.getUniqueId().toString());
-        if (!networkPlayerResult.isSuccessful()) {
-            Helpers.runOnMainThread(() -> {
-                Component kickMessage = getMessageFromKey(Messages.COMMON_HEADER, Prefixes.WESTONIA_RAW_STRING)
-                        .append(MessageHelpers.getMiniMessage().deserialize(
-                                "<gray><newline><newline>Ein <red>Fehler</red> ist aufgetreten, während deine Spieler-Daten geladen wurden.<newline><newline>Versuche es bitte erneut.<newline><newline><aqua>▶</aqua> Sollte der <red>Fehler</red> weiterhin auftreten, gebe bitte <gold>J4N</gold> / <gold>Jan</gold> bescheid :) <aqua>◀</aqua>"));
-                this.player.kick(kickMessage);
-            });
-            return;
+    public boolean init(DbResult<WstPlayer> prefetchedPlayer) {
+        WstPlayer wstPlayer = prefetchedPlayer.getResult();
+
+        if (!prefetchedPlayer.isSuccessful() || wstPlayer == null) {
+            return false;
         }
 
-        WstPlayer WstPlayer = networkPlayerResult.getResult();
-        if (WstPlayer != null) {
-            this.currentLocale = WstPlayer.getLanguage();
+        this.wstPlayer = wstPlayer;
+
+        if (prefetchedPlayer.getResultType() == ResultType.SUCCESS && !wstPlayer.getLanguage().equals(this.currentLocale)) {
+            wstPlayer.setLanguage(this.currentLocale);
+        } else {
+            this.currentLocale = wstPlayer.getLanguage();
         }
+
+        wstPlayer.markSeen();
+        Westonia.getInstance().getPlayerWriteBehindQueue().enqueue(wstPlayer);
+
+        isInitialized = true;
+        return true;
+    }
+
+    /**
+     * Initializes the BasePlayer asynchronously on the database executor of the plugin.
+     *
+     * @return A CompletableFuture that completes when the initialization has finished.
+     */
+    public CompletableFuture<Void> initAsync() {
+        return Westonia.getInstance().getDatabaseExecutor().runAsync(this::init);
     }
     // </editor-fold>
 
@@ -238,6 +270,15 @@ public class BasePlayer {
         return isInitialized;
     }
 
+    /**
+     * Returns whether the player has been initialized in the degraded mode, because the database was not reachable.
+     *
+     * @return True if the player is in the degraded mode, otherwise false.
+     */
+    public boolean isDegraded() {
+        return isDegraded;
+    }
+
     /**
      * Checks if the player has the specified permission.
      * Returns true if the player has the permission, otherwise false.
@@ -293,19 +334,63 @@ public class BasePlayer {
     }
 
     /**
-     * Sets the language of the player synchronously.
+     * Marks the player as seen now, e.g. when the player leaves the server.
+     * The last seen date decides when an inactive player is archived, it is written with the next flush of the write-behind queue.
+     * In the degraded mode, it is written to the write journal instead.
+     */
+    public void markSeen() {
+        if (this.wstPlayer != null) {
+            this.wstPlayer.markSeen();
+            Westonia.getInstance().getPlayerWriteBehindQueue().enqueue(this.wstPlayer);
+            return;
+        }
+
+        if (isDegraded) {
+            // The language has not been changed, so only the last seen time is journaled
+            long nowMillis = System.currentTimeMillis();
+            Westonia.getInstance().getWriteJournal().append(new JournalEntry(this.getUniqueId(), null, nowMillis, nowMillis));
+        }
+    }
+
+    /**
+     * Sets the language of the player.
+     * The change is written to the database by the write-behind queue, so no database I/O happens on the calling thread.
+     * If the player has not been initialized yet, the language is saved asynchronously and the player is notified on the main thread afterwards.
+     * In the degraded mode, the language is written to the write journal instead.
      *
      * @param currentLocale The language code to set (e.g. "de").
      */
     public void setCurrentLocale(String currentLocale) {
         this.currentLocale = currentLocale;
 
-        if (!saveLanguage().isSuccessful()) {
-            sendErrorMessage(Messages.PLAYER_LANGUAGE_ERROR_ON_SAVE);
+        if (isDegraded) {
+            DbReturn journalResult = Westonia.getInstance().getWriteJournal().append(new JournalEntry(this.getUniqueId(), currentLocale, null, System.currentTimeMillis()));
+
+            if (!journalResult.isSuccessful()) {
+                sendErrorMessage(Messages.PLAYER_LANGUAGE_ERROR_ON_SAVE);
+                return;
+            }
+
+            sendInfoMessage(Messages.PLAYER_LANGUAGE_SAVED, getLanguageHumanFriendly());
+            return;
+        }
+
+        if (this.wstPlayer != null) {
+            this.wstPlayer.setLanguage(currentLocale);
+            Westonia.getInstance().getPlayerWriteBehindQueue().enqueue(this.wstPlayer);
+
+            sendInfoMessage(Messages.PLAYER_LANGUAGE_SAVED, getLanguageHumanFriendly());
             return;
         }
 
-        sendInfoMessage(Messages.PLAYER_LANGUAGE_SAVED, getLanguageHumanFriendly());
+        Helpers.acceptOnMainThread(saveLanguageAsync(), saveResult -> {
+            if (!saveResult.isSuccessful()) {
+                sendErrorMessage(Messages.PLAYER_LANGUAGE_ERROR_ON_SAVE);
+                return;
+            }
+
+            sendInfoMessage(Messages.PLAYER_LANGUAGE_SAVED, getLanguageHumanFriendly());
+        });
     }
 
     /**
@@ -412,7 +497,7 @@ public class BasePlayer {
      */
     private DbResult<WstPlayer> getNetworkPlayer() {
 
-        DbResult<WstPlayer> playerResult = this.playerDao.getPlayer(this.player.getUniqueId().toString());
+        DbResult<WstPlayer> playerResult = this.playerDao.getPlayer(this.player.getUniqueId());
 
         if (!playerResult.isSuccessful()) {
             return new DbResult<>(null, playerResult.getMessage(), playerResult.getResultType());
@@ -427,7 +512,16 @@ public class BasePlayer {
      * @return A DbReturn containing the result of the operation.
      */
     private DbReturn saveLanguage() {
-        return this.playerDao.updateLanguage(this.getUniqueId().toString(), this.currentLocale);
+        return this.playerDao.updateLanguage(this.getUniqueId(), this.currentLocale);
+    }
+
+    /**
+     * Asynchronously saves the language of the player to the database.
+     *
+     * @return A CompletableFuture that completes with the DbReturn containing the result of the operation.
+     */
+    private CompletableFuture<DbReturn> saveLanguageAsync() {
+        return this.playerDao.updateLanguageAsync(this.getUniqueId(), this.currentLocale);
     }
     // </editor-fold>
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package coffee.j4n.westonia;
 
 import coffee.j4n.westonia.commands.Fly;
+import coffee.j4n.westonia.commands.WestoniaData;
+import coffee.j4n.westonia.commands.WestoniaMetrics;
 import coffee.j4n.westonia.interfaces.commands.IWstCommand;
 import coffee.j4n.westonia.utils.messages.management.MessageHelpers;
 import coffee.j4n.westonia.utils.statics.constants.Prefixes;
@@ -21,6 +23,8 @@ public class CommandController implements CommandExecutor {
 
     private final Westonia plugin;
     private Fly cmdFly;
+    private WestoniaData cmdWestoniaData;
+    private WestoniaMetrics cmdWestoniaMetrics;
 
     /**
      * Creates a new instance of the CommandController
@@ -39,6 +43,13 @@ public class CommandController implements CommandExecutor {
         String commandName = command.getName();
 
         // Register console commands here
+        if (commandName.equalsIgnoreCase(this.cmdWestoniaData.getName())) {
+            return this.cmdWestoniaData.onCommand(sender, command, args, this.plugin);
+        }
+
+        if (commandName.equalsIgnoreCase(this.cmdWestoniaMetrics.getName())) {
+            return this.cmdWestoniaMetrics.onCommand(sender, command, args, this.plugin);
+        }
 
         if (!(sender instanceof Player player)) {
             Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.ERROR.append(MessageHelpers.getMiniMessage().deserialize("This command can <u>only</u> be executed by a <gold>player</gold>!")));
@@ -61,6 +72,14 @@ public class CommandController implements CommandExecutor {
         // /Fly
         this.cmdFly = new Fly();
         this.registerCommand(this.cmdFly);
+
+        // /WstData
+        this.cmdWestoniaData = new WestoniaData();
+        this.registerCommand(this.cmdWestoniaData);
+
+        // /WstMetrics
+        this.cmdWestoniaMetrics = new WestoniaMetrics();
+        this.registerCommand(this.cmdWestoniaMetrics);
     }
 
     /**
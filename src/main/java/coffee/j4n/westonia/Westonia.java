@@ -1,32 +1,81 @@
 package coffee.j4n.westonia;
 
+import coffee.j4n.westonia.database.DatabaseExecutor;
+import coffee.j4n.westonia.database.DatabaseFactory;
+import coffee.j4n.westonia.database.archive.PlayerArchiver;
+import coffee.j4n.westonia.database.metrics.MetricsFileWriter;
+import coffee.j4n.westonia.database.cache.PlayerCache;
+import coffee.j4n.westonia.database.cache.PlayerPrefetchCache;
 import coffee.j4n.westonia.database.daos.PlayerDao;
+import coffee.j4n.westonia.database.entities.WstPlayer;
+import coffee.j4n.westonia.database.invalidation.ChangeLogInvalidationBus;
+import coffee.j4n.westonia.database.invalidation.LocalInvalidationBus;
+import coffee.j4n.westonia.database.journal.JournalEntry;
+import coffee.j4n.westonia.database.journal.WriteJournal;
+import coffee.j4n.westonia.database.resilience.DatabaseRecoveryTask;
+import coffee.j4n.westonia.database.results.DbResult;
+import coffee.j4n.westonia.database.transfer.DataTransferService;
+import coffee.j4n.westonia.database.transfer.PlayerArchiveTableTransfer;
+import coffee.j4n.westonia.database.transfer.PlayerTableTransfer;
+import coffee.j4n.westonia.database.writebehind.WriteBehindQueue;
+import coffee.j4n.westonia.interfaces.IInvalidationBus;
 import coffee.j4n.westonia.utils.ConfigHandler;
+import coffee.j4n.westonia.utils.Helpers;
 import coffee.j4n.westonia.utils.runnables.RunnableManager;
 import coffee.j4n.westonia.utils.config.MdlDatabaseConfig;
 import coffee.j4n.westonia.utils.messages.MessageFactory;
 import coffee.j4n.westonia.utils.messages.Messages;
 import coffee.j4n.westonia.utils.messages.management.MessageHelpers;
 import coffee.j4n.westonia.utils.players.PlayerHandler;
+import coffee.j4n.westonia.utils.startup.StartupPipeline;
 import coffee.j4n.westonia.utils.statics.constants.FilePaths;
 import coffee.j4n.westonia.utils.statics.constants.Prefixes;
+import coffee.j4n.westonia.utils.statics.enums.InvalidationType;
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import coffee.j4n.westonia.utils.statics.enums.StorageType;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.hibernate.SessionFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The main class of the Westonia plugin.
  */
 public class Westonia extends JavaPlugin {
 
+    /**
+     * The amount of startup phases that can run at the same time (the messages and the configuration, the database follows the configuration).
+     */
+    private static final int STARTUP_THREADS = 2;
+
     private static Westonia instance;
     private PlayerHandler playerHandler;
-    private PlayerDao playerDao;
+    // Set by the database phase of the startup on a worker thread, but read by the asynchronous listeners and the database threads
+    private volatile DatabaseFactory<Westonia> databaseFactory;
+    private volatile DatabaseExecutor databaseExecutor;
+    private volatile PlayerDao playerDao;
+    private volatile PlayerPrefetchCache playerPrefetchCache;
+    private volatile WriteBehindQueue<WstPlayer> playerWriteBehindQueue;
+    private volatile WriteJournal writeJournal;
+    private DatabaseRecoveryTask databaseRecoveryTask;
+    private IInvalidationBus invalidationBus;
+    private volatile DataTransferService dataTransferService;
+    private PlayerArchiver playerArchiver;
+    private MetricsFileWriter metricsFileWriter;
+
+    private StartupPipeline startupPipeline;
 
-    private MessageFactory messageFactory;
+    private volatile MessageFactory messageFactory;
     private RunnableManager runnableManager;
 
     /**
@@ -54,9 +103,38 @@ public class Westonia extends JavaPlugin {
         Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.INFO.append(MessageHelpers.getMiniMessage().deserialize("Initializing <aqua>PlayerHandler</aqua>...")));
         playerHandler = new PlayerHandler();
 
-        Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.INFO.append(MessageHelpers.getMiniMessage().deserialize("Initializing <aqua>MessageFactory</aqua>...")));
-        this.messageFactory = new MessageFactory(Messages.class, Messages.LANGUAGE_NAME);
+        // The independent phases run on worker threads, the main thread only registers what Bukkit needs right away
+        this.startupPipeline = new StartupPipeline(this, STARTUP_THREADS);
+        CompletableFuture<Void> messagesPhase = this.startupPipeline.runPhase("messages", () -> new MessageFactory(Messages.class, Messages.LANGUAGE_NAME)).thenAccept(loadedMessageFactory -> this.messageFactory = loadedMessageFactory);
+        CompletableFuture<MdlDatabaseConfig> configPhase = this.startupPipeline.runPhase("config", this::loadDatabaseConfig);
+        CompletableFuture<Boolean> databasePhase = this.startupPipeline.runPhase("database", configPhase, databaseConfig -> {
+            if (databaseConfig == null) {
+                return false;
+            }
+
+            this.initializeDatabase(databaseConfig);
+            return true;
+        });
+
+        this.getServer().getPluginManager().registerEvents(new coffee.j4n.westonia.listeners.PlayerPreLoginEvent(this), this);
 
+        // The commands and the other listeners need the messages and the player data, so they are registered once all phases are completed
+        Helpers.acceptOnMainThread(CompletableFuture.allOf(messagesPhase, databasePhase), ignored -> this.completeStartup(databasePhase.join())).exceptionally(throwable -> {
+            Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.ERROR.append(MessageHelpers.getMiniMessage().deserialize("Westonia could <red>not</red> be started, disabling the plugin...")));
+            Helpers.runOnMainThread(() -> this.getServer().getPluginManager().disablePlugin(this));
+            return null;
+        });
+
+        Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.INFO.append(MessageHelpers.getMiniMessage().deserialize("The main thread has been released after <aqua>" + this.startupPipeline.elapsedMillis() + " ms</aqua>, the remaining startup phases continue in the background...")));
+    }
+
+    /**
+     * Loads the database configuration, or creates the configuration file if it does not exist yet.
+     * Runs as a phase of the {@link StartupPipeline}.
+     *
+     * @return The database configuration, null if the configuration file has just been created and has to be filled out first.
+     */
+    private MdlDatabaseConfig loadDatabaseConfig() {
         ConfigHandler<MdlDatabaseConfig> databaseConfigConfigHandler = new ConfigHandler<>(new File(FilePaths.DATABASE_CONFIG), MdlDatabaseConfig.class);
         MdlDatabaseConfig databaseConfig = databaseConfigConfigHandler.getConfigModel();
 
@@ -74,30 +152,216 @@ public class Westonia extends JavaPlugin {
             databaseConfigConfigHandler.saveConfig();
 
             Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.INFO.append(MessageHelpers.getMiniMessage().deserialize("Successfully created \"<aqua>" + FilePaths.DATABASE_CONFIG + "</aqua>\"! Please fill out the configuration and restart the server - it is located in \"<aqua>" + filePath + "</aqua>\".")));
-            return;
+            return null;
+        }
+
+        return databaseConfig;
+    }
+
+    /**
+     * Builds the SessionFactory and creates the DAOs, caches and background tasks that depend on it.
+     * Runs as a phase of the {@link StartupPipeline}, so the (slow) SessionFactory build does not block the main thread.
+     *
+     * @param databaseConfig The database configuration.
+     */
+    private void initializeDatabase(final MdlDatabaseConfig databaseConfig) {
+        Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.INFO.append(MessageHelpers.getMiniMessage().deserialize("Building the <aqua>SessionFactory</aqua>...")));
+        this.databaseFactory = new DatabaseFactory<>(this, databaseConfig);
+        DbResult<SessionFactory> sessionFactoryResult = this.databaseFactory.buildSessionFactory();
+
+        if (!sessionFactoryResult.isSuccessful()) {
+            Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.ERROR.append(MessageHelpers.getMiniMessage().deserialize("The <aqua>SessionFactory</aqua> could <red>not</red> be built: <red>" + sessionFactoryResult.getMessage() + "</red> - players join in the degraded mode until the database is reachable.")));
+        } else if (!this.databaseFactory.isHealthy()) {
+            Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.WARN.append(MessageHelpers.getMiniMessage().deserialize("The <aqua>SessionFactory</aqua> has been built, but the database is <red>not</red> reachable.")));
+        } else {
+            Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.INFO.append(MessageHelpers.getMiniMessage().deserialize("The <aqua>SessionFactory</aqua> has been built <green>successfully</green> and the database is reachable.")));
+        }
+
+        this.databaseExecutor = new DatabaseExecutor(this, databaseConfig.getMaxConcurrentOperations());
+        PlayerCache playerCache = new PlayerCache(databaseConfig.getPlayerCacheMaximumSize(), databaseConfig.getPlayerCacheExpireAfterAccessMinutes());
+        this.invalidationBus = this.createInvalidationBus(databaseConfig);
+        this.playerDao = new PlayerDao(this, this.databaseFactory, this.databaseExecutor, playerCache, this.invalidationBus);
+        this.invalidationBus.subscribe(this.playerDao::evictPlayers);
+        this.invalidationBus.start();
+        this.playerPrefetchCache = new PlayerPrefetchCache();
+        this.dataTransferService = new DataTransferService(this, this.databaseFactory, databaseConfig.getTransferFetchSize(), databaseConfig.getJdbcBatchSize());
+        this.dataTransferService.register(new PlayerTableTransfer(this.databaseFactory.getStorageBackend().getInsertIgnoreStatement()));
+        this.dataTransferService.register(new PlayerArchiveTableTransfer(this.databaseFactory.getStorageBackend().getInsertIgnoreStatement()));
+        this.playerWriteBehindQueue = new WriteBehindQueue<>(this, this.playerDao, databaseConfig.getWriteBehindMaxPendingWrites(), databaseConfig.getWriteBehindFlushIntervalSeconds());
+
+        Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.INFO.append(MessageHelpers.getMiniMessage().deserialize("Opening the <aqua>write journal</aqua>...")));
+        this.writeJournal = new WriteJournal(this, Path.of(FilePaths.WRITE_JOURNAL), databaseConfig.getJournalSyncIntervalMillis());
+        if (this.writeJournal.open().isSuccessful()) {
+            this.playerWriteBehindQueue.setFallbackWriter(players -> this.writeJournal.appendAll(players.stream().map(wstPlayer -> new JournalEntry(wstPlayer.getMinecraftUUID(), wstPlayer.getLanguage(), wstPlayer.getLastSeenDate().getTime(), System.currentTimeMillis())).toList()));
+        } else {
+            Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.ERROR.append(MessageHelpers.getMiniMessage().deserialize("The <aqua>write journal</aqua> could <red>not</red> be opened, changes are <red>lost</red> while the database is not reachable!")));
+        }
+
+        this.playerWriteBehindQueue.start();
+        this.databaseRecoveryTask = new DatabaseRecoveryTask(this, this.databaseFactory, this.writeJournal, this.playerDao::writeJournalEntry, this::reloadDegradedPlayers, databaseConfig.getRecoveryIntervalSeconds());
+        this.databaseRecoveryTask.start();
+
+        if (databaseConfig.getArchiveAfterDays() > 0) {
+            // Archived players are evicted from the caches of all servers, so a rejoin finds them in the archive
+            this.playerArchiver = new PlayerArchiver(this, this.databaseFactory, uuid -> this.playerHandler.getPlayer(uuid) != null, archivedUUIDs -> {
+                this.playerDao.evictPlayers(archivedUUIDs);
+                this.invalidationBus.publish(archivedUUIDs);
+            }, databaseConfig.getArchiveAfterDays(), databaseConfig.getArchiveMaxBatchSize(), databaseConfig.getArchiveBatchTimeBudgetMillis(), databaseConfig.getArchiveIntervalMinutes());
+            this.playerArchiver.start();
         }
 
-        this.playerDao = new PlayerDao(this, databaseConfig);
+        if (databaseConfig.getMetricsFileIntervalSeconds() > 0) {
+            this.metricsFileWriter = new MetricsFileWriter(this, this.databaseFactory, Path.of(FilePaths.METRICS_FILE), databaseConfig.getMetricsFileIntervalSeconds());
+            this.metricsFileWriter.start();
+        }
+    }
+
+    /**
+     * Takes over the results of the startup phases on the main thread, registers the commands and the remaining listeners and opens the readiness gate.
+     * It runs after all phases have been completed, so the fields they have set are visible to the commands and listeners.
+     *
+     * @param databaseConfigured Whether the database has been configured, i.e. the database phase has created the DAOs.
+     */
+    private void completeStartup(final boolean databaseConfigured) {
+        // Without a database configuration there is nothing to register, the server has to be restarted after filling it out
+        if (!databaseConfigured) {
+            this.startupPipeline.markReady();
+            return;
+        }
 
         CommandController commandController = new CommandController(this);
         this.getServer().getPluginManager().registerEvents(new coffee.j4n.westonia.listeners.PlayerJoinEvent(this), this);
+        this.getServer().getPluginManager().registerEvents(new coffee.j4n.westonia.listeners.PlayerQuitEvent(this), this);
         this.getServer().getPluginManager().registerEvents(new coffee.j4n.westonia.listeners.ChatEvent(this), this);
+        this.startupPipeline.markReady();
 
         Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.WESTONIA_PREFIX.append(MessageHelpers.getMiniMessage().deserialize("Westonia and all of its components have been loaded <green>successfully</green>!")));
 
-        if ((long) Bukkit.getOnlinePlayers().size() > 0) {
-            Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.WESTONIA_PREFIX.append(MessageHelpers.getMiniMessage().deserialize("Loading all online players...")));
-            for (Player onlinePlayer : Bukkit.getOnlinePlayers()) {
-                playerHandler.addPlayer(new BasePlayer(onlinePlayer, getNetworkPlayerDao(), getRunnableManager()));
-            }
-            Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.WESTONIA_PREFIX.append(MessageHelpers.getMiniMessage().deserialize("All online players have been loaded <green>successfully</green>!")));
+        if (!Bukkit.getOnlinePlayers().isEmpty()) {
+            this.loadOnlinePlayers();
+        }
+    }
+
+    /**
+     * Creates the bus that tells the other servers of the network which players have been changed.
+     * The change log is only used with a shared (MYSQL) database, the embedded backends cannot be shared.
+     *
+     * @param databaseConfig The database configuration.
+     * @return The invalidation bus.
+     */
+    private IInvalidationBus createInvalidationBus(final MdlDatabaseConfig databaseConfig) {
+        if (databaseConfig.getInvalidationType() != InvalidationType.CHANGE_LOG || databaseConfig.getStorageType() != StorageType.MYSQL) {
+            return new LocalInvalidationBus();
         }
 
+        String serverId = databaseConfig.getServerId() != null ? databaseConfig.getServerId() : UUID.randomUUID().toString();
+        Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.INFO.append(MessageHelpers.getMiniMessage().deserialize("Using the <aqua>change log</aqua> for the cache invalidation as server \"<aqua>" + serverId + "</aqua>\"...")));
+
+        return new ChangeLogInvalidationBus(this, this.databaseFactory, serverId, databaseConfig.getChangeLogPollIntervalMillis(), databaseConfig.getChangeLogRetentionMinutes());
+    }
+
+    /**
+     * Loads all players that are already online (e.g. after a reload) with a few bulk queries instead of one query per player.
+     * Players that could not be loaded in bulk are initialized individually.
+     */
+    private void loadOnlinePlayers() {
+        Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.WESTONIA_PREFIX.append(MessageHelpers.getMiniMessage().deserialize("Loading all online players...")));
+
+        Map<UUID, String> languagesByUUID = new HashMap<>();
+        List<BasePlayer> onlinePlayers = new ArrayList<>();
+
+        for (Player onlinePlayer : Bukkit.getOnlinePlayers()) {
+            BasePlayer basePlayer = new BasePlayer(onlinePlayer, getNetworkPlayerDao(), getRunnableManager());
+            playerHandler.addPlayer(basePlayer);
+            onlinePlayers.add(basePlayer);
+            languagesByUUID.put(basePlayer.getUniqueId(), basePlayer.getCurrentLocale());
+        }
+
+        Helpers.acceptOnMainThread(this.playerDao.loadOrRegisterAllAsync(languagesByUUID), playersResult -> {
+            Map<UUID, WstPlayer> playersByUUID = playersResult.isSuccessful() && playersResult.getResult() != null ? playersResult.getResult() : Map.of();
+            int bulkLoadedPlayers = 0;
+
+            for (BasePlayer basePlayer : onlinePlayers) {
+                WstPlayer wstPlayer = playersByUUID.get(basePlayer.getUniqueId());
+
+                // The players have been registered with their client language already, so they are handed over as found
+                if (wstPlayer != null && basePlayer.init(new DbResult<>(wstPlayer, "Player loaded in bulk", ResultType.FOUND))) {
+                    bulkLoadedPlayers++;
+                } else {
+                    basePlayer.initAsync();
+                }
+            }
+
+            Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.WESTONIA_PREFIX.append(MessageHelpers.getMiniMessage().deserialize("<aqua>" + bulkLoadedPlayers + "</aqua>/<aqua>" + onlinePlayers.size() + "</aqua> online players have been loaded <green>successfully</green>!")));
+        });
+    }
+
+    /**
+     * Initializes all players that joined in the degraded mode again, once the database is reachable.
+     * Called by the {@link DatabaseRecoveryTask} after every check in which the database is available.
+     */
+    private void reloadDegradedPlayers() {
+        for (BasePlayer basePlayer : this.playerHandler.getPlayers()) {
+            if (!basePlayer.isDegraded()) {
+                continue;
+            }
+
+            Helpers.acceptOnMainThread(basePlayer.initAsync(), ignored -> {
+                if (!basePlayer.isDegraded() && basePlayer.getPlayer().isOnline()) {
+                    basePlayer.sendWestoniaMessage(Messages.PLAYER_JOIN_DATA_SYNCED);
+                }
+            });
+        }
     }
 
     @Override
     public void onDisable() {
-        // Plugin shutdown logic
+        if (this.startupPipeline != null) {
+            // A database phase that is still running has to be completed first, so the SessionFactory can be closed below
+            this.startupPipeline.shutdown();
+        }
+
+        if (this.databaseRecoveryTask != null) {
+            this.databaseRecoveryTask.shutdown();
+        }
+
+        if (this.playerArchiver != null) {
+            this.playerArchiver.shutdown();
+        }
+
+        if (this.playerWriteBehindQueue != null) {
+            Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.INFO.append(MessageHelpers.getMiniMessage().deserialize("Writing <aqua>" + this.playerWriteBehindQueue.getPendingCount() + "</aqua> pending player changes...")));
+            this.playerWriteBehindQueue.shutdown();
+        }
+
+        if (this.databaseExecutor != null) {
+            Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.INFO.append(MessageHelpers.getMiniMessage().deserialize("Waiting for running database operations...")));
+            this.databaseExecutor.shutdown();
+        }
+
+        if (this.invalidationBus != null) {
+            this.invalidationBus.shutdown();
+        }
+
+        if (this.metricsFileWriter != null) {
+            this.metricsFileWriter.shutdown();
+        }
+
+        if (this.writeJournal != null) {
+            this.writeJournal.close();
+        }
+
+        if (this.databaseFactory != null) {
+            Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.INFO.append(MessageHelpers.getMiniMessage().deserialize("Closing the <aqua>SessionFactory</aqua>...")));
+            this.databaseFactory.close();
+        }
+    }
+
+    /**
+     * Returns the pipeline that runs the startup phases, whose readiness gate holds the logins until the startup is completed.
+     */
+    public StartupPipeline getStartupPipeline() {
+        return startupPipeline;
     }
 
     /**
@@ -107,6 +371,20 @@ public class Westonia extends JavaPlugin {
         return playerHandler;
     }
 
+    /**
+     * Returns the instance of the DatabaseFactory, which holds the shared SessionFactory.
+     */
+    public DatabaseFactory<Westonia> getDatabaseFactory() {
+        return databaseFactory;
+    }
+
+    /**
+     * Returns the instance of the DatabaseExecutor, which runs all asynchronous database operations.
+     */
+    public DatabaseExecutor getDatabaseExecutor() {
+        return databaseExecutor;
+    }
+
     /**
      * Returns the instance of the PlayerDao.
      */
@@ -115,7 +393,35 @@ public class Westonia extends JavaPlugin {
     }
 
     /**
-     * Returns the instance of the MessageFactory.
+     * Returns the cache that hands the player data loaded during the pre-login over to the join.
+     */
+    public PlayerPrefetchCache getPlayerPrefetchCache() {
+        return playerPrefetchCache;
+    }
+
+    /**
+     * Returns the write-behind queue that writes changed players to the database in batches.
+     */
+    public WriteBehindQueue<WstPlayer> getPlayerWriteBehindQueue() {
+        return playerWriteBehindQueue;
+    }
+
+    /**
+     * Returns the journal in which changes are recorded while the database is not reachable.
+     */
+    public WriteJournal getWriteJournal() {
+        return writeJournal;
+    }
+
+    /**
+     * Returns the service that exports the database tables into files and imports them again.
+     */
+    public DataTransferService getDataTransferService() {
+        return dataTransferService;
+    }
+
+    /**
+     * Returns the instance of the MessageFactory, null while the messages are still being loaded.
      */
     public MessageFactory getMessageFactory() {
         return messageFactory;
@@ -0,0 +1,161 @@
+package coffee.j4n.westonia.commands;
+
+import coffee.j4n.westonia.Westonia;
+import coffee.j4n.westonia.database.results.DbResult;
+import coffee.j4n.westonia.database.transfer.DataTransferService;
+import coffee.j4n.westonia.interfaces.commands.IConsoleCommandExecutor;
+import coffee.j4n.westonia.utils.Helpers;
+import coffee.j4n.westonia.utils.messages.MessageFactory;
+import coffee.j4n.westonia.utils.messages.Messages;
+import coffee.j4n.westonia.utils.messages.management.MessageHelpers;
+import coffee.j4n.westonia.utils.statics.constants.FilePaths;
+import coffee.j4n.westonia.utils.statics.constants.Permissions;
+import coffee.j4n.westonia.utils.statics.constants.Prefixes;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * The WestoniaData command.
+ * This command exports the database tables into gzip compressed NDJSON files and imports them again, e.g. for backups
+ * or to move the players to another server. It can be run from the console. The files are stored in the exports folder
+ * of the plugin, the work is done on the database executor, so the server does not wait for it.
+ * <p>
+ * Syntax:
+ * <ul>
+ *     <li>/wstdata export - Export all tables</li>
+ *     <li>/wstdata export <table> - Export the specified table</li>
+ *     <li>/wstdata import <file> - Import the specified file of the exports folder</li>
+ * </ul>
+ * <p>
+ * Permissions:
+ * <ul>
+ *     <li>westonia.data - Allows the player to export and import the database tables</li>
+ * </ul>
+ */
+public class WestoniaData implements IConsoleCommandExecutor<Westonia> {
+
+    private static final String NAME = "wstdata";
+    private static final String EXPORT_FILE_SUFFIX = ".ndjson.gz";
+    private static final DateTimeFormatter EXPORT_TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    /**
+     * Executes the command /wstdata
+     */
+    @Override
+    public Boolean onCommand(CommandSender sender, Command command, String[] arguments, Westonia plugin) {
+        if (!sender.hasPermission(Permissions.DATA)) return false;
+
+        MessageFactory messageFactory = plugin.getMessageFactory();
+        DataTransferService dataTransferService = plugin.getDataTransferService();
+
+        if (dataTransferService == null) {
+            sender.sendMessage(Prefixes.ERROR.append(messageFactory.getMessage(Messages.COMMON_DATABASE_NOT_CONFIGURED, sender)));
+            return false;
+        }
+
+        // /wstdata export [table]
+        if (arguments.length >= 1 && arguments[0].equalsIgnoreCase("export")) {
+            List<String> tableNames = arguments.length >= 2 ? List.of(arguments[1]) : new ArrayList<>(dataTransferService.getTableNames());
+            String timestamp = LocalDateTime.now().format(EXPORT_TIMESTAMP_FORMAT);
+
+            sender.sendMessage(Prefixes.INFO.append(messageFactory.getMessage(Messages.COMMANDS_DATA_EXPORTING, sender, MessageHelpers.getMiniMessage().escapeTags(String.join(", ", tableNames)))));
+
+            for (String tableName : tableNames) {
+                Path exportFile = Path.of(FilePaths.EXPORTS_FOLDER, tableName + "-" + timestamp + EXPORT_FILE_SUFFIX);
+                this.reportResult(sender, plugin.getDatabaseExecutor().supplyAsync(() -> dataTransferService.exportTable(tableName, exportFile)), Messages.COMMANDS_DATA_EXPORTED, Messages.COMMANDS_DATA_EXPORT_FAILED);
+            }
+
+            return true;
+        }
+
+        // /wstdata import <file>
+        if (arguments.length == 2 && arguments[0].equalsIgnoreCase("import")) {
+            Path exportsFolder = Path.of(FilePaths.EXPORTS_FOLDER).toAbsolutePath().normalize();
+            Path importFile = exportsFolder.resolve(arguments[1]).normalize();
+
+            if (!importFile.startsWith(exportsFolder)) {
+                sender.sendMessage(Prefixes.ERROR.append(messageFactory.getMessage(Messages.COMMANDS_DATA_NOTIFICATIONS_FILE_OUTSIDE_EXPORTS_FOLDER, sender, FilePaths.EXPORTS_FOLDER)));
+                return false;
+            }
+
+            sender.sendMessage(Prefixes.INFO.append(messageFactory.getMessage(Messages.COMMANDS_DATA_IMPORTING, sender, MessageHelpers.getMiniMessage().escapeTags(arguments[1]))));
+            this.reportResult(sender, plugin.getDatabaseExecutor().supplyAsync(() -> dataTransferService.importFile(importFile)), Messages.COMMANDS_DATA_IMPORTED, Messages.COMMANDS_DATA_IMPORT_FAILED);
+            return true;
+        }
+
+        sender.sendMessage(Prefixes.ERROR.append(messageFactory.getMessage(Messages.COMMANDS_DATA_NOTIFICATIONS_USAGE, sender)));
+        return false;
+    }
+
+    /**
+     * Sends the result of an export or import to the sender, once it is done.
+     *
+     * @param sender       The console or the player who executed the command.
+     * @param resultFuture The future of the export or import.
+     * @param successKey   The message that is sent with the amount of rows, if the operation was successful.
+     * @param failureKey   The message that is sent with the error, if the operation failed.
+     */
+    private void reportResult(final @NotNull CommandSender sender, final @NotNull CompletableFuture<DbResult<Long>> resultFuture, final @NotNull Messages successKey, final @NotNull Messages failureKey) {
+        Helpers.acceptOnMainThread(resultFuture, result -> {
+            MessageFactory messageFactory = Westonia.getInstance().getMessageFactory();
+
+            if (result.isSuccessful()) {
+                sender.sendMessage(Prefixes.INFO.append(messageFactory.getMessage(successKey, sender, String.valueOf(result.getResult()))));
+            } else {
+                sender.sendMessage(Prefixes.ERROR.append(messageFactory.getMessage(failureKey, sender, MessageHelpers.getMiniMessage().escapeTags(String.valueOf(result.getMessage())))));
+            }
+        });
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public @Nullable List<String> onTabComplete(@NotNull CommandSender commandSender, @NotNull Command command, @NotNull String s, @NotNull String[] args) {
+        if (!commandSender.hasPermission(Permissions.DATA)) {
+            return Collections.emptyList();
+        }
+
+        if (args.length == 1) {
+            return Stream.of("export", "import")
+                    .filter(suggestion -> suggestion.startsWith(args[0].toLowerCase()))
+                    .toList();
+        }
+
+        if (args.length == 2 && args[0].equalsIgnoreCase("export")) {
+            DataTransferService dataTransferService = Westonia.getInstance().getDataTransferService();
+
+            return dataTransferService == null ? Collections.emptyList() : dataTransferService.getTableNames().stream()
+                    .filter(tableName -> tableName.startsWith(args[1].toLowerCase()))
+                    .toList();
+        }
+
+        if (args.length == 2 && args[0].equalsIgnoreCase("import")) {
+            try (Stream<Path> exportFiles = Files.list(Path.of(FilePaths.EXPORTS_FOLDER))) {
+                return exportFiles.map(file -> file.getFileName().toString())
+                        .filter(fileName -> fileName.endsWith(EXPORT_FILE_SUFFIX) && fileName.startsWith(args[1]))
+                        .sorted()
+                        .toList();
+            } catch (final IOException exception) {
+                return Collections.emptyList();
+            }
+        }
+
+        return Collections.emptyList();
+    }
+}
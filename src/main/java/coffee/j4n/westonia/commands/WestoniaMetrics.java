@@ -0,0 +1,163 @@
+package coffee.j4n.westonia.commands;
+
+import coffee.j4n.westonia.Westonia;
+import coffee.j4n.westonia.database.DatabaseFactory;
+import coffee.j4n.westonia.database.metrics.DatabaseMetrics;
+import coffee.j4n.westonia.database.metrics.LatencyHistogram;
+import coffee.j4n.westonia.database.results.DbResult;
+import coffee.j4n.westonia.database.statistics.QueryPlanCacheStatistics;
+import coffee.j4n.westonia.database.statistics.SecondLevelCacheStatistics;
+import coffee.j4n.westonia.interfaces.commands.IConsoleCommandExecutor;
+import coffee.j4n.westonia.utils.messages.MessageFactory;
+import coffee.j4n.westonia.utils.messages.Messages;
+import coffee.j4n.westonia.utils.messages.management.MessageHelpers;
+import coffee.j4n.westonia.utils.statics.constants.Permissions;
+import coffee.j4n.westonia.utils.statics.constants.Prefixes;
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.hibernate.stat.Statistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The WestoniaMetrics command.
+ * This command shows the latencies (p50, p99 and max) and the results of the DAO operations, the wait times of the
+ * connection pools and the slowest Hibernate query, e.g. to find out why joins are slow. It can be run from the console.
+ * <p>
+ * Syntax:
+ * <ul>
+ *     <li>/wstmetrics - Show the database metrics</li>
+ *     <li>/wstmetrics reset - Reset the database metrics</li>
+ * </ul>
+ * <p>
+ * Permissions:
+ * <ul>
+ *     <li>westonia.metrics - Allows the player to show and reset the database metrics</li>
+ * </ul>
+ */
+public class WestoniaMetrics implements IConsoleCommandExecutor<Westonia> {
+
+    private static final String NAME = "wstmetrics";
+
+    /**
+     * Executes the command /wstmetrics
+     */
+    @Override
+    public Boolean onCommand(CommandSender sender, Command command, String[] arguments, Westonia plugin) {
+        if (!sender.hasPermission(Permissions.METRICS)) return false;
+
+        MessageFactory messageFactory = plugin.getMessageFactory();
+        DatabaseFactory<Westonia> databaseFactory = plugin.getDatabaseFactory();
+
+        if (databaseFactory == null) {
+            sender.sendMessage(Prefixes.ERROR.append(messageFactory.getMessage(Messages.COMMON_DATABASE_NOT_CONFIGURED, sender)));
+            return false;
+        }
+
+        DatabaseMetrics metrics = databaseFactory.getMetrics();
+
+        // /wstmetrics reset
+        if (arguments.length == 1 && arguments[0].equalsIgnoreCase("reset")) {
+            metrics.reset();
+            sender.sendMessage(Prefixes.INFO.append(messageFactory.getMessage(Messages.COMMANDS_METRICS_RESET, sender)));
+            return true;
+        }
+
+        if (arguments.length != 0) {
+            sender.sendMessage(Prefixes.ERROR.append(messageFactory.getMessage(Messages.COMMANDS_METRICS_NOTIFICATIONS_USAGE, sender)));
+            return false;
+        }
+
+        sender.sendMessage(Prefixes.INFO.append(messageFactory.getMessage(Messages.COMMANDS_METRICS_OPERATIONS_HEADER, sender)));
+        if (metrics.getOperations().isEmpty()) {
+            sender.sendMessage(Prefixes.ARROWS_POINTING_RIGHT.append(messageFactory.getMessage(Messages.COMMANDS_METRICS_NO_OPERATIONS, sender)));
+        }
+
+        metrics.getOperations().forEach((operationName, operationMetrics) -> {
+            String failedResults = Stream.of(ResultType.ERROR, ResultType.EXCEPTION, ResultType.CONFIGURATION_ERROR, ResultType.ALREADY_EXISTS, ResultType.CONFLICT)
+                    .filter(resultType -> operationMetrics.getResultCount(resultType) > 0)
+                    .map(resultType -> resultType.name() + "=" + operationMetrics.getResultCount(resultType))
+                    .collect(Collectors.joining(", "));
+
+            sender.sendMessage(Prefixes.ARROWS_POINTING_RIGHT.append(failedResults.isEmpty()
+                    ? messageFactory.getMessage(Messages.COMMANDS_METRICS_OPERATION, sender, operationName, formatHistogram(operationMetrics.getLatency()))
+                    : messageFactory.getMessage(Messages.COMMANDS_METRICS_OPERATION_WITH_FAILURES, sender, operationName, formatHistogram(operationMetrics.getLatency()), failedResults)));
+        });
+
+        sender.sendMessage(Prefixes.INFO.append(messageFactory.getMessage(Messages.COMMANDS_METRICS_POOLS_HEADER, sender)));
+        metrics.getPools().forEach((poolName, poolMetrics) -> sender.sendMessage(Prefixes.ARROWS_POINTING_RIGHT.append(poolMetrics.getTimeouts() > 0
+                ? messageFactory.getMessage(Messages.COMMANDS_METRICS_POOL_WITH_TIMEOUTS, sender, poolName, formatHistogram(poolMetrics.getAcquireLatency()), String.valueOf(poolMetrics.getTimeouts()))
+                : messageFactory.getMessage(Messages.COMMANDS_METRICS_POOL, sender, poolName, formatHistogram(poolMetrics.getAcquireLatency())))));
+        metrics.getPoolStats().forEach((poolName, poolStats) -> sender.sendMessage(Prefixes.ARROWS_POINTING_RIGHT.append(messageFactory.getMessage(Messages.COMMANDS_METRICS_POOL_CONNECTIONS, sender, poolName,
+                String.valueOf(poolStats.getActiveConnections()), String.valueOf(poolStats.getIdleConnections()), String.valueOf(poolStats.getPendingThreads()), String.valueOf(poolStats.getMaxConnections())))));
+
+        DbResult<Statistics> statisticsResult = databaseFactory.getStatistics();
+        Statistics statistics = statisticsResult.getResult();
+
+        if (statisticsResult.isSuccessful() && statistics != null) {
+            sender.sendMessage(Prefixes.INFO.append(messageFactory.getMessage(Messages.COMMANDS_METRICS_HIBERNATE_HEADER, sender)));
+            sender.sendMessage(Prefixes.ARROWS_POINTING_RIGHT.append(messageFactory.getMessage(Messages.COMMANDS_METRICS_HIBERNATE_STATEMENTS, sender,
+                    String.valueOf(statistics.getPrepareStatementCount()), String.valueOf(statistics.getQueryExecutionCount()), String.valueOf(statistics.getEntityLoadCount()))));
+
+            SecondLevelCacheStatistics cacheStatistics = databaseFactory.getSecondLevelCacheStatistics().getResult();
+            if (cacheStatistics != null) {
+                sender.sendMessage(Prefixes.ARROWS_POINTING_RIGHT.append(messageFactory.getMessage(Messages.COMMANDS_METRICS_SECOND_LEVEL_CACHE, sender, String.valueOf(cacheStatistics.getHitCount()), String.valueOf(cacheStatistics.getMissCount()),
+                        String.valueOf(cacheStatistics.getPutCount()), String.valueOf(cacheStatistics.getNaturalIdHitCount()), String.valueOf(cacheStatistics.getNaturalIdMissCount()))));
+            }
+
+            QueryPlanCacheStatistics queryPlanCacheStatistics = databaseFactory.getQueryPlanCacheStatistics().getResult();
+            if (queryPlanCacheStatistics != null) {
+                sender.sendMessage(Prefixes.ARROWS_POINTING_RIGHT.append(messageFactory.getMessage(Messages.COMMANDS_METRICS_QUERY_PLAN_CACHE, sender, String.valueOf(queryPlanCacheStatistics.getHitCount()),
+                        String.valueOf(queryPlanCacheStatistics.getMissCount()), String.valueOf(queryPlanCacheStatistics.getMaximumSize()))));
+            }
+
+            if (statistics.getQueryExecutionMaxTimeQueryString() != null) {
+                sender.sendMessage(Prefixes.ARROWS_POINTING_RIGHT.append(messageFactory.getMessage(Messages.COMMANDS_METRICS_SLOWEST_QUERY, sender, String.valueOf(statistics.getQueryExecutionMaxTime()),
+                        MessageHelpers.getMiniMessage().escapeTags(statistics.getQueryExecutionMaxTimeQueryString()))));
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Formats the count and the latencies of the given histogram.
+     *
+     * @param histogram The histogram.
+     * @return The formatted histogram.
+     */
+    private static String formatHistogram(final @NotNull LatencyHistogram histogram) {
+        return "n=" + histogram.getCount() + ", p50=" + formatMillis(histogram.getPercentileMillis(0.5D)) + ", p99=" + formatMillis(histogram.getPercentileMillis(0.99D)) + ", max=" + formatMillis(histogram.getMaxMillis());
+    }
+
+    /**
+     * Formats the given latency with two decimals.
+     *
+     * @param millis The latency in milliseconds.
+     * @return The formatted latency.
+     */
+    private static String formatMillis(final double millis) {
+        return String.format(Locale.ROOT, "%.2f ms", millis);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public @Nullable List<String> onTabComplete(@NotNull CommandSender commandSender, @NotNull Command command, @NotNull String s, @NotNull String[] args) {
+        if (!commandSender.hasPermission(Permissions.METRICS) || args.length != 1) {
+            return Collections.emptyList();
+        }
+
+        return "reset".startsWith(args[0].toLowerCase()) ? List.of("reset") : Collections.emptyList();
+    }
+}
@@ -0,0 +1,104 @@
+package coffee.j4n.westonia.database;
+
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Executes database operations asynchronously, so that database I/O never blocks the main thread.
+ * <br/><br/>
+ * Every operation runs on its own virtual thread, but only a limited amount of operations may access the database at the same time.
+ * The executor is owned by the plugin and has to be shut down using {@link #shutdown()} when the plugin is disabled.
+ */
+public class DatabaseExecutor {
+
+    /**
+     * The time in seconds the executor waits for running operations while shutting down.
+     */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+    private final Logger logger;
+    private final ExecutorService executorService;
+    private final Semaphore permits;
+
+    /**
+     * Creates a new database executor.
+     *
+     * @param pluginInstance          The plugin that owns the executor.
+     * @param maxConcurrentOperations The maximum amount of operations that may access the database at the same time.
+     */
+    public DatabaseExecutor(final @NotNull JavaPlugin pluginInstance, final int maxConcurrentOperations) {
+        this.logger = pluginInstance.getLogger();
+        this.executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Westonia-DB-", 0).factory());
+        this.permits = new Semaphore(Math.max(1, maxConcurrentOperations), true);
+    }
+
+    /**
+     * Runs the given operation asynchronously.
+     *
+     * @param operation The operation to run.
+     * @param <T>       The type of the result of the operation.
+     * @return A CompletableFuture that completes with the result of the operation.
+     */
+    public <T> CompletableFuture<T> supplyAsync(final @NotNull Supplier<T> operation) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    this.permits.acquire();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    throw new CompletionException(exception);
+                }
+
+                try {
+                    return operation.get();
+                } finally {
+                    this.permits.release();
+                }
+            }, this.executorService);
+        } catch (RejectedExecutionException exception) {
+            this.logger.log(Level.WARNING, "A database operation was rejected, because the executor is shut down");
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
+
+    /**
+     * Runs the given operation asynchronously.
+     *
+     * @param operation The operation to run.
+     * @return A CompletableFuture that completes when the operation has finished.
+     */
+    public CompletableFuture<Void> runAsync(final @NotNull Runnable operation) {
+        return this.supplyAsync(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Shuts the executor down and waits for running operations to finish.
+     */
+    public void shutdown() {
+        this.executorService.shutdown();
+
+        try {
+            if (!this.executorService.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                this.logger.log(Level.WARNING, "Not all database operations finished within " + SHUTDOWN_TIMEOUT_SECONDS + " seconds, they will be interrupted");
+                this.executorService.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            this.executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
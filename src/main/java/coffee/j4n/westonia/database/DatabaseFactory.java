@@ -1,66 +1,335 @@
 package coffee.j4n.westonia.database;
 
 import com.google.common.reflect.ClassPath;
+import coffee.j4n.westonia.database.backends.H2StorageBackend;
+import coffee.j4n.westonia.database.backends.MySqlStorageBackend;
+import coffee.j4n.westonia.database.backends.SqliteStorageBackend;
+import coffee.j4n.westonia.database.cache.CacheRegions;
+import coffee.j4n.westonia.database.metrics.DatabaseMetrics;
+import coffee.j4n.westonia.database.migrations.PlayerLastSeenMigration;
+import coffee.j4n.westonia.database.migrations.PlayerVersionMigration;
+import coffee.j4n.westonia.database.migrations.SchemaMigrator;
+import coffee.j4n.westonia.database.migrations.SqlResourceMigration;
+import coffee.j4n.westonia.database.migrations.UuidBinaryMigration;
+import coffee.j4n.westonia.database.resilience.CircuitBreaker;
+import coffee.j4n.westonia.database.routing.RoutingDataSource;
+import coffee.j4n.westonia.interfaces.ISchemaMigration;
+import coffee.j4n.westonia.interfaces.IStorageBackend;
 import coffee.j4n.westonia.database.results.DbResult;
+import coffee.j4n.westonia.database.results.DbReturn;
+import coffee.j4n.westonia.database.statistics.QueryPlanCacheStatistics;
+import coffee.j4n.westonia.database.statistics.SecondLevelCacheStatistics;
 import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import coffee.j4n.westonia.utils.statics.enums.StorageType;
 import coffee.j4n.westonia.interfaces.IDatabaseFactory;
 import coffee.j4n.westonia.utils.config.MdlDatabaseConfig;
+import coffee.j4n.westonia.utils.statics.constants.DatabaseDefaults;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.hibernate.HibernateException;
+import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
 import org.hibernate.cfg.Configuration;
 import org.hibernate.cfg.Environment;
+import org.hibernate.stat.Statistics;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import javax.cache.CacheManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Connects to the database and provides a SessionFactory synchronously.
+ * All connections are taken from a HikariCP connection pool, which is configured through the {@link MdlDatabaseConfig}.
+ * Everything that differs between the databases (MySQL, embedded H2 or SQLite) is provided by the configured {@link IStorageBackend}.
+ * <br/><br/>
+ * The SessionFactory is expensive to build (classpath scan, metadata and JDBC setup), so it is built only once
+ * and shared by all DAOs for the whole lifetime of the plugin. It has to be closed using {@link #close()} when the plugin is disabled.
  */
 public class DatabaseFactory<T extends JavaPlugin> implements IDatabaseFactory {
 
+    /**
+     * The time in seconds the health check waits for the database to answer.
+     */
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+
+    /**
+     * The classpath resource that lists all entity classes, one fully qualified class name per line.
+     */
+    private static final String ENTITY_INDEX_RESOURCE = "META-INF/westonia/entities.idx";
 
     private final Logger logger;
     private final MdlDatabaseConfig databaseConfiguration;
+    private final CircuitBreaker circuitBreaker;
+    private final IStorageBackend storageBackend;
+    private final DatabaseMetrics metrics;
     private Configuration configuration;
+    private volatile HikariDataSource dataSource;
+    private HikariDataSource replicaDataSource;
+    private volatile RoutingDataSource routingDataSource;
+    private CacheManager cacheManager;
+    // Only the SessionFactory is rebuilt (by the recovery task), always while holding the lock, but it is read without it by the DAO and background threads
+    private volatile SessionFactory sessionFactory;
 
 
     public DatabaseFactory(final @NotNull T pluginInstance, final @NotNull MdlDatabaseConfig databaseConfiguration) {
         this.databaseConfiguration = databaseConfiguration;
         this.logger = pluginInstance.getLogger();
+        this.storageBackend = createStorageBackend(databaseConfiguration.getStorageType());
+        this.metrics = new DatabaseMetrics(this.logger, databaseConfiguration.getSlowQueryThresholdMillis());
+        this.circuitBreaker = new CircuitBreaker(this.logger, "database", databaseConfiguration.getCircuitBreakerFailureThreshold(), TimeUnit.SECONDS.toMillis(databaseConfiguration.getCircuitBreakerOpenSeconds()));
         this.connect();
     }
 
 
     /**
      * Synchronously connects to the database.
+     * The connection pool is created here, Hibernate takes its connections from it.
      */
     @Override
     public void connect() {
         Properties properties = new Properties();
 
-        properties.setProperty(Environment.JAKARTA_JDBC_DRIVER, "com.mysql.cj.jdbc.Driver");
+        this.dataSource = this.createDataSource(false);
+
+        if (this.databaseConfiguration.getReplicaHost() != null && this.storageBackend.supportsReplicas()) {
+            this.replicaDataSource = this.createDataSource(true);
+            this.logger.log(Level.INFO, "Read-only lookups are routed to the read replica " + this.databaseConfiguration.getReplicaHost() + ":" + this.databaseConfiguration.getReplicaPort());
+        }
+
+        this.routingDataSource = new RoutingDataSource(this.logger, this.dataSource, this.replicaDataSource, TimeUnit.SECONDS.toMillis(this.databaseConfiguration.getCircuitBreakerOpenSeconds()));
+
+        properties.put(Environment.DATASOURCE, this.routingDataSource);
         properties.setProperty(Environment.AUTOCOMMIT, "true");
-        properties.setProperty(Environment.AUTO_CLOSE_SESSION, "true");
-        properties.setProperty(Environment.HBM2DDL_AUTO, "update");
-        properties.setProperty(Environment.JAKARTA_JDBC_USER, this.databaseConfiguration.getUsername());
-        properties.setProperty(Environment.JAKARTA_JDBC_PASSWORD, this.databaseConfiguration.getPassword());
 
-        properties.setProperty(Environment.JAKARTA_JDBC_URL, this.databaseConfiguration.getConnectionURL());
+        if (this.storageBackend.getDialect() != null) {
+            properties.setProperty(Environment.DIALECT, this.storageBackend.getDialect());
+        }
+
+        properties.setProperty(Environment.AUTO_CLOSE_SESSION, "true");
+        // The schema is changed by the migrations only, Hibernate just checks it (or not at all)
+        properties.setProperty(Environment.HBM2DDL_AUTO, this.databaseConfiguration.getValidateSchema() && this.storageBackend.supportsSchemaValidation() ? "validate" : "none");
+        properties.setProperty(Environment.STATEMENT_BATCH_SIZE, String.valueOf(this.getJdbcBatchSize()));
+        properties.setProperty(Environment.ORDER_INSERTS, "true");
+        properties.setProperty(Environment.ORDER_UPDATES, "true");
+        properties.setProperty(Environment.BATCH_VERSIONED_DATA, "true");
         properties.setProperty(Environment.SHOW_SQL, String.valueOf(this.databaseConfiguration.getShowSqlInConsole()));
+        properties.setProperty(Environment.QUERY_PLAN_CACHE_MAX_SIZE, String.valueOf(this.databaseConfiguration.getQueryPlanCacheMaximumSize()));
+        // Pads IN lists to the next power of two, so that lists of different length share a few compiled plans
+        properties.setProperty(Environment.IN_CLAUSE_PARAMETER_PADDING, "true");
+        properties.setProperty(Environment.GENERATE_STATISTICS, String.valueOf(this.databaseConfiguration.getStatisticsEnabled()));
+        // Hibernate logs every single statement above the threshold with its SQL, the DAOs log their whole operations
+        properties.setProperty(Environment.LOG_SLOW_QUERY, String.valueOf(this.databaseConfiguration.getSlowQueryThresholdMillis()));
+
+        if (this.databaseConfiguration.getSecondLevelCacheEnabled()) {
+            this.cacheManager = this.createCacheManager();
+
+            properties.setProperty(Environment.USE_SECOND_LEVEL_CACHE, "true");
+            properties.setProperty(Environment.USE_QUERY_CACHE, "false");
+            properties.setProperty(Environment.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, this.cacheManager);
+            properties.setProperty(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+        } else {
+            properties.setProperty(Environment.USE_SECOND_LEVEL_CACHE, "false");
+        }
 
         this.configuration = new Configuration().addProperties(properties);
         this.includeAnnotatedClasses();
     }
 
+    /**
+     * Creates the storage backend for the given storage type.
+     *
+     * @param storageType The configured storage type.
+     * @return The storage backend.
+     */
+    private static IStorageBackend createStorageBackend(final @NotNull StorageType storageType) {
+        return switch (storageType) {
+            case MYSQL -> new MySqlStorageBackend();
+            case H2 -> new H2StorageBackend();
+            case SQLITE -> new SqliteStorageBackend();
+        };
+    }
+
+    /**
+     * Returns the storage backend the plugin stores its data in.
+     *
+     * @return The storage backend.
+     */
+    public IStorageBackend getStorageBackend() {
+        return this.storageBackend;
+    }
+
+    /**
+     * Returns the registry of the database metrics (operation latencies, results and connection pool wait times).
+     *
+     * @return The database metrics.
+     */
+    public DatabaseMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Returns whether read-only lookups can be routed to a read replica.
+     *
+     * @return Whether a read replica is configured.
+     */
+    public boolean hasReplica() {
+        return this.routingDataSource != null && this.routingDataSource.hasReplica();
+    }
+
+    /**
+     * Runs the given read-only operation with the connections taken from the read replica, if one is configured.
+     *
+     * @param operation The read-only operation.
+     * @param <R>       The type of the result of the operation.
+     * @return The result of the operation.
+     */
+    public <R> R readFromReplica(final @NotNull Supplier<R> operation) {
+        return this.routingDataSource != null ? this.routingDataSource.readFromReplica(operation) : operation.get();
+    }
+
+    /**
+     * Returns the time in minutes a natural id keeps reading from the primary database after a write.
+     *
+     * @return The pin duration in minutes.
+     */
+    public long getReplicaPinMinutes() {
+        return this.databaseConfiguration.getReplicaPinMinutes();
+    }
+
+    /**
+     * Returns the amount of statements that are sent to the database in one JDBC batch.
+     *
+     * @return The JDBC batch size.
+     */
+    public int getJdbcBatchSize() {
+        return this.databaseConfiguration.getJdbcBatchSize();
+    }
+
+    /**
+     * Creates the in-process (Caffeine) JCache cache manager for the Hibernate second-level cache.
+     * All regions listed in {@link CacheRegions} are created up front with the configured size and expiry.
+     * The provider is created directly with the plugin class loader, as the JCache service lookup does not see the plugin classes.
+     *
+     * @return The cache manager.
+     */
+    private CacheManager createCacheManager() {
+        CaffeineCachingProvider cachingProvider = new CaffeineCachingProvider();
+        CacheManager manager = cachingProvider.getCacheManager(cachingProvider.getDefaultURI(), this.getClass().getClassLoader());
+
+        CaffeineConfiguration<Object, Object> regionConfiguration = new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(this.databaseConfiguration.getSecondLevelCacheMaximumSize()))
+                .setExpireAfterAccess(OptionalLong.of(TimeUnit.MINUTES.toNanos(this.databaseConfiguration.getSecondLevelCacheExpireAfterAccessMinutes())))
+                .setStatisticsEnabled(this.databaseConfiguration.getStatisticsEnabled());
+
+        for (String region : CacheRegions.ALL) {
+            if (manager.getCache(region) == null) {
+                manager.createCache(region, regionConfiguration);
+            }
+        }
+
+        return manager;
+    }
+
+    /**
+     * Creates a HikariCP connection pool based on the database configuration.
+     * The pool does not fail if the database is unreachable while it is created, the SessionFactory build reports that instead.
+     * The driver, the JDBC URL and the backend specific settings are applied by the storage backend afterwards.
+     *
+     * @param replica Whether the pool connects to the read replica, whose connections are read-only.
+     * @return The connection pool.
+     */
+    private HikariDataSource createDataSource(final boolean replica) {
+        HikariConfig hikariConfig = new HikariConfig();
+
+        hikariConfig.setPoolName(replica ? "Westonia-Replica-Pool" : "Westonia-Pool");
+        hikariConfig.setReadOnly(replica);
+        hikariConfig.setMaximumPoolSize(this.databaseConfiguration.getMaximumPoolSize());
+        hikariConfig.setMinimumIdle(Math.min(this.databaseConfiguration.getMinimumIdle(), this.databaseConfiguration.getMaximumPoolSize()));
+        hikariConfig.setConnectionTimeout(this.databaseConfiguration.getConnectionTimeoutMillis());
+        hikariConfig.setMaxLifetime(this.databaseConfiguration.getMaxLifetimeMillis());
+        hikariConfig.setLeakDetectionThreshold(this.databaseConfiguration.getLeakDetectionThresholdMillis());
+        hikariConfig.setInitializationFailTimeout(-1);
+        hikariConfig.setRegisterMbeans(false);
+        hikariConfig.setMetricsTrackerFactory(this.metrics.getPoolMetricsTrackerFactory());
+
+        this.storageBackend.configureDataSource(hikariConfig, this.databaseConfiguration, replica);
+
+        return new HikariDataSource(hikariConfig);
+    }
+
 
     /**
      * Synchronously includes all annotated classes in the configuration.
+     * The entity classes are read from the entity index that is generated at build time ("generateEntityIndex" Gradle task).
+     * Only if the index is missing (e.g. when running from an IDE without Gradle), the classpath is scanned instead.
      */
     @Override
     public void includeAnnotatedClasses() {
+        final String entitiesPackage = this.databaseConfiguration.getDatabaseEntitiesPackage();
+        final List<String> entityClassNames = this.readEntityIndex();
+
+        if (entityClassNames == null) {
+            this.logger.log(Level.WARNING, "The entity index \"" + ENTITY_INDEX_RESOURCE + "\" is missing, scanning the classpath instead");
+            this.includeAnnotatedClassesFromClassPath();
+            return;
+        }
+
+        for (String className : entityClassNames) {
+            if (!className.startsWith(entitiesPackage)) {
+                continue;
+            }
+
+            try {
+                this.configuration.addAnnotatedClass(Class.forName(className, true, this.getClass().getClassLoader()));
+            } catch (final Exception exception) {
+                this.logger.log(Level.SEVERE, "An exception occurred while loading the class: " + className, exception);
+            }
+        }
+    }
+
+    /**
+     * Reads the class names from the entity index.
+     *
+     * @return The fully qualified names of all entity classes or null if the index does not exist.
+     */
+    private @Nullable List<String> readEntityIndex() {
+        try (InputStream inputStream = this.getClass().getClassLoader().getResourceAsStream(ENTITY_INDEX_RESOURCE)) {
+            if (inputStream == null) {
+                return null;
+            }
+
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+                return reader.lines().map(String::trim).filter(line -> !line.isEmpty()).toList();
+            }
+        } catch (final IOException exception) {
+            this.logger.log(Level.SEVERE, "An exception occurred while reading the entity index", exception);
+            return null;
+        }
+    }
+
+    /**
+     * Includes all classes of the entities package by scanning the whole classpath.
+     * This is slow, as every class of the shaded jar is visited, and is only used if the entity index is missing.
+     */
+    private void includeAnnotatedClassesFromClassPath() {
         try {
             ClassPath.from(this.getClass().getClassLoader()).getAllClasses().stream().filter(classInfo -> {
                 return classInfo.getPackageName().contains(this.databaseConfiguration.getDatabaseEntitiesPackage());
@@ -78,12 +347,17 @@ public class DatabaseFactory<T extends JavaPlugin> implements IDatabaseFactory {
     }
 
     /**
-     * Creates a SessionFactory synchronously.
+     * Creates the SessionFactory synchronously.
+     * If the SessionFactory has already been built and is still open, the existing one is returned.
      *
      * @return A DbResult containing the SessionFactory or an error message.
      */
     @Override
-    public DbResult<SessionFactory> buildSessionFactory() {
+    public synchronized DbResult<SessionFactory> buildSessionFactory() {
+        if (this.sessionFactory != null && this.sessionFactory.isOpen()) {
+            return new DbResult<>(this.sessionFactory, "The session factory has already been built", ResultType.SUCCESS);
+        }
+
         try {
             if (this.configuration == null) {
                 String msg = "The configuration is null";
@@ -91,7 +365,21 @@ public class DatabaseFactory<T extends JavaPlugin> implements IDatabaseFactory {
                 return new DbResult<>(null, msg, ResultType.CONFIGURATION_ERROR);
             }
 
-            return new DbResult<>(this.configuration.buildSessionFactory(),"The session factory was successfully built", ResultType.SUCCESS);
+            // Has to run before Hibernate validates the schema against the entities
+            DbReturn migrationResult = new SchemaMigrator(this.logger, this.createMigrations(), this.storageBackend.supportsNamedLocks()).migrate(this.dataSource);
+            if (!migrationResult.isSuccessful()) {
+                return new DbResult<>(null, migrationResult.getMessage(), migrationResult.getResultType());
+            }
+
+            this.logger.log(Level.INFO, migrationResult.getMessage());
+
+            this.sessionFactory = this.configuration.buildSessionFactory();
+            return new DbResult<>(this.sessionFactory, "The session factory was successfully built", ResultType.SUCCESS);
+        } catch (IllegalStateException exception) {
+            String msg = "A schema migration could not be loaded";
+
+            this.logger.log(Level.SEVERE, msg, exception);
+            return new DbResult<>(null, msg, ResultType.CONFIGURATION_ERROR);
         } catch (HibernateException exception) {
             String msg = "An exception occurred while building the session factory";
 
@@ -99,4 +387,159 @@ public class DatabaseFactory<T extends JavaPlugin> implements IDatabaseFactory {
             return new DbResult<>(null, msg, ResultType.EXCEPTION);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns all schema migrations of the plugin.
+     * New migrations are added at the end with the next free version, applied migrations must never be changed.
+     * The SQL files are taken from the migration folder of the storage backend.
+     *
+     * @return The schema migrations.
+     * @throws IllegalStateException If the SQL file of a migration is missing in the plugin jar.
+     */
+    private List<ISchemaMigration> createMigrations() {
+        final String migrationFolder = this.storageBackend.getMigrationFolder();
+        List<ISchemaMigration> migrations = new ArrayList<>();
+
+        migrations.add(new SqlResourceMigration(1, "Create the player table", migrationFolder + "/V1__create_player_table.sql"));
+
+        // Only MySQL databases can have been created by Hibernate with the UUIDs stored as strings
+        if (this.storageBackend.getStorageType() == StorageType.MYSQL) {
+            migrations.add(new UuidBinaryMigration(this.logger, DatabaseDefaults.UUID_MIGRATION_BATCH_SIZE));
+        }
+
+        migrations.add(new SqlResourceMigration(3, "Create the change log table", migrationFolder + "/V3__create_change_log_table.sql"));
+        migrations.add(new PlayerLastSeenMigration(this.logger, migrationFolder));
+        migrations.add(new PlayerVersionMigration(this.logger, migrationFolder));
+
+        return migrations;
+    }
+
+    /**
+     * Returns the shared SessionFactory without building it.
+     *
+     * @return A DbResult containing the SessionFactory or an error message if it has not been built or is already closed.
+     */
+    @Override
+    public DbResult<SessionFactory> getSessionFactory() {
+        final SessionFactory currentSessionFactory = this.sessionFactory;
+
+        if (currentSessionFactory == null || !currentSessionFactory.isOpen()) {
+            return new DbResult<>(null, "The session factory has not been built or is already closed", ResultType.ERROR);
+        }
+
+        return new DbResult<>(currentSessionFactory, "The session factory is available", ResultType.SUCCESS);
+    }
+
+    /**
+     * Returns the circuit breaker that guards all database operations of the DAOs.
+     *
+     * @return The circuit breaker.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return this.circuitBreaker;
+    }
+
+    /**
+     * Checks whether the SessionFactory is open and the database can be reached.
+     *
+     * @return Whether the database is healthy.
+     */
+    @Override
+    public boolean isHealthy() {
+        final SessionFactory currentSessionFactory = this.sessionFactory;
+
+        if (currentSessionFactory == null || !currentSessionFactory.isOpen()) {
+            return false;
+        }
+
+        try (Session session = currentSessionFactory.openSession()) {
+            return session.doReturningWork(connection -> connection.isValid(HEALTH_CHECK_TIMEOUT_SECONDS));
+        } catch (final Exception exception) {
+            this.logger.log(Level.WARNING, "The database health check failed", exception);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the live statistics Hibernate collects (statements, entity loads, cache hits, ...).
+     *
+     * @return A DbResult containing the statistics or an error message if the statistics are not available.
+     */
+    public DbResult<Statistics> getStatistics() {
+        final SessionFactory currentSessionFactory = this.sessionFactory;
+
+        if (currentSessionFactory == null || !currentSessionFactory.isOpen()) {
+            return new DbResult<>(null, "The session factory has not been built or is already closed", ResultType.ERROR);
+        }
+
+        final Statistics statistics = currentSessionFactory.getStatistics();
+
+        if (!statistics.isStatisticsEnabled()) {
+            return new DbResult<>(null, "The statistics are disabled in the database configuration", ResultType.CONFIGURATION_ERROR);
+        }
+
+        return new DbResult<>(statistics, "Statistics collected", ResultType.SUCCESS);
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the second-level cache and natural-id cache.
+     *
+     * @return A DbResult containing the cache statistics or an error message if the statistics are not available.
+     */
+    public DbResult<SecondLevelCacheStatistics> getSecondLevelCacheStatistics() {
+        final DbResult<Statistics> statisticsResult = this.getStatistics();
+        final Statistics statistics = statisticsResult.getResult();
+
+        if (!statisticsResult.isSuccessful() || statistics == null) {
+            return new DbResult<>(null, statisticsResult.getMessage(), statisticsResult.getResultType());
+        }
+
+        SecondLevelCacheStatistics cacheStatistics = new SecondLevelCacheStatistics(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount(), statistics.getNaturalIdCacheHitCount(), statistics.getNaturalIdCacheMissCount(), statistics.getPrepareStatementCount());
+        return new DbResult<>(cacheStatistics, "Cache statistics collected", ResultType.SUCCESS);
+    }
+
+    /**
+     * Returns a snapshot of the statistics of the query plan cache.
+     *
+     * @return A DbResult containing the query plan cache statistics or an error message if the statistics are not available.
+     */
+    public DbResult<QueryPlanCacheStatistics> getQueryPlanCacheStatistics() {
+        final DbResult<Statistics> statisticsResult = this.getStatistics();
+        final Statistics statistics = statisticsResult.getResult();
+
+        if (!statisticsResult.isSuccessful() || statistics == null) {
+            return new DbResult<>(null, statisticsResult.getMessage(), statisticsResult.getResultType());
+        }
+
+        QueryPlanCacheStatistics queryPlanCacheStatistics = new QueryPlanCacheStatistics(statistics.getQueryPlanCacheHitCount(), statistics.getQueryPlanCacheMissCount(), statistics.getQueryExecutionCount(), this.databaseConfiguration.getQueryPlanCacheMaximumSize());
+        return new DbResult<>(queryPlanCacheStatistics, "Query plan cache statistics collected", ResultType.SUCCESS);
+    }
+
+    /**
+     * Closes the SessionFactory, the second-level cache and the connection pools.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            if (this.sessionFactory != null && this.sessionFactory.isOpen()) {
+                this.sessionFactory.close();
+            }
+        } catch (final HibernateException exception) {
+            this.logger.log(Level.SEVERE, "An exception occurred while closing the session factory", exception);
+        } finally {
+            this.sessionFactory = null;
+        }
+
+        if (this.cacheManager != null && !this.cacheManager.isClosed()) {
+            this.cacheManager.close();
+        }
+
+        if (this.replicaDataSource != null && !this.replicaDataSource.isClosed()) {
+            this.replicaDataSource.close();
+        }
+
+        if (this.dataSource != null && !this.dataSource.isClosed()) {
+            this.dataSource.close();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package coffee.j4n.westonia.database.archive;
+
+import coffee.j4n.westonia.database.DatabaseFactory;
+import coffee.j4n.westonia.database.converter.UUIDBinaryConverter;
+import coffee.j4n.westonia.database.entities.WstPlayer;
+import coffee.j4n.westonia.database.results.DbResult;
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background job that moves players who have not been seen for a while from the player table into the archive table,
+ * so that the player table and its indexes stay small enough to be kept in memory.
+ * <br/><br/>
+ * The inactive players are walked in the order of the index on "last_seen_date", using the last seen date and the ID of
+ * the last player of a batch as cursor (keyset pagination), so no batch scans the rows of the previous batches.
+ * Every batch is copied and deleted within its own short transaction. The size of the batches adapts to the time budget:
+ * a batch that takes longer than the budget halves the size of the next one, a fast batch lets it grow again,
+ * and the job pauses between the batches, so the row locks are never held for long.
+ * <br/><br/>
+ * Archived players are moved back by the PlayerDao when they join again. A player who is already in the archive (e.g. archived by
+ * another server of the network at the same time) is overwritten with the copied row, so the archive always holds the state that is deleted.
+ */
+public class PlayerArchiver {
+
+    /**
+     * The size of the first batch of a run.
+     */
+    private static final int INITIAL_BATCH_SIZE = 50;
+
+    /**
+     * The smallest batch size the time budget can shrink the batches to.
+     */
+    private static final int MINIMUM_BATCH_SIZE = 10;
+
+    private static final String SELECT_INACTIVE_SQL = "SELECT id, minecraft_uuid, last_seen_date FROM " + WstPlayer.TABLE_NAME
+            + " WHERE last_seen_date < ? AND (last_seen_date > ? OR (last_seen_date = ? AND id > ?))"
+            + " ORDER BY last_seen_date, id LIMIT ?";
+    private static final String ARCHIVE_SQL = "INSERT INTO " + WstPlayer.ARCHIVE_TABLE_NAME + " (minecraft_uuid, first_join_date, last_seen_date, global_language, archived_at)"
+            + " SELECT minecraft_uuid, first_join_date, last_seen_date, global_language, ? FROM " + WstPlayer.TABLE_NAME + " WHERE last_seen_date < ? AND id IN ";
+    private static final List<String> ARCHIVE_UPDATE_COLUMNS = List.of("first_join_date", "last_seen_date", "global_language", "archived_at");
+    private static final String DELETE_SQL = "DELETE FROM " + WstPlayer.TABLE_NAME + " WHERE last_seen_date < ? AND id IN ";
+
+    private static final UUIDBinaryConverter UUID_CONVERTER = new UUIDBinaryConverter();
+
+    private final Logger logger;
+    private final DatabaseFactory<?> databaseFactory;
+    private final String upsertClause;
+    private final Predicate<UUID> isOnline;
+    private final Consumer<Collection<UUID>> onArchived;
+    private final long archiveAfterMillis;
+    private final int maximumBatchSize;
+    private final long batchTimeBudgetMillis;
+    private final long intervalMinutes;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean stopped = false;
+
+    /**
+     * Creates a new archiver.
+     *
+     * @param pluginInstance        The plugin that owns the archiver.
+     * @param databaseFactory       The database factory whose SessionFactory is used.
+     * @param isOnline              Checks whether the player with the given UUID is online, online players are never archived.
+     * @param onArchived            The callback that receives the UUIDs of every archived batch (e.g. to evict them from the caches).
+     * @param archiveAfterDays      The amount of days after which a player who has not been seen is archived.
+     * @param maximumBatchSize      The maximum amount of players that are archived within one transaction.
+     * @param batchTimeBudgetMillis The time in milliseconds a single batch should take at most.
+     * @param intervalMinutes       The interval in minutes in which the inactive players are archived.
+     */
+    public PlayerArchiver(final @NotNull JavaPlugin pluginInstance, final @NotNull DatabaseFactory<?> databaseFactory, final @NotNull Predicate<UUID> isOnline, final @NotNull Consumer<Collection<UUID>> onArchived,
+                          final long archiveAfterDays, final int maximumBatchSize, final long batchTimeBudgetMillis, final long intervalMinutes) {
+        this.logger = pluginInstance.getLogger();
+        this.databaseFactory = databaseFactory;
+        this.upsertClause = databaseFactory.getStorageBackend().getUpsertClause("minecraft_uuid", ARCHIVE_UPDATE_COLUMNS);
+        this.isOnline = isOnline;
+        this.onArchived = onArchived;
+        this.archiveAfterMillis = TimeUnit.DAYS.toMillis(archiveAfterDays);
+        this.maximumBatchSize = Math.max(MINIMUM_BATCH_SIZE, maximumBatchSize);
+        this.batchTimeBudgetMillis = Math.max(1L, batchTimeBudgetMillis);
+        this.intervalMinutes = Math.max(1L, intervalMinutes);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Westonia-Archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts archiving the inactive players periodically.
+     */
+    public void start() {
+        this.scheduler.scheduleWithFixedDelay(this::run, this.intervalMinutes, this.intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops the archiver. A running batch is finished, no further batch is started.
+     */
+    public void shutdown() {
+        this.stopped = true;
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * Archives all players who have not been seen since the configured amount of days, batch by batch.
+     * The run stops once all inactive players have been walked, the database is not reachable or the archiver is stopped.
+     * Package-private, so that the tests can run the archiver without waiting for the schedule.
+     */
+    void run() {
+        final Timestamp cutoff = new Timestamp(System.currentTimeMillis() - this.archiveAfterMillis);
+        Timestamp cursorLastSeen = new Timestamp(0L);
+        long cursorId = 0L;
+        int batchSize = Math.min(INITIAL_BATCH_SIZE, this.maximumBatchSize);
+        int archivedPlayers = 0;
+
+        try {
+            while (!this.stopped && !Thread.currentThread().isInterrupted()) {
+                final long batchStartMillis = System.nanoTime() / 1_000_000L;
+                final DbResult<ArchiveBatch> batchResult = this.archiveBatch(cutoff, cursorLastSeen, cursorId, batchSize);
+                final long batchMillis = System.nanoTime() / 1_000_000L - batchStartMillis;
+
+                if (!batchResult.isSuccessful() || batchResult.getResult() == null) {
+                    break;
+                }
+
+                ArchiveBatch batch = batchResult.getResult();
+                archivedPlayers += batch.archivedUUIDs.size();
+
+                if (!batch.archivedUUIDs.isEmpty()) {
+                    this.onArchived.accept(batch.archivedUUIDs);
+                }
+
+                if (batch.readRows < batchSize) {
+                    break;
+                }
+
+                cursorLastSeen = batch.lastSeen;
+                cursorId = batch.lastId;
+                batchSize = this.nextBatchSize(batchSize, batchMillis);
+
+                // Leave the database some room between the batches
+                Thread.sleep(Math.max(batchMillis, this.batchTimeBudgetMillis));
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (final Exception exception) {
+            this.logger.log(Level.SEVERE, "An exception occurred while archiving the inactive players", exception);
+        }
+
+        if (archivedPlayers > 0) {
+            this.logger.log(Level.INFO, archivedPlayers + " inactive players have been archived");
+        }
+    }
+
+    /**
+     * Adapts the batch size to the time the last batch took.
+     *
+     * @param batchSize   The size of the last batch.
+     * @param batchMillis The time in milliseconds the last batch took.
+     * @return The size of the next batch.
+     */
+    private int nextBatchSize(final int batchSize, final long batchMillis) {
+        if (batchMillis > this.batchTimeBudgetMillis) {
+            return Math.max(MINIMUM_BATCH_SIZE, batchSize / 2);
+        }
+
+        if (batchMillis < this.batchTimeBudgetMillis / 2) {
+            return Math.min(this.maximumBatchSize, batchSize + Math.max(1, batchSize / 4));
+        }
+
+        return batchSize;
+    }
+
+    /**
+     * Reads the next batch of inactive players after the cursor and moves the ones that are not online into the archive,
+     * within one transaction.
+     *
+     * @param cutoff         Players who have not been seen since this date are archived.
+     * @param cursorLastSeen The last seen date of the last player of the previous batch.
+     * @param cursorId       The ID of the last player of the previous batch.
+     * @param batchSize      The maximum amount of players to read.
+     * @return A DbResult containing the batch or ERROR if the database is not reachable.
+     */
+    private DbResult<ArchiveBatch> archiveBatch(final @NotNull Timestamp cutoff, final @NotNull Timestamp cursorLastSeen, final long cursorId, final int batchSize) {
+        final DbResult<SessionFactory> sessionFactoryResult = this.databaseFactory.getSessionFactory();
+
+        if (!sessionFactoryResult.isSuccessful() || sessionFactoryResult.getResult() == null || this.databaseFactory.getCircuitBreaker().isOpen()) {
+            return new DbResult<>(null, "The database is not reachable at the moment", ResultType.ERROR);
+        }
+
+        try (StatelessSession session = sessionFactoryResult.getResult().openStatelessSession()) {
+            final Transaction transaction = session.beginTransaction();
+
+            try {
+                ArchiveBatch batch = session.doReturningWork(connection -> this.archiveBatch(connection, cutoff, cursorLastSeen, cursorId, batchSize));
+                transaction.commit();
+                return new DbResult<>(batch, batch.archivedUUIDs.size() + " players archived", ResultType.SUCCESS);
+            } catch (final RuntimeException exception) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+
+                throw exception;
+            }
+        } catch (final Exception exception) {
+            this.logger.log(Level.WARNING, "A batch of inactive players could not be archived: " + exception.getMessage());
+            return new DbResult<>(null, exception.getMessage(), ResultType.EXCEPTION);
+        }
+    }
+
+    /**
+     * Reads the next batch of inactive players after the cursor and moves the ones that are not online into the archive.
+     * The last seen date is checked again by the copy and the delete, so a player who has joined in the meantime is kept.
+     * The copy overwrites archived rows of the same players, so every deleted row ends up in the archive.
+     *
+     * @param connection     The connection of the current transaction.
+     * @param cutoff         Players who have not been seen since this date are archived.
+     * @param cursorLastSeen The last seen date of the last player of the previous batch.
+     * @param cursorId       The ID of the last player of the previous batch.
+     * @param batchSize      The maximum amount of players to read.
+     * @return The batch.
+     * @throws SQLException If the players could not be archived.
+     */
+    private ArchiveBatch archiveBatch(final @NotNull Connection connection, final @NotNull Timestamp cutoff, final @NotNull Timestamp cursorLastSeen, final long cursorId, final int batchSize) throws SQLException {
+        List<Long> archivedIds = new ArrayList<>();
+        List<UUID> archivedUUIDs = new ArrayList<>();
+        Timestamp lastSeen = cursorLastSeen;
+        long lastId = cursorId;
+        int readRows = 0;
+
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_INACTIVE_SQL)) {
+            statement.setTimestamp(1, cutoff);
+            statement.setTimestamp(2, cursorLastSeen);
+            statement.setTimestamp(3, cursorLastSeen);
+            statement.setLong(4, cursorId);
+            statement.setInt(5, batchSize);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    readRows++;
+                    lastId = resultSet.getLong(1);
+                    lastSeen = resultSet.getTimestamp(3);
+                    UUID uuid = UUID_CONVERTER.convertToEntityAttribute(resultSet.getBytes(2));
+
+                    if (!this.isOnline.test(uuid)) {
+                        archivedIds.add(lastId);
+                        archivedUUIDs.add(uuid);
+                    }
+                }
+            }
+        }
+
+        if (archivedIds.isEmpty()) {
+            return new ArchiveBatch(readRows, lastSeen, lastId, List.of());
+        }
+
+        String placeholders = "(" + String.join(", ", Collections.nCopies(archivedIds.size(), "?")) + ")";
+
+        try (PreparedStatement archiveStatement = connection.prepareStatement(ARCHIVE_SQL + placeholders + this.upsertClause);
+             PreparedStatement deleteStatement = connection.prepareStatement(DELETE_SQL + placeholders)) {
+            archiveStatement.setTimestamp(1, new Timestamp(System.currentTimeMillis()));
+            archiveStatement.setTimestamp(2, cutoff);
+            deleteStatement.setTimestamp(1, cutoff);
+
+            for (int index = 0; index < archivedIds.size(); index++) {
+                archiveStatement.setLong(index + 3, archivedIds.get(index));
+                deleteStatement.setLong(index + 2, archivedIds.get(index));
+            }
+
+            archiveStatement.executeUpdate();
+            deleteStatement.executeUpdate();
+        }
+
+        return new ArchiveBatch(readRows, lastSeen, lastId, archivedUUIDs);
+    }
+
+    /**
+     * The outcome of a single batch.
+     */
+    private static final class ArchiveBatch {
+
+        private final int readRows;
+        private final Timestamp lastSeen;
+        private final long lastId;
+        private final List<UUID> archivedUUIDs;
+
+        /**
+         * Creates the outcome of a batch.
+         *
+         * @param readRows      The amount of inactive players that have been read.
+         * @param lastSeen      The last seen date of the last read player (cursor).
+         * @param lastId        The ID of the last read player (cursor).
+         * @param archivedUUIDs The UUIDs of the players that have been archived.
+         */
+        private ArchiveBatch(final int readRows, final @NotNull Timestamp lastSeen, final long lastId, final @NotNull List<UUID> archivedUUIDs) {
+            this.readRows = readRows;
+            this.lastSeen = lastSeen;
+            this.lastId = lastId;
+            this.archivedUUIDs = archivedUUIDs;
+        }
+    }
+}
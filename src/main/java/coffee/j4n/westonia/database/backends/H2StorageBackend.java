@@ -0,0 +1,72 @@
+package coffee.j4n.westonia.database.backends;
+
+import coffee.j4n.westonia.interfaces.IStorageBackend;
+import coffee.j4n.westonia.utils.config.MdlDatabaseConfig;
+import coffee.j4n.westonia.utils.statics.constants.FilePaths;
+import coffee.j4n.westonia.utils.statics.enums.StorageType;
+import com.zaxxer.hikari.HikariConfig;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Storage backend for an embedded, file-based H2 database in MySQL mode.
+ * The database file is stored in the plugin folder and named after the configured database name.
+ * Since H2 runs in MySQL mode, the MySQL migrations are used.
+ */
+public class H2StorageBackend implements IStorageBackend {
+
+    @Override
+    public @NotNull StorageType getStorageType() {
+        return StorageType.H2;
+    }
+
+    @Override
+    public void configureDataSource(final @NotNull HikariConfig hikariConfig, final @NotNull MdlDatabaseConfig databaseConfiguration, final boolean replica) {
+        String databaseFile = new File(FilePaths.PLUGIN_FOLDER, databaseConfiguration.getDatabaseName()).getAbsolutePath();
+
+        hikariConfig.setDriverClassName("org.h2.Driver");
+        hikariConfig.setJdbcUrl("jdbc:h2:file:" + databaseFile + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE");
+        hikariConfig.setUsername(databaseConfiguration.getUsername());
+        hikariConfig.setPassword(databaseConfiguration.getPassword());
+    }
+
+    @Override
+    public boolean supportsReplicas() {
+        return false;
+    }
+
+    @Override
+    public @Nullable String getDialect() {
+        return null;
+    }
+
+    @Override
+    public @NotNull String getMigrationFolder() {
+        return "db/migrations";
+    }
+
+    @Override
+    public @NotNull String getInsertIgnoreStatement() {
+        return "INSERT IGNORE INTO";
+    }
+
+    @Override
+    public @NotNull String getUpsertClause(final @NotNull String keyColumn, final @NotNull List<String> updateColumns) {
+        // Supported by the MySQL compatibility mode
+        return " ON DUPLICATE KEY UPDATE " + updateColumns.stream().map(column -> column + " = VALUES(" + column + ")").collect(Collectors.joining(", "));
+    }
+
+    @Override
+    public boolean supportsNamedLocks() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsSchemaValidation() {
+        return true;
+    }
+}
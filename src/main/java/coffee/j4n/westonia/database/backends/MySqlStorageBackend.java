@@ -0,0 +1,77 @@
+package coffee.j4n.westonia.database.backends;
+
+import coffee.j4n.westonia.interfaces.IStorageBackend;
+import coffee.j4n.westonia.utils.config.MdlDatabaseConfig;
+import coffee.j4n.westonia.utils.statics.enums.StorageType;
+import com.zaxxer.hikari.HikariConfig;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Storage backend for a (remote) MySQL or MariaDB server, which can be shared by several servers.
+ */
+public class MySqlStorageBackend implements IStorageBackend {
+
+    @Override
+    public @NotNull StorageType getStorageType() {
+        return StorageType.MYSQL;
+    }
+
+    @Override
+    public void configureDataSource(final @NotNull HikariConfig hikariConfig, final @NotNull MdlDatabaseConfig databaseConfiguration, final boolean replica) {
+        hikariConfig.setDriverClassName("com.mysql.cj.jdbc.Driver");
+        String host = replica ? databaseConfiguration.getReplicaHost() : databaseConfiguration.getHost();
+        Integer port = replica ? databaseConfiguration.getReplicaPort() : databaseConfiguration.getPort();
+
+        hikariConfig.setJdbcUrl("jdbc:mysql://" + host + ":" + port + "/" + databaseConfiguration.getDatabaseName() + "?useUnicode=true&rewriteBatchedStatements=" + databaseConfiguration.getRewriteBatchedStatements());
+        hikariConfig.setUsername(databaseConfiguration.getUsername());
+        hikariConfig.setPassword(databaseConfiguration.getPassword());
+
+        // Recommended MySQL driver settings for pooled connections
+        hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
+        hikariConfig.addDataSourceProperty("prepStmtCacheSize", "250");
+        hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        hikariConfig.addDataSourceProperty("useServerPrepStmts", "true");
+
+        // Statements with a fetch size (e.g. the export) read their rows through a server-side cursor instead of all at once
+        hikariConfig.addDataSourceProperty("useCursorFetch", "true");
+    }
+
+    @Override
+    public boolean supportsReplicas() {
+        return true;
+    }
+
+    @Override
+    public @Nullable String getDialect() {
+        return null;
+    }
+
+    @Override
+    public @NotNull String getMigrationFolder() {
+        return "db/migrations";
+    }
+
+    @Override
+    public @NotNull String getInsertIgnoreStatement() {
+        return "INSERT IGNORE INTO";
+    }
+
+    @Override
+    public @NotNull String getUpsertClause(final @NotNull String keyColumn, final @NotNull List<String> updateColumns) {
+        return " ON DUPLICATE KEY UPDATE " + updateColumns.stream().map(column -> column + " = VALUES(" + column + ")").collect(Collectors.joining(", "));
+    }
+
+    @Override
+    public boolean supportsNamedLocks() {
+        return true;
+    }
+
+    @Override
+    public boolean supportsSchemaValidation() {
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package coffee.j4n.westonia.database.backends;
+
+import coffee.j4n.westonia.interfaces.IStorageBackend;
+import coffee.j4n.westonia.utils.config.MdlDatabaseConfig;
+import coffee.j4n.westonia.utils.statics.constants.FilePaths;
+import coffee.j4n.westonia.utils.statics.enums.StorageType;
+import com.zaxxer.hikari.HikariConfig;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Storage backend for an embedded SQLite database file in the plugin folder, named after the configured database name.
+ * <br/><br/>
+ * SQLite allows only one writer at a time, so the pool is limited to a single connection and the write-ahead log is enabled,
+ * which lets readers continue while a write is running.
+ * Hibernate cannot validate the loosely typed SQLite schema, so the schema validation is skipped.
+ */
+public class SqliteStorageBackend implements IStorageBackend {
+
+    @Override
+    public @NotNull StorageType getStorageType() {
+        return StorageType.SQLITE;
+    }
+
+    @Override
+    public void configureDataSource(final @NotNull HikariConfig hikariConfig, final @NotNull MdlDatabaseConfig databaseConfiguration, final boolean replica) {
+        String databaseFile = new File(FilePaths.PLUGIN_FOLDER, databaseConfiguration.getDatabaseName() + ".db").getAbsolutePath();
+
+        hikariConfig.setDriverClassName("org.sqlite.JDBC");
+        hikariConfig.setJdbcUrl("jdbc:sqlite:" + databaseFile);
+        hikariConfig.setMaximumPoolSize(1);
+        hikariConfig.setMinimumIdle(1);
+
+        hikariConfig.addDataSourceProperty("journal_mode", "WAL");
+        hikariConfig.addDataSourceProperty("synchronous", "NORMAL");
+        hikariConfig.addDataSourceProperty("foreign_keys", "true");
+    }
+
+    @Override
+    public boolean supportsReplicas() {
+        return false;
+    }
+
+    @Override
+    public @Nullable String getDialect() {
+        return "org.hibernate.community.dialect.SQLiteDialect";
+    }
+
+    @Override
+    public @NotNull String getMigrationFolder() {
+        return "db/migrations/sqlite";
+    }
+
+    @Override
+    public @NotNull String getInsertIgnoreStatement() {
+        return "INSERT OR IGNORE INTO";
+    }
+
+    @Override
+    public @NotNull String getUpsertClause(final @NotNull String keyColumn, final @NotNull List<String> updateColumns) {
+        return " ON CONFLICT (" + keyColumn + ") DO UPDATE SET " + updateColumns.stream().map(column -> column + " = excluded." + column).collect(Collectors.joining(", "));
+    }
+
+    @Override
+    public boolean supportsNamedLocks() {
+        return false;
+    }
+
+    @Override
+    public boolean supportsSchemaValidation() {
+        return false;
+    }
+}
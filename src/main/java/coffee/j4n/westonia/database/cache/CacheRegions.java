@@ -0,0 +1,28 @@
+package coffee.j4n.westonia.database.cache;
+
+import java.util.List;
+
+/**
+ * Contains the names of the Hibernate second-level cache regions.
+ * Every region that is used in a {@code @Cache} or {@code @NaturalIdCache} annotation has to be listed here,
+ * so that it is created with the configured size and expiry instead of an unbounded default.
+ */
+public final class CacheRegions {
+
+    /**
+     * The region that holds the WstPlayer entities
+     */
+    public static final String PLAYER = "westonia_player";
+
+    /**
+     * The region that maps the Minecraft UUID (natural id) of a player to its ID
+     */
+    public static final String PLAYER_NATURAL_ID = "westonia_player_natural_id";
+
+    /**
+     * All regions that are created when the session factory is built
+     */
+    public static final List<String> ALL = List.of(PLAYER, PLAYER_NATURAL_ID);
+
+    private CacheRegions() {}
+}
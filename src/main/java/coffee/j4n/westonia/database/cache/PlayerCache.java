@@ -0,0 +1,117 @@
+package coffee.j4n.westonia.database.cache;
+
+import coffee.j4n.westonia.database.entities.WstPlayer;
+import coffee.j4n.westonia.database.results.DbResult;
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Read-through in-memory cache for WstPlayer entities, keyed by the Minecraft UUID of the player.
+ * <br/><br/>
+ * Only successfully loaded players are cached, errors and missing players always hit the database again.
+ * Entries are evicted if the maximum size is reached, if they have not been accessed for the configured time or explicitly (e.g. when the player quits).
+ */
+public class PlayerCache {
+
+    private final Cache<UUID, WstPlayer> cache;
+
+    /**
+     * Creates a new player cache.
+     *
+     * @param maximumSize              The maximum amount of players that are kept in the cache.
+     * @param expireAfterAccessMinutes The time in minutes after which a player that has not been accessed is evicted.
+     */
+    public PlayerCache(final long maximumSize, final long expireAfterAccessMinutes) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached player or loads it using the given loader if it is not cached yet.
+     * The loaded player is only cached if the load was successful.
+     *
+     * @param uuid   The UUID of the player.
+     * @param loader The loader that is used to load the player from the database.
+     * @return A DbResult containing the WstPlayer or the (uncached) result of the loader.
+     */
+    public DbResult<WstPlayer> get(final @NotNull UUID uuid, final @NotNull Function<UUID, DbResult<WstPlayer>> loader) {
+        WstPlayer cachedPlayer = this.cache.getIfPresent(uuid);
+
+        if (cachedPlayer != null) {
+            return new DbResult<>(cachedPlayer, "Player found in cache", ResultType.FOUND);
+        }
+
+        DbResult<WstPlayer> loadResult = loader.apply(uuid);
+        WstPlayer loadedPlayer = loadResult.getResult();
+
+        if (loadResult.isSuccessful() && loadedPlayer != null) {
+            this.cache.put(uuid, loadedPlayer);
+        }
+
+        return loadResult;
+    }
+
+    /**
+     * Returns the cached player without loading it.
+     *
+     * @param uuid The UUID of the player.
+     * @return The cached player or null if it is not cached.
+     */
+    public @Nullable WstPlayer getIfPresent(final @NotNull UUID uuid) {
+        return this.cache.getIfPresent(uuid);
+    }
+
+    /**
+     * Puts the given player into the cache or replaces the cached one.
+     *
+     * @param player The player to cache.
+     */
+    public void put(final @NotNull WstPlayer player) {
+        this.cache.put(player.getMinecraftUUID(), player);
+    }
+
+    /**
+     * Removes the player with the given UUID from the cache.
+     *
+     * @param uuid The UUID of the player.
+     */
+    public void invalidate(final @NotNull UUID uuid) {
+        this.cache.invalidate(uuid);
+    }
+
+    /**
+     * Removes all players from the cache.
+     */
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    /**
+     * Returns the approximate amount of cached players.
+     *
+     * @return The amount of cached players.
+     */
+    public long getSize() {
+        return this.cache.estimatedSize();
+    }
+
+    /**
+     * Returns the statistics of the cache, e.g. the hit and miss counts.
+     *
+     * @return The statistics of the cache.
+     */
+    public CacheStats getStatistics() {
+        return this.cache.stats();
+    }
+}
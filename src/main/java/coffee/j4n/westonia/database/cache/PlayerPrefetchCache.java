@@ -0,0 +1,64 @@
+package coffee.j4n.westonia.database.cache;
+
+import coffee.j4n.westonia.database.entities.WstPlayer;
+import coffee.j4n.westonia.database.results.DbResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Short-lived hand-over of player data from the pre-login to the join of a player.
+ * <br/><br/>
+ * The player data is loaded (or registered) while the player is still logging in, the join takes it out again exactly once.
+ * Entries of players that never join (e.g. because another plugin denied the login) expire after a few seconds.
+ */
+public class PlayerPrefetchCache {
+
+    /**
+     * The time in seconds after which a prefetched player that has not joined is discarded.
+     */
+    private static final long EXPIRE_AFTER_WRITE_SECONDS = 30L;
+
+    /**
+     * The maximum amount of prefetched players, only reached if many players log in at the same time.
+     */
+    private static final long MAXIMUM_SIZE = 500L;
+
+    private final Cache<UUID, DbResult<WstPlayer>> cache = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterWrite(Duration.ofSeconds(EXPIRE_AFTER_WRITE_SECONDS))
+            .build();
+
+    /**
+     * Stores the result of the pre-login loading of a player.
+     *
+     * @param uuid         The UUID of the player.
+     * @param playerResult The result of loading or registering the player.
+     */
+    public void put(final @NotNull UUID uuid, final @NotNull DbResult<WstPlayer> playerResult) {
+        this.cache.put(uuid, playerResult);
+    }
+
+    /**
+     * Removes the prefetched player data and returns it.
+     *
+     * @param uuid The UUID of the player.
+     * @return The result of the pre-login loading or null if the player has not been prefetched (or it expired).
+     */
+    public @Nullable DbResult<WstPlayer> take(final @NotNull UUID uuid) {
+        return this.cache.asMap().remove(uuid);
+    }
+
+    /**
+     * Discards the prefetched player data, e.g. if the login of the player has been denied.
+     *
+     * @param uuid The UUID of the player.
+     */
+    public void invalidate(final @NotNull UUID uuid) {
+        this.cache.invalidate(uuid);
+    }
+}
@@ -0,0 +1,46 @@
+package coffee.j4n.westonia.database.converter;
+
+import jakarta.persistence.AttributeConverter;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * AttributeConverter for UUIDs used by Hibernate, which stores them as 16 bytes (BINARY(16)) instead of a 36-character string.
+ * The byte order matches MySQL's UNHEX(REPLACE(uuid, '-', '')), so existing string UUIDs can be converted in SQL.
+ */
+public class UUIDBinaryConverter implements AttributeConverter<UUID, byte[]> {
+
+    /**
+     * Converts the given UUID to 16 bytes.
+     *
+     * @param uuidToConvert The UUID to convert.
+     * @return The UUID as 16 bytes.
+     */
+    public byte[] convertToDatabaseColumn(final @Nullable UUID uuidToConvert) {
+        if (uuidToConvert == null) {
+            return null;
+        }
+
+        return ByteBuffer.allocate(16)
+                .putLong(uuidToConvert.getMostSignificantBits())
+                .putLong(uuidToConvert.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * Converts the given 16 bytes to a UUID.
+     *
+     * @param bytesToConvert The bytes to convert.
+     * @return The bytes as a UUID.
+     */
+    public UUID convertToEntityAttribute(final byte @Nullable [] bytesToConvert) {
+        if (bytesToConvert == null) {
+            return null;
+        }
+
+        ByteBuffer byteBuffer = ByteBuffer.wrap(bytesToConvert);
+        return new UUID(byteBuffer.getLong(), byteBuffer.getLong());
+    }
+}
@@ -1,77 +1,149 @@
 package coffee.j4n.westonia.database.daos;
 
+import coffee.j4n.westonia.database.DatabaseExecutor;
 import coffee.j4n.westonia.database.DatabaseFactory;
+import coffee.j4n.westonia.database.entities.BaseEntity;
+import coffee.j4n.westonia.database.metrics.DatabaseMetrics;
+import coffee.j4n.westonia.database.resilience.CircuitBreaker;
 import coffee.j4n.westonia.database.results.DbResult;
 import coffee.j4n.westonia.database.results.DbReturn;
-import coffee.j4n.westonia.utils.config.MdlDatabaseConfig;
 import coffee.j4n.westonia.utils.statics.enums.ResultType;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.hibernate.CacheMode;
 import org.hibernate.FlushMode;
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
+import org.hibernate.StaleStateException;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.JDBCConnectionException;
+import org.hibernate.metamodel.mapping.SelectableMapping;
+import org.hibernate.persister.entity.EntityPersister;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.SingularAttribute;
 import org.jetbrains.annotations.NotNull;
-
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Base Data Access Object (DAO) that provides basic methods for interacting with the database asynchronously.
+ * Base Data Access Object (DAO) that provides basic methods for interacting with the database.
+ * Every method is synchronous and has an asynchronous variant (suffixed with "Async"), which runs on the {@link DatabaseExecutor} of the plugin.
+ * Every operation uses its own short-lived session, so the DAO can be used from multiple threads at the same time.
+ * Read-only lookups may be routed to a read replica; after a write, lookups of the written entity stay on the primary
+ * (see {@link #inReadSession(Collection, String, String, Function)}).
+ * Updates are guarded by the version of the entities (optimistic locking): a merge that conflicts with the write of another server
+ * is retried on the current state of the database, onto which only the fields changed here are applied
+ * (see {@link #mergeAll(Collection)}), so no row locks are needed.
+ * The latency and the result of every operation are recorded in the {@link DatabaseMetrics} of the database factory.
  * This class is abstract and should be extended by other DAOs.
  *
  * @param <Entity> The type of the entity that is managed by the DAO.
  * @param <Plugin> The type of the plugin that is using the DAO.
  */
-public abstract class BaseDao<Entity, Plugin extends JavaPlugin> {
+public abstract class BaseDao<Entity extends BaseEntity, Plugin extends JavaPlugin> {
+
+    /**
+     * How often a merge that conflicts with the write of another server is retried.
+     */
+    private static final int MAX_CONFLICT_RETRIES = 3;
 
     private final Logger logger;
     private final Plugin pluginInstance;
-    private final MdlDatabaseConfig databaseConfig;
+    private final DatabaseFactory<Plugin> databaseFactory;
+    private final DatabaseExecutor databaseExecutor;
+
+    /**
+     * The native SQL of the targeted single-field updates, built once per field.
+     */
+    private final Map<String, String> updateQueries = new ConcurrentHashMap<>();
 
-    private Session session;
+    /**
+     * The natural ids of the entities that have been written recently and are therefore read from the primary database,
+     * because the read replica may not have received the write yet.
+     */
+    private final Cache<Object, Boolean> primaryPinnedIds;
 
     /**
      * Creates a new instance of the BaseDao class.
      *
-     * @param pluginInstance        The plugin instance that is using the DAO.
-     * @param databaseConfiguration The configuration of the database.
+     * @param pluginInstance   The plugin instance that is using the DAO.
+     * @param databaseFactory  The database factory that holds the shared session factory of the plugin.
+     * @param databaseExecutor The executor that runs the asynchronous database operations.
      */
-    public BaseDao(final @NotNull Plugin pluginInstance, final MdlDatabaseConfig databaseConfiguration) {
+    public BaseDao(final @NotNull Plugin pluginInstance, final @NotNull DatabaseFactory<Plugin> databaseFactory, final @NotNull DatabaseExecutor databaseExecutor) {
         this.pluginInstance = pluginInstance;
-        this.databaseConfig = databaseConfiguration;
+        this.databaseFactory = databaseFactory;
+        this.databaseExecutor = databaseExecutor;
         this.logger = this.pluginInstance.getLogger();
+        this.primaryPinnedIds = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(databaseFactory.getReplicaPinMinutes()))
+                .build();
     }
 
     /**
-     * Creates a new session and returns it.
+     * Opens a new, short-lived session from the shared session factory.
+     * Sessions are not thread-safe, so every operation opens its own session and closes it when it is done (try-with-resources).
+     * A session must never be stored or shared between threads.
      *
      * @return A DbResult containing the session or an error message.
      */
-    public DbResult<Session> getOrCreateSession() {
+    public DbResult<Session> openSession() {
         final DbResult<SessionFactory> sessionFactoryResult = this.getSessionFactory();
+        final SessionFactory sessionFactory = sessionFactoryResult.getResult();
 
-        if (!sessionFactoryResult.isSuccessful()) {
+        if (!sessionFactoryResult.isSuccessful() || sessionFactory == null) {
             String msg = "Session factory result was not successful";
 
             this.logger.log(Level.SEVERE, msg);
             return new DbResult<>(null, msg, ResultType.ERROR);
         }
 
+        return new DbResult<>(sessionFactory.withOptions().flushMode(FlushMode.AUTO).openSession(), "Session created", ResultType.SUCCESS);
+    }
+
+    /**
+     * Opens a new stateless session from the shared session factory.
+     * Stateless sessions have no persistence context and bypass the second-level cache, which makes them suited for bulk reads and writes.
+     * Like a session, it belongs to a single operation and has to be closed when the operation is done.
+     *
+     * @return A DbResult containing the stateless session or an error message.
+     */
+    public DbResult<StatelessSession> openStatelessSession() {
+        final DbResult<SessionFactory> sessionFactoryResult = this.getSessionFactory();
         final SessionFactory sessionFactory = sessionFactoryResult.getResult();
 
-        if (sessionFactory == null) {
-            String msg = "Failed to get session factory from result";
+        if (!sessionFactoryResult.isSuccessful() || sessionFactory == null) {
+            String msg = "Session factory result was not successful";
 
             this.logger.log(Level.SEVERE, msg);
             return new DbResult<>(null, msg, ResultType.ERROR);
         }
 
-        if (this.session == null || !this.session.isOpen())
-            this.session = sessionFactory.withOptions().flushMode(FlushMode.AUTO).openSession();
-
-
-        return new DbResult<>(this.session, "Session created", ResultType.SUCCESS);
+        return new DbResult<>(sessionFactory.openStatelessSession(), "Stateless session created", ResultType.SUCCESS);
     }
 
     /**
@@ -82,32 +154,82 @@ public abstract class BaseDao<Entity, Plugin extends JavaPlugin> {
      */
     public DbReturn persistEntity(final @NotNull Entity entity) {
         final String entityName = entity.getClass().getTypeName();
-        final Session session = this.getOrCreateSession().getResult();
 
-        try (session) {
-            if (session == null) {
-                String msg = "Failed to get session";
-                this.logger.log(Level.SEVERE, msg);
-                return new DbReturn(msg, ResultType.ERROR);
-            }
-
-            session.beginTransaction();
+        DbResult<Entity> persistResult = this.inTransaction("persist", "Failed to persist entity \"" + entityName + "\"", session -> {
             session.persist(entity);
             session.flush();
-            session.getTransaction().commit();
+            return new DbResult<>(entity, "Entity \"" + entityName + "\" successfully persisted", ResultType.SUCCESS);
+        });
 
-        } catch (final Exception exception) {
-            final String msg = "Failed to persist entity \"" + entityName + "\"";
+        if (persistResult.isSuccessful()) {
+            this.afterWrite(List.of(this.getNaturalId(entity)));
+            this.logger.log(Level.INFO, persistResult.getMessage());
+        }
 
-            this.logger.log(Level.SEVERE, msg, exception);
-            return new DbReturn(msg, ResultType.EXCEPTION);
+        return new DbReturn(persistResult.getMessage(), persistResult.getResultType());
+    }
 
+    /**
+     * Merges the state of the given (possibly detached) entity into the database.
+     * Conflicts with the writes of other servers are resolved like in {@link #mergeAll(Collection)}.
+     *
+     * @param entity The entity to merge.
+     * @return A DbResult containing the merged entity, NOT_FOUND if the entity has been deleted in the meantime, or an error message.
+     */
+    public DbResult<Entity> mergeEntity(final @NotNull Entity entity) {
+        final String entityName = entity.getClass().getTypeName();
+        final DbResult<List<Entity>> mergeResult = this.mergeVersioned(List.of(entity), "merge");
+
+        if (!mergeResult.isSuccessful()) {
+            return new DbResult<>(null, mergeResult.getMessage(), mergeResult.getResultType());
         }
 
-        final String msg = "Entity \"" + entityName + "\" successfully persisted";
+        if (mergeResult.getResult().isEmpty()) {
+            return new DbResult<>(null, "Entity \"" + entityName + "\" does not exist anymore", ResultType.NOT_FOUND);
+        }
 
-        this.logger.log(Level.INFO, msg);
-        return new DbReturn(msg, ResultType.SUCCESS);
+        return new DbResult<>(mergeResult.getResult().get(0), "Entity \"" + entityName + "\" successfully merged", ResultType.SUCCESS);
+    }
+
+    /**
+     * Saves all given entities to the database within a single transaction.
+     * As the IDs are generated by the database (IDENTITY), Hibernate sends every insert on its own to read the generated ID,
+     * the inserts cannot be sent in JDBC batches. Only the transaction is shared.
+     *
+     * @param entities The entities to save.
+     * @return A DbReturn containing a success or error message.
+     */
+    public DbReturn persistAll(final @NotNull Collection<Entity> entities) {
+        return this.executeInBatches(entities, Session::persist, "persist");
+    }
+
+    /**
+     * Merges the state of all given (possibly detached) entities into the database within a single transaction.
+     * The current states are loaded and the updates are sent in JDBC batches, so the database is contacted twice per batch instead of once per entity.
+     * <br/><br/>
+     * Every update checks the version of the entity. If another server has written an entity since it has been loaded here,
+     * only the fields that have been changed here ({@link BaseEntity#getDirtyFields()}) are applied onto the current state,
+     * the other fields keep the values of the other server and are taken over into the given entity. If the current state changes
+     * again before the update, the merge is retried with the state read from the database, up to {@link #MAX_CONFLICT_RETRIES} times.
+     * Entities that have been deleted in the meantime are skipped.
+     *
+     * @param entities The entities to merge.
+     * @return A DbReturn containing a success or error message, CONFLICT if the entities are still conflicting after all retries.
+     */
+    public DbReturn mergeAll(final @NotNull Collection<Entity> entities) {
+        final DbResult<List<Entity>> mergeResult = this.mergeVersioned(entities, "mergeAll");
+        return new DbReturn(mergeResult.getMessage(), mergeResult.getResultType());
+    }
+
+    /**
+     * Removes all given entities from the database within a single transaction.
+     * The deletes are sent in JDBC batches, so the database is contacted once per batch instead of once per entity.
+     *
+     * @param entities The entities to remove.
+     * @return A DbReturn containing a success or error message.
+     */
+    public DbReturn removeAll(final @NotNull Collection<Entity> entities) {
+        return this.executeInBatches(entities, Session::remove, "remove");
     }
 
     /**
@@ -117,25 +239,679 @@ public abstract class BaseDao<Entity, Plugin extends JavaPlugin> {
      * @return A DbReturn containing a success or error message.
      */
     public DbReturn removeEntity(final @NotNull Entity data) {
-        try {
-            session.beginTransaction();
+        DbResult<Entity> removeResult = this.inTransaction("remove", "Failed to remove entity", session -> {
             session.remove(data);
-            session.getTransaction().commit();
+            return new DbResult<>(data, "Entity successfully removed", ResultType.SUCCESS);
+        });
+
+        if (removeResult.isSuccessful()) {
+            this.afterWrite(List.of(this.getNaturalId(data)));
+        }
+
+        return new DbReturn(removeResult.getMessage(), removeResult.getResultType());
+    }
+
+    /**
+     * Sets a single field of the entity with the given natural id to the given value, without loading the entity.
+     * Only the ID is selected, followed by one "UPDATE ... SET column = ? WHERE id = ?" statement.
+     * The field has to be a basic attribute of the entity, the ID and the natural id itself cannot be updated.
+     * <br/><br/>
+     * The version of the entity is incremented, so a concurrent merge of an older state notices the update.
+     * <br/><br/>
+     * The update is sent as native SQL without synchronized tables, because Hibernate would otherwise evict the whole
+     * second-level cache region of the entity (and its natural ids). Only the updated entity is evicted instead.
+     *
+     * @param naturalId     The natural id of the entity to update.
+     * @param attributeName The name of the field (not the column) to update.
+     * @param value         The new value of the field.
+     * @return A DbReturn containing the result of the operation (NOT_FOUND if no entity has the given natural id).
+     */
+    public DbReturn updateField(final @NotNull Object naturalId, final @NotNull String attributeName, final @Nullable Object value) {
+        final String entityName = this.getClazzType().getSimpleName();
+        final DbReturn validationResult = this.validateUpdatableField(attributeName, value);
+
+        if (!validationResult.isSuccessful()) {
+            this.logger.log(Level.SEVERE, validationResult.getMessage());
+            return validationResult;
+        }
+
+        final String idQuery = "select e.id from " + entityName + " e where e." + this.getNaturalIdAttributeName() + " = :naturalId";
+
+        DbResult<Long> updateResult = this.inTransaction("updateField", "Failed to update field \"" + attributeName + "\" of entity \"" + entityName + "\"", session -> {
+            final EntityPersister persister = session.getSessionFactory().unwrap(SessionFactoryImplementor.class).getMappingMetamodel().getEntityDescriptor(this.getClazzType());
+            final String updateQuery = this.updateQueries.computeIfAbsent(attributeName, name -> this.buildUpdateQuery(persister, name));
+            final Long id = session.createSelectionQuery(idQuery, Long.class)
+                    .setParameter("naturalId", naturalId)
+                    .uniqueResult();
+
+            if (id == null) {
+                return new DbResult<>(null, "No entity \"" + entityName + "\" with the natural id \"" + naturalId + "\" found", ResultType.NOT_FOUND);
+            }
+
+            session.createNativeQuery(updateQuery)
+                    .addSynchronizedQuerySpace("")
+                    .setParameter("value", persister.findAttributeMapping(attributeName).getSingleJdbcMapping().convertToRelationalValue(value))
+                    .setParameter("id", id)
+                    .executeUpdate();
+
+            return new DbResult<>(id, "1 row updated", ResultType.SUCCESS);
+        });
+
+        if (!updateResult.isSuccessful()) {
+            return new DbReturn(updateResult.getMessage(), updateResult.getResultType());
+        }
+
+        // Evicted after the commit, so no other thread can cache the old state again in the meantime
+        this.inSession("evict", "Failed to evict entity \"" + entityName + "\" from the second-level cache", session -> {
+            this.evictFromSecondLevelCache(session, List.of(updateResult.getResult()), List.of(naturalId));
+            return new DbResult<>(null, "Entity evicted", ResultType.SUCCESS);
+        });
+
+        this.afterWrite(List.of(naturalId));
+        return new DbReturn("Field \"" + attributeName + "\" of entity \"" + entityName + "\" updated", ResultType.SUCCESS);
+    }
+
+    /**
+     * Sets a single field of the entity with the given natural id asynchronously.
+     *
+     * @param naturalId     The natural id of the entity to update.
+     * @param attributeName The name of the field (not the column) to update.
+     * @param value         The new value of the field.
+     * @return A CompletableFuture that completes with a DbReturn containing the result of the operation.
+     */
+    public CompletableFuture<DbReturn> updateFieldAsync(final @NotNull Object naturalId, final @NotNull String attributeName, final @Nullable Object value) {
+        return this.supplyAsync(() -> this.updateField(naturalId, attributeName, value));
+    }
+
+    /**
+     * Saves the given entity to the database asynchronously.
+     *
+     * @param entity The entity to save.
+     * @return A CompletableFuture that completes with a DbReturn containing a success or error message.
+     */
+    public CompletableFuture<DbReturn> persistEntityAsync(final @NotNull Entity entity) {
+        return this.supplyAsync(() -> this.persistEntity(entity));
+    }
+
+    /**
+     * Removes the given entity from the database asynchronously.
+     *
+     * @param entity The entity to remove.
+     * @return A CompletableFuture that completes with a DbReturn containing a success or error message.
+     */
+    public CompletableFuture<DbReturn> removeEntityAsync(final @NotNull Entity entity) {
+        return this.supplyAsync(() -> this.removeEntity(entity));
+    }
+
+    /**
+     * Saves all given entities to the database asynchronously.
+     *
+     * @param entities The entities to save.
+     * @return A CompletableFuture that completes with a DbReturn containing a success or error message.
+     */
+    public CompletableFuture<DbReturn> persistAllAsync(final @NotNull Collection<Entity> entities) {
+        return this.supplyAsync(() -> this.persistAll(entities));
+    }
+
+    /**
+     * Merges the state of all given entities into the database asynchronously.
+     *
+     * @param entities The entities to merge.
+     * @return A CompletableFuture that completes with a DbReturn containing a success or error message.
+     */
+    public CompletableFuture<DbReturn> mergeAllAsync(final @NotNull Collection<Entity> entities) {
+        return this.supplyAsync(() -> this.mergeAll(entities));
+    }
 
+    /**
+     * Removes all given entities from the database asynchronously.
+     *
+     * @param entities The entities to remove.
+     * @return A CompletableFuture that completes with a DbReturn containing a success or error message.
+     */
+    public CompletableFuture<DbReturn> removeAllAsync(final @NotNull Collection<Entity> entities) {
+        return this.supplyAsync(() -> this.removeAll(entities));
+    }
+
+    /**
+     * Runs the given database operation on the database executor of the plugin.
+     *
+     * @param operation The operation to run.
+     * @param <T>       The type of the result of the operation.
+     * @return A CompletableFuture that completes with the result of the operation.
+     */
+    protected <T> CompletableFuture<T> supplyAsync(final @NotNull Supplier<T> operation) {
+        return this.databaseExecutor.supplyAsync(operation);
+    }
+
+    /**
+     * Runs the given operation with a new session, which is closed afterwards.
+     * Exceptions are logged and returned as a DbResult, a violated constraint (e.g. a duplicate key) results in ALREADY_EXISTS.
+     * <br/><br/>
+     * If the database is unreachable (no session factory or a failed connection), ERROR is returned and the failure is recorded
+     * in the {@link CircuitBreaker}. While the breaker is open, the operation fails immediately without touching the database.
+     *
+     * @param operationName  The name of the operation (e.g. "loadOrRegister"), under which its latency and result are recorded.
+     * @param failureMessage The message that is logged and returned if the operation throws an exception.
+     * @param operation      The operation to run.
+     * @param <T>            The type of the result of the operation.
+     * @return A DbResult containing the result of the operation or an error message.
+     */
+    protected <T> DbResult<T> inSession(final @NotNull String operationName, final @NotNull String failureMessage, final @NotNull Function<Session, DbResult<T>> operation) {
+        final long startNanos = System.nanoTime();
+        final DbResult<T> result = this.runInSession(failureMessage, operation);
+
+        this.databaseFactory.getMetrics().recordOperation(this.getClazzType().getSimpleName() + "." + operationName, System.nanoTime() - startNanos, result.getResultType());
+        return result;
+    }
+
+    /**
+     * Runs the given operation with a new session, see {@link #inSession(String, String, Function)}.
+     *
+     * @param failureMessage The message that is logged and returned if the operation throws an exception.
+     * @param operation      The operation to run.
+     * @param <T>            The type of the result of the operation.
+     * @return A DbResult containing the result of the operation or an error message.
+     */
+    private <T> DbResult<T> runInSession(final @NotNull String failureMessage, final @NotNull Function<Session, DbResult<T>> operation) {
+        final CircuitBreaker circuitBreaker = this.databaseFactory.getCircuitBreaker();
+
+        if (!circuitBreaker.allowRequest()) {
+            return new DbResult<>(null, "The database is not reachable at the moment", ResultType.ERROR);
+        }
+
+        final DbResult<Session> sessionResult = this.openSession();
+        final Session session = sessionResult.getResult();
+
+        if (!sessionResult.isSuccessful() || session == null) {
+            circuitBreaker.recordFailure();
+            return new DbResult<>(null, sessionResult.getMessage(), ResultType.ERROR);
+        }
+
+        try (session) {
+            DbResult<T> result = operation.apply(session);
+            circuitBreaker.recordSuccess();
+            return result;
         } catch (final Exception exception) {
-            if (session.getTransaction() != null && session.getTransaction().isActive()) {
-                session.getTransaction().rollback();
+            if (isConnectionFailure(exception)) {
+                circuitBreaker.recordFailure();
+                this.logger.log(Level.WARNING, failureMessage + ", the database is not reachable: " + exception.getMessage());
+                return new DbResult<>(null, failureMessage, ResultType.ERROR);
+            }
+
+            // The database has answered, so it is reachable
+            circuitBreaker.recordSuccess();
+
+            if (isOptimisticLockFailure(exception)) {
+                this.logger.log(Level.FINE, failureMessage + ", the entity has been changed by another server: " + exception.getMessage());
+                return new DbResult<>(null, failureMessage, ResultType.CONFLICT);
+            }
+
+            if (isConstraintViolation(exception)) {
+                this.logger.log(Level.WARNING, failureMessage + ": " + exception.getMessage());
+                return new DbResult<>(null, failureMessage, ResultType.ALREADY_EXISTS);
+            }
+
+            this.logger.log(Level.SEVERE, failureMessage, exception);
+            return new DbResult<>(null, failureMessage, ResultType.EXCEPTION);
+        }
+    }
+
+    /**
+     * Runs the given read-only operation with a new read-only session, which may read from the read replica.
+     * If one of the given natural ids has been written recently, the operation runs against the primary database instead,
+     * so that the written data is read back (read-after-write).
+     *
+     * @param naturalIds     The natural ids of the entities that are read.
+     * @param operationName  The name of the operation, under which its latency and result are recorded.
+     * @param failureMessage The message that is logged and returned if the operation throws an exception.
+     * @param operation      The read-only operation to run.
+     * @param <T>            The type of the result of the operation.
+     * @return A DbResult containing the result of the operation or an error message.
+     */
+    protected <T> DbResult<T> inReadSession(final @NotNull Collection<?> naturalIds, final @NotNull String operationName, final @NotNull String failureMessage, final @NotNull Function<Session, DbResult<T>> operation) {
+        final Function<Session, DbResult<T>> readOnlyOperation = session -> {
+            session.setDefaultReadOnly(true);
+            return operation.apply(session);
+        };
+
+        if (!this.databaseFactory.hasReplica() || naturalIds.stream().anyMatch(this::isPinnedToPrimary)) {
+            return this.inSession(operationName, failureMessage, readOnlyOperation);
+        }
+
+        return this.databaseFactory.readFromReplica(() -> this.inSession(operationName, failureMessage, readOnlyOperation));
+    }
+
+    /**
+     * Called after entities have been written successfully.
+     * By default, the lookups of the written entities are pinned to the primary database; DAOs that cache their entities
+     * extend it to tell the other servers of the network which entities have changed.
+     *
+     * @param naturalIds The natural ids of the written entities.
+     */
+    protected void afterWrite(final @NotNull Collection<?> naturalIds) {
+        naturalIds.forEach(this::pinToPrimary);
+    }
+
+    /**
+     * Makes all lookups of the entity with the given natural id read from the primary database for a while,
+     * because the read replica may not have received a write yet.
+     *
+     * @param naturalId The natural id of the written entity.
+     */
+    protected void pinToPrimary(final @NotNull Object naturalId) {
+        if (this.databaseFactory.hasReplica()) {
+            this.primaryPinnedIds.put(naturalId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Lets the lookups of the entity with the given natural id read from the read replica again, e.g. when a player quits.
+     *
+     * @param naturalId The natural id of the entity.
+     */
+    public void unpinFromPrimary(final @NotNull Object naturalId) {
+        this.primaryPinnedIds.invalidate(naturalId);
+    }
+
+    /**
+     * Returns whether lookups of the entity with the given natural id have to read from the primary database.
+     *
+     * @param naturalId The natural id of the entity.
+     * @return Whether the entity has been written recently.
+     */
+    private boolean isPinnedToPrimary(final @NotNull Object naturalId) {
+        return this.primaryPinnedIds.getIfPresent(naturalId) != null;
+    }
+
+    /**
+     * Checks whether the given exception has been caused by a connection that could not be established or has been lost.
+     *
+     * @param exception The exception to check.
+     * @return Whether the database is not reachable.
+     */
+    private static boolean isConnectionFailure(final @NotNull Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof JDBCConnectionException || cause instanceof SQLTransientConnectionException || cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks whether the given exception has been caused by an update that did not match the version of the entity,
+     * because another server has changed or deleted the entity in the meantime.
+     *
+     * @param exception The exception to check.
+     * @return Whether the optimistic lock has failed.
+     */
+    private static boolean isOptimisticLockFailure(final @NotNull Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StaleStateException || cause instanceof OptimisticLockException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks whether the given exception has been caused by a violated database constraint.
+     * Depending on the operation, Hibernate wraps the ConstraintViolationException into other exceptions.
+     *
+     * @param exception The exception to check.
+     * @return Whether a constraint has been violated.
+     */
+    private static boolean isConstraintViolation(final @NotNull Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Runs the given operation within a transaction of a new session, which is closed afterwards.
+     * The transaction is committed if the operation is successful and rolled back otherwise, before the session is closed.
+     *
+     * @param operationName  The name of the operation, under which its latency and result are recorded.
+     * @param failureMessage The message that is logged and returned if the operation throws an exception.
+     * @param operation      The operation to run.
+     * @param <T>            The type of the result of the operation.
+     * @return A DbResult containing the result of the operation or an error message.
+     */
+    protected <T> DbResult<T> inTransaction(final @NotNull String operationName, final @NotNull String failureMessage, final @NotNull Function<Session, DbResult<T>> operation) {
+        return this.inSession(operationName, failureMessage, session -> {
+            final Transaction transaction = session.beginTransaction();
+
+            try {
+                final DbResult<T> result = operation.apply(session);
+
+                if (result.isSuccessful()) {
+                    transaction.commit();
+                } else {
+                    transaction.rollback();
+                }
+
+                return result;
+            } catch (final RuntimeException exception) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+
+                throw exception;
+            }
+        });
+    }
+
+    /**
+     * Builds the native update of the given field, which also increments the version of the entity.
+     *
+     * @param persister     The persister of the entity.
+     * @param attributeName The name of the field.
+     * @return The update, with the parameters "value" and "id".
+     */
+    private String buildUpdateQuery(final @NotNull EntityPersister persister, final @NotNull String attributeName) {
+        final String versionColumn = persister.getVersionMapping().getVersionAttribute().getSelectionExpression();
+
+        return "UPDATE " + persister.getMappedTableDetails().getTableName()
+                + " SET " + ((SelectableMapping) persister.findAttributeMapping(attributeName)).getSelectionExpression() + " = :value, "
+                + versionColumn + " = " + versionColumn + " + 1"
+                + " WHERE " + ((SelectableMapping) persister.getIdentifierMapping()).getSelectionExpression() + " = :id";
+    }
+
+    /**
+     * Evicts the given entities from the second-level cache: the cached states of the given IDs and the cached natural ids,
+     * together with the cached state of the ID each natural id pointed to (e.g. the old ID of a deleted entity).
+     * All other entries of the regions are kept.
+     *
+     * @param session    The session whose SessionFactory holds the cache.
+     * @param ids        The IDs of the entities to evict.
+     * @param naturalIds The natural ids of the entities to evict.
+     */
+    protected void evictFromSecondLevelCache(final @NotNull Session session, final @NotNull Collection<?> ids, final @NotNull Collection<?> naturalIds) {
+        final EntityPersister persister = session.getSessionFactory().unwrap(SessionFactoryImplementor.class).getMappingMetamodel().getEntityDescriptor(this.getClazzType());
+        final NaturalIdDataAccess naturalIdCacheAccess = persister.getNaturalIdCacheAccessStrategy();
+        final SharedSessionContractImplementor sessionImplementor = session.unwrap(SharedSessionContractImplementor.class);
+        ids.forEach(id -> session.getSessionFactory().getCache().evictEntityData(this.getClazzType(), id));
+
+        if (naturalIdCacheAccess == null) {
+            return;
+        }
+
+        for (Object naturalId : naturalIds) {
+            final Object cacheKey = naturalIdCacheAccess.generateCacheKey(naturalId, persister, sessionImplementor);
+            final Object cachedId = naturalIdCacheAccess.get(sessionImplementor, cacheKey);
+
+            if (cachedId != null) {
+                session.getSessionFactory().getCache().evictEntityData(this.getClazzType(), cachedId);
+            }
+
+            naturalIdCacheAccess.evict(cacheKey);
+        }
+    }
+
+    /**
+     * Checks that the given field can be set by {@link #updateField(Object, String, Object)}.
+     * As the field name is part of the query, only basic attributes that are known to the metamodel of the entity are accepted.
+     *
+     * @param attributeName The name of the field.
+     * @param value         The new value of the field.
+     * @return A DbReturn containing SUCCESS or the reason why the field cannot be updated.
+     */
+    private DbReturn validateUpdatableField(final @NotNull String attributeName, final @Nullable Object value) {
+        final SessionFactory sessionFactory = this.getSessionFactory().getResult();
+
+        if (sessionFactory == null) {
+            return new DbReturn("The session factory is not available", ResultType.ERROR);
+        }
+
+        final Attribute<? super Entity, ?> attribute;
+        try {
+            attribute = sessionFactory.getMetamodel().entity(this.getClazzType()).getAttribute(attributeName);
+        } catch (final IllegalArgumentException exception) {
+            return new DbReturn("\"" + attributeName + "\" is not a field of entity \"" + this.getClazzType().getSimpleName() + "\"", ResultType.ERROR);
+        }
+
+        if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC || attributeName.equals(this.getNaturalIdAttributeName()) || (attribute instanceof SingularAttribute<?, ?> singularAttribute && (singularAttribute.isId() || singularAttribute.isVersion()))) {
+            return new DbReturn("The field \"" + attributeName + "\" cannot be updated directly", ResultType.ERROR);
+        }
+
+        if (value != null && !attribute.getJavaType().isPrimitive() && !attribute.getJavaType().isInstance(value)) {
+            return new DbReturn("The value for field \"" + attributeName + "\" has to be of type " + attribute.getJavaType().getSimpleName(), ResultType.ERROR);
+        }
+
+        return new DbReturn("The field can be updated", ResultType.SUCCESS);
+    }
+
+    /**
+     * Applies the given operation to all entities within a single transaction.
+     * The session is flushed and cleared after every full JDBC batch, so each batch of updates or deletes costs one round trip
+     * (inserts of entities with an IDENTITY ID are sent one by one) and the persistence context does not grow with the amount of entities.
+     *
+     * @param entities  The entities to apply the operation to.
+     * @param operation The session operation (persist, merge or remove).
+     * @param verb      The name of the operation, used for the messages.
+     * @return A DbReturn containing a success or error message.
+     */
+    private DbReturn executeInBatches(final @NotNull Collection<Entity> entities, final @NotNull BiConsumer<Session, Entity> operation, final @NotNull String verb) {
+        if (entities.isEmpty()) {
+            return new DbReturn("No entities to " + verb, ResultType.SUCCESS);
+        }
+
+        final int batchSize = this.databaseFactory.getJdbcBatchSize();
+
+        DbResult<Integer> batchResult = this.inTransaction(verb + "All", "Failed to " + verb + " " + entities.size() + " entities", session -> {
+            session.setJdbcBatchSize(batchSize);
+
+            int processedEntities = 0;
+            for (Entity entity : entities) {
+                operation.accept(session, entity);
+
+                if (++processedEntities % batchSize == 0) {
+                    session.flush();
+                    session.clear();
+                }
             }
 
-            String msg = "Failed to remove entity";
-            this.logger.log(Level.SEVERE, msg, exception);
-            return new DbReturn(msg, ResultType.ERROR);
+            return new DbResult<>(processedEntities, "Successfully executed \"" + verb + "\" for " + processedEntities + " entities", ResultType.SUCCESS);
+        });
 
-        } finally {
-            session.close();
+        if (batchResult.isSuccessful()) {
+            this.afterWrite(entities.stream().map(this::getNaturalId).toList());
         }
 
-        return new DbReturn("Entity successfully removed", ResultType.SUCCESS);
+        return new DbReturn(batchResult.getMessage(), batchResult.getResultType());
+    }
+
+    /**
+     * Merges the given entities with optimistic locking and retries the merge on a conflict, see {@link #mergeAll(Collection)}.
+     *
+     * @param entities      The entities to merge.
+     * @param operationName The name of the operation, under which its latency and result are recorded.
+     * @return A DbResult containing the merged entities (without the deleted ones) or an error message.
+     */
+    private DbResult<List<Entity>> mergeVersioned(final @NotNull Collection<Entity> entities, final @NotNull String operationName) {
+        if (entities.isEmpty()) {
+            return new DbResult<>(List.of(), "No entities to merge", ResultType.SUCCESS);
+        }
+
+        final SessionFactory sessionFactory = this.getSessionFactory().getResult();
+
+        if (sessionFactory == null) {
+            return new DbResult<>(null, "The session factory is not available", ResultType.ERROR);
+        }
+
+        final EntityPersister persister = sessionFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel().getEntityDescriptor(this.getClazzType());
+        final List<Entity> detachedEntities = List.copyOf(entities);
+        final List<Map<String, Long>> dirtyFieldSnapshots = detachedEntities.stream().map(BaseEntity::getDirtyFields).toList();
+        final Set<Entity> conflictingEntities = Collections.newSetFromMap(new IdentityHashMap<>());
+        final int batchSize = this.getJdbcBatchSize();
+
+        DbResult<List<Entity>> mergeResult = null;
+
+        for (int attempt = 0; attempt <= MAX_CONFLICT_RETRIES; attempt++) {
+            // After a conflict, the state that has been read (e.g. from the second-level cache) is outdated, so it is read from the database
+            final CacheMode cacheMode = attempt == 0 ? CacheMode.NORMAL : CacheMode.REFRESH;
+
+            mergeResult = this.inTransaction(operationName, "Failed to merge " + detachedEntities.size() + " entities", session -> {
+                session.setJdbcBatchSize(batchSize);
+                session.setCacheMode(cacheMode);
+                conflictingEntities.clear();
+
+                final List<Entity> mergedEntities = new ArrayList<>(detachedEntities.size());
+
+                for (int batchStart = 0; batchStart < detachedEntities.size(); batchStart += batchSize) {
+                    final List<Entity> batch = detachedEntities.subList(batchStart, Math.min(batchStart + batchSize, detachedEntities.size()));
+                    final List<Entity> currentEntities = session.byMultipleIds(this.getClazzType()).with(cacheMode).multiLoad(batch.stream().map(BaseEntity::getId).toList());
+
+                    for (int index = 0; index < batch.size(); index++) {
+                        final Entity detachedEntity = batch.get(index);
+                        final Entity currentEntity = currentEntities.get(index);
+
+                        if (currentEntity != null && currentEntity.getVersion() != detachedEntity.getVersion()) {
+                            conflictingEntities.add(detachedEntity);
+                        }
+
+                        mergedEntities.add(currentEntity == null ? null : this.applyChanges(persister, detachedEntity, currentEntity, dirtyFieldSnapshots.get(batchStart + index).keySet(), conflictingEntities.contains(detachedEntity)));
+                    }
+
+                    session.flush();
+                    session.clear();
+                }
+
+                return new DbResult<>(mergedEntities, "Successfully merged " + detachedEntities.size() + " entities", ResultType.SUCCESS);
+            });
+
+            if (mergeResult.getResultType() != ResultType.CONFLICT) {
+                break;
+            }
+        }
+
+        if (!mergeResult.isSuccessful()) {
+            if (mergeResult.getResultType() == ResultType.CONFLICT) {
+                this.logger.log(Level.WARNING, mergeResult.getMessage() + ", the entities are still changed by other servers after " + MAX_CONFLICT_RETRIES + " retries");
+            }
+
+            return mergeResult;
+        }
+
+        final List<Entity> mergedEntities = new ArrayList<>(detachedEntities.size());
+        final List<Object> mergedNaturalIds = new ArrayList<>(detachedEntities.size());
+
+        for (int index = 0; index < detachedEntities.size(); index++) {
+            final Entity detachedEntity = detachedEntities.get(index);
+            final Entity mergedEntity = mergeResult.getResult().get(index);
+
+            if (mergedEntity == null) {
+                detachedEntity.clearDirtyFields(dirtyFieldSnapshots.get(index));
+                this.logger.log(Level.WARNING, "Entity \"" + this.getClazzType().getSimpleName() + "\" with the ID " + detachedEntity.getId() + " does not exist anymore, its changes have been discarded");
+                continue;
+            }
+
+            this.takeOverState(persister, detachedEntity, mergedEntity, conflictingEntities.contains(detachedEntity));
+            detachedEntity.clearDirtyFields(dirtyFieldSnapshots.get(index));
+            mergedEntities.add(mergedEntity);
+            mergedNaturalIds.add(this.getNaturalId(detachedEntity));
+        }
+
+        this.afterWrite(mergedNaturalIds);
+        return new DbResult<>(mergedEntities, mergeResult.getMessage(), ResultType.SUCCESS);
+    }
+
+    /**
+     * Applies the state of the given entity onto the current (managed) state of the database.
+     * Without a conflict, the whole state is applied, like a merge does. With a conflict, only the fields that have been changed
+     * here are applied; entities that do not track their changed fields overwrite the whole state (last write wins).
+     * The ID, the natural id and the version are never applied.
+     *
+     * @param persister       The persister of the entity.
+     * @param detachedEntity  The entity whose state is written.
+     * @param currentEntity   The current state of the entity, loaded by the session.
+     * @param dirtyFieldNames The fields that have been changed in the given entity.
+     * @param conflicting     Whether the entity has been written by another server since it has been loaded here.
+     * @return The current entity with the changes applied.
+     */
+    private Entity applyChanges(final @NotNull EntityPersister persister, final @NotNull Entity detachedEntity, final @NotNull Entity currentEntity, final @NotNull Set<String> dirtyFieldNames, final boolean conflicting) {
+        final String[] propertyNames = persister.getPropertyNames();
+
+        for (int propertyIndex = 0; propertyIndex < propertyNames.length; propertyIndex++) {
+            if (isManagedProperty(persister, propertyIndex)) {
+                continue;
+            }
+
+            if (!conflicting || dirtyFieldNames.isEmpty() || dirtyFieldNames.contains(propertyNames[propertyIndex])) {
+                persister.setPropertyValue(currentEntity, propertyIndex, persister.getPropertyValue(detachedEntity, propertyIndex));
+            }
+        }
+
+        return currentEntity;
+    }
+
+    /**
+     * Takes the written state over into the given entity after a successful merge.
+     * The entity always takes the new version, so its next merge does not conflict with itself. After a conflict,
+     * it also takes the values the other servers have written into the fields that have not been changed here (again).
+     *
+     * @param persister      The persister of the entity.
+     * @param detachedEntity The entity that has been merged.
+     * @param mergedEntity   The written state of the entity.
+     * @param conflicting    Whether the merge has resolved a conflict.
+     */
+    private void takeOverState(final @NotNull EntityPersister persister, final @NotNull Entity detachedEntity, final @NotNull Entity mergedEntity, final boolean conflicting) {
+        final int versionIndex = persister.getVersionProperty();
+        persister.setPropertyValue(detachedEntity, versionIndex, persister.getPropertyValue(mergedEntity, versionIndex));
+
+        if (!conflicting) {
+            return;
+        }
+
+        final String[] propertyNames = persister.getPropertyNames();
+        final Set<String> changedFieldNames = detachedEntity.getDirtyFields().keySet();
+
+        for (int propertyIndex = 0; propertyIndex < propertyNames.length; propertyIndex++) {
+            if (!isManagedProperty(persister, propertyIndex) && !changedFieldNames.contains(propertyNames[propertyIndex])) {
+                persister.setPropertyValue(detachedEntity, propertyIndex, persister.getPropertyValue(mergedEntity, propertyIndex));
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given property is managed by Hibernate (the version) or cannot change (the natural id).
+     *
+     * @param persister     The persister of the entity.
+     * @param propertyIndex The index of the property.
+     * @return Whether the property must not be copied between states.
+     */
+    private static boolean isManagedProperty(final @NotNull EntityPersister persister, final int propertyIndex) {
+        if (propertyIndex == persister.getVersionProperty()) {
+            return true;
+        }
+
+        final int[] naturalIdProperties = persister.getNaturalIdentifierProperties();
+
+        if (naturalIdProperties != null) {
+            for (int naturalIdProperty : naturalIdProperties) {
+                if (naturalIdProperty == propertyIndex) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the amount of statements that are sent to the database in one JDBC batch.
+     *
+     * @return The configured JDBC batch size.
+     */
+    protected int getJdbcBatchSize() {
+        return this.databaseFactory.getJdbcBatchSize();
     }
 
     /**
@@ -145,28 +921,29 @@ public abstract class BaseDao<Entity, Plugin extends JavaPlugin> {
      */
     protected abstract Class<Entity> getClazzType();
 
-
     /**
-     * Returns the CriteriaBuilder that is used to create queries.
+     * Returns the name of the field that is the natural id of the entity (e.g. the Minecraft UUID of a player).
+     * It is used as the key for targeted updates.
      *
-     * @return A DbResult containing the CriteriaBuilder or an error message.
+     * @return The name of the natural id field.
      */
-    protected abstract DbResult<CriteriaBuilder> getCriteriaBuilder();
+    protected abstract String getNaturalIdAttributeName();
 
     /**
-     * Returns the CriteriaQuery that is used to create queries.
+     * Returns the natural id of the given entity (e.g. the Minecraft UUID of a player).
      *
-     * @return A DbResult containing the CriteriaQuery or an error message.
+     * @param entity The entity.
+     * @return The natural id of the entity.
      */
-    protected abstract DbResult<CriteriaQuery<Entity>> getCriteriaQuery();
+    protected abstract Object getNaturalId(@NotNull Entity entity);
+
 
     /**
-     * Returns the session factory that is used to create sessions.
+     * Returns the shared session factory that is used to create sessions.
      *
      * @return A DbResult containing the session factory or an error message.
      */
     private DbResult<SessionFactory> getSessionFactory() {
-        final DatabaseFactory<Plugin> databaseFactory = new DatabaseFactory<>(this.pluginInstance, databaseConfig);
-        return databaseFactory.buildSessionFactory();
+        return this.databaseFactory.getSessionFactory();
     }
 }
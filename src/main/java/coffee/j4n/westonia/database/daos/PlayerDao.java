@@ -1,18 +1,32 @@
 package coffee.j4n.westonia.database.daos;
 
 import coffee.j4n.westonia.Westonia;
+import coffee.j4n.westonia.database.DatabaseExecutor;
+import coffee.j4n.westonia.database.DatabaseFactory;
+import coffee.j4n.westonia.database.cache.PlayerCache;
+import coffee.j4n.westonia.database.converter.UUIDBinaryConverter;
 import coffee.j4n.westonia.database.entities.WstPlayer;
+import coffee.j4n.westonia.database.journal.JournalEntry;
 import coffee.j4n.westonia.database.results.DbResult;
 import coffee.j4n.westonia.database.results.DbReturn;
-import coffee.j4n.westonia.utils.config.MdlDatabaseConfig;
+import coffee.j4n.westonia.interfaces.IInvalidationBus;
 import coffee.j4n.westonia.utils.statics.enums.ResultType;
 import jakarta.persistence.Table;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Root;
+import org.hibernate.CacheMode;
 import org.hibernate.Session;
 import org.jetbrains.annotations.NotNull;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -21,64 +35,162 @@ import java.util.logging.Logger;
 @Table(name = "network_player")
 public class PlayerDao extends BaseDao<WstPlayer, Westonia> {
 
+    /**
+     * The maximum amount of UUIDs that are bound to a single IN query.
+     */
+    private static final int MAXIMUM_UUIDS_PER_QUERY = 500;
+
+    /**
+     * Native insert that is used to register many players at once, without the backend specific beginning ("INSERT IGNORE INTO").
+     */
+    private static final String INSERT_PLAYER_SQL = " " + WstPlayer.TABLE_NAME + " (minecraft_uuid, first_join_date, last_seen_date, global_language) VALUES (?, ?, ?, ?)";
+
+    /**
+     * Native insert that moves archived players back into the player table, without the backend specific beginning and the UUID placeholders.
+     */
+    private static final String RESTORE_PLAYERS_SQL = " " + WstPlayer.TABLE_NAME + " (minecraft_uuid, first_join_date, last_seen_date, global_language)"
+            + " SELECT minecraft_uuid, first_join_date, ?, global_language FROM " + WstPlayer.ARCHIVE_TABLE_NAME + " WHERE minecraft_uuid IN ";
+
+    private static final UUIDBinaryConverter UUID_CONVERTER = new UUIDBinaryConverter();
+
     private final Logger logger;
+    private final PlayerCache playerCache;
+    private final IInvalidationBus invalidationBus;
+    private final String insertIgnorePlayerSql;
+    private final String insertIgnoreStatement;
 
     /**
      * Creates a new instance of the PlayerDao class.
+     *
+     * @param plugin           The plugin instance.
+     * @param databaseFactory  The database factory that holds the shared session factory.
+     * @param databaseExecutor The executor that runs the asynchronous database operations.
+     * @param playerCache      The read-through cache in front of the player table.
+     * @param invalidationBus  The bus that tells the other servers of the network which players have been changed.
      */
-    public PlayerDao(@NotNull Westonia plugin, final @NotNull MdlDatabaseConfig databaseConfiguration) {
-        super(plugin, databaseConfiguration);
+    public PlayerDao(@NotNull Westonia plugin, final @NotNull DatabaseFactory<Westonia> databaseFactory, final @NotNull DatabaseExecutor databaseExecutor, final @NotNull PlayerCache playerCache, final @NotNull IInvalidationBus invalidationBus) {
+        super(plugin, databaseFactory, databaseExecutor);
         this.logger = plugin.getLogger();
+        this.insertIgnoreStatement = databaseFactory.getStorageBackend().getInsertIgnoreStatement();
+        this.insertIgnorePlayerSql = this.insertIgnoreStatement + INSERT_PLAYER_SQL;
+        this.playerCache = playerCache;
+        this.invalidationBus = invalidationBus;
     }
 
     /**
      * Returns the player based on the UUID.
+     * The player is served from the player cache if possible, otherwise it is loaded from the database and cached.
      *
      * @param uuid The UUID of the player.
-     * @return A CompletableFuture that completes with the DbResult containing the WstPlayer or an error.
+     * @return A DbResult containing the WstPlayer or an error.
      */
-    public DbResult<WstPlayer> getPlayer(final @NotNull String uuid) {
-        DbResult<Session> sessionResult = this.getOrCreateSession();
-        DbResult<CriteriaBuilder> criteriaBuilderResult = this.getCriteriaBuilder();
-        DbResult<CriteriaQuery<WstPlayer>> criteriaQueryResult = this.getCriteriaQuery();
+    public DbResult<WstPlayer> getPlayer(final @NotNull UUID uuid) {
+        return this.playerCache.get(uuid, this::queryPlayer);
+    }
 
-        if (!sessionResult.isSuccessful()) {
-            String msg = "Session result type is " + sessionResult.getResultType().toString();
-            this.logger.log(Level.SEVERE, msg);
-            return new DbResult<>(null, msg, ResultType.ERROR);
+    /**
+     * Returns all registered players with the given UUIDs.
+     * Players that are already cached are taken from the player cache, all others are loaded with one query per chunk of UUIDs and cached.
+     * UUIDs of players that are not registered are missing in the result.
+     *
+     * @param uuids The UUIDs of the players.
+     * @return A DbResult containing the found players or an error.
+     */
+    public DbResult<List<WstPlayer>> getPlayers(final @NotNull Collection<UUID> uuids) {
+        List<WstPlayer> foundPlayers = new ArrayList<>(uuids.size());
+        List<UUID> uncachedUUIDs = new ArrayList<>();
+
+        for (UUID uuid : uuids) {
+            WstPlayer cachedPlayer = this.playerCache.getIfPresent(uuid);
+
+            if (cachedPlayer != null) {
+                foundPlayers.add(cachedPlayer);
+            } else {
+                uncachedUUIDs.add(uuid);
+            }
         }
 
-        if (!criteriaBuilderResult.isSuccessful()) {
-            String msg = "CriteriaBuilder result type is " + criteriaBuilderResult.getResultType().toString();
-            this.logger.log(Level.SEVERE, msg);
-            return new DbResult<>(null, msg, ResultType.ERROR);
+        if (uncachedUUIDs.isEmpty()) {
+            return new DbResult<>(foundPlayers, "Players found in cache", ResultType.FOUND);
         }
 
-        if (!criteriaQueryResult.isSuccessful()) {
-            String msg = "CriteriaQuery result type is " + criteriaQueryResult.getResultType().toString();
-            this.logger.log(Level.SEVERE, msg);
-            return new DbResult<>(null, msg, ResultType.ERROR);
-        }
+        DbResult<List<WstPlayer>> loadResult = this.inReadSession(uncachedUUIDs, "getPlayers", "Failed to load " + uncachedUUIDs.size() + " players", session -> {
+            List<WstPlayer> loadedPlayers = new ArrayList<>(uncachedUUIDs.size());
+
+            for (int fromIndex = 0; fromIndex < uncachedUUIDs.size(); fromIndex += MAXIMUM_UUIDS_PER_QUERY) {
+                List<UUID> chunk = uncachedUUIDs.subList(fromIndex, Math.min(fromIndex + MAXIMUM_UUIDS_PER_QUERY, uncachedUUIDs.size()));
 
-        Session session = sessionResult.getResult();
-        CriteriaBuilder criteriaBuilder = criteriaBuilderResult.getResult();
-        CriteriaQuery<WstPlayer> criteriaQuery = criteriaQueryResult.getResult();
+                loadedPlayers.addAll(session.createNamedQuery(WstPlayer.QUERY_FIND_BY_UUIDS, WstPlayer.class)
+                        .setParameter("uuids", chunk)
+                        .getResultList());
+            }
 
-        if (session == null || criteriaBuilder == null || criteriaQuery == null) {
-            String msg = "Session, CriteriaBuilder or CriteriaQuery is null";
-            this.logger.log(Level.SEVERE, msg);
-            return new DbResult<>(null, msg, ResultType.ERROR);
+            return new DbResult<>(loadedPlayers, "Players loaded", ResultType.FOUND);
+        });
+
+        if (!loadResult.isSuccessful() || loadResult.getResult() == null) {
+            return new DbResult<>(null, loadResult.getMessage(), loadResult.getResultType());
         }
 
-        Root<WstPlayer> root = criteriaQuery.from(WstPlayer.class);
-        criteriaQuery.select(root).where(criteriaBuilder.equal(root.get("minecraftUUID"), uuid));
+        for (WstPlayer loadedPlayer : loadResult.getResult()) {
+            this.playerCache.put(loadedPlayer);
+            foundPlayers.add(loadedPlayer);
+        }
 
-        WstPlayer foundPlayer = session.createQuery(criteriaQuery).uniqueResult();
-        if (foundPlayer == null) {
-            return new DbResult<>(null, "Player not found", ResultType.NOT_FOUND);
+        return new DbResult<>(foundPlayers, "Players found", ResultType.FOUND);
+    }
+
+    /**
+     * Returns the cache that is used in front of the player table.
+     *
+     * @return The player cache.
+     */
+    public PlayerCache getPlayerCache() {
+        return this.playerCache;
+    }
+
+    /**
+     * Evicts the given players from the player cache and the second-level cache, e.g. because another server has changed or archived them.
+     * Both the cached entity and the cached natural id are evicted, so a player that has been archived (and gets a new ID once it is restored)
+     * is not resolved to its old ID. The next lookup of these players reads them from the database again, all other cached players are kept.
+     *
+     * @param uuids The UUIDs of the changed players.
+     */
+    public void evictPlayers(final @NotNull Collection<UUID> uuids) {
+        uuids.forEach(this.playerCache::invalidate);
+
+        // The second-level cache is keyed by the ID, the IDs of all players are resolved with one query
+        DbResult<Integer> evictResult = this.inSession("evictPlayers", "Failed to evict " + uuids.size() + " players from the second-level cache", session -> {
+            final List<Long> ids = session.createSelectionQuery("select e.id from WstPlayer e where e." + WstPlayer.FIELD_MINECRAFT_UUID + " in :uuids", Long.class)
+                    .setParameter("uuids", uuids)
+                    .setCacheMode(CacheMode.IGNORE)
+                    .getResultList();
+
+            this.evictFromSecondLevelCache(session, ids, uuids);
+            return new DbResult<>(ids.size(), ids.size() + " players evicted", ResultType.SUCCESS);
+        });
+
+        if (!evictResult.isSuccessful()) {
+            this.logger.log(Level.WARNING, evictResult.getMessage());
         }
+    }
 
-        return new DbResult<>(foundPlayer, "Player found", ResultType.FOUND);
+    /**
+     * Queries the player based on the UUID from the database, bypassing the player cache.
+     * The player is read from the read replica, unless it has been written recently.
+     *
+     * @param uuid The UUID of the player.
+     * @return A DbResult containing the WstPlayer or an error.
+     */
+    private DbResult<WstPlayer> queryPlayer(final @NotNull UUID uuid) {
+        return this.inReadSession(List.of(uuid), "getPlayer", "Failed to load player \"" + uuid + "\"", session -> {
+            WstPlayer foundPlayer = this.findByUuid(session, uuid);
+            if (foundPlayer == null) {
+                return new DbResult<>(null, "Player not found", ResultType.NOT_FOUND);
+            }
+
+            return new DbResult<>(foundPlayer, "Player found", ResultType.FOUND);
+        });
     }
 
     /**
@@ -87,7 +199,7 @@ public class PlayerDao extends BaseDao<WstPlayer, Westonia> {
      * @param uuid The UUID of the player whose language is to be returned.
      * @return A DbResult containing the language of the player or an error.
      */
-    public DbResult<String> getLanguage(final @NotNull String uuid) {
+    public DbResult<String> getLanguage(final @NotNull UUID uuid) {
         DbResult<WstPlayer> playerResult = getPlayer(uuid);
 
         if (!playerResult.isSuccessful()) {
@@ -98,27 +210,62 @@ public class PlayerDao extends BaseDao<WstPlayer, Westonia> {
     }
 
     /**
-     * Updates the language of the player based on the UUID synchronously
+     * Updates the language of the player based on the UUID synchronously.
+     * Only the language column is updated, the player is not loaded for this.
      *
      * @param uuid     The UUID of the player whose language is to be updated.
      * @param language The language to be updated.
      * @return A DbReturn containing the result of the operation.
      */
-    public DbReturn updateLanguage(final @NotNull String uuid, final @NotNull String language) {
-        DbResult<WstPlayer> playerResult = getPlayer(uuid);
-        if (!playerResult.isSuccessful()) {
-            return new DbReturn(playerResult.getMessage(), ResultType.ERROR);
+    public DbReturn updateLanguage(final @NotNull UUID uuid, final @NotNull String language) {
+        DbReturn updateResult = this.updateField(uuid, WstPlayer.FIELD_LANGUAGE, language);
+
+        if (updateResult.isSuccessful()) {
+            // The cached player still has the old language
+            this.playerCache.invalidate(uuid);
         }
 
-        WstPlayer player = playerResult.getResult();
+        return updateResult;
+    }
 
-        if (player == null) {
-            return new DbReturn("Player is null", ResultType.ERROR);
+    /**
+     * Writes an entry of the write journal to the database.
+     * The player is registered if necessary, otherwise the language is written unconditionally,
+     * since the loaded (or cached) player may already hold the journaled language in memory only.
+     * The last seen date is only written if it is later than the one in the database, e.g. if the player has joined another server in the meantime.
+     *
+     * @param entry The journal entry to write.
+     * @return A DbReturn containing the result of the operation, ERROR if the database is still unreachable.
+     */
+    public DbReturn writeJournalEntry(final @NotNull JournalEntry entry) {
+        final UUID uuid = entry.getPlayerUUID();
+        DbResult<WstPlayer> playerResult = this.loadOrRegister(uuid, entry.getLanguage() != null ? entry.getLanguage() : WstPlayer.DEFAULT_LANGUAGE);
+
+        if (!playerResult.isSuccessful() || playerResult.getResult() == null) {
+            return new DbReturn(playerResult.getMessage(), playerResult.getResultType());
+        }
+
+        // A player that has just been registered has the journaled language already
+        if (entry.getLanguage() != null && playerResult.getResultType() != ResultType.SUCCESS) {
+            DbReturn languageResult = this.updateLanguage(uuid, entry.getLanguage());
+
+            if (!languageResult.isSuccessful()) {
+                return languageResult;
+            }
+        }
+
+        if (entry.getLastSeenMillis() == null || entry.getLastSeenMillis() <= playerResult.getResult().getLastSeenDate().getTime()) {
+            return new DbReturn("Journal entry written", ResultType.SUCCESS);
         }
 
-        player.setLanguage(language);
+        DbReturn lastSeenResult = this.updateField(uuid, WstPlayer.FIELD_LAST_SEEN_DATE, new Timestamp(entry.getLastSeenMillis()));
 
-        return this.persistEntity(player);
+        if (lastSeenResult.isSuccessful()) {
+            // The cached player still has the old last seen date
+            this.playerCache.invalidate(uuid);
+        }
+
+        return lastSeenResult;
     }
 
     /**
@@ -127,7 +274,7 @@ public class PlayerDao extends BaseDao<WstPlayer, Westonia> {
      * @param uuid The UUID of the player.
      * @return A DbReturn containing the result of the operation.
      */
-    public DbReturn isPlayerRegistered(final @NotNull String uuid) {
+    public DbReturn isPlayerRegistered(final @NotNull UUID uuid) {
         DbResult<WstPlayer> playerResult = getPlayer(uuid);
         if (!playerResult.isSuccessful()) {
             return new DbReturn(playerResult.getMessage(), playerResult.getResultType());
@@ -147,58 +294,287 @@ public class PlayerDao extends BaseDao<WstPlayer, Westonia> {
      * @return A DbrReturn containing the result of the operation.
      */
     public DbReturn registerPlayer(final @NotNull WstPlayer player) {
-        return this.persistEntity(player);
-    }
+        DbReturn persistResult = this.persistEntity(player);
 
-    @Override
-    protected DbResult<CriteriaBuilder> getCriteriaBuilder() {
-        DbResult<Session> sessionResult = getOrCreateSession();
-        if (!sessionResult.isSuccessful()) {
-            this.logger.log(Level.SEVERE, "Failed to get session");
-            return new DbResult<>(null, "Failed to get session", ResultType.ERROR);
+        if (persistResult.isSuccessful()) {
+            this.playerCache.put(player);
         }
 
-        Session session = sessionResult.getResult();
+        return persistResult;
+    }
 
-        if (session == null) {
-            this.logger.log(Level.SEVERE, "Session is null");
-            return new DbResult<>(null, "Session is null", ResultType.ERROR);
+    /**
+     * Loads the player based on the UUID and registers it with the given default language if it does not exist yet.
+     * An already registered player costs exactly one query, a new player one query and one insert.
+     * A player that has been archived because of inactivity is moved back into the player table instead of being registered again.
+     *
+     * @param uuid          The UUID of the player.
+     * @param defaultLocale The language that is used if the player has to be registered.
+     * @return A DbResult containing the WstPlayer (FOUND if the player already existed, SUCCESS if it has been registered) or an error.
+     */
+    public DbResult<WstPlayer> loadOrRegister(final @NotNull UUID uuid, final @NotNull String defaultLocale) {
+        WstPlayer cachedPlayer = this.playerCache.getIfPresent(uuid);
+        if (cachedPlayer != null) {
+            return new DbResult<>(cachedPlayer, "Player found in cache", ResultType.FOUND);
         }
 
-        CriteriaBuilder builder = session.getCriteriaBuilder();
+        DbResult<WstPlayer> playerResult = this.inTransaction("loadOrRegister", "Failed to load or register player \"" + uuid + "\"", session -> {
+            WstPlayer foundPlayer = this.findByUuid(session, uuid);
+            if (foundPlayer != null) {
+                return new DbResult<>(foundPlayer, "Player found", ResultType.FOUND);
+            }
+
+            if (session.doReturningWork(connection -> this.restoreArchivedPlayers(connection, List.of(uuid))) > 0) {
+                // The natural id resolution of the session does not know the restored row, so the player is queried directly
+                WstPlayer restoredPlayer = session.createNamedQuery(WstPlayer.QUERY_FIND_BY_UUIDS, WstPlayer.class)
+                        .setParameter("uuids", List.of(uuid))
+                        .getSingleResult();
+
+                this.pinToPrimary(uuid);
+                return new DbResult<>(restoredPlayer, "Player restored from the archive", ResultType.FOUND);
+            }
+
+            WstPlayer newPlayer = new WstPlayer(uuid, defaultLocale);
+            session.persist(newPlayer);
+            session.flush();
+
+            return new DbResult<>(newPlayer, "Player registered", ResultType.SUCCESS);
+        });
+
+        if (playerResult.getResultType() == ResultType.SUCCESS) {
+            this.pinToPrimary(uuid);
+        } else if (playerResult.getResultType() == ResultType.ALREADY_EXISTS) {
+            // The player has been registered concurrently (e.g. by another server), so we just load it in a new session from the primary
+            this.pinToPrimary(uuid);
+            playerResult = this.queryPlayer(uuid);
+        }
 
-        if (builder == null) {
-            this.logger.log(Level.SEVERE, "CriteriaBuilder is null");
-            return new DbResult<>(null, "CriteriaBuilder is null", ResultType.ERROR);
+        if (playerResult.isSuccessful() && playerResult.getResult() != null) {
+            this.playerCache.put(playerResult.getResult());
         }
 
-        return new DbResult<>(builder, "CriteriaBuilder created", ResultType.SUCCESS);
+        return playerResult;
     }
 
-    @Override
-    protected DbResult<CriteriaQuery<WstPlayer>> getCriteriaQuery() {
-        DbResult<CriteriaBuilder> criteriaBuilderResult = getCriteriaBuilder();
+    /**
+     * Loads all given players and registers the ones that do not exist yet, e.g. for all online players after a reload.
+     * Instead of one query per player, the players are loaded with one query per chunk of UUIDs,
+     * the missing ones are restored from the archive or inserted with one JDBC batch and then loaded with one more query per chunk.
+     *
+     * @param languagesByUUID The UUIDs of the players, mapped to the language that is used if the player has to be registered.
+     * @return A DbResult containing the players mapped by their UUID or an error.
+     */
+    public DbResult<Map<UUID, WstPlayer>> loadOrRegisterAll(final @NotNull Map<UUID, String> languagesByUUID) {
+        DbResult<List<WstPlayer>> existingPlayersResult = this.getPlayers(languagesByUUID.keySet());
+
+        if (!existingPlayersResult.isSuccessful() || existingPlayersResult.getResult() == null) {
+            return new DbResult<>(null, existingPlayersResult.getMessage(), existingPlayersResult.getResultType());
+        }
+
+        Map<UUID, WstPlayer> playersByUUID = new HashMap<>();
+        for (WstPlayer player : existingPlayersResult.getResult()) {
+            playersByUUID.put(player.getMinecraftUUID(), player);
+        }
 
-        if (!criteriaBuilderResult.isSuccessful()) {
-            this.logger.log(Level.SEVERE, "CriteriaBuilder is null");
-            return new DbResult<>(null, "CriteriaBuilder is null", ResultType.ERROR);
+        List<UUID> missingUUIDs = languagesByUUID.keySet().stream().filter(uuid -> !playersByUUID.containsKey(uuid)).toList();
+        if (missingUUIDs.isEmpty()) {
+            return new DbResult<>(playersByUUID, "Players found", ResultType.FOUND);
         }
 
-        CriteriaBuilder criteriaBuilder = criteriaBuilderResult.getResult();
+        DbResult<Integer> registerResult = this.inTransaction("loadOrRegisterAll", "Failed to register " + missingUUIDs.size() + " players", session -> {
+            session.doWork(connection -> {
+                this.restoreArchivedPlayers(connection, missingUUIDs);
+                this.insertPlayers(connection, missingUUIDs, languagesByUUID);
+            });
+            return new DbResult<>(missingUUIDs.size(), "Players registered", ResultType.SUCCESS);
+        });
 
-        if (criteriaBuilder == null) {
-            this.logger.log(Level.SEVERE, "CriteriaBuilder is null");
-            return new DbResult<>(null, "CriteriaBuilder is null", ResultType.ERROR);
+        if (!registerResult.isSuccessful()) {
+            return new DbResult<>(null, registerResult.getMessage(), registerResult.getResultType());
         }
 
-        CriteriaQuery<WstPlayer> criteriaQuery = criteriaBuilder.createQuery(WstPlayer.class);
+        // The registered players are read back right away, which the read replica may not have received yet
+        missingUUIDs.forEach(this::pinToPrimary);
 
-        if (criteriaQuery == null) {
-            this.logger.log(Level.SEVERE, "CriteriaQuery is null");
-            return new DbResult<>(null, "CriteriaQuery is null", ResultType.ERROR);
+        DbResult<List<WstPlayer>> registeredPlayersResult = this.getPlayers(missingUUIDs);
+
+        if (!registeredPlayersResult.isSuccessful() || registeredPlayersResult.getResult() == null) {
+            return new DbResult<>(null, registeredPlayersResult.getMessage(), registeredPlayersResult.getResultType());
         }
 
-        return new DbResult<>(criteriaQuery, "CriteriaQuery created", ResultType.SUCCESS);
+        for (WstPlayer player : registeredPlayersResult.getResult()) {
+            playersByUUID.put(player.getMinecraftUUID(), player);
+        }
+
+        return new DbResult<>(playersByUUID, "Players loaded and registered", ResultType.SUCCESS);
+    }
+
+    /**
+     * Loads all given players and registers the ones that do not exist yet, asynchronously.
+     *
+     * @param languagesByUUID The UUIDs of the players, mapped to the language that is used if the player has to be registered.
+     * @return A CompletableFuture that completes with the DbResult containing the players mapped by their UUID or an error.
+     */
+    public CompletableFuture<DbResult<Map<UUID, WstPlayer>>> loadOrRegisterAllAsync(final @NotNull Map<UUID, String> languagesByUUID) {
+        return this.supplyAsync(() -> this.loadOrRegisterAll(languagesByUUID));
+    }
+
+    /**
+     * Loads the player based on the UUID and registers it if it does not exist yet, asynchronously.
+     *
+     * @param uuid          The UUID of the player.
+     * @param defaultLocale The language that is used if the player has to be registered.
+     * @return A CompletableFuture that completes with the DbResult containing the WstPlayer or an error.
+     */
+    public CompletableFuture<DbResult<WstPlayer>> loadOrRegisterAsync(final @NotNull UUID uuid, final @NotNull String defaultLocale) {
+        return this.supplyAsync(() -> this.loadOrRegister(uuid, defaultLocale));
+    }
+
+    /**
+     * Returns the player based on the UUID asynchronously.
+     *
+     * @param uuid The UUID of the player.
+     * @return A CompletableFuture that completes with the DbResult containing the WstPlayer or an error.
+     */
+    public CompletableFuture<DbResult<WstPlayer>> getPlayerAsync(final @NotNull UUID uuid) {
+        return this.supplyAsync(() -> this.getPlayer(uuid));
+    }
+
+    /**
+     * Returns all registered players with the given UUIDs asynchronously.
+     *
+     * @param uuids The UUIDs of the players.
+     * @return A CompletableFuture that completes with the DbResult containing the found players or an error.
+     */
+    public CompletableFuture<DbResult<List<WstPlayer>>> getPlayersAsync(final @NotNull Collection<UUID> uuids) {
+        return this.supplyAsync(() -> this.getPlayers(uuids));
+    }
+
+    /**
+     * Returns the language of the player based on the UUID asynchronously.
+     *
+     * @param uuid The UUID of the player whose language is to be returned.
+     * @return A CompletableFuture that completes with the DbResult containing the language of the player or an error.
+     */
+    public CompletableFuture<DbResult<String>> getLanguageAsync(final @NotNull UUID uuid) {
+        return this.supplyAsync(() -> this.getLanguage(uuid));
+    }
+
+    /**
+     * Updates the language of the player based on the UUID asynchronously.
+     *
+     * @param uuid     The UUID of the player whose language is to be updated.
+     * @param language The language to be updated.
+     * @return A CompletableFuture that completes with the DbReturn containing the result of the operation.
+     */
+    public CompletableFuture<DbReturn> updateLanguageAsync(final @NotNull UUID uuid, final @NotNull String language) {
+        return this.supplyAsync(() -> this.updateLanguage(uuid, language));
+    }
+
+    /**
+     * Checks if the player is registered based on the UUID asynchronously.
+     *
+     * @param uuid The UUID of the player.
+     * @return A CompletableFuture that completes with the DbReturn containing the result of the operation.
+     */
+    public CompletableFuture<DbReturn> isPlayerRegisteredAsync(final @NotNull UUID uuid) {
+        return this.supplyAsync(() -> this.isPlayerRegistered(uuid));
+    }
+
+    /**
+     * Registers a player asynchronously.
+     *
+     * @param player The player to be registered.
+     * @return A CompletableFuture that completes with the DbReturn containing the result of the operation.
+     */
+    public CompletableFuture<DbReturn> registerPlayerAsync(final @NotNull WstPlayer player) {
+        return this.supplyAsync(() -> this.registerPlayer(player));
+    }
+
+    /**
+     * Inserts the given players with a single JDBC batch.
+     * Hibernate cannot batch inserts of entities with an IDENTITY ID, so a native statement is used, which the MySQL driver
+     * rewrites into multi-row inserts. Players that have been registered concurrently in the meantime are skipped
+     * (the insert-ignore statement of the storage backend, e.g. "INSERT IGNORE").
+     *
+     * @param connection      The connection of the current transaction.
+     * @param uuids           The UUIDs of the players to insert.
+     * @param languagesByUUID The languages of the players.
+     * @throws SQLException If the batch fails.
+     */
+    private void insertPlayers(final @NotNull Connection connection, final @NotNull List<UUID> uuids, final @NotNull Map<UUID, String> languagesByUUID) throws SQLException {
+        final int batchSize = this.getJdbcBatchSize();
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        try (PreparedStatement statement = connection.prepareStatement(this.insertIgnorePlayerSql)) {
+            int batchedPlayers = 0;
+
+            for (UUID uuid : uuids) {
+                statement.setBytes(1, UUID_CONVERTER.convertToDatabaseColumn(uuid));
+                statement.setTimestamp(2, now);
+                statement.setTimestamp(3, now);
+                statement.setString(4, languagesByUUID.getOrDefault(uuid, WstPlayer.DEFAULT_LANGUAGE));
+                statement.addBatch();
+
+                if (++batchedPlayers % batchSize == 0) {
+                    statement.executeBatch();
+                }
+            }
+
+            if (batchedPlayers % batchSize != 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * Moves the given players from the archive back into the player table, with one insert and one delete per chunk of UUIDs.
+     * They are marked as seen now, so that they are not archived again right away. Players that are not archived are skipped.
+     *
+     * @param connection The connection of the current transaction.
+     * @param uuids      The UUIDs of the players to restore.
+     * @return The amount of restored players.
+     * @throws SQLException If the players could not be restored.
+     */
+    private int restoreArchivedPlayers(final @NotNull Connection connection, final @NotNull List<UUID> uuids) throws SQLException {
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        int restoredPlayers = 0;
+
+        for (int fromIndex = 0; fromIndex < uuids.size(); fromIndex += MAXIMUM_UUIDS_PER_QUERY) {
+            List<UUID> chunk = uuids.subList(fromIndex, Math.min(fromIndex + MAXIMUM_UUIDS_PER_QUERY, uuids.size()));
+            String placeholders = "(" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+
+            try (PreparedStatement restoreStatement = connection.prepareStatement(this.insertIgnoreStatement + RESTORE_PLAYERS_SQL + placeholders);
+                 PreparedStatement deleteStatement = connection.prepareStatement("DELETE FROM " + WstPlayer.ARCHIVE_TABLE_NAME + " WHERE minecraft_uuid IN " + placeholders)) {
+                restoreStatement.setTimestamp(1, now);
+
+                for (int index = 0; index < chunk.size(); index++) {
+                    byte[] uuidBytes = UUID_CONVERTER.convertToDatabaseColumn(chunk.get(index));
+                    restoreStatement.setBytes(index + 2, uuidBytes);
+                    deleteStatement.setBytes(index + 1, uuidBytes);
+                }
+
+                restoredPlayers += restoreStatement.executeUpdate();
+
+                // Archived rows of players that have been registered again in the meantime are dropped as well, the registered row wins
+                deleteStatement.executeUpdate();
+            }
+        }
+
+        return restoredPlayers;
+    }
+
+    /**
+     * Loads the player with the given UUID by its natural id using the given session.
+     * Repeated loads are resolved from the natural-id cache and the second-level cache without any SQL,
+     * otherwise the lookup goes through the unique index on the binary "minecraft_uuid" column.
+     *
+     * @param session The session to use.
+     * @param uuid    The UUID of the player.
+     * @return The player or null if it does not exist.
+     */
+    private WstPlayer findByUuid(final @NotNull Session session, final @NotNull UUID uuid) {
+        return session.bySimpleNaturalId(WstPlayer.class).load(uuid);
     }
 
     /**
@@ -208,4 +584,29 @@ public class PlayerDao extends BaseDao<WstPlayer, Westonia> {
     protected Class<WstPlayer> getClazzType() {
         return WstPlayer.class;
     }
+
+    @Override
+    protected String getNaturalIdAttributeName() {
+        return WstPlayer.FIELD_MINECRAFT_UUID;
+    }
+
+    @Override
+    protected Object getNaturalId(final @NotNull WstPlayer entity) {
+        return entity.getMinecraftUUID();
+    }
+
+    /**
+     * Additionally announces the changed players to the other servers of the network, which evict them from their caches.
+     */
+    @Override
+    protected void afterWrite(final @NotNull Collection<?> naturalIds) {
+        super.afterWrite(naturalIds);
+
+        List<UUID> changedUUIDs = naturalIds.stream()
+                .filter(UUID.class::isInstance)
+                .map(UUID.class::cast)
+                .toList();
+
+        this.invalidationBus.publish(changedUUIDs);
+    }
 }
@@ -5,18 +5,27 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Base entity class that provides basic fields for all entities.
+ * Every entity carries a version, which Hibernate increments with every update and checks in the WHERE clause of the update
+ * (optimistic locking), so a write that is based on an outdated state fails instead of overwriting the changes of another server.
  * More information about jakarta persistence can be found <a href="https://jakarta.ee/learn/docs/jakartaee-tutorial/current/persist/persistence-intro/persistence-intro.html"><b><u>HERE</u></b></a>
  */
 @MappedSuperclass
 public class BaseEntity implements Serializable {
 
-    @Version
     @Serial
     private static final long serialVersionUID = 1L;
 
+    /**
+     * The sequence that orders the changes of the fields, see {@link #markDirty(String)}.
+     */
+    private static final AtomicLong CHANGE_SEQUENCE = new AtomicLong();
+
     /**
      * The ID of the entity.
      * This field is unique and auto-generated.
@@ -27,6 +36,22 @@ public class BaseEntity implements Serializable {
     @NotNull
     private final Long id;
 
+    /**
+     * The version of the entity, incremented by Hibernate with every update.
+     * This field must never be changed manually.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version = 0L;
+
+    /**
+     * The names of the fields that have been changed in memory and have not been written yet, each with the sequence number of its last change.
+     * When a write conflicts with the change of another server, only these fields are applied onto the current state of the database.
+     * This field is not persisted.
+     */
+    @Transient
+    private final transient Map<String, Long> dirtyFields = new ConcurrentHashMap<>();
+
     public BaseEntity() {
         this.id = -1L;
     }
@@ -43,4 +68,50 @@ public class BaseEntity implements Serializable {
     public @NotNull Long getId() {
         return id;
     }
+
+    /**
+     * Returns the version of the entity, which is incremented with every update.
+     *
+     * @return The version of the entity.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Marks the given field as changed, which makes the entity dirty until the change has been written.
+     * Setters of persisted fields should call this, so that a conflicting write keeps the change of the field.
+     *
+     * @param fieldName The name of the changed field (not the column).
+     */
+    protected void markDirty(final @NotNull String fieldName) {
+        this.dirtyFields.put(fieldName, CHANGE_SEQUENCE.incrementAndGet());
+    }
+
+    /**
+     * Returns the fields that have been changed and not been written yet, each with the sequence number of its last change.
+     *
+     * @return A snapshot of the dirty fields.
+     */
+    public Map<String, Long> getDirtyFields() {
+        return Map.copyOf(this.dirtyFields);
+    }
+
+    /**
+     * Marks the given fields as written, unless they have been changed again in the meantime (their sequence number differs).
+     *
+     * @param writtenFields The snapshot of the dirty fields that has been written, see {@link #getDirtyFields()}.
+     */
+    public void clearDirtyFields(final @NotNull Map<String, Long> writtenFields) {
+        writtenFields.forEach(this.dirtyFields::remove);
+    }
+
+    /**
+     * Returns whether the entity has changed fields that have not been written to the database yet.
+     *
+     * @return Whether the entity is dirty.
+     */
+    public boolean isDirty() {
+        return !this.dirtyFields.isEmpty();
+    }
 }
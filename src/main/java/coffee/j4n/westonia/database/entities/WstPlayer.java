@@ -1,8 +1,13 @@
 package coffee.j4n.westonia.database.entities;
 
 import jakarta.persistence.*;
-import coffee.j4n.westonia.database.converter.UUIDConverter;
+import coffee.j4n.westonia.database.cache.CacheRegions;
+import coffee.j4n.westonia.database.converter.UUIDBinaryConverter;
 import coffee.j4n.westonia.BasePlayer;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.Serializable;
@@ -11,18 +16,58 @@ import java.util.UUID;
 
 /**
  * Entity class for the player table.
+ * Players are looked up by their Minecraft UUID (natural id), both the entities and the natural ids are held in the second-level cache.
  */
 @Entity
-@Table(name = "westonia_player")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.PLAYER)
+@NaturalIdCache(region = CacheRegions.PLAYER_NATURAL_ID)
+@NamedQuery(name = WstPlayer.QUERY_FIND_BY_UUIDS, query = "from WstPlayer p where p.minecraftUUID in :uuids")
+@Table(name = WstPlayer.TABLE_NAME, uniqueConstraints = @UniqueConstraint(name = "uk_westonia_player_minecraft_uuid", columnNames = "minecraft_uuid"))
 public class WstPlayer extends BaseEntity implements Serializable {
 
+    /**
+     * Name of the named query that returns all players with the given UUIDs (parameter "uuids").
+     */
+    public static final String QUERY_FIND_BY_UUIDS = "WstPlayer.findByUuids";
+
+    /**
+     * Name of the player table.
+     */
+    public static final String TABLE_NAME = "westonia_player";
+
+    /**
+     * Name of the table into which inactive players are archived.
+     */
+    public static final String ARCHIVE_TABLE_NAME = "westonia_player_archive";
+
+    /**
+     * The language of players whose language is not known yet, because the server is mainly German.
+     */
+    public static final String DEFAULT_LANGUAGE = "de";
+
+    /**
+     * Name of the field that holds the Minecraft UUID (natural id).
+     */
+    public static final String FIELD_MINECRAFT_UUID = "minecraftUUID";
+
+    /**
+     * Name of the field that holds the language, used for targeted updates.
+     */
+    public static final String FIELD_LANGUAGE = "language";
+
+    /**
+     * Name of the field that holds the last seen date.
+     */
+    public static final String FIELD_LAST_SEEN_DATE = "lastSeenDate";
+
     /**
      * The Minecraft UUID of the player.
-     * This field is unique and not nullable.
+     * This field is the immutable natural id of the player, it is unique (indexed) and not nullable and is stored as BINARY(16).
      * Default value is a random UUID.
      */
-    @Column(name = "minecraft_uuid", unique = true, nullable = false)
-    @Convert(converter = UUIDConverter.class)
+    @NaturalId
+    @Column(name = "minecraft_uuid", nullable = false, length = 16, columnDefinition = "BINARY(16)")
+    @Convert(converter = UUIDBinaryConverter.class)
     @NotNull
     public UUID minecraftUUID = UUID.randomUUID();
 
@@ -35,6 +80,16 @@ public class WstPlayer extends BaseEntity implements Serializable {
     @NotNull
     private Date firstJoinDate = new Date();
 
+    /**
+     * The date, on which the player has last been seen on the server (joined or left).
+     * Players that have not been seen for a while are moved into the archive table.
+     * This field is not nullable.
+     * Default value is the current date.
+     */
+    @Column(name = "last_seen_date", nullable = false)
+    @NotNull
+    private Date lastSeenDate = new Date();
+
     /**
      * The currently selected language of the player.
      * The language is stored as a two-letter language code and is used in all systems associated with Westonia.
@@ -43,7 +98,7 @@ public class WstPlayer extends BaseEntity implements Serializable {
      */
     @Column(name = "global_language", nullable = false)
     @NotNull
-    private String language = "de";
+    private String language = DEFAULT_LANGUAGE;
 
     /**
      * Default constructor, required by Hibernate.
@@ -56,6 +111,17 @@ public class WstPlayer extends BaseEntity implements Serializable {
         this.language = basePlayer.getPlayer().locale().getLanguage();
     }
 
+    /**
+     * Creates a new player with the given UUID and language.
+     *
+     * @param minecraftUUID The Minecraft UUID of the player.
+     * @param language      The two-letter language code of the player.
+     */
+    public WstPlayer(@NotNull UUID minecraftUUID, @NotNull String language) {
+        this.minecraftUUID = minecraftUUID;
+        this.language = language;
+    }
+
     // region Getter und Setter
     /**
      * Returns the UUID of the player.
@@ -73,6 +139,23 @@ public class WstPlayer extends BaseEntity implements Serializable {
         return firstJoinDate;
     }
 
+    /**
+     * Returns the date, on which the player has last been seen on the server.
+     *
+     * @return The date, on which the player has last been seen.
+     */
+    public @NotNull Date getLastSeenDate() {
+        return lastSeenDate;
+    }
+
+    /**
+     * Sets the date, on which the player has last been seen on the server, to now and marks the player as dirty.
+     */
+    public void markSeen() {
+        this.lastSeenDate = new Date();
+        this.markDirty(FIELD_LAST_SEEN_DATE);
+    }
+
     /**
      * Returns the currently selected language of the player.
      *
@@ -83,12 +166,13 @@ public class WstPlayer extends BaseEntity implements Serializable {
     }
 
     /**
-     * Sets the currently selected language of the player.
+     * Sets the currently selected language of the player and marks the player as dirty.
      *
      * @param language The language to be set.
      */
     public void setLanguage(@NotNull String language) {
         this.language = language;
+        this.markDirty(FIELD_LANGUAGE);
     }
     // endregion
 }
@@ -0,0 +1,338 @@
+package coffee.j4n.westonia.database.invalidation;
+
+import coffee.j4n.westonia.database.DatabaseFactory;
+import coffee.j4n.westonia.database.converter.UUIDBinaryConverter;
+import coffee.j4n.westonia.database.results.DbResult;
+import coffee.j4n.westonia.interfaces.IInvalidationBus;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Invalidation bus that uses the "westonia_change_log" table of the shared database.
+ * <br/><br/>
+ * Every server writes the UUIDs of the players it has changed into the table and polls the rows that have been added since
+ * its last poll, using the increasing id of the table as cursor. Each poll is a single range scan over the primary key,
+ * so it stays cheap no matter how many servers share the database. Rows of the own server are skipped, and rows older
+ * than the retention are deleted periodically.
+ * <br/><br/>
+ * Concurrent transactions may commit their ids out of order, so a missing id is waited for a few seconds before it is skipped.
+ * Until then, the rows behind it are read again with every poll, but the ids that have already been delivered are remembered,
+ * so every row is delivered only once.
+ */
+public class ChangeLogInvalidationBus implements IInvalidationBus {
+
+    /**
+     * The name of the change log table.
+     */
+    public static final String TABLE_NAME = "westonia_change_log";
+
+    /**
+     * The maximum amount of rows that are read with one poll.
+     */
+    private static final int MAXIMUM_ROWS_PER_POLL = 1000;
+
+    /**
+     * The time in milliseconds a missing id is waited for before it is skipped.
+     */
+    private static final long GAP_TIMEOUT_MILLIS = 5000L;
+
+    /**
+     * The interval in milliseconds in which rows older than the retention are deleted.
+     */
+    private static final long CLEANUP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final String INSERT_SQL = "INSERT INTO " + TABLE_NAME + " (server_id, player_uuid, changed_at) VALUES (?, ?, ?)";
+    private static final String SELECT_SQL = "SELECT id, server_id, player_uuid FROM " + TABLE_NAME + " WHERE id > ? ORDER BY id LIMIT " + MAXIMUM_ROWS_PER_POLL;
+    private static final String SELECT_MAXIMUM_ID_SQL = "SELECT MAX(id) FROM " + TABLE_NAME;
+    private static final String DELETE_SQL = "DELETE FROM " + TABLE_NAME + " WHERE changed_at < ?";
+
+    private static final UUIDBinaryConverter UUID_CONVERTER = new UUIDBinaryConverter();
+
+    private final Logger logger;
+    private final DatabaseFactory<?> databaseFactory;
+    private final String serverId;
+    private final long pollIntervalMillis;
+    private final long retentionMillis;
+    private final Set<UUID> pendingUUIDs = ConcurrentHashMap.newKeySet();
+    private final List<Consumer<Collection<UUID>>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * The id of the last row that has been delivered or -1 if the table has not been read yet.
+     * Only accessed by the thread of the scheduler.
+     */
+    private long lastSeenId = -1L;
+    /**
+     * The ids behind the cursor that have already been delivered, because they have been read behind a gap.
+     * Only accessed by the thread of the scheduler.
+     */
+    private final Set<Long> deliveredIds = new HashSet<>();
+    private long gapSinceMillis = 0L;
+    private long lastCleanupMillis = 0L;
+
+    /**
+     * Creates a new change log bus.
+     *
+     * @param pluginInstance     The plugin that owns the bus.
+     * @param databaseFactory    The database factory whose SessionFactory is used to access the change log.
+     * @param serverId           The id that identifies this server in the change log, unique within the network.
+     * @param pollIntervalMillis The interval in milliseconds in which the change log is written and polled.
+     * @param retentionMinutes   The time in minutes after which rows are deleted from the change log.
+     */
+    public ChangeLogInvalidationBus(final @NotNull JavaPlugin pluginInstance, final @NotNull DatabaseFactory<?> databaseFactory, final @NotNull String serverId, final long pollIntervalMillis, final long retentionMinutes) {
+        this.logger = pluginInstance.getLogger();
+        this.databaseFactory = databaseFactory;
+        this.serverId = serverId;
+        this.pollIntervalMillis = Math.max(100L, pollIntervalMillis);
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(Math.max(1L, retentionMinutes));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Westonia-Invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void publish(final @NotNull Collection<UUID> playerUUIDs) {
+        this.pendingUUIDs.addAll(playerUUIDs);
+    }
+
+    @Override
+    public void subscribe(final @NotNull Consumer<Collection<UUID>> listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void start() {
+        this.scheduler.scheduleWithFixedDelay(this::run, this.pollIntervalMillis, this.pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+        this.scheduler.shutdown();
+
+        try {
+            if (!this.scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                this.scheduler.shutdownNow();
+            }
+        } catch (final InterruptedException exception) {
+            this.scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        // The last changes are announced, so that the other servers do not keep serving them from their caches
+        this.withConnection(this::writePending);
+
+        if (!this.pendingUUIDs.isEmpty()) {
+            this.logger.log(Level.WARNING, this.pendingUUIDs.size() + " player changes could not be written to the change log before the shutdown");
+        }
+    }
+
+    /**
+     * Writes the pending changes, polls the changes of the other servers and deletes old rows.
+     * Nothing is done while the database is not reachable, the pending changes are kept until it is.
+     */
+    private void run() {
+        try {
+            this.withConnection(connection -> {
+                this.writePending(connection);
+                this.poll(connection);
+
+                long now = System.currentTimeMillis();
+                if (now - this.lastCleanupMillis >= CLEANUP_INTERVAL_MILLIS) {
+                    this.deleteExpired(connection);
+                    this.lastCleanupMillis = now;
+                }
+            });
+        } catch (final Exception exception) {
+            this.logger.log(Level.SEVERE, "An exception occurred while processing the change log", exception);
+        }
+    }
+
+    /**
+     * Runs the given work with a connection of a new stateless session, if the database is reachable.
+     * SQL exceptions are logged, the work is not retried until the next tick.
+     *
+     * @param work The work to run.
+     */
+    private void withConnection(final @NotNull SqlWork work) {
+        DbResult<SessionFactory> sessionFactoryResult = this.databaseFactory.getSessionFactory();
+        SessionFactory sessionFactory = sessionFactoryResult.getResult();
+
+        if (!sessionFactoryResult.isSuccessful() || sessionFactory == null || this.databaseFactory.getCircuitBreaker().isOpen()) {
+            return;
+        }
+
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.doWork(work::execute);
+        } catch (final Exception exception) {
+            this.logger.log(Level.WARNING, "The change log could not be accessed: " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Writes all pending changes to the change log with one JDBC batch.
+     * If the batch fails, the changes are pending again and written with the next tick.
+     *
+     * @param connection The connection to use.
+     * @throws SQLException If the batch fails.
+     */
+    private void writePending(final @NotNull Connection connection) throws SQLException {
+        if (this.pendingUUIDs.isEmpty()) {
+            return;
+        }
+
+        List<UUID> changedUUIDs = new ArrayList<>(this.pendingUUIDs);
+        changedUUIDs.forEach(this.pendingUUIDs::remove);
+
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            for (UUID uuid : changedUUIDs) {
+                statement.setString(1, this.serverId);
+                statement.setBytes(2, UUID_CONVERTER.convertToDatabaseColumn(uuid));
+                statement.setTimestamp(3, now);
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+        } catch (final SQLException exception) {
+            this.pendingUUIDs.addAll(changedUUIDs);
+            throw exception;
+        }
+    }
+
+    /**
+     * Reads the rows that have been added since the last poll and delivers the changes of the other servers to the listeners.
+     * The first poll only determines the current end of the change log, older changes are already in the database.
+     *
+     * @param connection The connection to use.
+     * @throws SQLException If the change log could not be read.
+     */
+    private void poll(final @NotNull Connection connection) throws SQLException {
+        if (this.lastSeenId < 0) {
+            this.lastSeenId = this.selectMaximumId(connection);
+            return;
+        }
+
+        Set<UUID> changedUUIDs = new HashSet<>();
+        long contiguousId = this.lastSeenId;
+        long highestId = this.lastSeenId;
+        boolean gap = false;
+
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_SQL)) {
+            statement.setLong(1, this.lastSeenId);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    long id = resultSet.getLong(1);
+
+                    if (!gap && id == contiguousId + 1) {
+                        contiguousId = id;
+                    } else {
+                        gap = true;
+                    }
+
+                    highestId = id;
+
+                    if (this.deliveredIds.add(id) && !this.serverId.equals(resultSet.getString(2))) {
+                        changedUUIDs.add(UUID_CONVERTER.convertToEntityAttribute(resultSet.getBytes(3)));
+                    }
+                }
+            }
+        }
+
+        this.lastSeenId = this.advanceCursor(gap, contiguousId, highestId);
+        // The rows up to the cursor are never read again
+        this.deliveredIds.removeIf(id -> id <= this.lastSeenId);
+
+        if (!changedUUIDs.isEmpty()) {
+            this.listeners.forEach(listener -> listener.accept(changedUUIDs));
+        }
+    }
+
+    /**
+     * Determines the new cursor after a poll.
+     * Without a gap, the cursor moves to the highest read id. With a gap, it stays in front of the gap until the gap
+     * has existed for longer than {@link #GAP_TIMEOUT_MILLIS} (e.g. an id of a rolled back transaction, which never shows up).
+     *
+     * @param gap          Whether an id is missing between the cursor and the highest read id.
+     * @param contiguousId The highest id up to which all ids have been read.
+     * @param highestId    The highest read id.
+     * @return The new cursor.
+     */
+    private long advanceCursor(final boolean gap, final long contiguousId, final long highestId) {
+        if (!gap) {
+            this.gapSinceMillis = 0L;
+            return highestId;
+        }
+
+        long now = System.currentTimeMillis();
+
+        if (this.gapSinceMillis == 0L) {
+            this.gapSinceMillis = now;
+        } else if (now - this.gapSinceMillis >= GAP_TIMEOUT_MILLIS) {
+            this.gapSinceMillis = 0L;
+            return highestId;
+        }
+
+        return contiguousId;
+    }
+
+    /**
+     * Returns the highest id of the change log.
+     *
+     * @param connection The connection to use.
+     * @return The highest id or 0 if the change log is empty.
+     * @throws SQLException If the change log could not be read.
+     */
+    private long selectMaximumId(final @NotNull Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_MAXIMUM_ID_SQL);
+             ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : 0L;
+        }
+    }
+
+    /**
+     * Deletes all rows that are older than the retention.
+     *
+     * @param connection The connection to use.
+     * @throws SQLException If the rows could not be deleted.
+     */
+    private void deleteExpired(final @NotNull Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(DELETE_SQL)) {
+            statement.setTimestamp(1, new Timestamp(System.currentTimeMillis() - this.retentionMillis));
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * JDBC work that may throw an SQLException.
+     */
+    @FunctionalInterface
+    private interface SqlWork {
+        void execute(Connection connection) throws SQLException;
+    }
+}
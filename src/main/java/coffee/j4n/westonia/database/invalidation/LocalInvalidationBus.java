@@ -0,0 +1,68 @@
+package coffee.j4n.westonia.database.invalidation;
+
+import coffee.j4n.westonia.interfaces.IInvalidationBus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process stand-in for the invalidation bus.
+ * <br/><br/>
+ * All buses that share the same network set deliver their announcements to each other directly, without a database.
+ * A bus on its own (a single server) has nobody to tell, so publishing costs nothing.
+ */
+public class LocalInvalidationBus implements IInvalidationBus {
+
+    private final Set<LocalInvalidationBus> network;
+    private final List<Consumer<Collection<UUID>>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a bus for a single server.
+     */
+    public LocalInvalidationBus() {
+        this(ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Creates a bus that is connected to all other buses of the given network set.
+     *
+     * @param network The set of all connected buses, which is shared between them.
+     */
+    public LocalInvalidationBus(final @NotNull Set<LocalInvalidationBus> network) {
+        this.network = network;
+    }
+
+    @Override
+    public void publish(final @NotNull Collection<UUID> playerUUIDs) {
+        if (playerUUIDs.isEmpty()) {
+            return;
+        }
+
+        for (LocalInvalidationBus peer : this.network) {
+            if (peer != this) {
+                peer.listeners.forEach(listener -> listener.accept(playerUUIDs));
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(final @NotNull Consumer<Collection<UUID>> listener) {
+        this.listeners.add(listener);
+    }
+
+    @Override
+    public void start() {
+        this.network.add(this);
+    }
+
+    @Override
+    public void shutdown() {
+        this.network.remove(this);
+    }
+}
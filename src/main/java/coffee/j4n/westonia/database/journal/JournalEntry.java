@@ -0,0 +1,90 @@
+package coffee.j4n.westonia.database.journal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * A single change that is recorded in the write journal while the database is unreachable.
+ * The entry holds the state that has to be written (e.g. the language of a player), not the difference.
+ * A field that is null has not been changed, e.g. the language of a player that has only left the server.
+ */
+public class JournalEntry {
+
+    /**
+     * The UUID of the player the change belongs to.
+     */
+    private UUID playerUUID;
+
+    /**
+     * The language of the player, null if it has not been changed.
+     */
+    private String language;
+
+    /**
+     * The time in milliseconds at which the player has last been seen, null if it has not been changed.
+     */
+    private Long lastSeenMillis;
+
+    /**
+     * The time in milliseconds at which the change happened.
+     */
+    private long timestampMillis;
+
+    /**
+     * Default constructor for Jackson.
+     */
+    public JournalEntry() {}
+
+    /**
+     * Creates a new journal entry.
+     *
+     * @param playerUUID      The UUID of the player the change belongs to.
+     * @param language        The language of the player, null if it has not been changed.
+     * @param lastSeenMillis  The time in milliseconds at which the player has last been seen, null if it has not been changed.
+     * @param timestampMillis The time in milliseconds at which the change happened.
+     */
+    public JournalEntry(final @NotNull UUID playerUUID, final @Nullable String language, final @Nullable Long lastSeenMillis, final long timestampMillis) {
+        this.playerUUID = playerUUID;
+        this.language = language;
+        this.lastSeenMillis = lastSeenMillis;
+        this.timestampMillis = timestampMillis;
+    }
+
+    /**
+     * Returns the UUID of the player the change belongs to.
+     *
+     * @return The UUID of the player.
+     */
+    public UUID getPlayerUUID() {
+        return playerUUID;
+    }
+
+    /**
+     * Returns the language of the player.
+     *
+     * @return The language of the player, null if it has not been changed.
+     */
+    public @Nullable String getLanguage() {
+        return language;
+    }
+
+    /**
+     * Returns the time in milliseconds at which the player has last been seen.
+     *
+     * @return The last seen time, null if it has not been changed.
+     */
+    public @Nullable Long getLastSeenMillis() {
+        return lastSeenMillis;
+    }
+
+    /**
+     * Returns the time in milliseconds at which the change happened.
+     *
+     * @return The timestamp of the change.
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+}
@@ -0,0 +1,344 @@
+package coffee.j4n.westonia.database.journal;
+
+import coffee.j4n.westonia.database.results.DbReturn;
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only journal on the local disk, in which changes are recorded while the database is unreachable.
+ * <br/><br/>
+ * Every entry is written as one JSON line. Appending only writes to the file, the file is synced to the disk in batches
+ * by a background thread, so that a burst of changes does not cause one fsync per change.
+ * Once the database is reachable again, the journal is replayed by {@link #replay(Function)}.
+ */
+public class WriteJournal {
+
+    /**
+     * The suffix of the file the journal is moved to while it is replayed.
+     * If the server stops during a replay, the file is picked up again by the next replay.
+     */
+    private static final String REPLAY_FILE_SUFFIX = ".replaying";
+
+    private final Logger logger;
+    private final Path journalFile;
+    private final Path replayFile;
+    private final long syncIntervalMillis;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService syncer;
+
+    private FileChannel channel;
+    private boolean unsynced = false;
+
+    /**
+     * Creates a new write journal.
+     *
+     * @param pluginInstance     The plugin that owns the journal.
+     * @param journalFile        The file the journal is written to.
+     * @param syncIntervalMillis The interval in milliseconds in which appended entries are synced to the disk.
+     */
+    public WriteJournal(final @NotNull JavaPlugin pluginInstance, final @NotNull Path journalFile, final long syncIntervalMillis) {
+        this.logger = pluginInstance.getLogger();
+        this.journalFile = journalFile;
+        this.replayFile = journalFile.resolveSibling(journalFile.getFileName() + REPLAY_FILE_SUFFIX);
+        this.syncIntervalMillis = Math.max(1L, syncIntervalMillis);
+        this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Westonia-Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the journal file and starts syncing it periodically.
+     *
+     * @return A DbReturn containing the result of the operation.
+     */
+    public synchronized DbReturn open() {
+        try {
+            this.openChannel();
+        } catch (final IOException exception) {
+            String msg = "The write journal \"" + this.journalFile + "\" could not be opened";
+            this.logger.log(Level.SEVERE, msg, exception);
+            return new DbReturn(msg, ResultType.EXCEPTION);
+        }
+
+        this.syncer.scheduleWithFixedDelay(this::sync, this.syncIntervalMillis, this.syncIntervalMillis, TimeUnit.MILLISECONDS);
+        return new DbReturn("The write journal has been opened", ResultType.SUCCESS);
+    }
+
+    /**
+     * Appends a single entry to the journal.
+     *
+     * @param entry The entry to append.
+     * @return A DbReturn containing the result of the operation.
+     */
+    public DbReturn append(final @NotNull JournalEntry entry) {
+        return this.appendAll(List.of(entry));
+    }
+
+    /**
+     * Appends the given entries to the journal with a single write.
+     * The entries are synced to the disk with the next periodic sync.
+     *
+     * @param entries The entries to append.
+     * @return A DbReturn containing the result of the operation.
+     */
+    public synchronized DbReturn appendAll(final @NotNull Collection<JournalEntry> entries) {
+        if (this.channel == null) {
+            return new DbReturn("The write journal is not open", ResultType.ERROR);
+        }
+
+        try {
+            StringBuilder lines = new StringBuilder();
+
+            for (JournalEntry entry : entries) {
+                lines.append(this.objectMapper.writeValueAsString(entry)).append('\n');
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer);
+            }
+
+            this.unsynced = true;
+            return new DbReturn(entries.size() + " entries have been written to the write journal", ResultType.SUCCESS);
+        } catch (final IOException exception) {
+            String msg = "An exception occurred while writing to the write journal";
+            this.logger.log(Level.SEVERE, msg, exception);
+            return new DbReturn(msg, ResultType.EXCEPTION);
+        }
+    }
+
+    /**
+     * Syncs all appended entries to the disk, if there are any.
+     */
+    public synchronized void sync() {
+        if (this.channel == null || !this.unsynced) {
+            return;
+        }
+
+        try {
+            this.channel.force(false);
+            this.unsynced = false;
+        } catch (final IOException exception) {
+            this.logger.log(Level.SEVERE, "An exception occurred while syncing the write journal", exception);
+        }
+    }
+
+    /**
+     * Returns whether there are entries in the journal that have not been replayed yet.
+     *
+     * @return Whether the journal contains entries.
+     */
+    public synchronized boolean hasEntries() {
+        try {
+            return (this.channel != null && this.channel.size() > 0) || Files.exists(this.replayFile);
+        } catch (final IOException exception) {
+            return true;
+        }
+    }
+
+    /**
+     * Replays the journal.
+     * The journal is compacted first, so only the latest entry of each player is written. Entries that could not be
+     * written because the database is unreachable ({@link ResultType#ERROR}) are appended to the journal again,
+     * entries that failed for any other reason are dropped, so that they do not block the journal forever.
+     * <br/><br/>
+     * New entries can be appended while the journal is replayed.
+     *
+     * @param writer The function that writes an entry to the database.
+     * @return The amount of entries that have been written.
+     */
+    public int replay(final @NotNull Function<JournalEntry, DbReturn> writer) {
+        List<JournalEntry> entries;
+
+        synchronized (this) {
+            if (!this.hasEntries()) {
+                return 0;
+            }
+
+            try {
+                this.moveToReplayFile();
+                entries = this.readReplayFile();
+            } catch (final IOException exception) {
+                this.logger.log(Level.SEVERE, "The write journal could not be prepared for the replay", exception);
+                return 0;
+            }
+        }
+
+        List<JournalEntry> failedEntries = new ArrayList<>();
+        int replayedEntries = 0;
+
+        for (JournalEntry entry : compact(entries)) {
+            DbReturn writeResult = writer.apply(entry);
+
+            if (writeResult.isSuccessful()) {
+                replayedEntries++;
+            } else if (writeResult.getResultType() == ResultType.ERROR) {
+                failedEntries.add(entry);
+            } else {
+                this.logger.log(Level.SEVERE, "The journal entry of player " + entry.getPlayerUUID() + " could not be replayed and has been dropped: " + writeResult.getMessage());
+            }
+        }
+
+        synchronized (this) {
+            if (!failedEntries.isEmpty() && !this.appendAll(failedEntries).isSuccessful()) {
+                this.logger.log(Level.SEVERE, "The replay file \"" + this.replayFile + "\" has been kept, because " + failedEntries.size() + " entries could not be written back to the journal");
+                return replayedEntries;
+            }
+
+            this.sync();
+
+            try {
+                Files.deleteIfExists(this.replayFile);
+            } catch (final IOException exception) {
+                this.logger.log(Level.SEVERE, "The replay file \"" + this.replayFile + "\" could not be deleted", exception);
+            }
+        }
+
+        this.logger.log(Level.INFO, replayedEntries + " entries of the write journal have been replayed, " + failedEntries.size() + " are still pending");
+        return replayedEntries;
+    }
+
+    /**
+     * Stops the periodic sync, syncs the remaining entries and closes the journal file.
+     */
+    public void close() {
+        this.syncer.shutdown();
+
+        synchronized (this) {
+            this.sync();
+
+            try {
+                if (this.channel != null) {
+                    this.channel.close();
+                }
+            } catch (final IOException exception) {
+                this.logger.log(Level.SEVERE, "An exception occurred while closing the write journal", exception);
+            } finally {
+                this.channel = null;
+            }
+        }
+    }
+
+    /**
+     * Opens the journal file for appending.
+     *
+     * @throws IOException If the file could not be opened.
+     */
+    private void openChannel() throws IOException {
+        Files.createDirectories(this.journalFile.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(this.journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Moves the current journal file to the replay file and opens a new, empty journal file.
+     * If a replay file is left over from an interrupted replay, the journal is appended to it instead.
+     * The journal file is opened again even if the move fails, so the journal keeps accepting entries.
+     *
+     * @throws IOException If the files could not be moved.
+     */
+    private void moveToReplayFile() throws IOException {
+        this.sync();
+        this.channel.close();
+        this.channel = null;
+
+        try {
+            if (Files.exists(this.replayFile)) {
+                Files.write(this.replayFile, Files.readAllBytes(this.journalFile), StandardOpenOption.APPEND);
+                Files.delete(this.journalFile);
+            } else {
+                Files.move(this.journalFile, this.replayFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } finally {
+            this.openChannel();
+        }
+    }
+
+    /**
+     * Reads all entries of the replay file. Lines that cannot be read (e.g. a line that has been cut off by a crash) are skipped.
+     *
+     * @return The entries of the replay file.
+     * @throws IOException If the file could not be read.
+     */
+    private List<JournalEntry> readReplayFile() throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(this.replayFile, StandardCharsets.UTF_8)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    entries.add(this.objectMapper.readValue(line, JournalEntry.class));
+                } catch (final IOException exception) {
+                    this.logger.log(Level.WARNING, "Skipping an unreadable line of the write journal: " + line);
+                }
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Merges the entries of each player into one entry, which holds the latest language and the latest last seen time.
+     *
+     * @param entries The entries to compact.
+     * @return One entry per player.
+     */
+    private static Collection<JournalEntry> compact(final @NotNull List<JournalEntry> entries) {
+        Map<UUID, JournalEntry> latestEntries = new HashMap<>();
+
+        for (JournalEntry entry : entries) {
+            latestEntries.merge(entry.getPlayerUUID(), entry, WriteJournal::merge);
+        }
+
+        return latestEntries.values();
+    }
+
+    /**
+     * Merges two entries of the same player. The fields of the newer entry win, unless they have not been changed in it.
+     *
+     * @param current   The entry that has been merged so far.
+     * @param candidate The next entry of the player.
+     * @return The merged entry.
+     */
+    private static JournalEntry merge(final @NotNull JournalEntry current, final @NotNull JournalEntry candidate) {
+        JournalEntry newer = candidate.getTimestampMillis() >= current.getTimestampMillis() ? candidate : current;
+        JournalEntry older = newer == candidate ? current : candidate;
+
+        String language = newer.getLanguage() != null ? newer.getLanguage() : older.getLanguage();
+        Long lastSeenMillis = newer.getLastSeenMillis() == null ? older.getLastSeenMillis()
+                : older.getLastSeenMillis() == null ? newer.getLastSeenMillis() : Long.valueOf(Math.max(newer.getLastSeenMillis(), older.getLastSeenMillis()));
+
+        return new JournalEntry(newer.getPlayerUUID(), language, lastSeenMillis, newer.getTimestampMillis());
+    }
+}
@@ -0,0 +1,104 @@
+package coffee.j4n.westonia.database.metrics;
+
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The registry of all database metrics of the plugin.
+ * <br/><br/>
+ * The DAOs record the latency and the result of every operation, the connection pools record the time the threads wait for a connection.
+ * Operations that take longer than the slow operation threshold are logged, so a slow join can be traced back to the operation that caused it.
+ * The metrics are kept in memory since the start (or the last reset) and are read by the metrics command and the metrics file.
+ */
+public class DatabaseMetrics {
+
+    private final Logger logger;
+    private final long slowOperationThresholdNanos;
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final Map<String, PoolMetrics> pools = new ConcurrentHashMap<>();
+    private final Map<String, PoolStats> poolStats = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new metrics registry.
+     *
+     * @param logger                       The logger the slow operations are logged with.
+     * @param slowOperationThresholdMillis The time in milliseconds after which an operation is logged as slow, 0 disables the log.
+     */
+    public DatabaseMetrics(final @NotNull Logger logger, final long slowOperationThresholdMillis) {
+        this.logger = logger;
+        this.slowOperationThresholdNanos = slowOperationThresholdMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(slowOperationThresholdMillis) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Records one execution of a DAO operation and logs it if it has been slow.
+     *
+     * @param operationName The name of the operation, e.g. "WstPlayer.loadOrRegister".
+     * @param nanos         The time the operation took in nanoseconds.
+     * @param resultType    The type of the result of the operation.
+     */
+    public void recordOperation(final @NotNull String operationName, final long nanos, final @NotNull ResultType resultType) {
+        this.operations.computeIfAbsent(operationName, name -> new OperationMetrics()).record(nanos, resultType);
+
+        if (nanos >= this.slowOperationThresholdNanos) {
+            this.logger.log(Level.WARNING, "Slow database operation \"" + operationName + "\": " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms (" + resultType + ")");
+        }
+    }
+
+    /**
+     * Returns the factory that HikariCP uses to create the metrics tracker of a connection pool.
+     * Every pool records into its own {@link PoolMetrics}, identified by the name of the pool.
+     *
+     * @return The metrics tracker factory.
+     */
+    public MetricsTrackerFactory getPoolMetricsTrackerFactory() {
+        return (poolName, stats) -> {
+            this.poolStats.put(poolName, stats);
+            return this.pools.computeIfAbsent(poolName, name -> new PoolMetrics());
+        };
+    }
+
+    /**
+     * Returns the metrics of all operations that have been recorded, sorted by the name of the operation.
+     *
+     * @return The metrics by operation name.
+     */
+    public Map<String, OperationMetrics> getOperations() {
+        return Collections.unmodifiableMap(new TreeMap<>(this.operations));
+    }
+
+    /**
+     * Returns the metrics of all connection pools, sorted by the name of the pool.
+     *
+     * @return The metrics by pool name.
+     */
+    public Map<String, PoolMetrics> getPools() {
+        return Collections.unmodifiableMap(new TreeMap<>(this.pools));
+    }
+
+    /**
+     * Returns the current state (active, idle and waiting connections) of all connection pools, sorted by the name of the pool.
+     *
+     * @return The pool state by pool name.
+     */
+    public Map<String, PoolStats> getPoolStats() {
+        return Collections.unmodifiableMap(new TreeMap<>(this.poolStats));
+    }
+
+    /**
+     * Resets the metrics of all operations and connection pools.
+     */
+    public void reset() {
+        this.operations.values().forEach(OperationMetrics::reset);
+        this.pools.values().forEach(PoolMetrics::reset);
+    }
+}
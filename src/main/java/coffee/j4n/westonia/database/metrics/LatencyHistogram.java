@@ -0,0 +1,175 @@
+package coffee.j4n.westonia.database.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies, from which percentiles (e.g. p50 and p99) can be read.
+ * <br/><br/>
+ * The latencies are counted in buckets whose upper bounds grow by {@link #BUCKET_GROWTH_FACTOR}, starting at
+ * {@link #SMALLEST_BUCKET_MICROS}. A percentile is therefore accurate to about 10 percent, which is enough to see
+ * why an operation is slow, while recording a latency costs a few atomic increments and no allocation.
+ * The maximum is tracked exactly.
+ */
+public class LatencyHistogram {
+
+    /**
+     * The upper bound in microseconds of the smallest bucket.
+     */
+    private static final long SMALLEST_BUCKET_MICROS = 10L;
+
+    /**
+     * The factor between the upper bounds of two neighbouring buckets.
+     */
+    private static final double BUCKET_GROWTH_FACTOR = 1.2D;
+
+    /**
+     * The upper bound in microseconds of the largest bucket, larger latencies are counted in the last bucket.
+     */
+    private static final long LARGEST_BUCKET_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    /**
+     * The upper bounds of all buckets in microseconds, shared by all histograms.
+     */
+    private static final long[] BUCKET_UPPER_BOUNDS_MICROS = createBucketUpperBounds();
+
+    private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_UPPER_BOUNDS_MICROS.length);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public void record(final long nanos) {
+        final long boundedNanos = Math.max(0L, nanos);
+
+        this.bucketCounts.incrementAndGet(bucketIndex(TimeUnit.NANOSECONDS.toMicros(boundedNanos)));
+        this.count.increment();
+        this.sumNanos.add(boundedNanos);
+        this.maxNanos.accumulate(boundedNanos);
+    }
+
+    /**
+     * Returns the amount of recorded latencies.
+     *
+     * @return The amount of recorded latencies.
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Returns the sum of all recorded latencies.
+     *
+     * @return The sum in milliseconds.
+     */
+    public double getSumMillis() {
+        return this.sumNanos.sum() / 1_000_000D;
+    }
+
+    /**
+     * Returns the largest recorded latency.
+     *
+     * @return The maximum in milliseconds, 0 if nothing has been recorded.
+     */
+    public double getMaxMillis() {
+        return this.maxNanos.get() / 1_000_000D;
+    }
+
+    /**
+     * Returns the latency below which the given share of all recorded latencies lies.
+     * The result is interpolated within the bucket the percentile falls into, but is never more than the maximum.
+     *
+     * @param percentile The percentile between 0 and 1, e.g. 0.99 for p99.
+     * @return The percentile in milliseconds, 0 if nothing has been recorded.
+     */
+    public double getPercentileMillis(final double percentile) {
+        final long recordedCount = this.getCount();
+
+        if (recordedCount == 0) {
+            return 0D;
+        }
+
+        final long rank = Math.max(1L, (long) Math.ceil(recordedCount * Math.min(1D, Math.max(0D, percentile))));
+        long seenCount = 0;
+
+        for (int index = 0; index < BUCKET_UPPER_BOUNDS_MICROS.length - 1; index++) {
+            final long bucketCount = this.bucketCounts.get(index);
+
+            if (seenCount + bucketCount >= rank) {
+                // The latencies are assumed to be spread evenly within the bucket
+                final long lowerBoundMicros = index > 0 ? BUCKET_UPPER_BOUNDS_MICROS[index - 1] : 0L;
+                final double positionInBucket = (double) (rank - seenCount) / bucketCount;
+                final double percentileMicros = lowerBoundMicros + positionInBucket * (BUCKET_UPPER_BOUNDS_MICROS[index] - lowerBoundMicros);
+
+                return Math.min(percentileMicros / 1_000D, this.getMaxMillis());
+            }
+
+            seenCount += bucketCount;
+        }
+
+        // The percentile falls into the last, unbounded bucket (or has been recorded while reading)
+        return this.getMaxMillis();
+    }
+
+    /**
+     * Resets all recorded latencies.
+     * Latencies that are recorded at the same time may be kept partially, which is fine for statistics.
+     */
+    public void reset() {
+        for (int index = 0; index < BUCKET_UPPER_BOUNDS_MICROS.length; index++) {
+            this.bucketCounts.set(index, 0L);
+        }
+
+        this.count.reset();
+        this.sumNanos.reset();
+        this.maxNanos.reset();
+    }
+
+    /**
+     * Returns the index of the bucket the given latency is counted in.
+     *
+     * @param micros The latency in microseconds.
+     * @return The index of the bucket.
+     */
+    private static int bucketIndex(final long micros) {
+        int low = 0;
+        int high = BUCKET_UPPER_BOUNDS_MICROS.length - 1;
+
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+
+            if (BUCKET_UPPER_BOUNDS_MICROS[middle] < micros) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Creates the upper bounds of the buckets, from {@link #SMALLEST_BUCKET_MICROS} up to {@link #LARGEST_BUCKET_MICROS}.
+     *
+     * @return The upper bounds in microseconds.
+     */
+    private static long[] createBucketUpperBounds() {
+        final int bucketCount = (int) Math.ceil(Math.log((double) LARGEST_BUCKET_MICROS / SMALLEST_BUCKET_MICROS) / Math.log(BUCKET_GROWTH_FACTOR)) + 1;
+        final long[] upperBounds = new long[bucketCount];
+        double upperBound = SMALLEST_BUCKET_MICROS;
+
+        for (int index = 0; index < bucketCount; index++) {
+            upperBounds[index] = Math.max(index > 0 ? upperBounds[index - 1] + 1 : 1L, Math.round(upperBound));
+            upperBound *= BUCKET_GROWTH_FACTOR;
+        }
+
+        upperBounds[bucketCount - 1] = Long.MAX_VALUE;
+        return upperBounds;
+    }
+}
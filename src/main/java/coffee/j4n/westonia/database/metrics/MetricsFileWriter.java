@@ -0,0 +1,293 @@
+package coffee.j4n.westonia.database.metrics;
+
+import coffee.j4n.westonia.database.DatabaseFactory;
+import coffee.j4n.westonia.database.results.DbResult;
+import coffee.j4n.westonia.database.results.DbReturn;
+import coffee.j4n.westonia.database.statistics.QueryPlanCacheStatistics;
+import coffee.j4n.westonia.database.statistics.SecondLevelCacheStatistics;
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.hibernate.stat.Statistics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the database metrics periodically into a file in the Prometheus text format, e.g. to be collected by the
+ * textfile collector of the node exporter. The file is written into a temporary file first and then moved, so a reader
+ * never sees a half written file.
+ * <br/><br/>
+ * The file contains the latencies and results of the DAO operations, the wait times and the state of the connection pools
+ * and, if they are enabled, the Hibernate statistics. Latencies are written in seconds, as Prometheus expects.
+ */
+public class MetricsFileWriter {
+
+    private static final double[] QUANTILES = {0.5D, 0.99D};
+
+    private final Logger logger;
+    private final DatabaseFactory<?> databaseFactory;
+    private final Path file;
+    private final long intervalSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a new metrics file writer.
+     *
+     * @param pluginInstance  The plugin that owns the writer.
+     * @param databaseFactory The database factory whose metrics and statistics are written.
+     * @param file            The file the metrics are written to.
+     * @param intervalSeconds The interval in seconds in which the file is written.
+     */
+    public MetricsFileWriter(final @NotNull JavaPlugin pluginInstance, final @NotNull DatabaseFactory<?> databaseFactory, final @NotNull Path file, final long intervalSeconds) {
+        this.logger = pluginInstance.getLogger();
+        this.databaseFactory = databaseFactory;
+        this.file = file;
+        this.intervalSeconds = Math.max(1L, intervalSeconds);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Westonia-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts writing the metrics file in the configured interval.
+     */
+    public void start() {
+        this.scheduler.scheduleWithFixedDelay(this::write, this.intervalSeconds, this.intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops writing the metrics file and writes it a last time.
+     */
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+        this.write();
+    }
+
+    /**
+     * Writes the current metrics into the file.
+     *
+     * @return A DbReturn containing a success or error message.
+     */
+    public DbReturn write() {
+        final Path temporaryFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+
+        try {
+            Files.createDirectories(this.file.toAbsolutePath().getParent());
+            Files.writeString(temporaryFile, this.render(), StandardCharsets.UTF_8);
+            Files.move(temporaryFile, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new DbReturn("The metrics have been written to \"" + this.file + "\"", ResultType.SUCCESS);
+        } catch (final IOException exception) {
+            String msg = "The metrics could not be written to \"" + this.file + "\"";
+            this.logger.log(Level.WARNING, msg, exception);
+            return new DbReturn(msg, ResultType.EXCEPTION);
+        }
+    }
+
+    /**
+     * Renders the current metrics in the Prometheus text format.
+     *
+     * @return The metrics as text.
+     */
+    public String render() {
+        final DatabaseMetrics metrics = this.databaseFactory.getMetrics();
+        final StringBuilder builder = new StringBuilder(4096);
+
+        final Map<String, OperationMetrics> operations = metrics.getOperations();
+        header(builder, "westonia_dao_operation_seconds", "summary", "Latency of the DAO operations.");
+        operations.forEach((operationName, operationMetrics) -> summary(builder, "westonia_dao_operation_seconds", "operation", operationName, operationMetrics.getLatency()));
+        header(builder, "westonia_dao_operation_max_seconds", "gauge", "Largest latency of the DAO operations.");
+        operations.forEach((operationName, operationMetrics) -> sample(builder, "westonia_dao_operation_max_seconds", label("operation", operationName), operationMetrics.getLatency().getMaxMillis() / 1_000D));
+        header(builder, "westonia_dao_results_total", "counter", "Results of the DAO operations by result type.");
+        operations.forEach((operationName, operationMetrics) -> {
+            for (ResultType resultType : ResultType.values()) {
+                final long resultCount = operationMetrics.getResultCount(resultType);
+
+                if (resultCount > 0) {
+                    sample(builder, "westonia_dao_results_total", label("operation", operationName) + ",result=\"" + resultType.name() + "\"", resultCount);
+                }
+            }
+        });
+
+        final Map<String, PoolMetrics> pools = metrics.getPools();
+        header(builder, "westonia_pool_acquire_seconds", "summary", "Time the threads have waited for a connection of the pool.");
+        pools.forEach((poolName, poolMetrics) -> summary(builder, "westonia_pool_acquire_seconds", "pool", poolName, poolMetrics.getAcquireLatency()));
+        header(builder, "westonia_pool_acquire_max_seconds", "gauge", "Longest time a thread has waited for a connection of the pool.");
+        pools.forEach((poolName, poolMetrics) -> sample(builder, "westonia_pool_acquire_max_seconds", label("pool", poolName), poolMetrics.getAcquireLatency().getMaxMillis() / 1_000D));
+        header(builder, "westonia_pool_usage_seconds", "summary", "Time the connections have been borrowed from the pool.");
+        pools.forEach((poolName, poolMetrics) -> summary(builder, "westonia_pool_usage_seconds", "pool", poolName, poolMetrics.getUsageLatency()));
+        header(builder, "westonia_pool_timeouts_total", "counter", "Threads that have not received a connection within the connection timeout.");
+        pools.forEach((poolName, poolMetrics) -> sample(builder, "westonia_pool_timeouts_total", label("pool", poolName), poolMetrics.getTimeouts()));
+
+        header(builder, "westonia_pool_connections", "gauge", "Connections of the pool by state.");
+        metrics.getPoolStats().forEach((poolName, poolStats) -> this.poolConnections(builder, poolName, poolStats));
+
+        final DbResult<Statistics> statisticsResult = this.databaseFactory.getStatistics();
+        if (statisticsResult.isSuccessful() && statisticsResult.getResult() != null) {
+            this.hibernateStatistics(builder, statisticsResult.getResult());
+        }
+
+        final DbResult<SecondLevelCacheStatistics> cacheStatisticsResult = this.databaseFactory.getSecondLevelCacheStatistics();
+        if (cacheStatisticsResult.isSuccessful() && cacheStatisticsResult.getResult() != null) {
+            this.secondLevelCacheStatistics(builder, cacheStatisticsResult.getResult());
+        }
+
+        final DbResult<QueryPlanCacheStatistics> queryPlanCacheStatisticsResult = this.databaseFactory.getQueryPlanCacheStatistics();
+        if (queryPlanCacheStatisticsResult.isSuccessful() && queryPlanCacheStatisticsResult.getResult() != null) {
+            this.queryPlanCacheStatistics(builder, queryPlanCacheStatisticsResult.getResult());
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Renders the current state of a connection pool.
+     *
+     * @param builder   The builder to append to.
+     * @param poolName  The name of the pool.
+     * @param poolStats The current state of the pool.
+     */
+    private void poolConnections(final @NotNull StringBuilder builder, final @NotNull String poolName, final @NotNull PoolStats poolStats) {
+        final String poolLabel = label("pool", poolName);
+
+        sample(builder, "westonia_pool_connections", poolLabel + ",state=\"active\"", poolStats.getActiveConnections());
+        sample(builder, "westonia_pool_connections", poolLabel + ",state=\"idle\"", poolStats.getIdleConnections());
+        sample(builder, "westonia_pool_connections", poolLabel + ",state=\"pending\"", poolStats.getPendingThreads());
+        sample(builder, "westonia_pool_connections", poolLabel + ",state=\"max\"", poolStats.getMaxConnections());
+    }
+
+    /**
+     * Renders the statistics Hibernate collects.
+     *
+     * @param builder    The builder to append to.
+     * @param statistics The Hibernate statistics.
+     */
+    private void hibernateStatistics(final @NotNull StringBuilder builder, final @NotNull Statistics statistics) {
+        counter(builder, "westonia_hibernate_sessions_opened_total", "Sessions that have been opened.", statistics.getSessionOpenCount());
+        counter(builder, "westonia_hibernate_transactions_total", "Transactions that have been completed.", statistics.getTransactionCount());
+        counter(builder, "westonia_hibernate_statements_prepared_total", "JDBC statements that have been prepared.", statistics.getPrepareStatementCount());
+        counter(builder, "westonia_hibernate_queries_executed_total", "Queries that have been executed.", statistics.getQueryExecutionCount());
+        header(builder, "westonia_hibernate_query_execution_max_seconds", "gauge", "Longest execution time of a query.");
+        sample(builder, "westonia_hibernate_query_execution_max_seconds", null, statistics.getQueryExecutionMaxTime() / 1_000D);
+        counter(builder, "westonia_hibernate_entity_loads_total", "Entities that have been loaded.", statistics.getEntityLoadCount());
+        counter(builder, "westonia_hibernate_entity_fetches_total", "Entities that have been fetched lazily.", statistics.getEntityFetchCount());
+        counter(builder, "westonia_hibernate_entity_inserts_total", "Entities that have been inserted.", statistics.getEntityInsertCount());
+        counter(builder, "westonia_hibernate_entity_updates_total", "Entities that have been updated.", statistics.getEntityUpdateCount());
+        counter(builder, "westonia_hibernate_entity_deletes_total", "Entities that have been deleted.", statistics.getEntityDeleteCount());
+    }
+
+    /**
+     * Renders the statistics of the second-level cache and the natural-id cache.
+     *
+     * @param builder         The builder to append to.
+     * @param cacheStatistics The cache statistics.
+     */
+    private void secondLevelCacheStatistics(final @NotNull StringBuilder builder, final @NotNull SecondLevelCacheStatistics cacheStatistics) {
+        counter(builder, "westonia_hibernate_second_level_cache_hits_total", "Hits of the second-level cache.", cacheStatistics.getHitCount());
+        counter(builder, "westonia_hibernate_second_level_cache_misses_total", "Misses of the second-level cache.", cacheStatistics.getMissCount());
+        counter(builder, "westonia_hibernate_second_level_cache_puts_total", "Entities that have been put into the second-level cache.", cacheStatistics.getPutCount());
+        counter(builder, "westonia_hibernate_natural_id_cache_hits_total", "Hits of the natural-id cache.", cacheStatistics.getNaturalIdHitCount());
+        counter(builder, "westonia_hibernate_natural_id_cache_misses_total", "Misses of the natural-id cache.", cacheStatistics.getNaturalIdMissCount());
+    }
+
+    /**
+     * Renders the statistics of the query plan cache.
+     *
+     * @param builder                  The builder to append to.
+     * @param queryPlanCacheStatistics The query plan cache statistics.
+     */
+    private void queryPlanCacheStatistics(final @NotNull StringBuilder builder, final @NotNull QueryPlanCacheStatistics queryPlanCacheStatistics) {
+        counter(builder, "westonia_hibernate_query_plan_cache_hits_total", "Hits of the query plan cache.", queryPlanCacheStatistics.getHitCount());
+        counter(builder, "westonia_hibernate_query_plan_cache_misses_total", "Misses of the query plan cache.", queryPlanCacheStatistics.getMissCount());
+        header(builder, "westonia_hibernate_query_plan_cache_maximum_size", "gauge", "Maximum amount of query plans in the query plan cache.");
+        sample(builder, "westonia_hibernate_query_plan_cache_maximum_size", null, queryPlanCacheStatistics.getMaximumSize());
+    }
+
+    /**
+     * Renders a latency histogram as Prometheus summary (quantiles, sum and count).
+     *
+     * @param builder    The builder to append to.
+     * @param name       The name of the metric.
+     * @param labelName  The name of the label that identifies the histogram.
+     * @param labelValue The value of the label.
+     * @param histogram  The histogram.
+     */
+    private static void summary(final @NotNull StringBuilder builder, final @NotNull String name, final @NotNull String labelName, final @NotNull String labelValue, final @NotNull LatencyHistogram histogram) {
+        final String label = label(labelName, labelValue);
+
+        for (double quantile : QUANTILES) {
+            sample(builder, name, label + ",quantile=\"" + quantile + "\"", histogram.getPercentileMillis(quantile) / 1_000D);
+        }
+
+        sample(builder, name + "_sum", label, histogram.getSumMillis() / 1_000D);
+        sample(builder, name + "_count", label, histogram.getCount());
+    }
+
+    /**
+     * Renders a counter without labels.
+     *
+     * @param builder The builder to append to.
+     * @param name    The name of the metric.
+     * @param help    The description of the metric.
+     * @param value   The value of the counter.
+     */
+    private static void counter(final @NotNull StringBuilder builder, final @NotNull String name, final @NotNull String help, final long value) {
+        header(builder, name, "counter", help);
+        sample(builder, name, null, value);
+    }
+
+    /**
+     * Renders the HELP and TYPE lines of a metric.
+     *
+     * @param builder The builder to append to.
+     * @param name    The name of the metric.
+     * @param type    The Prometheus type of the metric.
+     * @param help    The description of the metric.
+     */
+    private static void header(final @NotNull StringBuilder builder, final @NotNull String name, final @NotNull String type, final @NotNull String help) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Renders a single sample.
+     *
+     * @param builder The builder to append to.
+     * @param name    The name of the metric.
+     * @param labels  The rendered labels without braces, null if the sample has no labels.
+     * @param value   The value of the sample.
+     */
+    private static void sample(final @NotNull StringBuilder builder, final @NotNull String name, final @Nullable String labels, final double value) {
+        builder.append(name);
+
+        if (labels != null) {
+            builder.append('{').append(labels).append('}');
+        }
+
+        builder.append(' ').append(value == Math.rint(value) && Math.abs(value) < 1e15 ? String.valueOf((long) value) : String.valueOf(value)).append('\n');
+    }
+
+    /**
+     * Renders a single label, escaping the value as Prometheus expects.
+     *
+     * @param name  The name of the label.
+     * @param value The value of the label.
+     * @return The rendered label.
+     */
+    private static String label(final @NotNull String name, final @NotNull String value) {
+        return name + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n") + "\"";
+    }
+}
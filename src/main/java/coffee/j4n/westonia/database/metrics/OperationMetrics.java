@@ -0,0 +1,65 @@
+package coffee.j4n.westonia.database.metrics;
+
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a single DAO operation (e.g. "WstPlayer.loadOrRegister"):
+ * the latency histogram and the amount of results per {@link ResultType}.
+ */
+public class OperationMetrics {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final Map<ResultType, LongAdder> resultCounts = new EnumMap<>(ResultType.class);
+
+    /**
+     * Creates the metrics of an operation, with a counter for every result type.
+     */
+    public OperationMetrics() {
+        for (ResultType resultType : ResultType.values()) {
+            this.resultCounts.put(resultType, new LongAdder());
+        }
+    }
+
+    /**
+     * Records one execution of the operation.
+     *
+     * @param nanos      The time the operation took in nanoseconds.
+     * @param resultType The type of the result of the operation.
+     */
+    public void record(final long nanos, final @NotNull ResultType resultType) {
+        this.latency.record(nanos);
+        this.resultCounts.get(resultType).increment();
+    }
+
+    /**
+     * Returns the latency histogram of the operation.
+     *
+     * @return The latency histogram.
+     */
+    public LatencyHistogram getLatency() {
+        return this.latency;
+    }
+
+    /**
+     * Returns how often the operation has ended with the given result type.
+     *
+     * @param resultType The result type.
+     * @return The amount of results of the given type.
+     */
+    public long getResultCount(final @NotNull ResultType resultType) {
+        return this.resultCounts.get(resultType).sum();
+    }
+
+    /**
+     * Resets the latencies and the result counts.
+     */
+    public void reset() {
+        this.latency.reset();
+        this.resultCounts.values().forEach(LongAdder::reset);
+    }
+}
@@ -0,0 +1,68 @@
+package coffee.j4n.westonia.database.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics of a HikariCP connection pool, recorded by the pool itself through the {@link IMetricsTracker} interface.
+ * The acquire latency is the time a thread waits for a free connection, which grows when the pool is too small.
+ */
+public class PoolMetrics implements IMetricsTracker {
+
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final LatencyHistogram usageLatency = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+
+    @Override
+    public void recordConnectionAcquiredNanos(final long elapsedAcquiredNanos) {
+        this.acquireLatency.record(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(final long elapsedBorrowedMillis) {
+        this.usageLatency.record(TimeUnit.MILLISECONDS.toNanos(elapsedBorrowedMillis));
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        this.timeouts.increment();
+    }
+
+    /**
+     * Returns the histogram of the time the threads have waited for a connection.
+     *
+     * @return The acquire latency histogram.
+     */
+    public LatencyHistogram getAcquireLatency() {
+        return this.acquireLatency;
+    }
+
+    /**
+     * Returns the histogram of the time the connections have been borrowed from the pool.
+     *
+     * @return The usage latency histogram.
+     */
+    public LatencyHistogram getUsageLatency() {
+        return this.usageLatency;
+    }
+
+    /**
+     * Returns how often a thread has not received a connection within the connection timeout.
+     *
+     * @return The amount of connection timeouts.
+     */
+    public long getTimeouts() {
+        return this.timeouts.sum();
+    }
+
+    /**
+     * Resets the latencies and the timeouts.
+     */
+    public void reset() {
+        this.acquireLatency.reset();
+        this.usageLatency.reset();
+        this.timeouts.reset();
+    }
+}
@@ -0,0 +1,81 @@
+package coffee.j4n.westonia.database.migrations;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
+
+/**
+ * A utility class that provides the schema lookups of the migrations that have to check whether a step has already been applied.
+ * The lookups use the JDBC metadata, so they work with every storage backend.
+ */
+public final class MigrationHelpers {
+
+    private MigrationHelpers() {
+    }
+
+    /**
+     * Returns whether the given table has the given column.
+     *
+     * @param connection The connection to use.
+     * @param tableName  The name of the table.
+     * @param columnName The name of the column.
+     * @return True if the column exists.
+     * @throws SQLException If the metadata cannot be read.
+     */
+    public static boolean hasColumn(final @NotNull Connection connection, final @NotNull String tableName, final @NotNull String columnName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+
+        try (ResultSet resultSet = metaData.getColumns(connection.getCatalog(), null, toStoredIdentifier(metaData, tableName), null)) {
+            while (resultSet.next()) {
+                if (columnName.equalsIgnoreCase(resultSet.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns whether the given table has the given index.
+     *
+     * @param connection The connection to use.
+     * @param tableName  The name of the table.
+     * @param indexName  The name of the index.
+     * @return True if the index exists.
+     * @throws SQLException If the metadata cannot be read.
+     */
+    public static boolean hasIndex(final @NotNull Connection connection, final @NotNull String tableName, final @NotNull String indexName) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+
+        try (ResultSet resultSet = metaData.getIndexInfo(connection.getCatalog(), null, toStoredIdentifier(metaData, tableName), false, true)) {
+            while (resultSet.next()) {
+                if (indexName.equalsIgnoreCase(resultSet.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Converts the given identifier into the case the database stores unquoted identifiers in, as the metadata lookups are case-sensitive.
+     *
+     * @param metaData   The metadata of the database.
+     * @param identifier The identifier.
+     * @return The identifier as it is stored by the database.
+     * @throws SQLException If the metadata cannot be read.
+     */
+    private static String toStoredIdentifier(final @NotNull DatabaseMetaData metaData, final @NotNull String identifier) throws SQLException {
+        if (metaData.storesUpperCaseIdentifiers()) {
+            return identifier.toUpperCase(Locale.ROOT);
+        }
+
+        return metaData.storesLowerCaseIdentifiers() ? identifier.toLowerCase(Locale.ROOT) : identifier;
+    }
+}
@@ -0,0 +1,96 @@
+package coffee.j4n.westonia.database.migrations;
+
+import coffee.j4n.westonia.interfaces.ISchemaMigration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Adds the last seen date to the player table and creates the player archive, on which the archival of inactive players is based.
+ * <br/><br/>
+ * The statements cannot run in one transaction, as DDL statements are committed on their own (e.g. by MySQL).
+ * Every step therefore checks whether it has already been applied, so a migration that stopped halfway (e.g. because the server crashed)
+ * is completed with the next start instead of failing on the existing column.
+ * The backend specific statements are taken from the migration folder of the storage backend.
+ */
+public class PlayerLastSeenMigration implements ISchemaMigration {
+
+    private static final String TABLE_NAME = "westonia_player";
+    private static final String COLUMN_NAME = "last_seen_date";
+    private static final String INDEX_NAME = "idx_westonia_player_last_seen_date";
+
+    private final Logger logger;
+    private final SqlResourceMigration addColumnScript;
+    private final SqlResourceMigration createArchiveTableScript;
+
+    /**
+     * Creates a new last seen migration.
+     *
+     * @param logger          The logger to report the progress to.
+     * @param migrationFolder The migration folder of the storage backend.
+     * @throws IllegalStateException If the SQL files of the migration are missing in the plugin jar.
+     */
+    public PlayerLastSeenMigration(final @NotNull Logger logger, final @NotNull String migrationFolder) {
+        this.logger = logger;
+        this.addColumnScript = new SqlResourceMigration(this.getVersion(), "Add the last seen date", migrationFolder + "/V4__add_player_last_seen_date.sql");
+        this.createArchiveTableScript = new SqlResourceMigration(this.getVersion(), "Create the player archive", migrationFolder + "/V4__create_player_archive_table.sql");
+    }
+
+    @Override
+    public int getVersion() {
+        return 4;
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Add the last seen date and the player archive";
+    }
+
+    @Override
+    public @Nullable String getChecksum() {
+        return null;
+    }
+
+    /**
+     * Applies the steps of the migration that have not been applied yet.
+     *
+     * @param connection The connection to run the migration with.
+     * @throws SQLException If a step fails.
+     */
+    @Override
+    public void migrate(final @NotNull Connection connection) throws SQLException {
+        if (!MigrationHelpers.hasColumn(connection, TABLE_NAME, COLUMN_NAME)) {
+            this.addColumnScript.migrate(connection);
+        } else {
+            this.logger.log(Level.INFO, "The column \"" + COLUMN_NAME + "\" exists already, resuming the migration...");
+        }
+
+        // Existing players count as last seen at their first join. Running this again is safe, as the plugin does not
+        // write the last seen date before all migrations have been applied
+        this.execute(connection, "UPDATE " + TABLE_NAME + " SET " + COLUMN_NAME + " = first_join_date");
+
+        if (!MigrationHelpers.hasIndex(connection, TABLE_NAME, INDEX_NAME)) {
+            this.execute(connection, "CREATE INDEX " + INDEX_NAME + " ON " + TABLE_NAME + " (" + COLUMN_NAME + ")");
+        }
+
+        this.createArchiveTableScript.migrate(connection);
+    }
+
+    /**
+     * Executes the given statement.
+     *
+     * @param connection The connection to use.
+     * @param sql        The statement to execute.
+     * @throws SQLException If the statement fails.
+     */
+    private void execute(final @NotNull Connection connection, final @NotNull String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package coffee.j4n.westonia.database.migrations;
+
+import coffee.j4n.westonia.interfaces.ISchemaMigration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Adds the version to the player table, which Hibernate checks and increments with every update (optimistic locking).
+ * <br/><br/>
+ * The column is only added if it does not exist yet, so a migration whose column has been added but not recorded
+ * (e.g. because the server crashed in between, as DDL statements are committed on their own) is completed with the next start.
+ * The backend specific statement is taken from the migration folder of the storage backend.
+ */
+public class PlayerVersionMigration implements ISchemaMigration {
+
+    private static final String TABLE_NAME = "westonia_player";
+    private static final String COLUMN_NAME = "version";
+
+    private final Logger logger;
+    private final SqlResourceMigration addColumnScript;
+
+    /**
+     * Creates a new version migration.
+     *
+     * @param logger          The logger to report the progress to.
+     * @param migrationFolder The migration folder of the storage backend.
+     * @throws IllegalStateException If the SQL file of the migration is missing in the plugin jar.
+     */
+    public PlayerVersionMigration(final @NotNull Logger logger, final @NotNull String migrationFolder) {
+        this.logger = logger;
+        this.addColumnScript = new SqlResourceMigration(this.getVersion(), this.getDescription(), migrationFolder + "/V5__add_player_version.sql");
+    }
+
+    @Override
+    public int getVersion() {
+        return 5;
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Add the version of the player";
+    }
+
+    @Override
+    public @Nullable String getChecksum() {
+        return null;
+    }
+
+    /**
+     * Adds the version column, unless it exists already.
+     *
+     * @param connection The connection to run the migration with.
+     * @throws SQLException If the column cannot be added.
+     */
+    @Override
+    public void migrate(final @NotNull Connection connection) throws SQLException {
+        if (MigrationHelpers.hasColumn(connection, TABLE_NAME, COLUMN_NAME)) {
+            this.logger.log(Level.INFO, "The column \"" + COLUMN_NAME + "\" exists already, skipping the migration...");
+            return;
+        }
+
+        this.addColumnScript.migrate(connection);
+    }
+}
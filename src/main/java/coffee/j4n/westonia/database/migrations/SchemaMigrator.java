@@ -0,0 +1,215 @@
+package coffee.j4n.westonia.database.migrations;
+
+import coffee.j4n.westonia.database.results.DbReturn;
+import coffee.j4n.westonia.interfaces.ISchemaMigration;
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import org.jetbrains.annotations.NotNull;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Applies the versioned schema migrations once at startup, before Hibernate builds the session factory.
+ * <br/><br/>
+ * Every applied migration is recorded in the "westonia_schema_version" table together with its checksum.
+ * Migrations that have already been applied are skipped, a changed checksum of an applied migration aborts the startup.
+ * Migrations without a checksum are not checked, so a SQL migration can be replaced by a Java migration of the same version.
+ * A named database lock makes sure that only one server migrates the schema at a time, if several servers share the database.
+ * Embedded databases are used by a single server only, so they are migrated without a lock.
+ */
+public class SchemaMigrator {
+
+    private static final String SCHEMA_VERSION_TABLE = "westonia_schema_version";
+    private static final String LOCK_NAME = "westonia_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private final Logger logger;
+    private final List<ISchemaMigration> migrations;
+    private final boolean useNamedLock;
+
+    /**
+     * Creates a new schema migrator.
+     *
+     * @param logger       The logger to report the progress to.
+     * @param migrations   All migrations of the plugin, in any order.
+     * @param useNamedLock Whether the migration is guarded by a named database lock.
+     */
+    public SchemaMigrator(final @NotNull Logger logger, final @NotNull List<ISchemaMigration> migrations, final boolean useNamedLock) {
+        this.logger = logger;
+        this.migrations = migrations.stream().sorted(Comparator.comparingInt(ISchemaMigration::getVersion)).toList();
+        this.useNamedLock = useNamedLock;
+    }
+
+    /**
+     * Applies all migrations that have not been applied yet.
+     *
+     * @param dataSource The data source to take the connection from.
+     * @return A DbReturn containing the result of the migration.
+     */
+    public DbReturn migrate(final @NotNull DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+
+            if (!this.useNamedLock) {
+                return this.applyMigrations(connection);
+            }
+
+            if (!this.acquireLock(connection)) {
+                String msg = "Another server is migrating the database schema, the lock could not be acquired within " + LOCK_TIMEOUT_SECONDS + " seconds";
+                this.logger.log(Level.SEVERE, msg);
+                return new DbReturn(msg, ResultType.ERROR);
+            }
+
+            try {
+                return this.applyMigrations(connection);
+            } finally {
+                this.releaseLock(connection);
+            }
+        } catch (final SQLException exception) {
+            String msg = "Failed to migrate the database schema";
+            this.logger.log(Level.SEVERE, msg, exception);
+            return new DbReturn(msg, ResultType.EXCEPTION);
+        }
+    }
+
+    /**
+     * Applies all pending migrations in order of their version and records them.
+     *
+     * @param connection The connection to use.
+     * @return A DbReturn containing the result of the migration.
+     * @throws SQLException If a migration fails.
+     */
+    private DbReturn applyMigrations(final @NotNull Connection connection) throws SQLException {
+        this.createSchemaVersionTable(connection);
+        Map<Integer, String> appliedChecksums = this.getAppliedChecksums(connection);
+        int appliedMigrations = 0;
+
+        for (ISchemaMigration migration : this.migrations) {
+            if (appliedChecksums.containsKey(migration.getVersion())) {
+                String appliedChecksum = appliedChecksums.get(migration.getVersion());
+
+                // Migrations without a checksum (written in Java) cannot be checked
+                if (migration.getChecksum() != null && !Objects.equals(appliedChecksum, migration.getChecksum())) {
+                    String msg = "The migration " + migration.getVersion() + " (" + migration.getDescription() + ") has been changed after it was applied";
+                    this.logger.log(Level.SEVERE, msg);
+                    return new DbReturn(msg, ResultType.CONFIGURATION_ERROR);
+                }
+
+                continue;
+            }
+
+            this.logger.log(Level.INFO, "Applying migration " + migration.getVersion() + " (" + migration.getDescription() + ")...");
+            long startMillis = System.currentTimeMillis();
+
+            migration.migrate(connection);
+            this.recordMigration(connection, migration, System.currentTimeMillis() - startMillis);
+            appliedMigrations++;
+        }
+
+        int latestKnownVersion = this.migrations.isEmpty() ? 0 : this.migrations.getLast().getVersion();
+        appliedChecksums.keySet().stream().filter(version -> version > latestKnownVersion).findAny().ifPresent(version -> {
+            this.logger.log(Level.WARNING, "The database schema is at version " + version + ", which is newer than this version of the plugin");
+        });
+
+        return new DbReturn(appliedMigrations + " migrations applied, the database schema is at version " + latestKnownVersion, ResultType.SUCCESS);
+    }
+
+    /**
+     * Creates the table that records the applied migrations, if it does not exist yet.
+     *
+     * @param connection The connection to use.
+     * @throws SQLException If the table cannot be created.
+     */
+    private void createSchemaVersionTable(final @NotNull Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS " + SCHEMA_VERSION_TABLE + " ("
+                    + "version INT NOT NULL, "
+                    + "description VARCHAR(200) NOT NULL, "
+                    + "checksum CHAR(64) NULL, "
+                    + "installed_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                    + "execution_millis BIGINT NOT NULL, "
+                    + "PRIMARY KEY (version)"
+                    + ")");
+        }
+    }
+
+    /**
+     * Returns the checksums of all applied migrations.
+     *
+     * @param connection The connection to use.
+     * @return The checksums (possibly null) mapped by the version of the migration.
+     * @throws SQLException If the query fails.
+     */
+    private Map<Integer, String> getAppliedChecksums(final @NotNull Connection connection) throws SQLException {
+        Map<Integer, String> appliedChecksums = new HashMap<>();
+
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM " + SCHEMA_VERSION_TABLE)) {
+            while (resultSet.next()) {
+                appliedChecksums.put(resultSet.getInt(1), resultSet.getString(2));
+            }
+        }
+
+        return appliedChecksums;
+    }
+
+    /**
+     * Records the given migration as applied.
+     *
+     * @param connection      The connection to use.
+     * @param migration       The applied migration.
+     * @param executionMillis The time in milliseconds the migration took.
+     * @throws SQLException If the migration cannot be recorded.
+     */
+    private void recordMigration(final @NotNull Connection connection, final @NotNull ISchemaMigration migration, final long executionMillis) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO " + SCHEMA_VERSION_TABLE + " (version, description, checksum, execution_millis) VALUES (?, ?, ?, ?)")) {
+            statement.setInt(1, migration.getVersion());
+            statement.setString(2, migration.getDescription());
+            statement.setString(3, migration.getChecksum());
+            statement.setLong(4, executionMillis);
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Acquires the named migration lock of the database.
+     *
+     * @param connection The connection that holds the lock.
+     * @return Whether the lock has been acquired.
+     * @throws SQLException If the lock cannot be requested.
+     */
+    private boolean acquireLock(final @NotNull Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.setInt(2, LOCK_TIMEOUT_SECONDS);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getInt(1) == 1;
+            }
+        }
+    }
+
+    /**
+     * Releases the named migration lock of the database.
+     *
+     * @param connection The connection that holds the lock.
+     */
+    private void releaseLock(final @NotNull Connection connection) {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        } catch (final SQLException exception) {
+            this.logger.log(Level.WARNING, "The migration lock could not be released, it is released when the connection is closed", exception);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package coffee.j4n.westonia.database.migrations;
+
+import coffee.j4n.westonia.interfaces.ISchemaMigration;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * A schema migration that executes the SQL statements of a resource file (e.g. "db/migrations/V1__create_player_table.sql").
+ * <br/><br/>
+ * Statements are separated by a semicolon at the end of a line, lines starting with "--" are comments.
+ * The checksum is built from the content of the file, so an applied migration must never be edited afterwards.
+ */
+public class SqlResourceMigration implements ISchemaMigration {
+
+    private final int version;
+    private final String description;
+    private final String script;
+    private final String checksum;
+
+    /**
+     * Creates a new migration from the given resource file.
+     *
+     * @param version      The version of the migration.
+     * @param description  A short description of what the migration changes.
+     * @param resourcePath The path of the SQL file within the plugin jar.
+     * @throws IllegalStateException If the resource file does not exist or cannot be read.
+     */
+    public SqlResourceMigration(final int version, final @NotNull String description, final @NotNull String resourcePath) {
+        this.version = version;
+        this.description = description;
+        this.script = readResource(resourcePath).replace("\r\n", "\n");
+        this.checksum = sha256(this.script);
+    }
+
+    @Override
+    public int getVersion() {
+        return this.version;
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return this.description;
+    }
+
+    @Override
+    public @NotNull String getChecksum() {
+        return this.checksum;
+    }
+
+    @Override
+    public void migrate(final @NotNull Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : this.splitStatements()) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Splits the script into its single statements and removes the comments.
+     *
+     * @return The statements of the script.
+     */
+    private List<String> splitStatements() {
+        List<String> statements = new ArrayList<>();
+        StringBuilder currentStatement = new StringBuilder();
+
+        for (String line : this.script.split("\n")) {
+            String trimmedLine = line.trim();
+
+            if (trimmedLine.isEmpty() || trimmedLine.startsWith("--")) {
+                continue;
+            }
+
+            currentStatement.append(line).append('\n');
+
+            if (trimmedLine.endsWith(";")) {
+                String sql = currentStatement.toString().trim();
+                statements.add(sql.substring(0, sql.length() - 1));
+                currentStatement.setLength(0);
+            }
+        }
+
+        if (!currentStatement.toString().isBlank()) {
+            statements.add(currentStatement.toString().trim());
+        }
+
+        return statements;
+    }
+
+    /**
+     * Reads the given resource file from the plugin jar.
+     *
+     * @param resourcePath The path of the resource file.
+     * @return The content of the file.
+     */
+    private static String readResource(final @NotNull String resourcePath) {
+        try (InputStream inputStream = SqlResourceMigration.class.getClassLoader().getResourceAsStream(resourcePath)) {
+            if (inputStream == null) {
+                throw new IllegalStateException("The migration \"" + resourcePath + "\" does not exist");
+            }
+
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (final IOException exception) {
+            throw new IllegalStateException("The migration \"" + resourcePath + "\" could not be read", exception);
+        }
+    }
+
+    /**
+     * Builds the SHA-256 checksum of the given text.
+     *
+     * @param text The text to build the checksum of.
+     * @return The checksum as hex string.
+     */
+    private static String sha256(final @NotNull String text) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package coffee.j4n.westonia.database.migrations;
+
+import coffee.j4n.westonia.interfaces.ISchemaMigration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One-time migration of "westonia_player.minecraft_uuid" from a 36-character string to BINARY(16).
+ * <br/><br/>
+ * The UUIDs are copied into a temporary column in small batches, each batch is committed on its own.
+ * If the server stops during the migration, it continues where it stopped with the next start.
+ * Malformed UUIDs stop the migration with an error that names their rows, before anything is dropped.
+ * Once every row has been converted, the old column is dropped and the new one takes its place, including a unique index.
+ * If the table has been created with BINARY(16) already or has already been migrated, nothing happens.
+ */
+public class UuidBinaryMigration implements ISchemaMigration {
+
+    private static final String TABLE_NAME = "westonia_player";
+    private static final String COLUMN_NAME = "minecraft_uuid";
+    private static final String TEMPORARY_COLUMN_NAME = "minecraft_uuid_bin";
+    private static final String UNIQUE_INDEX_NAME = "uk_westonia_player_minecraft_uuid";
+
+    private final Logger logger;
+    private final int batchSize;
+
+    /**
+     * Creates a new UUID migration.
+     *
+     * @param logger    The logger to report the progress to.
+     * @param batchSize The amount of rows that are converted per batch.
+     */
+    public UuidBinaryMigration(final @NotNull Logger logger, final int batchSize) {
+        this.logger = logger;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public int getVersion() {
+        return 2;
+    }
+
+    @Override
+    public @NotNull String getDescription() {
+        return "Store the player UUIDs as BINARY(16)";
+    }
+
+    @Override
+    public @Nullable String getChecksum() {
+        return null;
+    }
+
+    /**
+     * Runs the migration if it is necessary.
+     *
+     * @param connection The connection to run the migration with.
+     * @throws SQLException If the migration fails.
+     */
+    @Override
+    public void migrate(final @NotNull Connection connection) throws SQLException {
+        String columnType = this.getColumnType(connection, COLUMN_NAME);
+        boolean hasTemporaryColumn = this.getColumnType(connection, TEMPORARY_COLUMN_NAME) != null;
+
+        if ("binary".equalsIgnoreCase(columnType) || (columnType == null && !hasTemporaryColumn)) {
+            return;
+        }
+
+        if (columnType != null) {
+            if (!hasTemporaryColumn) {
+                this.logger.log(Level.INFO, "Migrating the player UUIDs to BINARY(16)...");
+                this.execute(connection, "ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + TEMPORARY_COLUMN_NAME + " BINARY(16) NULL");
+            } else {
+                this.logger.log(Level.INFO, "Resuming the migration of the player UUIDs to BINARY(16)...");
+            }
+
+            this.convertInBatches(connection);
+            this.execute(connection, "ALTER TABLE " + TABLE_NAME + " DROP COLUMN " + COLUMN_NAME);
+        }
+
+        this.execute(connection, "ALTER TABLE " + TABLE_NAME + " CHANGE COLUMN " + TEMPORARY_COLUMN_NAME + " " + COLUMN_NAME + " BINARY(16) NOT NULL, ADD CONSTRAINT " + UNIQUE_INDEX_NAME + " UNIQUE (" + COLUMN_NAME + ")");
+        this.logger.log(Level.INFO, "The player UUIDs have been migrated to BINARY(16)");
+    }
+
+    /**
+     * Converts all rows that have not been converted yet, one batch per transaction.
+     * The rows are walked by their ID (keyset pagination), so a row that cannot be converted does not stop the walk.
+     * If rows are left without a converted UUID afterward, the migration fails before the old column is dropped.
+     *
+     * @param connection The connection to use.
+     * @throws SQLException If a batch fails or a UUID is malformed.
+     */
+    private void convertInBatches(final @NotNull Connection connection) throws SQLException {
+        String selectSql = "SELECT MAX(id) FROM (SELECT id FROM " + TABLE_NAME + " WHERE id > ? ORDER BY id LIMIT ?) batch";
+        // A UUID without exactly 32 hex digits would be padded or cut by UNHEX, so it is left unconverted instead
+        String updateSql = "UPDATE " + TABLE_NAME + " SET " + TEMPORARY_COLUMN_NAME + " = UNHEX(REPLACE(" + COLUMN_NAME + ", '-', ''))"
+                + " WHERE id > ? AND id <= ? AND " + TEMPORARY_COLUMN_NAME + " IS NULL AND CHAR_LENGTH(REPLACE(" + COLUMN_NAME + ", '-', '')) = 32";
+        long convertedRows = 0;
+        long cursorId = 0L;
+
+        try (PreparedStatement selectStatement = connection.prepareStatement(selectSql);
+             PreparedStatement updateStatement = connection.prepareStatement(updateSql)) {
+            selectStatement.setInt(2, this.batchSize);
+
+            while (true) {
+                selectStatement.setLong(1, cursorId);
+                long lastId;
+
+                try (ResultSet resultSet = selectStatement.executeQuery()) {
+                    if (!resultSet.next() || resultSet.getObject(1) == null) {
+                        break;
+                    }
+
+                    lastId = resultSet.getLong(1);
+                }
+
+                updateStatement.setLong(1, cursorId);
+                updateStatement.setLong(2, lastId);
+                int updatedRows = updateStatement.executeUpdate();
+                convertedRows += updatedRows;
+                cursorId = lastId;
+
+                if (updatedRows > 0) {
+                    this.logger.log(Level.INFO, "Converted " + convertedRows + " player UUIDs...");
+                }
+            }
+        }
+
+        this.checkAllConverted(connection);
+    }
+
+    /**
+     * Checks that every row has a converted UUID, which is not the case for malformed UUIDs.
+     *
+     * @param connection The connection to use.
+     * @throws SQLException If a row has not been converted.
+     */
+    private void checkAllConverted(final @NotNull Connection connection) throws SQLException {
+        String sql = "SELECT id, " + COLUMN_NAME + " FROM " + TABLE_NAME + " WHERE " + TEMPORARY_COLUMN_NAME + " IS NULL ORDER BY id";
+        List<String> malformedRows = new ArrayList<>();
+        long malformedRowCount = 0;
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                malformedRowCount++;
+
+                // The first rows are enough to find the cause
+                if (malformedRows.size() < 10) {
+                    malformedRows.add("ID " + resultSet.getLong(1) + " (\"" + resultSet.getString(2) + "\")");
+                }
+            }
+        }
+
+        if (malformedRowCount > 0) {
+            throw new SQLException("The player UUIDs could not be migrated to BINARY(16), because " + malformedRowCount + " rows do not contain a valid UUID, e.g. "
+                    + String.join(", ", malformedRows) + ". Correct or delete these rows and restart the server to resume the migration");
+        }
+    }
+
+    /**
+     * Returns the data type of the given column of the player table.
+     *
+     * @param connection The connection to use.
+     * @param columnName The name of the column.
+     * @return The data type (e.g. "varchar" or "binary") or null if the column does not exist.
+     * @throws SQLException If the query fails.
+     */
+    private @Nullable String getColumnType(final @NotNull Connection connection, final @NotNull String columnName) throws SQLException {
+        String sql = "SELECT DATA_TYPE FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, TABLE_NAME);
+            statement.setString(2, columnName);
+
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        }
+    }
+
+    /**
+     * Executes the given DDL statement.
+     *
+     * @param connection The connection to use.
+     * @param sql        The statement to execute.
+     * @throws SQLException If the statement fails.
+     */
+    private void execute(final @NotNull Connection connection, final @NotNull String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
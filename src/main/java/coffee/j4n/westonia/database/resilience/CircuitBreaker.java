@@ -0,0 +1,114 @@
+package coffee.j4n.westonia.database.resilience;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Circuit breaker in front of the database.
+ * <br/><br/>
+ * After a number of consecutive connection failures the breaker opens and all database operations fail immediately,
+ * instead of each of them waiting for the connection timeout. After the open duration, one operation is let through (half open):
+ * if it succeeds, the breaker closes again, otherwise it stays open for another period.
+ */
+public class CircuitBreaker {
+
+    /**
+     * The states of the circuit breaker.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final Logger logger;
+    private final String targetName;
+    private final int failureThreshold;
+    private final long openDurationMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAtMillis = 0L;
+
+    /**
+     * Creates a new circuit breaker.
+     *
+     * @param logger             The logger to report state changes to.
+     * @param targetName         The name of what the breaker guards, used for the log messages (e.g. "database").
+     * @param failureThreshold   The amount of consecutive failures after which the breaker opens.
+     * @param openDurationMillis The time in milliseconds the breaker stays open before an operation is let through again.
+     */
+    public CircuitBreaker(final @NotNull Logger logger, final @NotNull String targetName, final int failureThreshold, final long openDurationMillis) {
+        this.logger = logger;
+        this.targetName = targetName;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMillis = Math.max(0L, openDurationMillis);
+    }
+
+    /**
+     * Checks whether an operation may be sent to the database.
+     * While the breaker is half open, only the first caller is let through until its result has been recorded.
+     *
+     * @return Whether the operation may be executed.
+     */
+    public synchronized boolean allowRequest() {
+        if (this.state == State.CLOSED) {
+            return true;
+        }
+
+        if (this.state == State.OPEN && System.currentTimeMillis() - this.openedAtMillis >= this.openDurationMillis) {
+            this.state = State.HALF_OPEN;
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Records a successful database operation and closes the breaker.
+     */
+    public synchronized void recordSuccess() {
+        if (this.state != State.CLOSED) {
+            this.logger.log(Level.INFO, "The " + this.targetName + " is reachable again, the circuit breaker has been closed");
+        }
+
+        this.state = State.CLOSED;
+        this.consecutiveFailures = 0;
+    }
+
+    /**
+     * Records a failed connection to the database and opens the breaker if the threshold is reached.
+     */
+    public synchronized void recordFailure() {
+        this.consecutiveFailures++;
+
+        if (this.state == State.HALF_OPEN || (this.state == State.CLOSED && this.consecutiveFailures >= this.failureThreshold)) {
+            if (this.state == State.CLOSED) {
+                this.logger.log(Level.WARNING, "The " + this.targetName + " is not reachable, the circuit breaker has been opened");
+            }
+
+            this.state = State.OPEN;
+            this.openedAtMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Returns whether the breaker is currently open or half open, which means that the database is considered unreachable.
+     *
+     * @return Whether the database is considered unreachable.
+     */
+    public synchronized boolean isOpen() {
+        return this.state != State.CLOSED;
+    }
+
+    /**
+     * Returns the current state of the breaker.
+     *
+     * @return The state of the breaker.
+     */
+    public synchronized State getState() {
+        return this.state;
+    }
+}
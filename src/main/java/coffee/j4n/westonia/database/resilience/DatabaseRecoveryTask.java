@@ -0,0 +1,102 @@
+package coffee.j4n.westonia.database.resilience;
+
+import coffee.j4n.westonia.database.DatabaseFactory;
+import coffee.j4n.westonia.database.journal.JournalEntry;
+import coffee.j4n.westonia.database.journal.WriteJournal;
+import coffee.j4n.westonia.database.results.DbReturn;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Background task that brings the plugin back from the degraded mode.
+ * <br/><br/>
+ * While the database is unreachable, the task periodically tries to build the SessionFactory (if it could not be built
+ * at startup) and checks whether the database answers again. Only this task rebuilds the SessionFactory, so joining players
+ * never wait for it. Once the database is reachable, the circuit breaker is closed, the write journal is replayed and
+ * the availability callback is run (e.g. to reload the players that joined in the degraded mode).
+ */
+public class DatabaseRecoveryTask {
+
+    private final Logger logger;
+    private final DatabaseFactory<?> databaseFactory;
+    private final WriteJournal writeJournal;
+    private final Function<JournalEntry, DbReturn> journalWriter;
+    private final Runnable onAvailable;
+    private final long intervalSeconds;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a new recovery task.
+     *
+     * @param pluginInstance  The plugin that owns the task.
+     * @param databaseFactory The database factory whose SessionFactory and circuit breaker are checked.
+     * @param writeJournal    The journal that is replayed once the database is reachable again.
+     * @param journalWriter   The function that writes a journal entry to the database.
+     * @param onAvailable     The callback that is run after every check in which the database is available (after the journal has been replayed).
+     * @param intervalSeconds The interval in seconds in which the database is checked.
+     */
+    public DatabaseRecoveryTask(final @NotNull JavaPlugin pluginInstance, final @NotNull DatabaseFactory<?> databaseFactory, final @NotNull WriteJournal writeJournal, final @NotNull Function<JournalEntry, DbReturn> journalWriter, final @NotNull Runnable onAvailable, final long intervalSeconds) {
+        this.logger = pluginInstance.getLogger();
+        this.databaseFactory = databaseFactory;
+        this.writeJournal = writeJournal;
+        this.journalWriter = journalWriter;
+        this.onAvailable = onAvailable;
+        this.intervalSeconds = Math.max(1L, intervalSeconds);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Westonia-Recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts checking the database periodically.
+     */
+    public void start() {
+        this.scheduler.scheduleWithFixedDelay(this::run, this.intervalSeconds, this.intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the task. A running check is interrupted.
+     */
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * Checks the database once and recovers from the degraded mode if it is reachable again.
+     * The database is only contacted if the SessionFactory is missing, the circuit breaker is open or the journal has entries.
+     */
+    private void run() {
+        try {
+            CircuitBreaker circuitBreaker = this.databaseFactory.getCircuitBreaker();
+            boolean sessionFactoryAvailable = this.databaseFactory.getSessionFactory().isSuccessful();
+
+            if (!sessionFactoryAvailable || circuitBreaker.isOpen() || this.writeJournal.hasEntries()) {
+                if (!sessionFactoryAvailable && !this.databaseFactory.buildSessionFactory().isSuccessful()) {
+                    circuitBreaker.recordFailure();
+                    return;
+                }
+
+                if (!this.databaseFactory.isHealthy()) {
+                    circuitBreaker.recordFailure();
+                    return;
+                }
+
+                circuitBreaker.recordSuccess();
+                this.writeJournal.replay(this.journalWriter);
+            }
+
+            this.onAvailable.run();
+        } catch (final Exception exception) {
+            this.logger.log(Level.SEVERE, "An exception occurred while recovering the database connection", exception);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package coffee.j4n.westonia.database.routing;
+
+import coffee.j4n.westonia.database.resilience.CircuitBreaker;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * DataSource that hands out connections of the primary database or, for read-only operations, of a read replica.
+ * <br/><br/>
+ * Hibernate takes all connections from this DataSource. Operations that may read from the replica are run with
+ * {@link #readFromReplica(Supplier)}, which routes the connections that are acquired on the current thread to the replica.
+ * If the replica cannot be reached, the primary is used instead and the replica is skipped until its circuit breaker lets
+ * a connection attempt through again, so reads never wait for a dead replica.
+ */
+public class RoutingDataSource implements DataSource {
+
+    private final Logger logger;
+    private final DataSource primaryDataSource;
+    private final DataSource replicaDataSource;
+    private final CircuitBreaker replicaCircuitBreaker;
+    private final ThreadLocal<Boolean> readOnly = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Creates a new routing DataSource.
+     *
+     * @param logger            The logger to report replica failures to.
+     * @param primaryDataSource The DataSource of the primary database, which receives all writes.
+     * @param replicaDataSource The DataSource of the read replica or null if no replica is configured.
+     * @param replicaOpenMillis The time in milliseconds the replica is skipped after a failed connection.
+     */
+    public RoutingDataSource(final @NotNull Logger logger, final @NotNull DataSource primaryDataSource, final @Nullable DataSource replicaDataSource, final long replicaOpenMillis) {
+        this.logger = logger;
+        this.primaryDataSource = primaryDataSource;
+        this.replicaDataSource = replicaDataSource;
+        this.replicaCircuitBreaker = new CircuitBreaker(logger, "read replica", 1, replicaOpenMillis);
+    }
+
+    /**
+     * Returns whether a read replica is configured.
+     *
+     * @return Whether reads can be routed to a replica.
+     */
+    public boolean hasReplica() {
+        return this.replicaDataSource != null;
+    }
+
+    /**
+     * Runs the given operation with all connections of the current thread taken from the read replica.
+     * Without a replica, the operation simply runs against the primary.
+     *
+     * @param operation The read-only operation.
+     * @param <T>       The type of the result of the operation.
+     * @return The result of the operation.
+     */
+    public <T> T readFromReplica(final @NotNull Supplier<T> operation) {
+        if (this.replicaDataSource == null) {
+            return operation.get();
+        }
+
+        final boolean previousReadOnly = this.readOnly.get();
+        this.readOnly.set(true);
+
+        try {
+            return operation.get();
+        } finally {
+            this.readOnly.set(previousReadOnly);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (this.replicaDataSource != null && this.readOnly.get() && this.replicaCircuitBreaker.allowRequest()) {
+            try {
+                Connection replicaConnection = this.replicaDataSource.getConnection();
+                this.replicaCircuitBreaker.recordSuccess();
+                return replicaConnection;
+            } catch (final SQLException exception) {
+                this.replicaCircuitBreaker.recordFailure();
+                this.logger.log(Level.WARNING, "The read replica is not reachable, reading from the primary database instead: " + exception.getMessage());
+            }
+        }
+
+        return this.primaryDataSource.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return this.primaryDataSource.getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return this.primaryDataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter out) throws SQLException {
+        this.primaryDataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        this.primaryDataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return this.primaryDataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return this.primaryDataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+
+        return this.primaryDataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || this.primaryDataSource.isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,83 @@
+package coffee.j4n.westonia.database.statistics;
+
+/**
+ * A snapshot of the statistics of the Hibernate query plan cache.
+ */
+public class QueryPlanCacheStatistics {
+
+    /**
+     * The amount of queries whose compiled plan was taken from the cache.
+     */
+    private final long hitCount;
+
+    /**
+     * The amount of queries that had to be compiled, because their plan was not cached.
+     */
+    private final long missCount;
+
+    /**
+     * The amount of executed queries.
+     */
+    private final long queryExecutionCount;
+
+    /**
+     * The maximum amount of compiled plans that are kept in the cache.
+     */
+    private final int maximumSize;
+
+    /**
+     * Creates a new snapshot of the query plan cache statistics.
+     *
+     * @param hitCount            The amount of queries whose compiled plan was taken from the cache.
+     * @param missCount           The amount of queries that had to be compiled, because their plan was not cached.
+     * @param queryExecutionCount The amount of executed queries.
+     * @param maximumSize         The maximum amount of compiled plans that are kept in the cache.
+     */
+    public QueryPlanCacheStatistics(long hitCount, long missCount, long queryExecutionCount, int maximumSize) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.queryExecutionCount = queryExecutionCount;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the amount of queries whose compiled plan was taken from the cache.
+     *
+     * @return The amount of cache hits.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the amount of queries that had to be compiled, because their plan was not cached.
+     *
+     * @return The amount of cache misses.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the amount of executed queries.
+     *
+     * @return The amount of executed queries.
+     */
+    public long getQueryExecutionCount() {
+        return queryExecutionCount;
+    }
+
+    /**
+     * Returns the maximum amount of compiled plans that are kept in the cache.
+     *
+     * @return The maximum size of the query plan cache.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hitCount + ", misses=" + missCount + ", executions=" + queryExecutionCount + ", maximumSize=" + maximumSize;
+    }
+}
@@ -0,0 +1,115 @@
+package coffee.j4n.westonia.database.statistics;
+
+/**
+ * A snapshot of the statistics of the Hibernate second-level cache and natural-id cache.
+ */
+public class SecondLevelCacheStatistics {
+
+    /**
+     * The amount of entities that were served from the second-level cache.
+     */
+    private final long hitCount;
+
+    /**
+     * The amount of entities that were looked up in the second-level cache but not found.
+     */
+    private final long missCount;
+
+    /**
+     * The amount of entities that were put into the second-level cache.
+     */
+    private final long putCount;
+
+    /**
+     * The amount of natural ids that were resolved from the natural-id cache.
+     */
+    private final long naturalIdHitCount;
+
+    /**
+     * The amount of natural ids that were looked up in the natural-id cache but not found.
+     */
+    private final long naturalIdMissCount;
+
+    /**
+     * The amount of statements that were sent to the database.
+     */
+    private final long statementCount;
+
+    /**
+     * Creates a new snapshot of the second-level cache statistics.
+     *
+     * @param hitCount           The amount of entities that were served from the second-level cache.
+     * @param missCount          The amount of entities that were looked up in the second-level cache but not found.
+     * @param putCount           The amount of entities that were put into the second-level cache.
+     * @param naturalIdHitCount  The amount of natural ids that were resolved from the natural-id cache.
+     * @param naturalIdMissCount The amount of natural ids that were looked up in the natural-id cache but not found.
+     * @param statementCount     The amount of statements that were sent to the database.
+     */
+    public SecondLevelCacheStatistics(long hitCount, long missCount, long putCount, long naturalIdHitCount, long naturalIdMissCount, long statementCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.naturalIdHitCount = naturalIdHitCount;
+        this.naturalIdMissCount = naturalIdMissCount;
+        this.statementCount = statementCount;
+    }
+
+    /**
+     * Returns the amount of entities that were served from the second-level cache.
+     *
+     * @return The amount of cache hits.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the amount of entities that were looked up in the second-level cache but not found.
+     *
+     * @return The amount of cache misses.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the amount of entities that were put into the second-level cache.
+     *
+     * @return The amount of cache puts.
+     */
+    public long getPutCount() {
+        return putCount;
+    }
+
+    /**
+     * Returns the amount of natural ids that were resolved from the natural-id cache.
+     *
+     * @return The amount of natural-id cache hits.
+     */
+    public long getNaturalIdHitCount() {
+        return naturalIdHitCount;
+    }
+
+    /**
+     * Returns the amount of natural ids that were looked up in the natural-id cache but not found.
+     *
+     * @return The amount of natural-id cache misses.
+     */
+    public long getNaturalIdMissCount() {
+        return naturalIdMissCount;
+    }
+
+    /**
+     * Returns the amount of statements that were sent to the database.
+     *
+     * @return The amount of prepared statements.
+     */
+    public long getStatementCount() {
+        return statementCount;
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hitCount + ", misses=" + missCount + ", puts=" + putCount + ", naturalIdHits=" + naturalIdHitCount + ", naturalIdMisses=" + naturalIdMissCount + ", statements=" + statementCount;
+    }
+}
@@ -0,0 +1,346 @@
+package coffee.j4n.westonia.database.transfer;
+
+import coffee.j4n.westonia.database.DatabaseFactory;
+import coffee.j4n.westonia.database.results.DbResult;
+import coffee.j4n.westonia.interfaces.ITableTransfer;
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams the tables of the plugin into gzip compressed NDJSON files and back.
+ * <br/><br/>
+ * The first line of every file is a header with the name of the table, every further line is one row.
+ * The export reads the table with a stateless session and forward-only scrollable results (or a forward-only native select
+ * for tables without an entity class), using the configured fetch size, so neither the persistence context nor the result set
+ * grows with the amount of rows. The import reads the file line by line
+ * and inserts the rows with one JDBC batch (and one transaction) per batch size. Both keep the memory usage constant,
+ * no matter how large the table is.
+ */
+public class DataTransferService {
+
+    /**
+     * The version of the file format, written into the header.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String HEADER_TABLE = "table";
+    private static final String HEADER_FORMAT_VERSION = "formatVersion";
+    private static final String HEADER_EXPORTED_AT = "exportedAt";
+
+    private final Logger logger;
+    private final DatabaseFactory<?> databaseFactory;
+    private final int fetchSize;
+    private final int batchSize;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, ITableTransfer<?>> tableTransfers = new LinkedHashMap<>();
+
+    /**
+     * Creates a new data transfer service.
+     *
+     * @param pluginInstance  The plugin that owns the service.
+     * @param databaseFactory The database factory whose SessionFactory is used.
+     * @param fetchSize       The amount of rows the JDBC driver fetches at once during the export.
+     * @param batchSize       The amount of rows that are inserted with one JDBC batch during the import.
+     */
+    public DataTransferService(final @NotNull JavaPlugin pluginInstance, final @NotNull DatabaseFactory<?> databaseFactory, final int fetchSize, final int batchSize) {
+        this.logger = pluginInstance.getLogger();
+        this.databaseFactory = databaseFactory;
+        this.fetchSize = Math.max(1, fetchSize);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Registers a table that can be exported and imported.
+     *
+     * @param tableTransfer The transfer of the table.
+     */
+    public void register(final @NotNull ITableTransfer<?> tableTransfer) {
+        this.tableTransfers.put(tableTransfer.getTableName(), tableTransfer);
+    }
+
+    /**
+     * Returns the names of all registered tables.
+     *
+     * @return The names of the tables that can be exported.
+     */
+    public Set<String> getTableNames() {
+        return this.tableTransfers.keySet();
+    }
+
+    /**
+     * Exports all rows of the given table into the given file.
+     * The rows are written into a temporary file first, which replaces the target file once the export is complete.
+     *
+     * @param tableName The name of the table to export.
+     * @param file      The file to write.
+     * @return A DbResult containing the amount of exported rows or an error.
+     */
+    public DbResult<Long> exportTable(final @NotNull String tableName, final @NotNull Path file) {
+        final ITableTransfer<?> tableTransfer = this.tableTransfers.get(tableName);
+
+        if (tableTransfer == null) {
+            return new DbResult<>(null, "The table \"" + tableName + "\" cannot be exported", ResultType.NOT_FOUND);
+        }
+
+        final DbResult<SessionFactory> sessionFactoryResult = this.getAvailableSessionFactory();
+        if (!sessionFactoryResult.isSuccessful()) {
+            return new DbResult<>(null, sessionFactoryResult.getMessage(), sessionFactoryResult.getResultType());
+        }
+
+        final Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            long exportedRows;
+
+            try (StatelessSession session = sessionFactoryResult.getResult().openStatelessSession();
+                 BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(temporaryFile)), StandardCharsets.UTF_8))) {
+                this.writeLine(writer, Map.of(HEADER_TABLE, tableName, HEADER_FORMAT_VERSION, FORMAT_VERSION, HEADER_EXPORTED_AT, System.currentTimeMillis()));
+                exportedRows = this.writeRows(session, tableTransfer, writer);
+            }
+
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            String msg = exportedRows + " rows of the table \"" + tableName + "\" have been exported to \"" + file + "\"";
+            this.logger.log(Level.INFO, msg);
+            return new DbResult<>(exportedRows, msg, ResultType.SUCCESS);
+        } catch (final Exception exception) {
+            String msg = "The table \"" + tableName + "\" could not be exported";
+            this.logger.log(Level.SEVERE, msg, exception);
+            deleteQuietly(temporaryFile);
+            return new DbResult<>(null, msg + ": " + exception.getMessage(), ResultType.EXCEPTION);
+        }
+    }
+
+    /**
+     * Imports all rows of the given export file into the table that is named in its header.
+     * Every batch is committed on its own, so a failed import keeps the batches that have been imported before;
+     * since existing rows are skipped, the import can simply be run again.
+     *
+     * @param file The file to read.
+     * @return A DbResult containing the amount of processed rows or an error.
+     */
+    public DbResult<Long> importFile(final @NotNull Path file) {
+        if (!Files.isRegularFile(file)) {
+            return new DbResult<>(null, "The file \"" + file + "\" does not exist", ResultType.NOT_FOUND);
+        }
+
+        final DbResult<SessionFactory> sessionFactoryResult = this.getAvailableSessionFactory();
+        if (!sessionFactoryResult.isSuccessful()) {
+            return new DbResult<>(null, sessionFactoryResult.getMessage(), sessionFactoryResult.getResultType());
+        }
+
+        try (StatelessSession session = sessionFactoryResult.getResult().openStatelessSession();
+             BufferedReader reader = new BufferedReader(new InputStreamReader(new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            JsonNode header = headerLine != null ? this.objectMapper.readTree(headerLine) : null;
+
+            if (header == null || header.path(HEADER_FORMAT_VERSION).asInt() != FORMAT_VERSION) {
+                return new DbResult<>(null, "The file \"" + file + "\" is not a Westonia export", ResultType.ERROR);
+            }
+
+            final String tableName = header.path(HEADER_TABLE).asText();
+            final ITableTransfer<?> tableTransfer = this.tableTransfers.get(tableName);
+
+            if (tableTransfer == null) {
+                return new DbResult<>(null, "The table \"" + tableName + "\" of the file cannot be imported", ResultType.NOT_FOUND);
+            }
+
+            long importedRows = 0;
+            List<JsonNode> batch = new ArrayList<>(this.batchSize);
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                batch.add(this.objectMapper.readTree(line));
+
+                if (batch.size() == this.batchSize) {
+                    importedRows += this.insertBatch(session, tableTransfer, batch);
+                    batch.clear();
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                importedRows += this.insertBatch(session, tableTransfer, batch);
+            }
+
+            String msg = importedRows + " rows of the file \"" + file + "\" have been imported into the table \"" + tableName + "\", existing rows have been kept";
+            this.logger.log(Level.INFO, msg);
+            return new DbResult<>(importedRows, msg, ResultType.SUCCESS);
+        } catch (final Exception exception) {
+            String msg = "The file \"" + file + "\" could not be imported";
+            this.logger.log(Level.SEVERE, msg, exception);
+            return new DbResult<>(null, msg + ": " + exception.getMessage(), ResultType.EXCEPTION);
+        }
+    }
+
+    /**
+     * Streams all rows of the table into the given writer.
+     * The stateless session does not keep the loaded entities, so every entity can be garbage collected once it has been written.
+     *
+     * @param session       The stateless session to use.
+     * @param tableTransfer The transfer of the table.
+     * @param writer        The writer of the export file.
+     * @param <Entity>      The type of the entity that is stored in the table.
+     * @return The amount of written rows.
+     * @throws IOException If a row could not be written.
+     */
+    private <Entity> long writeRows(final @NotNull StatelessSession session, final @NotNull ITableTransfer<Entity> tableTransfer, final @NotNull BufferedWriter writer) throws IOException {
+        final Class<Entity> entityClass = tableTransfer.getEntityClass();
+        final String selectSql = tableTransfer.getSelectSql();
+
+        if (selectSql != null) {
+            return this.writeNativeRows(session, tableTransfer, selectSql, writer);
+        }
+
+        if (entityClass == null) {
+            throw new IllegalStateException("The table \"" + tableTransfer.getTableName() + "\" has neither an entity class nor a select");
+        }
+
+        long writtenRows = 0;
+
+        try (ScrollableResults<Entity> rows = session.createSelectionQuery("from " + entityClass.getSimpleName() + " e order by e.id", entityClass)
+                .setFetchSize(this.fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                this.writeLine(writer, tableTransfer.toRecord(rows.get()));
+                writtenRows++;
+            }
+        }
+
+        return writtenRows;
+    }
+
+    /**
+     * Streams all rows of a table without an entity class into the given writer, using the native select of the table.
+     *
+     * @param session       The stateless session to use.
+     * @param tableTransfer The transfer of the table.
+     * @param selectSql     The native select of the rows.
+     * @param writer        The writer of the export file.
+     * @return The amount of written rows.
+     * @throws IOException If a row could not be written.
+     */
+    private long writeNativeRows(final @NotNull StatelessSession session, final @NotNull ITableTransfer<?> tableTransfer, final @NotNull String selectSql, final @NotNull BufferedWriter writer) throws IOException {
+        try {
+            return session.doReturningWork(connection -> {
+                long writtenRows = 0;
+
+                try (PreparedStatement statement = connection.prepareStatement(selectSql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    statement.setFetchSize(this.fetchSize);
+
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            this.writeLine(writer, tableTransfer.toRecord(rows));
+                            writtenRows++;
+                        }
+                    }
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+
+                return writtenRows;
+            });
+        } catch (final UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    /**
+     * Inserts one batch of records within its own transaction.
+     *
+     * @param session       The stateless session to use.
+     * @param tableTransfer The transfer of the table.
+     * @param records       The records to insert.
+     * @return The amount of processed records.
+     */
+    private int insertBatch(final @NotNull StatelessSession session, final @NotNull ITableTransfer<?> tableTransfer, final @NotNull List<JsonNode> records) {
+        final Transaction transaction = session.beginTransaction();
+
+        try {
+            session.doWork(connection -> tableTransfer.insertBatch(connection, records));
+            transaction.commit();
+            return records.size();
+        } catch (final RuntimeException exception) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+
+            throw exception;
+        }
+    }
+
+    /**
+     * Writes the given value as one JSON line.
+     *
+     * @param writer The writer of the export file.
+     * @param value  The value to write.
+     * @throws IOException If the line could not be written.
+     */
+    private void writeLine(final @NotNull BufferedWriter writer, final @NotNull Object value) throws IOException {
+        writer.write(this.objectMapper.writeValueAsString(value));
+        writer.newLine();
+    }
+
+    /**
+     * Returns the SessionFactory, if the database is reachable.
+     *
+     * @return A DbResult containing the SessionFactory or ERROR if the database is not reachable.
+     */
+    private DbResult<SessionFactory> getAvailableSessionFactory() {
+        final DbResult<SessionFactory> sessionFactoryResult = this.databaseFactory.getSessionFactory();
+
+        if (!sessionFactoryResult.isSuccessful() || sessionFactoryResult.getResult() == null || this.databaseFactory.getCircuitBreaker().isOpen()) {
+            return new DbResult<>(null, "The database is not reachable at the moment", ResultType.ERROR);
+        }
+
+        return sessionFactoryResult;
+    }
+
+    /**
+     * Deletes the given file, if it exists. Failures are ignored.
+     *
+     * @param file The file to delete.
+     */
+    private static void deleteQuietly(final @NotNull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException ignored) {
+            // Only a left over temporary file
+        }
+    }
+}
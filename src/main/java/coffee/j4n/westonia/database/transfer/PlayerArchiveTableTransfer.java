@@ -0,0 +1,98 @@
+package coffee.j4n.westonia.database.transfer;
+
+import coffee.j4n.westonia.database.converter.UUIDBinaryConverter;
+import coffee.j4n.westonia.database.entities.WstPlayer;
+import coffee.j4n.westonia.interfaces.ITableTransfer;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Export and import of the player archive, which has no entity class and is therefore read with a native select.
+ * Every archived player is written as {"uuid": "...", "firstJoinDate": epoch millis, "lastSeenDate": epoch millis, "language": "...", "archivedAt": epoch millis},
+ * players that are already archived in the target database are kept as they are.
+ */
+public class PlayerArchiveTableTransfer implements ITableTransfer<Void> {
+
+    private static final String RECORD_UUID = "uuid";
+    private static final String RECORD_FIRST_JOIN_DATE = "firstJoinDate";
+    private static final String RECORD_LAST_SEEN_DATE = "lastSeenDate";
+    private static final String RECORD_LANGUAGE = "language";
+    private static final String RECORD_ARCHIVED_AT = "archivedAt";
+
+    private static final String SELECT_SQL = "SELECT minecraft_uuid, first_join_date, last_seen_date, global_language, archived_at FROM " + WstPlayer.ARCHIVE_TABLE_NAME
+            + " ORDER BY minecraft_uuid";
+
+    private static final UUIDBinaryConverter UUID_CONVERTER = new UUIDBinaryConverter();
+
+    private final String insertIgnoreSql;
+
+    /**
+     * Creates the transfer of the player archive.
+     *
+     * @param insertIgnoreStatement The insert statement of the storage backend that skips existing rows (e.g. "INSERT IGNORE INTO").
+     */
+    public PlayerArchiveTableTransfer(final @NotNull String insertIgnoreStatement) {
+        this.insertIgnoreSql = insertIgnoreStatement + " " + WstPlayer.ARCHIVE_TABLE_NAME + " (minecraft_uuid, first_join_date, last_seen_date, global_language, archived_at) VALUES (?, ?, ?, ?, ?)";
+    }
+
+    @Override
+    public @NotNull String getTableName() {
+        return WstPlayer.ARCHIVE_TABLE_NAME;
+    }
+
+    @Override
+    public @Nullable Class<Void> getEntityClass() {
+        return null;
+    }
+
+    @Override
+    public @NotNull Map<String, Object> toRecord(final @NotNull Void entity) {
+        throw new UnsupportedOperationException("The player archive has no entity class");
+    }
+
+    @Override
+    public @NotNull String getSelectSql() {
+        return SELECT_SQL;
+    }
+
+    @Override
+    public @NotNull Map<String, Object> toRecord(final @NotNull ResultSet row) throws SQLException {
+        Map<String, Object> archiveRecord = new LinkedHashMap<>();
+        archiveRecord.put(RECORD_UUID, UUID_CONVERTER.convertToEntityAttribute(row.getBytes(1)).toString());
+        archiveRecord.put(RECORD_FIRST_JOIN_DATE, row.getTimestamp(2).getTime());
+        archiveRecord.put(RECORD_LAST_SEEN_DATE, row.getTimestamp(3).getTime());
+        archiveRecord.put(RECORD_LANGUAGE, row.getString(4));
+        archiveRecord.put(RECORD_ARCHIVED_AT, row.getTimestamp(5).getTime());
+        return archiveRecord;
+    }
+
+    @Override
+    public void insertBatch(final @NotNull Connection connection, final @NotNull List<JsonNode> records) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(this.insertIgnoreSql)) {
+            for (JsonNode archiveRecord : records) {
+                long firstJoinMillis = archiveRecord.path(RECORD_FIRST_JOIN_DATE).asLong(System.currentTimeMillis());
+                long lastSeenMillis = archiveRecord.path(RECORD_LAST_SEEN_DATE).asLong(firstJoinMillis);
+
+                statement.setBytes(1, UUID_CONVERTER.convertToDatabaseColumn(UUID.fromString(archiveRecord.path(RECORD_UUID).asText())));
+                statement.setTimestamp(2, new Timestamp(firstJoinMillis));
+                statement.setTimestamp(3, new Timestamp(lastSeenMillis));
+                statement.setString(4, archiveRecord.path(RECORD_LANGUAGE).asText(WstPlayer.DEFAULT_LANGUAGE));
+                statement.setTimestamp(5, new Timestamp(archiveRecord.path(RECORD_ARCHIVED_AT).asLong(lastSeenMillis)));
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+        }
+    }
+}
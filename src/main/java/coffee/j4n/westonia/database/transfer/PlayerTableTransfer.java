@@ -0,0 +1,80 @@
+package coffee.j4n.westonia.database.transfer;
+
+import coffee.j4n.westonia.database.converter.UUIDBinaryConverter;
+import coffee.j4n.westonia.database.entities.WstPlayer;
+import coffee.j4n.westonia.interfaces.ITableTransfer;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Export and import of the player table.
+ * Every player is written as {"uuid": "...", "firstJoinDate": epoch millis, "lastSeenDate": epoch millis, "language": "..."},
+ * players that are already registered in the target database are kept as they are.
+ */
+public class PlayerTableTransfer implements ITableTransfer<WstPlayer> {
+
+    private static final String RECORD_UUID = "uuid";
+    private static final String RECORD_FIRST_JOIN_DATE = "firstJoinDate";
+    private static final String RECORD_LAST_SEEN_DATE = "lastSeenDate";
+    private static final String RECORD_LANGUAGE = "language";
+
+    private static final UUIDBinaryConverter UUID_CONVERTER = new UUIDBinaryConverter();
+
+    private final String insertIgnoreSql;
+
+    /**
+     * Creates the transfer of the player table.
+     *
+     * @param insertIgnoreStatement The insert statement of the storage backend that skips existing rows (e.g. "INSERT IGNORE INTO").
+     */
+    public PlayerTableTransfer(final @NotNull String insertIgnoreStatement) {
+        this.insertIgnoreSql = insertIgnoreStatement + " " + WstPlayer.TABLE_NAME + " (minecraft_uuid, first_join_date, last_seen_date, global_language) VALUES (?, ?, ?, ?)";
+    }
+
+    @Override
+    public @NotNull String getTableName() {
+        return WstPlayer.TABLE_NAME;
+    }
+
+    @Override
+    public @NotNull Class<WstPlayer> getEntityClass() {
+        return WstPlayer.class;
+    }
+
+    @Override
+    public @NotNull Map<String, Object> toRecord(final @NotNull WstPlayer player) {
+        Map<String, Object> playerRecord = new LinkedHashMap<>();
+        playerRecord.put(RECORD_UUID, player.getMinecraftUUID().toString());
+        playerRecord.put(RECORD_FIRST_JOIN_DATE, player.getFirstJoinDate().getTime());
+        playerRecord.put(RECORD_LAST_SEEN_DATE, player.getLastSeenDate().getTime());
+        playerRecord.put(RECORD_LANGUAGE, player.getLanguage());
+        return playerRecord;
+    }
+
+    @Override
+    public void insertBatch(final @NotNull Connection connection, final @NotNull List<JsonNode> records) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(this.insertIgnoreSql)) {
+            for (JsonNode playerRecord : records) {
+                long firstJoinMillis = playerRecord.path(RECORD_FIRST_JOIN_DATE).asLong(System.currentTimeMillis());
+
+                statement.setBytes(1, UUID_CONVERTER.convertToDatabaseColumn(UUID.fromString(playerRecord.path(RECORD_UUID).asText())));
+                statement.setTimestamp(2, new Timestamp(firstJoinMillis));
+                // Exports without the last seen date count the players as last seen at their first join, like the migration does
+                statement.setTimestamp(3, new Timestamp(playerRecord.path(RECORD_LAST_SEEN_DATE).asLong(firstJoinMillis)));
+                statement.setString(4, playerRecord.path(RECORD_LANGUAGE).asText(WstPlayer.DEFAULT_LANGUAGE));
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package coffee.j4n.westonia.database.writebehind;
+
+import coffee.j4n.westonia.database.daos.BaseDao;
+import coffee.j4n.westonia.database.entities.BaseEntity;
+import coffee.j4n.westonia.database.results.DbReturn;
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Write-behind layer for entities: changed (dirty) entities are queued and written to the database in one batch
+ * by a dedicated flusher thread instead of one transaction per change.
+ * <br/><br/>
+ * The queue is flushed periodically, explicitly (e.g. when a player quits) and when it is shut down.
+ * If the queue reaches its maximum size, a flush is triggered immediately; callers that are not on the main thread
+ * wait for that flush to finish (backpressure), the main thread is never blocked.
+ * <br/><br/>
+ * If a fallback writer is set, entities that could not be written because the database is unreachable are handed to it
+ * (e.g. the write journal) instead of being queued again, so they survive a shutdown while the database is down.
+ * <br/><br/>
+ * If a batch fails for another reason (e.g. a constraint violation or a conflict that could not be resolved), its entities are written
+ * one by one, so a single broken entity does not hold back the others. An entity that keeps failing is handed to the fallback writer
+ * (or discarded, if there is none) after {@link #MAX_WRITE_ATTEMPTS} attempts.
+ *
+ * @param <Entity> The type of the queued entities.
+ */
+public class WriteBehindQueue<Entity extends BaseEntity> {
+
+    /**
+     * The time in seconds the queue waits for a running flush while shutting down.
+     */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+    /**
+     * The amount of flushes in which an entity may fail for a reason other than an unreachable database before it is given up.
+     */
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private final Logger logger;
+    private final BaseDao<Entity, ?> dao;
+    private final int maxPendingWrites;
+    private final long flushIntervalSeconds;
+    private final Set<Entity> pendingEntities = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // The failed attempts of the entities that are written one by one, only accessed while holding the flush lock
+    private final Map<Entity, Integer> failedAttempts = new IdentityHashMap<>();
+    private final ScheduledExecutorService flusher;
+    private volatile Function<Collection<Entity>, DbReturn> fallbackWriter;
+
+    /**
+     * Creates a new write-behind queue.
+     *
+     * @param pluginInstance       The plugin that owns the queue.
+     * @param dao                  The DAO that writes the queued entities.
+     * @param maxPendingWrites     The maximum amount of queued entities before a flush is forced.
+     * @param flushIntervalSeconds The interval in seconds in which the queue is flushed.
+     */
+    public WriteBehindQueue(final @NotNull JavaPlugin pluginInstance, final @NotNull BaseDao<Entity, ?> dao, final int maxPendingWrites, final long flushIntervalSeconds) {
+        this.logger = pluginInstance.getLogger();
+        this.dao = dao;
+        this.maxPendingWrites = Math.max(1, maxPendingWrites);
+        this.flushIntervalSeconds = Math.max(1L, flushIntervalSeconds);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Westonia-WriteBehind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the writer that receives the entities that could not be written because the database is unreachable.
+     *
+     * @param fallbackWriter The fallback writer, or null to queue the entities again.
+     */
+    public void setFallbackWriter(final @Nullable Function<Collection<Entity>, DbReturn> fallbackWriter) {
+        this.fallbackWriter = fallbackWriter;
+    }
+
+    /**
+     * Starts flushing the queue periodically.
+     */
+    public void start() {
+        this.flusher.scheduleWithFixedDelay(this::flush, this.flushIntervalSeconds, this.flushIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queues the given entity to be written with the next flush.
+     * An entity that is already queued is only written once.
+     *
+     * @param entity The changed entity.
+     */
+    public void enqueue(final @NotNull Entity entity) {
+        this.pendingEntities.add(entity);
+
+        if (this.pendingEntities.size() < this.maxPendingWrites) {
+            return;
+        }
+
+        CompletableFuture<DbReturn> flushFuture = this.flushAsync();
+
+        if (!Bukkit.isPrimaryThread()) {
+            flushFuture.join();
+        }
+    }
+
+    /**
+     * Flushes the queue on the flusher thread.
+     *
+     * @return A CompletableFuture that completes with the result of the flush.
+     */
+    public CompletableFuture<DbReturn> flushAsync() {
+        try {
+            return CompletableFuture.supplyAsync(this::flush, this.flusher);
+        } catch (RejectedExecutionException exception) {
+            return CompletableFuture.completedFuture(new DbReturn("The write-behind queue is shut down", ResultType.ERROR));
+        }
+    }
+
+    /**
+     * Writes all queued entities to the database in one batch.
+     * Entities that have failed before, and all entities of a batch that failed for a reason other than an unreachable database,
+     * are written one by one. Entities that could not be written are queued again.
+     *
+     * @return A DbReturn containing the result of the flush.
+     */
+    public DbReturn flush() {
+        this.flushLock.lock();
+        List<Entity> entitiesToFlush = new ArrayList<>();
+
+        try {
+            if (this.pendingEntities.isEmpty()) {
+                return new DbReturn("Nothing to flush", ResultType.SUCCESS);
+            }
+
+            entitiesToFlush.addAll(this.pendingEntities);
+            this.pendingEntities.removeAll(entitiesToFlush);
+
+            final List<Entity> batch = new ArrayList<>(entitiesToFlush.size());
+            final List<Entity> singleEntities = new ArrayList<>();
+
+            for (Entity entity : entitiesToFlush) {
+                (this.failedAttempts.containsKey(entity) ? singleEntities : batch).add(entity);
+            }
+
+            DbReturn flushResult = batch.isEmpty() ? new DbReturn("No entities to merge", ResultType.SUCCESS) : this.dao.mergeAll(batch);
+
+            if (flushResult.getResultType() == ResultType.ERROR) {
+                // The database is unreachable, so writing the entities one by one would fail as well
+                this.handOver(entitiesToFlush, flushResult);
+                return flushResult;
+            }
+
+            if (flushResult.isSuccessful()) {
+                this.requeueChanged(batch);
+            } else {
+                this.logger.log(Level.WARNING, "The batch of " + batch.size() + " queued entities could not be written, they are written one by one: " + flushResult.getMessage());
+                singleEntities.addAll(batch);
+            }
+
+            return this.flushOneByOne(singleEntities, flushResult.isSuccessful() ? flushResult : new DbReturn("Flushed " + entitiesToFlush.size() + " entities one by one", ResultType.SUCCESS));
+        } catch (final Exception exception) {
+            this.pendingEntities.addAll(entitiesToFlush);
+
+            String msg = "An exception occurred while flushing the write-behind queue";
+            this.logger.log(Level.SEVERE, msg, exception);
+            return new DbReturn(msg, ResultType.EXCEPTION);
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the amount of entities that are waiting to be written.
+     *
+     * @return The amount of pending entities.
+     */
+    public int getPendingCount() {
+        return this.pendingEntities.size();
+    }
+
+    /**
+     * Stops the periodic flush and writes all remaining entities synchronously.
+     */
+    public void shutdown() {
+        this.flusher.shutdown();
+
+        try {
+            if (!this.flusher.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                this.flusher.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            this.flusher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        DbReturn flushResult = this.flush();
+
+        if (!flushResult.isSuccessful()) {
+            List<Entity> remainingEntities = new ArrayList<>(this.pendingEntities);
+
+            if (!remainingEntities.isEmpty() && this.writeToFallback(remainingEntities)) {
+                this.pendingEntities.removeAll(remainingEntities);
+                this.logger.log(Level.WARNING, remainingEntities.size() + " entities could not be written while shutting down and have been handed to the fallback writer: " + flushResult.getMessage());
+                return;
+            }
+
+            this.logger.log(Level.SEVERE, this.pendingEntities.size() + " entities could not be written while shutting down: " + flushResult.getMessage());
+        }
+    }
+
+    /**
+     * Writes the given entities one by one. Must be called while holding the flush lock.
+     *
+     * @param entities      The entities to write.
+     * @param successResult The result to return if all entities have been written.
+     * @return The given result, or the result of the last entity that could not be written.
+     */
+    private DbReturn flushOneByOne(final @NotNull List<Entity> entities, final @NotNull DbReturn successResult) {
+        DbReturn flushResult = successResult;
+
+        for (int index = 0; index < entities.size(); index++) {
+            final Entity entity = entities.get(index);
+            final DbReturn writeResult = this.dao.mergeAll(List.of(entity));
+
+            if (writeResult.isSuccessful()) {
+                this.failedAttempts.remove(entity);
+                this.requeueChanged(List.of(entity));
+                continue;
+            }
+
+            flushResult = writeResult;
+
+            if (writeResult.getResultType() == ResultType.ERROR) {
+                this.handOver(entities.subList(index, entities.size()), writeResult);
+                break;
+            }
+
+            this.recordFailure(entity, writeResult);
+        }
+
+        return flushResult;
+    }
+
+    /**
+     * Counts a failed write of the given entity, which failed for a reason other than an unreachable database.
+     * Below {@link #MAX_WRITE_ATTEMPTS}, the entity is queued again, otherwise it is handed to the fallback writer or discarded.
+     * Must be called while holding the flush lock.
+     *
+     * @param entity      The entity that could not be written.
+     * @param writeResult The result of the write.
+     */
+    private void recordFailure(final @NotNull Entity entity, final @NotNull DbReturn writeResult) {
+        final String entityName = "Entity \"" + entity.getClass().getSimpleName() + "\" with the ID " + entity.getId();
+        final int attempts = this.failedAttempts.merge(entity, 1, Integer::sum);
+
+        if (attempts < MAX_WRITE_ATTEMPTS) {
+            this.pendingEntities.add(entity);
+            this.logger.log(Level.WARNING, entityName + " could not be written (attempt " + attempts + " of " + MAX_WRITE_ATTEMPTS + ") and has been queued again: " + writeResult.getMessage());
+            return;
+        }
+
+        this.failedAttempts.remove(entity);
+
+        if (this.writeToFallback(List.of(entity))) {
+            this.logger.log(Level.SEVERE, entityName + " could not be written after " + attempts + " attempts and has been handed to the fallback writer: " + writeResult.getMessage());
+            return;
+        }
+
+        entity.clearDirtyFields(entity.getDirtyFields());
+        this.logger.log(Level.SEVERE, entityName + " could not be written after " + attempts + " attempts, its changes have been discarded: " + writeResult.getMessage());
+    }
+
+    /**
+     * Hands the given entities to the fallback writer, as the database is unreachable, or queues them again if that is not possible.
+     *
+     * @param entities    The entities that could not be written.
+     * @param writeResult The result of the write.
+     */
+    private void handOver(final @NotNull List<Entity> entities, final @NotNull DbReturn writeResult) {
+        if (this.writeToFallback(entities)) {
+            entities.forEach(this.failedAttempts::remove);
+            this.logger.log(Level.WARNING, entities.size() + " queued entities could not be written and have been handed to the fallback writer: " + writeResult.getMessage());
+            return;
+        }
+
+        this.pendingEntities.addAll(entities);
+        this.logger.log(Level.WARNING, entities.size() + " queued entities could not be written and have been queued again: " + writeResult.getMessage());
+    }
+
+    /**
+     * Queues the given written entities again if they are still dirty, i.e. a field has been changed after the state has been read for the write.
+     *
+     * @param entities The written entities.
+     */
+    private void requeueChanged(final @NotNull Collection<Entity> entities) {
+        for (Entity entity : entities) {
+            if (entity.isDirty()) {
+                this.pendingEntities.add(entity);
+            }
+        }
+    }
+
+    /**
+     * Hands the given entities to the fallback writer, if one is set.
+     *
+     * @param entities The entities that could not be written.
+     * @return Whether the fallback writer has accepted the entities.
+     */
+    private boolean writeToFallback(final @NotNull Collection<Entity> entities) {
+        final Function<Collection<Entity>, DbReturn> currentFallbackWriter = this.fallbackWriter;
+
+        if (currentFallbackWriter == null) {
+            return false;
+        }
+
+        try {
+            return currentFallbackWriter.apply(entities).isSuccessful();
+        } catch (final Exception exception) {
+            this.logger.log(Level.SEVERE, "An exception occurred while handing entities to the fallback writer", exception);
+            return false;
+        }
+    }
+}
@@ -31,4 +31,23 @@ public interface IDatabaseFactory {
      */
     @Nullable
     DbResult<SessionFactory> buildSessionFactory();
+
+    /**
+     * Returns the already built session factory.
+     *
+     * @return The session factory or an error if it has not been built yet.
+     */
+    DbResult<SessionFactory> getSessionFactory();
+
+    /**
+     * Checks whether the database is reachable using the built session factory.
+     *
+     * @return Whether the database is healthy.
+     */
+    boolean isHealthy();
+
+    /**
+     * Closes the session factory and releases all of its resources.
+     */
+    void close();
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package coffee.j4n.westonia.interfaces;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Interface for the channels the servers of a network use to tell each other which players have changed,
+ * so that every server evicts exactly these players from its caches.
+ */
+public interface IInvalidationBus {
+
+    /**
+     * Announces that this server has changed the given players.
+     * The announcement may be sent with a short delay, the changes themselves have to be written already.
+     *
+     * @param playerUUIDs The UUIDs of the changed players.
+     */
+    void publish(@NotNull Collection<UUID> playerUUIDs);
+
+    /**
+     * Registers a listener that receives the players that have been changed by other servers.
+     * The listener is called on a background thread.
+     *
+     * @param listener The listener that receives the UUIDs of the changed players.
+     */
+    void subscribe(@NotNull Consumer<Collection<UUID>> listener);
+
+    /**
+     * Starts receiving (and sending) announcements.
+     */
+    void start();
+
+    /**
+     * Sends the pending announcements and stops the bus.
+     */
+    void shutdown();
+}
@@ -0,0 +1,44 @@
+package coffee.j4n.westonia.interfaces;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Interface for versioned schema migrations, which are applied once and in order of their version.
+ */
+public interface ISchemaMigration {
+
+    /**
+     * Returns the version of the migration, which determines the order in which the migrations are applied.
+     *
+     * @return The version of the migration.
+     */
+    int getVersion();
+
+    /**
+     * Returns a short description of what the migration changes.
+     *
+     * @return The description of the migration.
+     */
+    @NotNull
+    String getDescription();
+
+    /**
+     * Returns the checksum of the migration, which is used to detect changes to already applied migrations.
+     *
+     * @return The checksum or null if the migration cannot be checked (e.g. migrations written in Java).
+     */
+    @Nullable
+    String getChecksum();
+
+    /**
+     * Applies the migration.
+     *
+     * @param connection The connection to apply the migration with.
+     * @throws SQLException If the migration fails.
+     */
+    void migrate(@NotNull Connection connection) throws SQLException;
+}
@@ -0,0 +1,89 @@
+package coffee.j4n.westonia.interfaces;
+
+import coffee.j4n.westonia.utils.config.MdlDatabaseConfig;
+import coffee.j4n.westonia.utils.statics.enums.StorageType;
+import com.zaxxer.hikari.HikariConfig;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Interface for the storage backends the plugin can store its data in.
+ * A backend contains everything that differs between the databases: the JDBC driver and URL, the Hibernate dialect
+ * and the SQL that is not written in HQL (migrations and native statements).
+ */
+public interface IStorageBackend {
+
+    /**
+     * Returns the type of the backend.
+     *
+     * @return The storage type.
+     */
+    @NotNull
+    StorageType getStorageType();
+
+    /**
+     * Configures the driver, the JDBC URL, the credentials and the backend specific settings of the connection pool.
+     *
+     * @param hikariConfig          The configuration of the connection pool, which already contains the general pool settings.
+     * @param databaseConfiguration The database configuration of the plugin.
+     * @param replica               Whether the pool connects to the read replica instead of the primary database.
+     */
+    void configureDataSource(@NotNull HikariConfig hikariConfig, @NotNull MdlDatabaseConfig databaseConfiguration, boolean replica);
+
+    /**
+     * Returns whether reads can be routed to a read replica of the backend.
+     *
+     * @return Whether read replicas are supported.
+     */
+    boolean supportsReplicas();
+
+    /**
+     * Returns the Hibernate dialect of the backend.
+     *
+     * @return The fully qualified class name of the dialect or null if Hibernate detects it from the JDBC connection.
+     */
+    @Nullable
+    String getDialect();
+
+    /**
+     * Returns the classpath folder that contains the SQL migrations of the backend.
+     *
+     * @return The migration folder (e.g. "db/migrations").
+     */
+    @NotNull
+    String getMigrationFolder();
+
+    /**
+     * Returns the beginning of an insert that skips rows with a duplicate key, followed by the table name.
+     *
+     * @return The insert keyword (e.g. "INSERT IGNORE INTO").
+     */
+    @NotNull
+    String getInsertIgnoreStatement();
+
+    /**
+     * Returns the end of an insert that updates the given columns of the existing row instead of failing on a duplicate key (upsert).
+     *
+     * @param keyColumn     The column of the unique key the insert can conflict on.
+     * @param updateColumns The columns that are overwritten with the inserted values.
+     * @return The clause that is appended to the insert, beginning with a space (e.g. " ON DUPLICATE KEY UPDATE ...").
+     */
+    @NotNull
+    String getUpsertClause(@NotNull String keyColumn, @NotNull List<String> updateColumns);
+
+    /**
+     * Returns whether the backend supports named locks, which are used when several servers share the database.
+     *
+     * @return Whether named locks are supported.
+     */
+    boolean supportsNamedLocks();
+
+    /**
+     * Returns whether Hibernate can validate the schema of the backend against the entities.
+     *
+     * @return Whether the schema can be validated.
+     */
+    boolean supportsSchemaValidation();
+}
@@ -0,0 +1,74 @@
+package coffee.j4n.westonia.interfaces;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface for the tables that can be exported to and imported from NDJSON files.
+ * Every table of the plugin that should be part of backups and server migrations implements it once.
+ * Tables with an entity class are streamed as entities, tables without one (e.g. the player archive) provide a native select instead.
+ *
+ * @param <Entity> The type of the entity that is stored in the table, or {@link Void} if the table has no entity class.
+ */
+public interface ITableTransfer<Entity> {
+
+    /**
+     * Returns the name of the table, which is written into the header of the export file.
+     *
+     * @return The name of the table.
+     */
+    @NotNull String getTableName();
+
+    /**
+     * Returns the entity class of the table, which is streamed during the export.
+     *
+     * @return The entity class, or null if the table has no entity class and is read with {@link #getSelectSql()}.
+     */
+    @Nullable Class<Entity> getEntityClass();
+
+    /**
+     * Converts an entity into the record that is written as one JSON line.
+     * The database ID is not part of the record, so the records can be imported into any database.
+     *
+     * @param entity The entity to convert.
+     * @return The record, mapped by the name of each field.
+     */
+    @NotNull Map<String, Object> toRecord(@NotNull Entity entity);
+
+    /**
+     * Returns the native select that reads all rows of a table without an entity class during the export.
+     *
+     * @return The select, or null if the table is streamed as entities of {@link #getEntityClass()}.
+     */
+    default @Nullable String getSelectSql() {
+        return null;
+    }
+
+    /**
+     * Converts the current row of the native select into the record that is written as one JSON line.
+     * Only called for tables that provide a {@link #getSelectSql()}.
+     *
+     * @param row The result set, positioned on the row to convert.
+     * @return The record, mapped by the name of each field.
+     * @throws SQLException If the row cannot be read.
+     */
+    default @NotNull Map<String, Object> toRecord(final @NotNull ResultSet row) throws SQLException {
+        throw new UnsupportedOperationException("The table \"" + this.getTableName() + "\" is exported as entities");
+    }
+
+    /**
+     * Inserts the given records with one JDBC batch. Records that already exist (by their natural id) are skipped.
+     *
+     * @param connection The connection of the current transaction.
+     * @param records    The records to insert.
+     * @throws SQLException If the batch fails.
+     */
+    void insertBatch(@NotNull Connection connection, @NotNull List<JsonNode> records) throws SQLException;
+}
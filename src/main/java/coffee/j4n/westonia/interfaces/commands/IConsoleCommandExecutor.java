@@ -0,0 +1,22 @@
+package coffee.j4n.westonia.interfaces.commands;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.java.JavaPlugin;
+
+/**
+ * Interface for command executors that can also be run from the console, including the CommandSender and the PluginInstance.
+ * @param <MainClass> The main class of the plugin
+ */
+public interface IConsoleCommandExecutor<MainClass extends JavaPlugin> extends IWstCommand {
+
+    /**
+     * Executes the command
+     * @param sender The console or the player who executed the command
+     * @param command The command that was executed
+     * @param arguments The arguments that were passed with the command
+     * @param plugin The main class of the plugin
+     * @return true if the command was executed successfully, false otherwise
+     */
+    Boolean onCommand(CommandSender sender, Command command, String[] arguments, MainClass plugin);
+}
@@ -2,6 +2,9 @@ package coffee.j4n.westonia.listeners;
 
 import coffee.j4n.westonia.BasePlayer;
 import coffee.j4n.westonia.Westonia;
+import coffee.j4n.westonia.database.entities.WstPlayer;
+import coffee.j4n.westonia.database.results.DbResult;
+import coffee.j4n.westonia.utils.Helpers;
 import coffee.j4n.westonia.utils.messages.Messages;
 import coffee.j4n.westonia.utils.messages.management.MessageHelpers;
 import coffee.j4n.westonia.utils.statics.constants.Prefixes;
@@ -26,25 +29,42 @@ public class PlayerJoinEvent implements Listener {
         BasePlayer basePlayer = new BasePlayer(event.getPlayer(), plugin.getNetworkPlayerDao(), plugin.getRunnableManager());
         this.plugin.getPlayerHandler().addPlayer(basePlayer);
 
+        // Usually the player data has already been loaded during the pre-login
+        DbResult<WstPlayer> prefetchedPlayer = this.plugin.getPlayerPrefetchCache().take(basePlayer.getUniqueId());
+        if (prefetchedPlayer != null && basePlayer.init(prefetchedPlayer)) {
+            this.welcomePlayer(basePlayer);
+            return;
+        }
+
         basePlayer.sendWestoniaMessage(Messages.PLAYER_JOIN_DATA_WILL_BE_SYNCED);
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            basePlayer.init();
+        Helpers.acceptOnMainThread(basePlayer.initAsync(), ignored -> {
+            if (!basePlayer.isInitialized()) {
+                return;
+            }
 
-            basePlayer.sendWestoniaMessage(Messages.PLAYER_JOIN_DATA_SYNCED);
+            basePlayer.sendWestoniaMessage(basePlayer.isDegraded() ? Messages.PLAYER_JOIN_DEGRADED_MODE : Messages.PLAYER_JOIN_DATA_SYNCED);
+            this.welcomePlayer(basePlayer);
+        });
+    }
 
-            basePlayer.sendSpecialMessage(Messages.COMMON_HEADER, Prefixes.WESTONIA_RAW_STRING);
-            basePlayer.sendArrowMessage(Messages.PLAYER_JOIN_WELCOME_MESSAGE, basePlayer.getPlayer().getName(), basePlayer.getLanguageHumanFriendly());
+    /**
+     * Welcomes the initialized player and announces the join.
+     *
+     * @param basePlayer The player that joined.
+     */
+    private void welcomePlayer(BasePlayer basePlayer) {
+        basePlayer.sendSpecialMessage(Messages.COMMON_HEADER, Prefixes.WESTONIA_RAW_STRING);
+        basePlayer.sendArrowMessage(Messages.PLAYER_JOIN_WELCOME_MESSAGE, basePlayer.getPlayer().getName(), basePlayer.getLanguageHumanFriendly());
 
-            Bukkit.broadcast(MessageHelpers.applyPrefixTemplate(MessageHelpers.getMiniMessage().deserialize("<green><b>+</b></green>")).append(MessageHelpers.getMiniMessage().deserialize(MessageHelpers.applyGradientToString(basePlayer.getPlayer().getName(), GradientType.PLAYER))).color(NamedTextColor.GOLD));
+        Bukkit.broadcast(MessageHelpers.applyPrefixTemplate(MessageHelpers.getMiniMessage().deserialize("<green><b>+</b></green>")).append(MessageHelpers.getMiniMessage().deserialize(MessageHelpers.applyGradientToString(basePlayer.getPlayer().getName(), GradientType.PLAYER))).color(NamedTextColor.GOLD));
 
-            basePlayer.sendDebugMessage("Stelle Sprache um... (aktuell: " + basePlayer.getCurrentLocale() + "[" + basePlayer.getLanguageHumanFriendly() + "])");
+        basePlayer.sendDebugMessage("Stelle Sprache um... (aktuell: " + basePlayer.getCurrentLocale() + "[" + basePlayer.getLanguageHumanFriendly() + "])");
 
-            if (basePlayer.getCurrentLocale().equalsIgnoreCase("de")) {
-                basePlayer.setCurrentLocale("en");
-            } else {
-                basePlayer.setCurrentLocale("de");
-            }
-        });
+        if (basePlayer.getCurrentLocale().equalsIgnoreCase("de")) {
+            basePlayer.setCurrentLocale("en");
+        } else {
+            basePlayer.setCurrentLocale("de");
+        }
     }
-}
\ No newline at end of file
+}
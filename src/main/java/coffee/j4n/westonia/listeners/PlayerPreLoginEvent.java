@@ -0,0 +1,78 @@
+package coffee.j4n.westonia.listeners;
+
+import coffee.j4n.westonia.Westonia;
+import coffee.j4n.westonia.database.entities.WstPlayer;
+import coffee.j4n.westonia.database.results.DbResult;
+import coffee.j4n.westonia.utils.messages.MessageFactory;
+import coffee.j4n.westonia.utils.messages.Messages;
+import coffee.j4n.westonia.utils.messages.management.MessageHelpers;
+import net.kyori.adventure.text.Component;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listener for the asynchronous pre-login of players.
+ * Loads (or registers) the player data while the player is still logging in, so that the player is fully initialized at the join.
+ * While the plugin is still starting, the logins are held until the startup is completed.
+ */
+public class PlayerPreLoginEvent implements Listener {
+
+    /**
+     * The time in seconds a login is held while the plugin is still starting, before the player is asked to try again.
+     * It has to stay below the login timeout of the client.
+     */
+    private static final long STARTUP_WAIT_SECONDS = 15L;
+
+    /**
+     * The message the player is disconnected with if the messages have not been loaded yet either.
+     */
+    private static final String SERVER_STARTING_FALLBACK_MESSAGE = "The server is still starting, please try again in a moment.";
+
+    private final Westonia plugin;
+
+    public PlayerPreLoginEvent(Westonia plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Holds the login until the startup of the plugin is completed, as the player data cannot be loaded before.
+     * The event is called off the main thread, so waiting does not block the server.
+     * It runs first, so that the other plugins see the login only once Westonia is ready (or has disallowed it).
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onBasePlayerPreLoginAwaitStartup(AsyncPlayerPreLoginEvent event) {
+        if (this.plugin.getStartupPipeline().awaitReady(STARTUP_WAIT_SECONDS, TimeUnit.SECONDS)) {
+            return;
+        }
+
+        // The client locale is not known yet, so the message is sent in the default language
+        MessageFactory messageFactory = this.plugin.getMessageFactory();
+        Component message = messageFactory != null ? messageFactory.getMessage(Messages.PLAYER_JOIN_SERVER_STARTING, WstPlayer.DEFAULT_LANGUAGE) : MessageHelpers.getMiniMessage().deserialize(SERVER_STARTING_FALLBACK_MESSAGE);
+
+        event.disallow(AsyncPlayerPreLoginEvent.Result.KICK_OTHER, message);
+    }
+
+    /**
+     * The event is already called off the main thread, so the database is queried directly.
+     * It runs last, so that no player data is loaded for logins that other plugins deny.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBasePlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+        // Without a database configuration there are no players to load
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED || this.plugin.getNetworkPlayerDao() == null) {
+            return;
+        }
+
+        // The client locale is not known yet, new players are registered with the default language and corrected at the join
+        DbResult<WstPlayer> playerResult = this.plugin.getNetworkPlayerDao().loadOrRegister(event.getUniqueId(), WstPlayer.DEFAULT_LANGUAGE);
+
+        // Failed loads are not stored, the join retries them and handles the error
+        if (playerResult.isSuccessful()) {
+            this.plugin.getPlayerPrefetchCache().put(event.getUniqueId(), playerResult);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package coffee.j4n.westonia.listeners;
+
+import coffee.j4n.westonia.BasePlayer;
+import coffee.j4n.westonia.Westonia;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+import java.util.UUID;
+
+/**
+ * Listener for players leaving the server.
+ * Cleans up everything that is kept in memory for the player.
+ */
+public class PlayerQuitEvent implements Listener {
+
+    private final Westonia plugin;
+
+    public PlayerQuitEvent(Westonia plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onBasePlayerQuit(org.bukkit.event.player.PlayerQuitEvent event) {
+        UUID playerUUID = event.getPlayer().getUniqueId();
+        BasePlayer basePlayer = this.plugin.getPlayerHandler().getPlayer(playerUUID);
+
+        if (basePlayer != null) {
+            basePlayer.stopAllCountdowns();
+            basePlayer.markSeen();
+            this.plugin.getPlayerHandler().removePlayer(basePlayer);
+        }
+
+        // Write the changes of the leaving player (and everything else that is pending) right away
+        this.plugin.getPlayerWriteBehindQueue().flushAsync();
+        this.plugin.getNetworkPlayerDao().getPlayerCache().invalidate(playerUUID);
+        this.plugin.getNetworkPlayerDao().unpinFromPrimary(playerUUID);
+    }
+}
@@ -6,6 +6,9 @@ import org.bukkit.Bukkit;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * A utility class that provides helper methods.
@@ -52,4 +55,26 @@ public final class Helpers {
             Bukkit.getScheduler().runTask(Westonia.getInstance(), task);
         }
     }
+
+    /**
+     * Returns an executor that runs its tasks on the main thread.
+     * It can be used to continue a CompletableFuture on the main thread, e.g. future.thenAcceptAsync(..., Helpers.getMainThreadExecutor()).
+     *
+     * @return The executor that runs its tasks on the main thread.
+     */
+    public static Executor getMainThreadExecutor() {
+        return Helpers::runOnMainThread;
+    }
+
+    /**
+     * Consumes the result of the given future on the main thread, once it is completed.
+     *
+     * @param future   The future whose result should be consumed.
+     * @param consumer The consumer that is called on the main thread.
+     * @param <T>      The type of the result.
+     * @return A CompletableFuture that completes after the consumer has been called.
+     */
+    public static <T> CompletableFuture<Void> acceptOnMainThread(CompletableFuture<T> future, Consumer<T> consumer) {
+        return future.thenAcceptAsync(consumer, getMainThreadExecutor());
+    }
 }
@@ -1,12 +1,20 @@
 package coffee.j4n.westonia.utils.config;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
+import coffee.j4n.westonia.utils.statics.constants.DatabaseDefaults;
+import coffee.j4n.westonia.utils.statics.enums.InvalidationType;
+import coffee.j4n.westonia.utils.statics.enums.StorageType;
 
 /**
  * This class represents the configuration of the database.
  */
 public class MdlDatabaseConfig {
 
+    /**
+     * The storage backend (MYSQL, H2 or SQLITE).
+     * For the embedded backends (H2 and SQLITE), the database name is used as the name of the database file in the plugin folder.
+     */
+    private StorageType storageType;
+
     /**
      * The host of the database.
      */
@@ -17,6 +25,22 @@ public class MdlDatabaseConfig {
      */
     private Integer port;
 
+    /**
+     * The host of the read replica, reads are routed to it if set (MYSQL only).
+     */
+    private String replicaHost;
+
+    /**
+     * The port of the read replica. If not set, the port of the primary database is used.
+     */
+    private Integer replicaPort;
+
+    /**
+     * The time in minutes a player keeps reading from the primary database after a write, unless the player quits before.
+     * This makes sure that the player never reads older data from the replica than what has just been written.
+     */
+    private Long replicaPinMinutes;
+
     /**
      * The name of the database.
      */
@@ -42,6 +66,173 @@ public class MdlDatabaseConfig {
      */
     private String databaseEntitiesPackage;
 
+    /**
+     * The maximum amount of connections in the connection pool.
+     */
+    private Integer maximumPoolSize;
+
+    /**
+     * The minimum amount of idle connections the connection pool tries to keep.
+     */
+    private Integer minimumIdle;
+
+    /**
+     * The time in milliseconds a caller waits for a connection from the pool before an exception is thrown.
+     */
+    private Long connectionTimeoutMillis;
+
+    /**
+     * The maximum lifetime of a pooled connection in milliseconds.
+     */
+    private Long maxLifetimeMillis;
+
+    /**
+     * The time in milliseconds a connection may be borrowed from the pool before a possible leak is logged (0 = disabled).
+     */
+    private Long leakDetectionThresholdMillis;
+
+    /**
+     * The maximum amount of asynchronous database operations that may run at the same time.
+     * If not set, the maximum pool size is used.
+     */
+    private Integer maxConcurrentOperations;
+
+    /**
+     * The maximum amount of players that are kept in the in-memory player cache.
+     */
+    private Long playerCacheMaximumSize;
+
+    /**
+     * The time in minutes after which a cached player that has not been accessed is evicted.
+     */
+    private Long playerCacheExpireAfterAccessMinutes;
+
+    /**
+     * Whether Hibernate validates the migrated schema against the entities at startup.
+     */
+    private Boolean validateSchema;
+
+    /**
+     * Whether the Hibernate second-level cache and natural-id cache are enabled.
+     */
+    private Boolean secondLevelCacheEnabled;
+
+    /**
+     * The maximum amount of entries per second-level cache region.
+     */
+    private Long secondLevelCacheMaximumSize;
+
+    /**
+     * The time in minutes after which an entry that has not been accessed is evicted from the second-level cache.
+     */
+    private Long secondLevelCacheExpireAfterAccessMinutes;
+
+    /**
+     * Whether Hibernate collects statistics (cache hits, statements, ...).
+     */
+    private Boolean statisticsEnabled;
+
+    /**
+     * The time in milliseconds after which a statement or a DAO operation is logged as slow. 0 disables the log.
+     */
+    private Long slowQueryThresholdMillis;
+
+    /**
+     * The interval in seconds in which the metrics file is written. 0 disables the file.
+     */
+    private Long metricsFileIntervalSeconds;
+
+    /**
+     * The maximum amount of compiled query plans that are kept in the query plan cache.
+     */
+    private Integer queryPlanCacheMaximumSize;
+
+    /**
+     * The amount of statements that are sent to the database in one JDBC batch.
+     */
+    private Integer jdbcBatchSize;
+
+    /**
+     * Whether the MySQL driver should rewrite batched inserts into multi-row statements.
+     */
+    private Boolean rewriteBatchedStatements;
+
+    /**
+     * The interval in seconds in which changed entities are written to the database.
+     */
+    private Long writeBehindFlushIntervalSeconds;
+
+    /**
+     * The maximum amount of changed entities that are queued before a flush is forced.
+     */
+    private Integer writeBehindMaxPendingWrites;
+
+    /**
+     * The amount of consecutive connection failures after which the circuit breaker opens.
+     */
+    private Integer circuitBreakerFailureThreshold;
+
+    /**
+     * The time in seconds the circuit breaker stays open before an operation is let through again.
+     */
+    private Long circuitBreakerOpenSeconds;
+
+    /**
+     * The interval in seconds in which the plugin tries to reconnect to an unreachable database.
+     */
+    private Long recoveryIntervalSeconds;
+
+    /**
+     * The interval in milliseconds in which the write journal is synced to the disk.
+     */
+    private Long journalSyncIntervalMillis;
+
+    /**
+     * How the servers of the network tell each other which players have changed (LOCAL or CHANGE_LOG).
+     * The embedded backends (H2 and SQLITE) always use LOCAL, since their database cannot be shared.
+     */
+    private InvalidationType invalidationType;
+
+    /**
+     * The id of this server in the change log, unique within the network. If not set, a random id is used on every start.
+     */
+    private String serverId;
+
+    /**
+     * The interval in milliseconds in which the change log is written and polled.
+     */
+    private Long changeLogPollIntervalMillis;
+
+    /**
+     * The time in minutes after which rows are deleted from the change log.
+     */
+    private Long changeLogRetentionMinutes;
+
+    /**
+     * The amount of rows the JDBC driver fetches at once while a table is exported.
+     */
+    private Integer transferFetchSize;
+
+    /**
+     * The amount of days after which a player who has not been seen is moved into the archive. 0 disables the archival.
+     */
+    private Long archiveAfterDays;
+
+    /**
+     * The maximum amount of players that are archived within one transaction.
+     */
+    private Integer archiveMaxBatchSize;
+
+    /**
+     * The time in milliseconds a single archival batch should take at most, slower batches are made smaller.
+     */
+    private Long archiveBatchTimeBudgetMillis;
+
+    /**
+     * The interval in minutes in which the inactive players are archived.
+     */
+    private Long archiveIntervalMinutes;
+
     /**
      * Default constructor for Jackson.
      */
@@ -68,6 +259,15 @@ public class MdlDatabaseConfig {
         this.databaseEntitiesPackage = databaseEntitiesPackage;
     }
 
+    /**
+     * Returns the storage backend.
+     *
+     * @return The storage type.
+     */
+    public StorageType getStorageType() {
+        return this.storageType != null ? this.storageType : DatabaseDefaults.STORAGE_TYPE;
+    }
+
     /**
      * Returns the host of the database.
      *
@@ -86,6 +286,33 @@ public class MdlDatabaseConfig {
         return this.port;
     }
 
+    /**
+     * Returns the host of the read replica.
+     *
+     * @return The host of the read replica or null if no replica is configured.
+     */
+    public String getReplicaHost() {
+        return this.replicaHost != null && !this.replicaHost.isBlank() ? this.replicaHost : null;
+    }
+
+    /**
+     * Returns the port of the read replica.
+     *
+     * @return The port of the read replica.
+     */
+    public Integer getReplicaPort() {
+        return this.replicaPort != null ? this.replicaPort : this.getPort();
+    }
+
+    /**
+     * Returns the time in minutes a player keeps reading from the primary database after a write.
+     *
+     * @return The pin duration in minutes.
+     */
+    public Long getReplicaPinMinutes() {
+        return this.replicaPinMinutes != null ? this.replicaPinMinutes : DatabaseDefaults.REPLICA_PIN_MINUTES;
+    }
+
     /**
      * Returns the name of the database.
      *
@@ -132,14 +359,299 @@ public class MdlDatabaseConfig {
     }
 
     /**
-     * Returns the connection URL for the database, which is used to connect to the database.
-     * The URL is built from the host, port and database name.
-     * This method is annotated with @JsonIgnore, so that Jackson does not serialize it.
+     * Returns the maximum amount of connections in the connection pool.
+     *
+     * @return The maximum amount of connections in the connection pool.
+     */
+    public Integer getMaximumPoolSize() {
+        return this.maximumPoolSize != null ? this.maximumPoolSize : DatabaseDefaults.MAXIMUM_POOL_SIZE;
+    }
+
+    /**
+     * Returns the minimum amount of idle connections the connection pool tries to keep.
+     *
+     * @return The minimum amount of idle connections.
+     */
+    public Integer getMinimumIdle() {
+        return this.minimumIdle != null ? this.minimumIdle : DatabaseDefaults.MINIMUM_IDLE;
+    }
+
+    /**
+     * Returns the time in milliseconds a caller waits for a connection from the pool.
+     *
+     * @return The connection timeout in milliseconds.
+     */
+    public Long getConnectionTimeoutMillis() {
+        return this.connectionTimeoutMillis != null ? this.connectionTimeoutMillis : DatabaseDefaults.CONNECTION_TIMEOUT_MILLIS;
+    }
+
+    /**
+     * Returns the maximum lifetime of a pooled connection in milliseconds.
+     *
+     * @return The maximum lifetime of a pooled connection in milliseconds.
+     */
+    public Long getMaxLifetimeMillis() {
+        return this.maxLifetimeMillis != null ? this.maxLifetimeMillis : DatabaseDefaults.MAX_LIFETIME_MILLIS;
+    }
+
+    /**
+     * Returns the time in milliseconds a connection may be borrowed before a possible leak is logged.
+     *
+     * @return The leak detection threshold in milliseconds (0 = disabled).
+     */
+    public Long getLeakDetectionThresholdMillis() {
+        return this.leakDetectionThresholdMillis != null ? this.leakDetectionThresholdMillis : DatabaseDefaults.LEAK_DETECTION_THRESHOLD_MILLIS;
+    }
+
+    /**
+     * Returns the maximum amount of asynchronous database operations that may run at the same time.
+     *
+     * @return The maximum amount of concurrent database operations.
+     */
+    public Integer getMaxConcurrentOperations() {
+        return this.maxConcurrentOperations != null ? this.maxConcurrentOperations : this.getMaximumPoolSize();
+    }
+
+    /**
+     * Returns the maximum amount of players that are kept in the in-memory player cache.
+     *
+     * @return The maximum size of the player cache.
+     */
+    public Long getPlayerCacheMaximumSize() {
+        return this.playerCacheMaximumSize != null ? this.playerCacheMaximumSize : DatabaseDefaults.PLAYER_CACHE_MAXIMUM_SIZE;
+    }
+
+    /**
+     * Returns the time in minutes after which a cached player that has not been accessed is evicted.
+     *
+     * @return The expiry time of the player cache in minutes.
+     */
+    public Long getPlayerCacheExpireAfterAccessMinutes() {
+        return this.playerCacheExpireAfterAccessMinutes != null ? this.playerCacheExpireAfterAccessMinutes : DatabaseDefaults.PLAYER_CACHE_EXPIRE_AFTER_ACCESS_MINUTES;
+    }
+
+    /**
+     * Returns whether Hibernate validates the migrated schema against the entities at startup.
+     *
+     * @return Whether the schema is validated.
+     */
+    public Boolean getValidateSchema() {
+        return this.validateSchema != null ? this.validateSchema : DatabaseDefaults.VALIDATE_SCHEMA;
+    }
+
+    /**
+     * Returns whether the Hibernate second-level cache and natural-id cache are enabled.
+     *
+     * @return Whether the second-level cache is enabled.
+     */
+    public Boolean getSecondLevelCacheEnabled() {
+        return this.secondLevelCacheEnabled != null ? this.secondLevelCacheEnabled : DatabaseDefaults.SECOND_LEVEL_CACHE_ENABLED;
+    }
+
+    /**
+     * Returns the maximum amount of entries per second-level cache region.
+     *
+     * @return The maximum size of a second-level cache region.
+     */
+    public Long getSecondLevelCacheMaximumSize() {
+        return this.secondLevelCacheMaximumSize != null ? this.secondLevelCacheMaximumSize : DatabaseDefaults.SECOND_LEVEL_CACHE_MAXIMUM_SIZE;
+    }
+
+    /**
+     * Returns the time in minutes after which an entry that has not been accessed is evicted from the second-level cache.
+     *
+     * @return The expiry time of the second-level cache in minutes.
+     */
+    public Long getSecondLevelCacheExpireAfterAccessMinutes() {
+        return this.secondLevelCacheExpireAfterAccessMinutes != null ? this.secondLevelCacheExpireAfterAccessMinutes : DatabaseDefaults.SECOND_LEVEL_CACHE_EXPIRE_AFTER_ACCESS_MINUTES;
+    }
+
+    /**
+     * Returns whether Hibernate collects statistics (cache hits, statements, ...).
+     *
+     * @return Whether the statistics are enabled.
+     */
+    public Boolean getStatisticsEnabled() {
+        return this.statisticsEnabled != null ? this.statisticsEnabled : DatabaseDefaults.STATISTICS_ENABLED;
+    }
+
+    /**
+     * Returns the time in milliseconds after which a statement or a DAO operation is logged as slow.
+     *
+     * @return The slow query threshold in milliseconds, 0 if the log is disabled.
+     */
+    public Long getSlowQueryThresholdMillis() {
+        return this.slowQueryThresholdMillis != null ? Math.max(0L, this.slowQueryThresholdMillis) : DatabaseDefaults.SLOW_QUERY_THRESHOLD_MILLIS;
+    }
+
+    /**
+     * Returns the interval in seconds in which the metrics file is written.
+     *
+     * @return The metrics file interval in seconds, 0 if the file is disabled.
+     */
+    public Long getMetricsFileIntervalSeconds() {
+        return this.metricsFileIntervalSeconds != null ? Math.max(0L, this.metricsFileIntervalSeconds) : DatabaseDefaults.METRICS_FILE_INTERVAL_SECONDS;
+    }
+
+    /**
+     * Returns the maximum amount of compiled query plans that are kept in the query plan cache.
+     *
+     * @return The maximum size of the query plan cache.
+     */
+    public Integer getQueryPlanCacheMaximumSize() {
+        return this.queryPlanCacheMaximumSize != null ? this.queryPlanCacheMaximumSize : DatabaseDefaults.QUERY_PLAN_CACHE_MAXIMUM_SIZE;
+    }
+
+    /**
+     * Returns the amount of statements that are sent to the database in one JDBC batch.
+     *
+     * @return The JDBC batch size.
+     */
+    public Integer getJdbcBatchSize() {
+        return this.jdbcBatchSize != null ? Math.max(1, this.jdbcBatchSize) : DatabaseDefaults.JDBC_BATCH_SIZE;
+    }
+
+    /**
+     * Returns whether the MySQL driver should rewrite batched inserts into multi-row statements.
+     *
+     * @return Whether batched statements are rewritten.
+     */
+    public Boolean getRewriteBatchedStatements() {
+        return this.rewriteBatchedStatements != null ? this.rewriteBatchedStatements : DatabaseDefaults.REWRITE_BATCHED_STATEMENTS;
+    }
+
+    /**
+     * Returns the interval in seconds in which changed entities are written to the database.
+     *
+     * @return The flush interval of the write-behind queue in seconds.
+     */
+    public Long getWriteBehindFlushIntervalSeconds() {
+        return this.writeBehindFlushIntervalSeconds != null ? this.writeBehindFlushIntervalSeconds : DatabaseDefaults.WRITE_BEHIND_FLUSH_INTERVAL_SECONDS;
+    }
+
+    /**
+     * Returns the maximum amount of changed entities that are queued before a flush is forced.
+     *
+     * @return The maximum amount of pending writes.
+     */
+    public Integer getWriteBehindMaxPendingWrites() {
+        return this.writeBehindMaxPendingWrites != null ? this.writeBehindMaxPendingWrites : DatabaseDefaults.WRITE_BEHIND_MAX_PENDING_WRITES;
+    }
+
+    /**
+     * Returns the amount of consecutive connection failures after which the circuit breaker opens.
+     *
+     * @return The failure threshold of the circuit breaker.
+     */
+    public Integer getCircuitBreakerFailureThreshold() {
+        return this.circuitBreakerFailureThreshold != null ? this.circuitBreakerFailureThreshold : DatabaseDefaults.CIRCUIT_BREAKER_FAILURE_THRESHOLD;
+    }
+
+    /**
+     * Returns the time in seconds the circuit breaker stays open before an operation is let through again.
+     *
+     * @return The open duration of the circuit breaker in seconds.
+     */
+    public Long getCircuitBreakerOpenSeconds() {
+        return this.circuitBreakerOpenSeconds != null ? this.circuitBreakerOpenSeconds : DatabaseDefaults.CIRCUIT_BREAKER_OPEN_SECONDS;
+    }
+
+    /**
+     * Returns the interval in seconds in which the plugin tries to reconnect to an unreachable database.
+     *
+     * @return The recovery interval in seconds.
+     */
+    public Long getRecoveryIntervalSeconds() {
+        return this.recoveryIntervalSeconds != null ? this.recoveryIntervalSeconds : DatabaseDefaults.RECOVERY_INTERVAL_SECONDS;
+    }
+
+    /**
+     * Returns the interval in milliseconds in which the write journal is synced to the disk.
+     *
+     * @return The sync interval of the write journal in milliseconds.
+     */
+    public Long getJournalSyncIntervalMillis() {
+        return this.journalSyncIntervalMillis != null ? this.journalSyncIntervalMillis : DatabaseDefaults.JOURNAL_SYNC_INTERVAL_MILLIS;
+    }
+
+    /**
+     * Returns how the servers of the network tell each other which players have changed.
+     *
+     * @return The invalidation type.
+     */
+    public InvalidationType getInvalidationType() {
+        return this.invalidationType != null ? this.invalidationType : DatabaseDefaults.INVALIDATION_TYPE;
+    }
+
+    /**
+     * Returns the id of this server in the change log.
+     *
+     * @return The server id or null if none is configured.
+     */
+    public String getServerId() {
+        return this.serverId != null && !this.serverId.isBlank() ? this.serverId : null;
+    }
+
+    /**
+     * Returns the interval in milliseconds in which the change log is written and polled.
+     *
+     * @return The poll interval of the change log in milliseconds.
+     */
+    public Long getChangeLogPollIntervalMillis() {
+        return this.changeLogPollIntervalMillis != null ? this.changeLogPollIntervalMillis : DatabaseDefaults.CHANGE_LOG_POLL_INTERVAL_MILLIS;
+    }
+
+    /**
+     * Returns the time in minutes after which rows are deleted from the change log.
+     *
+     * @return The retention of the change log in minutes.
+     */
+    public Long getChangeLogRetentionMinutes() {
+        return this.changeLogRetentionMinutes != null ? this.changeLogRetentionMinutes : DatabaseDefaults.CHANGE_LOG_RETENTION_MINUTES;
+    }
+
+    /**
+     * Returns the amount of rows the JDBC driver fetches at once while a table is exported.
+     *
+     * @return The fetch size of the export.
+     */
+    public Integer getTransferFetchSize() {
+        return this.transferFetchSize != null ? Math.max(1, this.transferFetchSize) : DatabaseDefaults.TRANSFER_FETCH_SIZE;
+    }
+
+    /**
+     * Returns the amount of days after which a player who has not been seen is moved into the archive.
+     *
+     * @return The inactivity in days, 0 if the archival is disabled.
+     */
+    public Long getArchiveAfterDays() {
+        return this.archiveAfterDays != null ? Math.max(0L, this.archiveAfterDays) : DatabaseDefaults.ARCHIVE_AFTER_DAYS;
+    }
+
+    /**
+     * Returns the maximum amount of players that are archived within one transaction.
+     *
+     * @return The maximum archival batch size.
+     */
+    public Integer getArchiveMaxBatchSize() {
+        return this.archiveMaxBatchSize != null ? Math.max(1, this.archiveMaxBatchSize) : DatabaseDefaults.ARCHIVE_MAX_BATCH_SIZE;
+    }
+
+    /**
+     * Returns the time in milliseconds a single archival batch should take at most.
+     *
+     * @return The time budget of an archival batch in milliseconds.
+     */
+    public Long getArchiveBatchTimeBudgetMillis() {
+        return this.archiveBatchTimeBudgetMillis != null ? this.archiveBatchTimeBudgetMillis : DatabaseDefaults.ARCHIVE_BATCH_TIME_BUDGET_MILLIS;
+    }
+
+    /**
+     * Returns the interval in minutes in which the inactive players are archived.
      *
-     * @return The connection URL for the database.
+     * @return The archival interval in minutes.
      */
-    @JsonIgnore
-    public String getConnectionURL() {
-        return "jdbc:mysql://" + this.getHost() + ":" + this.getPort() + "/" + this.getDatabaseName() + "?useUnicode=true";
+    public Long getArchiveIntervalMinutes() {
+        return this.archiveIntervalMinutes != null ? this.archiveIntervalMinutes : DatabaseDefaults.ARCHIVE_INTERVAL_MINUTES;
     }
 }
@@ -1,5 +1,9 @@
 package coffee.j4n.westonia.utils.messages;
 
+import coffee.j4n.westonia.BasePlayer;
+import coffee.j4n.westonia.Westonia;
+import coffee.j4n.westonia.database.entities.WstPlayer;
+import coffee.j4n.westonia.utils.Helpers;
 import coffee.j4n.westonia.utils.messages.management.*;
 import coffee.j4n.westonia.utils.statics.constants.Prefixes;
 import coffee.j4n.westonia.utils.statics.constants.FilePaths;
@@ -8,6 +12,8 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
 import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
 
 import java.io.File;
 import java.io.IOException;
@@ -66,7 +72,8 @@ public class MessageFactory {
 
         if (messages.isEmpty()) {
             Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.ERROR.append(MessageHelpers.getMiniMessage().deserialize("No messages could be loaded, shutting down server...")));
-            Bukkit.shutdown();
+            // The messages are loaded during the startup off the main thread
+            Helpers.runOnMainThread(Bukkit::shutdown);
         }
     }
 
@@ -100,6 +107,30 @@ public class MessageFactory {
         return Placeholders.parseMessage(message, key, locale, placeholderValues);
     }
 
+    /**
+     * Returns a message for the given key in the language of the given sender.
+     * Players get the message in their selected language, the console gets it in German, as it does not select a language.
+     *
+     * @param key The key of the message.
+     * @param sender The console or the player the message is sent to.
+     * @param placeholderValues The values to replace the placeholders in the message.
+     *
+     * @return The message as a Component.
+     */
+    public Component getMessage(Messages key, CommandSender sender, String... placeholderValues) {
+        String locale = WstPlayer.DEFAULT_LANGUAGE;
+
+        if (sender instanceof Player player) {
+            BasePlayer basePlayer = Westonia.getInstance().getPlayerHandler().getPlayer(player.getUniqueId());
+
+            if (basePlayer != null) {
+                locale = basePlayer.getCurrentLocale();
+            }
+        }
+
+        return getMessage(key, locale, placeholderValues);
+    }
+
     /**
      * Returns the raw message for the given key in the given language, without any formatting or MiniMessage tags.
      * Placeholders are replaced, colors will be removed.
@@ -15,11 +15,14 @@ public enum Messages implements IMessageBase {
     PLAYER_JOIN_DATA_WILL_BE_SYNCED("player_join.data_will_be_synced"),
     PLAYER_JOIN_DATA_SYNCED("player_join.data_synced"),
     PLAYER_JOIN_WAIT_WHILE_LOADING("player_join.wait_while_loading"),
+    PLAYER_JOIN_DEGRADED_MODE("player_join.degraded_mode"),
+    PLAYER_JOIN_SERVER_STARTING("player_join.server_starting"),
     // Common,
     COMMON_HEADER("common.header"),
     COMMON_NOPERMISSION("common.nopermission"),
     COMMON_PLAYERNOTONLINE("common.playernotonline"),
     COMMON_INVALID_TIME_FORMAT("common.invalid_time_format"),
+    COMMON_DATABASE_NOT_CONFIGURED("common.database_not_configured"),
     // Player
     // Language
     PLAYER_LANGUAGE_ERROR_ON_SAVE("player.language.error_on_save"),
@@ -70,6 +73,49 @@ public enum Messages implements IMessageBase {
     GAMEMODE_NOTIFICATIONS_UNKNOWN_GAMEMODE("commands.gamemode.notifications.unknown_gamemode"),
     // </editor-fold>
 
+    // <editor-fold defaultstate="collapsed" desc="Data">
+    // Export
+    COMMANDS_DATA_EXPORTING("commands.data.exporting"),
+    COMMANDS_DATA_EXPORTED("commands.data.exported"),
+    COMMANDS_DATA_EXPORT_FAILED("commands.data.export_failed"),
+
+    // Import
+    COMMANDS_DATA_IMPORTING("commands.data.importing"),
+    COMMANDS_DATA_IMPORTED("commands.data.imported"),
+    COMMANDS_DATA_IMPORT_FAILED("commands.data.import_failed"),
+
+    // Notifications
+    COMMANDS_DATA_NOTIFICATIONS_USAGE("commands.data.notifications.usage"),
+    COMMANDS_DATA_NOTIFICATIONS_FILE_OUTSIDE_EXPORTS_FOLDER("commands.data.notifications.file_outside_exports_folder"),
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Metrics">
+    // Operations
+    COMMANDS_METRICS_OPERATIONS_HEADER("commands.metrics.operations_header"),
+    COMMANDS_METRICS_NO_OPERATIONS("commands.metrics.no_operations"),
+    COMMANDS_METRICS_OPERATION("commands.metrics.operation"),
+    COMMANDS_METRICS_OPERATION_WITH_FAILURES("commands.metrics.operation_with_failures"),
+
+    // Connection pools
+    COMMANDS_METRICS_POOLS_HEADER("commands.metrics.pools_header"),
+    COMMANDS_METRICS_POOL("commands.metrics.pool"),
+    COMMANDS_METRICS_POOL_WITH_TIMEOUTS("commands.metrics.pool_with_timeouts"),
+    COMMANDS_METRICS_POOL_CONNECTIONS("commands.metrics.pool_connections"),
+
+    // Hibernate
+    COMMANDS_METRICS_HIBERNATE_HEADER("commands.metrics.hibernate_header"),
+    COMMANDS_METRICS_HIBERNATE_STATEMENTS("commands.metrics.hibernate_statements"),
+    COMMANDS_METRICS_SECOND_LEVEL_CACHE("commands.metrics.second_level_cache"),
+    COMMANDS_METRICS_QUERY_PLAN_CACHE("commands.metrics.query_plan_cache"),
+    COMMANDS_METRICS_SLOWEST_QUERY("commands.metrics.slowest_query"),
+
+    // Reset
+    COMMANDS_METRICS_RESET("commands.metrics.reset"),
+
+    // Notifications
+    COMMANDS_METRICS_NOTIFICATIONS_USAGE("commands.metrics.notifications.usage"),
+    // </editor-fold>
+
     // <editor-fold defaultstate="collapsed" desc="CDR">
     // Fly
     COMMAND_DOCUMENTATION_REGISTRY_FLY_BASE("command_documentation_registry.fly_base"),
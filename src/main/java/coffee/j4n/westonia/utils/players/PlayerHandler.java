@@ -5,9 +5,11 @@ import io.papermc.paper.annotation.DoNotUse;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The PlayerHandler is used to manage the BasePlayers of the server and to provide easy access to them.
@@ -16,8 +18,9 @@ public class PlayerHandler {
 
     /**
      * Stores all players of the server, wrapped in the BasePlayer class.
+     * Players are read from async threads (e.g. chat) while joins and quits happen on the main thread.
      */
-    private final Map<UUID, BasePlayer> players = new HashMap<>();
+    private final Map<UUID, BasePlayer> players = new ConcurrentHashMap<>();
 
     /**
      * Adds a BasePlayer to the the PLayerHandler.
@@ -41,6 +44,15 @@ public class PlayerHandler {
         return players.get(uuid);
     }
 
+    /**
+     * Returns all BasePlayers of the server.
+     *
+     * @return An unmodifiable view of all BasePlayers.
+     */
+    public Collection<BasePlayer> getPlayers() {
+        return Collections.unmodifiableCollection(players.values());
+    }
+
     /**
      * Returns the BasePlayer based on the player name.
      *
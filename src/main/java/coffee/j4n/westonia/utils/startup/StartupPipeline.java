@@ -0,0 +1,188 @@
+package coffee.j4n.westonia.utils.startup;
+
+import coffee.j4n.westonia.utils.messages.management.MessageHelpers;
+import coffee.j4n.westonia.utils.statics.constants.Prefixes;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the phases of the plugin startup (e.g. loading the messages and building the SessionFactory) on worker threads,
+ * so that the main thread only has to do what Bukkit requires on it and the server boots faster.
+ * <br/><br/>
+ * Independent phases run in parallel, a phase that needs the result of another phase starts as soon as that phase is completed.
+ * The time of every phase is logged. Once the plugin has taken over the results on the main thread, it marks the startup as ready,
+ * until then the logins are held by the readiness gate.
+ */
+public class StartupPipeline {
+
+    /**
+     * The time in seconds the shutdown waits for running phases, e.g. a SessionFactory that is still being built.
+     */
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30L;
+
+    private final JavaPlugin plugin;
+    private final ExecutorService executor;
+    private final CompletableFuture<Void> readiness = new CompletableFuture<>();
+    private final Map<String, Long> phaseMillis = new ConcurrentHashMap<>();
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Creates a new startup pipeline.
+     *
+     * @param plugin  The plugin that is started.
+     * @param threads The amount of worker threads, i.e. how many phases can run at the same time.
+     */
+    public StartupPipeline(final @NotNull JavaPlugin plugin, final int threads) {
+        this.plugin = plugin;
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Westonia-Startup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            // Hibernate and the JDBC drivers look up classes through the context class loader, which has to be the one of the plugin
+            thread.setContextClassLoader(plugin.getClass().getClassLoader());
+            return thread;
+        });
+    }
+
+    /**
+     * Runs a phase that does not depend on any other phase.
+     *
+     * @param phaseName The name of the phase, used in the log.
+     * @param phase     The phase.
+     * @param <T>       The type of the result of the phase.
+     * @return A CompletableFuture that completes with the result of the phase, or exceptionally if the phase failed.
+     */
+    public <T> CompletableFuture<T> runPhase(final @NotNull String phaseName, final @NotNull Supplier<T> phase) {
+        return CompletableFuture.supplyAsync(() -> this.timePhase(phaseName, phase), this.executor);
+    }
+
+    /**
+     * Runs a phase once the phase it depends on is completed.
+     * If that phase fails, this phase is skipped and fails as well.
+     *
+     * @param phaseName  The name of the phase, used in the log.
+     * @param dependency The phase whose result is needed.
+     * @param phase      The phase, which receives the result of the dependency.
+     * @param <T>        The type of the result of the dependency.
+     * @param <R>        The type of the result of the phase.
+     * @return A CompletableFuture that completes with the result of the phase, or exceptionally if the phase (or its dependency) failed.
+     */
+    public <T, R> CompletableFuture<R> runPhase(final @NotNull String phaseName, final @NotNull CompletableFuture<T> dependency, final @NotNull Function<T, R> phase) {
+        return dependency.thenApplyAsync(dependencyResult -> this.timePhase(phaseName, () -> phase.apply(dependencyResult)), this.executor);
+    }
+
+    /**
+     * Marks the startup as ready, which opens the readiness gate, and logs the time of all phases.
+     * No phases can be run afterward.
+     */
+    public void markReady() {
+        this.executor.shutdown();
+
+        if (!this.readiness.complete(null)) {
+            return;
+        }
+
+        String phases = this.phaseMillis.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue())
+                .map(entry -> "<aqua>" + entry.getKey() + "</aqua> " + entry.getValue() + " ms")
+                .collect(Collectors.joining(", "));
+
+        Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.INFO.append(MessageHelpers.getMiniMessage().deserialize("The startup has been completed after <aqua>" + this.elapsedMillis() + " ms</aqua> (" + phases + ").")));
+    }
+
+    /**
+     * Returns whether the startup has been marked as ready.
+     *
+     * @return True if the startup is ready.
+     */
+    public boolean isReady() {
+        return this.readiness.isDone();
+    }
+
+    /**
+     * Waits until the startup is ready, at most for the given time.
+     * Must not be called on the main thread, because the main thread completes the startup.
+     *
+     * @param timeout The maximum time to wait.
+     * @param unit    The unit of the timeout.
+     * @return True if the startup is ready, false if it is not ready within the timeout.
+     */
+    public boolean awaitReady(final long timeout, final @NotNull TimeUnit unit) {
+        try {
+            this.readiness.get(timeout, unit);
+            return true;
+        } catch (TimeoutException | ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the time since the pipeline has been created.
+     *
+     * @return The elapsed time in milliseconds.
+     */
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.startNanos);
+    }
+
+    /**
+     * Stops the worker threads and waits for the phases that are still running, so that their results can be closed afterward.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+
+        try {
+            if (!this.executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                this.plugin.getLogger().log(Level.WARNING, "The startup phases have not been completed within " + SHUTDOWN_TIMEOUT_SECONDS + " seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs a phase and logs the time it took, or the error it failed with.
+     *
+     * @param phaseName The name of the phase.
+     * @param phase     The phase.
+     * @param <T>       The type of the result of the phase.
+     * @return The result of the phase.
+     */
+    private <T> T timePhase(final String phaseName, final Supplier<T> phase) {
+        final long phaseStartNanos = System.nanoTime();
+
+        try {
+            T result = phase.get();
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - phaseStartNanos);
+
+            this.phaseMillis.put(phaseName, millis);
+            Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.INFO.append(MessageHelpers.getMiniMessage().deserialize("The startup phase <aqua>" + phaseName + "</aqua> has been completed after <aqua>" + millis + " ms</aqua>.")));
+            return result;
+        } catch (RuntimeException e) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - phaseStartNanos);
+
+            Bukkit.getServer().getConsoleSender().sendMessage(Prefixes.ERROR.append(MessageHelpers.getMiniMessage().deserialize("The startup phase <aqua>" + phaseName + "</aqua> has <red>failed</red> after <aqua>" + millis + " ms</aqua>: <red>" + e.getMessage() + "</red>")));
+            this.plugin.getLogger().log(Level.SEVERE, "The startup phase \"" + phaseName + "\" has failed", e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package coffee.j4n.westonia.utils.statics.constants;
+
+import coffee.j4n.westonia.utils.statics.enums.InvalidationType;
+import coffee.j4n.westonia.utils.statics.enums.StorageType;
+
+/**
+ * Contains the default values of the database configuration.
+ * They are used whenever a value is missing in the "database-config.yml", e.g. after updating the plugin.
+ */
+public final class DatabaseDefaults {
+
+    //<editor-fold desc="Storage backend">
+    /**
+     * The default storage backend
+     */
+    public static final StorageType STORAGE_TYPE = StorageType.MYSQL;
+    //</editor-fold>
+
+    //<editor-fold desc="Read replica">
+    /**
+     * The default time in minutes a player keeps reading from the primary database after a write, unless the player quits before
+     */
+    public static final long REPLICA_PIN_MINUTES = 60L;
+    //</editor-fold>
+
+    //<editor-fold desc="Connection pool">
+    /**
+     * The default maximum amount of connections in the connection pool
+     */
+    public static final int MAXIMUM_POOL_SIZE = 10;
+
+    /**
+     * The default minimum amount of idle connections in the connection pool
+     */
+    public static final int MINIMUM_IDLE = 2;
+
+    /**
+     * The default time in milliseconds a caller waits for a connection from the pool
+     */
+    public static final long CONNECTION_TIMEOUT_MILLIS = 5_000L;
+
+    /**
+     * The default maximum lifetime of a pooled connection in milliseconds
+     */
+    public static final long MAX_LIFETIME_MILLIS = 1_800_000L;
+
+    /**
+     * The default time in milliseconds a connection may be borrowed before a possible leak is logged (0 = disabled)
+     */
+    public static final long LEAK_DETECTION_THRESHOLD_MILLIS = 0L;
+    //</editor-fold>
+
+    //<editor-fold desc="Player cache">
+    /**
+     * The default maximum amount of players in the player cache
+     */
+    public static final long PLAYER_CACHE_MAXIMUM_SIZE = 1_000L;
+
+    /**
+     * The default time in minutes after which a player that has not been accessed is evicted from the player cache
+     */
+    public static final long PLAYER_CACHE_EXPIRE_AFTER_ACCESS_MINUTES = 30L;
+    //</editor-fold>
+
+    //<editor-fold desc="Second-level cache">
+    /**
+     * Whether the Hibernate second-level cache and natural-id cache are enabled by default
+     */
+    public static final boolean SECOND_LEVEL_CACHE_ENABLED = true;
+
+    /**
+     * The default maximum amount of entries per second-level cache region
+     */
+    public static final long SECOND_LEVEL_CACHE_MAXIMUM_SIZE = 10_000L;
+
+    /**
+     * The default time in minutes after which an entry that has not been accessed is evicted from the second-level cache
+     */
+    public static final long SECOND_LEVEL_CACHE_EXPIRE_AFTER_ACCESS_MINUTES = 60L;
+
+    /**
+     * Whether Hibernate collects statistics (cache hits, statements, ...) by default
+     */
+    public static final boolean STATISTICS_ENABLED = true;
+
+    /**
+     * The default time in milliseconds after which a statement or a DAO operation is logged as slow
+     */
+    public static final long SLOW_QUERY_THRESHOLD_MILLIS = 100L;
+
+    /**
+     * The default interval in seconds in which the metrics file is written
+     */
+    public static final long METRICS_FILE_INTERVAL_SECONDS = 60L;
+    //</editor-fold>
+
+    //<editor-fold desc="Query plan cache">
+    /**
+     * The default maximum amount of compiled query plans that are kept in the query plan cache
+     */
+    public static final int QUERY_PLAN_CACHE_MAXIMUM_SIZE = 512;
+    //</editor-fold>
+
+    //<editor-fold desc="Batching">
+    /**
+     * The default amount of statements that are sent to the database in one JDBC batch
+     */
+    public static final int JDBC_BATCH_SIZE = 50;
+
+    /**
+     * Whether the MySQL driver rewrites batched inserts into multi-row statements by default
+     */
+    public static final boolean REWRITE_BATCHED_STATEMENTS = true;
+    //</editor-fold>
+
+    //<editor-fold desc="Write-behind">
+    /**
+     * The default interval in seconds in which changed entities are written to the database
+     */
+    public static final long WRITE_BEHIND_FLUSH_INTERVAL_SECONDS = 10L;
+
+    /**
+     * The default maximum amount of changed entities that are queued before a flush is forced
+     */
+    public static final int WRITE_BEHIND_MAX_PENDING_WRITES = 500;
+    //</editor-fold>
+
+    //<editor-fold desc="Migrations">
+    /**
+     * Whether Hibernate validates the migrated schema against the entities by default
+     */
+    public static final boolean VALIDATE_SCHEMA = true;
+
+    /**
+     * The amount of rows that are converted per batch when the player UUIDs are migrated to BINARY(16)
+     */
+    public static final int UUID_MIGRATION_BATCH_SIZE = 1_000;
+    //</editor-fold>
+
+    //<editor-fold desc="Degraded mode">
+    /**
+     * The default amount of consecutive connection failures after which the circuit breaker opens
+     */
+    public static final int CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5;
+
+    /**
+     * The default time in seconds the circuit breaker stays open before an operation is let through again
+     */
+    public static final long CIRCUIT_BREAKER_OPEN_SECONDS = 30L;
+
+    /**
+     * The default interval in seconds in which the plugin tries to reconnect to an unreachable database
+     */
+    public static final long RECOVERY_INTERVAL_SECONDS = 10L;
+
+    /**
+     * The default interval in milliseconds in which the write journal is synced to the disk
+     */
+    public static final long JOURNAL_SYNC_INTERVAL_MILLIS = 1_000L;
+    //</editor-fold>
+
+    //<editor-fold desc="Cache invalidation">
+    /**
+     * The default way the servers of the network tell each other which players have changed
+     */
+    public static final InvalidationType INVALIDATION_TYPE = InvalidationType.CHANGE_LOG;
+
+    /**
+     * The default interval in milliseconds in which the change log is written and polled
+     */
+    public static final long CHANGE_LOG_POLL_INTERVAL_MILLIS = 1_000L;
+
+    /**
+     * The default time in minutes after which rows are deleted from the change log
+     */
+    public static final long CHANGE_LOG_RETENTION_MINUTES = 60L;
+    //</editor-fold>
+
+    //<editor-fold desc="Export and import">
+    /**
+     * The default amount of rows the JDBC driver fetches at once while a table is exported
+     */
+    public static final int TRANSFER_FETCH_SIZE = 1_000;
+    //</editor-fold>
+
+    //<editor-fold desc="Archival">
+    /**
+     * The default amount of days after which a player who has not been seen is moved into the archive
+     */
+    public static final long ARCHIVE_AFTER_DAYS = 180L;
+
+    /**
+     * The default maximum amount of players that are archived within one transaction
+     */
+    public static final int ARCHIVE_MAX_BATCH_SIZE = 500;
+
+    /**
+     * The default time in milliseconds a single archival batch should take at most
+     */
+    public static final long ARCHIVE_BATCH_TIME_BUDGET_MILLIS = 200L;
+
+    /**
+     * The default interval in minutes in which the inactive players are archived
+     */
+    public static final long ARCHIVE_INTERVAL_MINUTES = 60L;
+    //</editor-fold>
+}
@@ -15,6 +15,11 @@ public final class FilePaths {
      * The folder where the plugin stores its messages
      */
     public static final String MESSAGES_FOLDER = PLUGIN_FOLDER + "/messages";
+
+    /**
+     * The folder where the exports of the database tables are stored
+     */
+    public static final String EXPORTS_FOLDER = PLUGIN_FOLDER + "/exports";
     //</editor-fold>
 
 
@@ -28,6 +33,16 @@ public final class FilePaths {
      * The path to the default messages config file
      */
     public static final String DEFAULT_MESSAGES_CONFIG = PLUGIN_FOLDER + "/messages_de.yml";
+
+    /**
+     * The path to the journal in which changes are recorded while the database is unreachable
+     */
+    public static final String WRITE_JOURNAL = PLUGIN_FOLDER + "/write-journal.ndjson";
+
+    /**
+     * The path to the file the database metrics are written to, in the Prometheus text format
+     */
+    public static final String METRICS_FILE = PLUGIN_FOLDER + "/metrics.prom";
     //</editor-fold>
 }
 
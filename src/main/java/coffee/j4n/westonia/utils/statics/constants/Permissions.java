@@ -38,4 +38,18 @@ public final class Permissions {
     public static final String FLY_SPEED_OTHERS = FLY_SPEED + ".others";
     //</editor-fold>
 
+    //<editor-fold desc="Data permissions">
+    /**
+     * The permission to export and import the database tables
+     */
+    public static final String DATA = WESTONIA_PREFIX + ".data";
+    //</editor-fold>
+
+    //<editor-fold desc="Metrics permissions">
+    /**
+     * The permission to show and reset the database metrics
+     */
+    public static final String METRICS = WESTONIA_PREFIX + ".metrics";
+    //</editor-fold>
+
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package coffee.j4n.westonia.utils.statics.enums;
+
+/**
+ * Represents how the servers of a network tell each other which cached players have changed.
+ * Selected with "invalidationType" in the "database-config.yml".
+ */
+public enum InvalidationType {
+    /**
+     * In-process only, for a single server (and the embedded storage backends).
+     */
+    LOCAL,
+    /**
+     * The "westonia_change_log" table, which every server polls, for several servers sharing one database.
+     */
+    CHANGE_LOG
+}
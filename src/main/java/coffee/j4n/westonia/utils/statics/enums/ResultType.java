@@ -11,5 +11,6 @@ public enum ResultType {
     EXCEPTION,
     FOUND,
     NOT_FOUND,
-    ALREADY_EXISTS
+    ALREADY_EXISTS,
+    CONFLICT
 }
@@ -0,0 +1,20 @@
+package coffee.j4n.westonia.utils.statics.enums;
+
+/**
+ * Represents the storage backend the plugin stores its data in.
+ * Selected with "storageType" in the "database-config.yml".
+ */
+public enum StorageType {
+    /**
+     * A (remote) MySQL or MariaDB server, which can be shared by several servers.
+     */
+    MYSQL,
+    /**
+     * An embedded, file-based H2 database in MySQL mode, for a single server.
+     */
+    H2,
+    /**
+     * An embedded SQLite database file, for a single server.
+     */
+    SQLITE
+}
@@ -0,0 +1,10 @@
+-- Creates the player table for new installations.
+-- Installations that have been created by Hibernate ("hbm2ddl update") already have the table, which is kept as it is.
+CREATE TABLE IF NOT EXISTS westonia_player (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    minecraft_uuid  BINARY(16)   NOT NULL,
+    first_join_date DATETIME(6)  NOT NULL,
+    global_language VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_westonia_player_minecraft_uuid UNIQUE (minecraft_uuid)
+) ENGINE = InnoDB;
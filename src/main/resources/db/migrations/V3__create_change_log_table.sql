@@ -0,0 +1,10 @@
+-- Creates the change log, in which every server announces the players it has changed.
+-- The other servers poll it by the increasing id and evict the changed players from their caches.
+CREATE TABLE IF NOT EXISTS westonia_change_log (
+    id          BIGINT      NOT NULL AUTO_INCREMENT,
+    server_id   VARCHAR(64) NOT NULL,
+    player_uuid BINARY(16)  NOT NULL,
+    changed_at  DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_westonia_change_log_changed_at (changed_at)
+) ENGINE = InnoDB;
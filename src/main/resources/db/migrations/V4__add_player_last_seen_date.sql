@@ -0,0 +1,3 @@
+-- Adds the last seen date to the player table, on which the archival of inactive players is based.
+-- Only executed if the column does not exist yet, see PlayerLastSeenMigration.
+ALTER TABLE westonia_player ADD COLUMN last_seen_date DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
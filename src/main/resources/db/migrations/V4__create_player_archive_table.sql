@@ -0,0 +1,10 @@
+-- Creates the archive, into which inactive players are moved, so that the player table and its indexes stay small.
+-- Archived players are moved back into the player table when they join again.
+CREATE TABLE IF NOT EXISTS westonia_player_archive (
+    minecraft_uuid  BINARY(16)   NOT NULL,
+    first_join_date DATETIME(6)  NOT NULL,
+    last_seen_date  DATETIME(6)  NOT NULL,
+    global_language VARCHAR(255) NOT NULL,
+    archived_at     DATETIME(6)  NOT NULL,
+    PRIMARY KEY (minecraft_uuid)
+) ENGINE = InnoDB;
@@ -0,0 +1,3 @@
+-- Adds the version column, which Hibernate checks and increments with every update (optimistic locking),
+-- so that servers writing the same player at the same time do not overwrite each other's changes.
+ALTER TABLE westonia_player ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- Creates the player table in an embedded SQLite database.
+CREATE TABLE IF NOT EXISTS westonia_player (
+    id              INTEGER      NOT NULL PRIMARY KEY AUTOINCREMENT,
+    minecraft_uuid  BLOB         NOT NULL,
+    first_join_date TIMESTAMP    NOT NULL,
+    global_language VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_westonia_player_minecraft_uuid UNIQUE (minecraft_uuid)
+);
@@ -0,0 +1,10 @@
+-- Creates the change log, in which every server announces the players it has changed.
+-- The other servers poll it by the increasing id and evict the changed players from their caches.
+CREATE TABLE IF NOT EXISTS westonia_change_log (
+    id          INTEGER     NOT NULL PRIMARY KEY AUTOINCREMENT,
+    server_id   VARCHAR(64) NOT NULL,
+    player_uuid BLOB        NOT NULL,
+    changed_at  TIMESTAMP   NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_westonia_change_log_changed_at ON westonia_change_log (changed_at);
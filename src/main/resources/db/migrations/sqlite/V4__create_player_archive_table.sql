@@ -0,0 +1,9 @@
+-- Creates the archive, into which inactive players are moved, so that the player table and its indexes stay small.
+-- Archived players are moved back into the player table when they join again.
+CREATE TABLE IF NOT EXISTS westonia_player_archive (
+    minecraft_uuid  BLOB         NOT NULL PRIMARY KEY,
+    first_join_date TIMESTAMP    NOT NULL,
+    last_seen_date  TIMESTAMP    NOT NULL,
+    global_language VARCHAR(255) NOT NULL,
+    archived_at     TIMESTAMP    NOT NULL
+);
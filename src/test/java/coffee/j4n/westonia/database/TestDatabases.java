@@ -0,0 +1,90 @@
+package coffee.j4n.westonia.database;
+
+import coffee.j4n.westonia.database.results.DbResult;
+import coffee.j4n.westonia.utils.config.MdlDatabaseConfig;
+import coffee.j4n.westonia.utils.statics.constants.FilePaths;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.hibernate.SessionFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Creates the plugin and the embedded H2 databases the database tests run against.
+ * The databases are stored in the plugin folder relative to the working directory of the tests, like on a server.
+ */
+public final class TestDatabases {
+
+    private TestDatabases() {}
+
+    /**
+     * Creates a plugin whose only behaviour is its logger, which is all the database classes use of it.
+     *
+     * @return The mocked plugin.
+     */
+    public static JavaPlugin mockPlugin() {
+        JavaPlugin plugin = mock(JavaPlugin.class);
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("Westonia-Test"));
+        return plugin;
+    }
+
+    /**
+     * Deletes the files of the given H2 database, so that a test starts with an empty database.
+     *
+     * @param databaseName The name of the database.
+     */
+    public static void deleteH2Database(final @NotNull String databaseName) {
+        for (String suffix : new String[]{".mv.db", ".trace.db"}) {
+            File databaseFile = new File(FilePaths.PLUGIN_FOLDER, databaseName + suffix);
+
+            if (databaseFile.exists() && !databaseFile.delete()) {
+                throw new UncheckedIOException(new IOException("The test database \"" + databaseFile + "\" could not be deleted"));
+            }
+        }
+    }
+
+    /**
+     * Creates a database factory for the given H2 database and builds its SessionFactory, which also migrates the schema.
+     * Several factories of the same database behave like several servers that share it.
+     *
+     * @param plugin       The plugin that owns the factory.
+     * @param databaseName The name of the database.
+     * @return The database factory.
+     */
+    public static DatabaseFactory<JavaPlugin> createH2Factory(final @NotNull JavaPlugin plugin, final @NotNull String databaseName) {
+        DatabaseFactory<JavaPlugin> databaseFactory = new DatabaseFactory<>(plugin, createH2Config(databaseName));
+        DbResult<SessionFactory> sessionFactoryResult = databaseFactory.buildSessionFactory();
+
+        assertTrue(sessionFactoryResult.isSuccessful(), sessionFactoryResult.getMessage());
+        return databaseFactory;
+    }
+
+    /**
+     * Creates the configuration of the given H2 database, read like the configuration file of the plugin.
+     *
+     * @param databaseName The name of the database.
+     * @return The database configuration.
+     */
+    public static MdlDatabaseConfig createH2Config(final @NotNull String databaseName) {
+        String configuration = "storageType: H2\n"
+                + "databaseName: " + databaseName + "\n"
+                + "username: sa\n"
+                + "password: ''\n"
+                + "databaseEntitiesPackage: coffee.j4n.westonia.database.entities\n";
+
+        try {
+            return new ObjectMapper(new YAMLFactory()).readValue(configuration, MdlDatabaseConfig.class);
+        } catch (final IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package coffee.j4n.westonia.database.archive;
+
+import coffee.j4n.westonia.database.DatabaseFactory;
+import coffee.j4n.westonia.database.TestDatabases;
+import coffee.j4n.westonia.database.converter.UUIDBinaryConverter;
+import coffee.j4n.westonia.database.entities.WstPlayer;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.hibernate.StatelessSession;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link PlayerArchiver} against an H2 database.
+ */
+class PlayerArchiverTest {
+
+    private static final String DATABASE_NAME = "archiver-test";
+    private static final long ARCHIVE_AFTER_DAYS = 30L;
+    private static final int MAXIMUM_BATCH_SIZE = 10;
+    private static final UUIDBinaryConverter UUID_CONVERTER = new UUIDBinaryConverter();
+
+    private final JavaPlugin plugin = TestDatabases.mockPlugin();
+    private final List<List<UUID>> archivedBatches = new ArrayList<>();
+    private final Set<UUID> onlinePlayers = new HashSet<>();
+    private DatabaseFactory<JavaPlugin> databaseFactory;
+    private PlayerArchiver archiver;
+
+    @BeforeEach
+    void createArchiver() {
+        TestDatabases.deleteH2Database(DATABASE_NAME);
+
+        this.databaseFactory = TestDatabases.createH2Factory(this.plugin, DATABASE_NAME);
+        this.archiver = new PlayerArchiver(this.plugin, this.databaseFactory, this.onlinePlayers::contains, uuids -> this.archivedBatches.add(List.copyOf(uuids)),
+                ARCHIVE_AFTER_DAYS, MAXIMUM_BATCH_SIZE, 1L, 1L);
+    }
+
+    @AfterEach
+    void closeArchiver() {
+        this.archiver.shutdown();
+        this.databaseFactory.close();
+    }
+
+    /**
+     * The inactive players are walked batch by batch, also across players with the same last seen date,
+     * so every inactive player is archived exactly once, while active and online players are kept.
+     */
+    @Test
+    void keysetPaginationArchivesEveryInactivePlayerOnce() {
+        Set<UUID> inactivePlayers = new HashSet<>();
+        Set<UUID> keptPlayers = new HashSet<>();
+
+        // Three groups of players that share their last seen date, each larger than a batch
+        for (int group = 0; group < 3; group++) {
+            Timestamp lastSeen = this.daysAgo(100 + group);
+
+            for (int index = 0; index < 15; index++) {
+                inactivePlayers.add(this.insertPlayer(lastSeen, "de"));
+            }
+        }
+
+        for (int index = 0; index < 5; index++) {
+            keptPlayers.add(this.insertPlayer(this.daysAgo(1), "de"));
+        }
+
+        UUID onlinePlayer = this.insertPlayer(this.daysAgo(100), "de");
+        this.onlinePlayers.add(onlinePlayer);
+        keptPlayers.add(onlinePlayer);
+
+        this.archiver.run();
+
+        List<UUID> archivedUUIDs = this.archivedBatches.stream().flatMap(List::stream).toList();
+
+        assertTrue(this.archivedBatches.size() > 1, "The players have to be archived in several batches");
+        assertTrue(this.archivedBatches.stream().allMatch(batch -> batch.size() <= MAXIMUM_BATCH_SIZE));
+        assertEquals(inactivePlayers.size(), archivedUUIDs.size(), "No player may be archived twice");
+        assertEquals(inactivePlayers, new HashSet<>(archivedUUIDs));
+        assertEquals(inactivePlayers, this.readPlayers(WstPlayer.ARCHIVE_TABLE_NAME).keySet());
+        assertEquals(keptPlayers, this.readPlayers(WstPlayer.TABLE_NAME).keySet());
+    }
+
+    /**
+     * Every deleted player ends up in the archive with the state it had in the player table,
+     * even if an outdated row of the player is in the archive already.
+     */
+    @Test
+    void everyDeletedPlayerIsCopiedIntoTheArchive() {
+        UUID archivedBefore = this.insertPlayer(this.daysAgo(60), "en");
+        UUID neverArchived = this.insertPlayer(this.daysAgo(90), "fr");
+        this.insertArchivedPlayer(archivedBefore, this.daysAgo(400), "xx");
+
+        Map<UUID, List<Object>> playersBefore = this.readPlayers(WstPlayer.TABLE_NAME);
+
+        this.archiver.run();
+
+        Map<UUID, List<Object>> archive = this.readPlayers(WstPlayer.ARCHIVE_TABLE_NAME);
+
+        assertTrue(this.readPlayers(WstPlayer.TABLE_NAME).isEmpty());
+        assertEquals(Set.of(archivedBefore, neverArchived), archive.keySet());
+
+        for (UUID uuid : List.of(archivedBefore, neverArchived)) {
+            assertNotNull(playersBefore.get(uuid));
+            assertEquals(playersBefore.get(uuid), archive.get(uuid), "The archive has to hold the deleted state of " + uuid);
+        }
+    }
+
+    /**
+     * Players who have been seen within the configured days are neither copied nor deleted.
+     */
+    @Test
+    void activePlayersAreNotArchived() {
+        UUID activePlayer = this.insertPlayer(this.daysAgo(ARCHIVE_AFTER_DAYS - 1), "de");
+
+        this.archiver.run();
+
+        assertTrue(this.archivedBatches.isEmpty());
+        assertTrue(this.readPlayers(WstPlayer.ARCHIVE_TABLE_NAME).isEmpty());
+        assertEquals(Set.of(activePlayer), this.readPlayers(WstPlayer.TABLE_NAME).keySet());
+    }
+
+    /**
+     * Returns the point in time the given amount of days ago.
+     *
+     * @param days The amount of days.
+     * @return The point in time.
+     */
+    private Timestamp daysAgo(final long days) {
+        return new Timestamp(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(days));
+    }
+
+    /**
+     * Inserts a player into the player table.
+     *
+     * @param lastSeen The last seen date of the player.
+     * @param language The language of the player.
+     * @return The UUID of the player.
+     */
+    private UUID insertPlayer(final @NotNull Timestamp lastSeen, final @NotNull String language) {
+        UUID uuid = UUID.randomUUID();
+
+        this.executeUpdate("INSERT INTO " + WstPlayer.TABLE_NAME + " (minecraft_uuid, first_join_date, last_seen_date, global_language) VALUES (?, ?, ?, ?)",
+                UUID_CONVERTER.convertToDatabaseColumn(uuid), new Timestamp(lastSeen.getTime() - TimeUnit.DAYS.toMillis(10)), lastSeen, language);
+        return uuid;
+    }
+
+    /**
+     * Inserts a player into the archive table, like a previous archival whose player has joined and left again.
+     *
+     * @param uuid     The UUID of the player.
+     * @param lastSeen The last seen date of the player.
+     * @param language The language of the player.
+     */
+    private void insertArchivedPlayer(final @NotNull UUID uuid, final @NotNull Timestamp lastSeen, final @NotNull String language) {
+        this.executeUpdate("INSERT INTO " + WstPlayer.ARCHIVE_TABLE_NAME + " (minecraft_uuid, first_join_date, last_seen_date, global_language, archived_at) VALUES (?, ?, ?, ?, ?)",
+                UUID_CONVERTER.convertToDatabaseColumn(uuid), lastSeen, lastSeen, language, lastSeen);
+    }
+
+    /**
+     * Reads the players of the given table.
+     *
+     * @param tableName The player table or the archive table.
+     * @return The first join date, the last seen date and the language of each player, mapped by the UUID.
+     */
+    private Map<UUID, List<Object>> readPlayers(final @NotNull String tableName) {
+        try (StatelessSession session = this.openStatelessSession()) {
+            return session.doReturningWork(connection -> {
+                Map<UUID, List<Object>> players = new HashMap<>();
+
+                try (PreparedStatement statement = connection.prepareStatement("SELECT minecraft_uuid, first_join_date, last_seen_date, global_language FROM " + tableName);
+                     ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        players.put(UUID_CONVERTER.convertToEntityAttribute(resultSet.getBytes(1)), List.of(resultSet.getTimestamp(2), resultSet.getTimestamp(3), resultSet.getString(4)));
+                    }
+                }
+
+                return players;
+            });
+        }
+    }
+
+    /**
+     * Executes the given statement with the given parameters.
+     *
+     * @param sql        The statement.
+     * @param parameters The parameters of the statement.
+     */
+    private void executeUpdate(final @NotNull String sql, final @NotNull Object... parameters) {
+        try (StatelessSession session = this.openStatelessSession()) {
+            session.doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (int index = 0; index < parameters.length; index++) {
+                        statement.setObject(index + 1, parameters[index]);
+                    }
+
+                    statement.executeUpdate();
+                }
+            });
+        }
+    }
+
+    /**
+     * Opens a stateless session of the database factory, whose connection is used by the test directly.
+     *
+     * @return The stateless session.
+     */
+    private StatelessSession openStatelessSession() {
+        return this.databaseFactory.getSessionFactory().getResult().openStatelessSession();
+    }
+}
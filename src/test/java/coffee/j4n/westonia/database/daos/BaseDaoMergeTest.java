@@ -0,0 +1,223 @@
+package coffee.j4n.westonia.database.daos;
+
+import coffee.j4n.westonia.database.DatabaseExecutor;
+import coffee.j4n.westonia.database.DatabaseFactory;
+import coffee.j4n.westonia.database.TestDatabases;
+import coffee.j4n.westonia.database.entities.WstPlayer;
+import coffee.j4n.westonia.database.results.DbResult;
+import coffee.j4n.westonia.database.results.DbReturn;
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.hibernate.CacheMode;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Tests the optimistic locking of {@link BaseDao#mergeAll(java.util.Collection)} with two servers, each with its own
+ * SessionFactory and second-level cache, that share an H2 database.
+ */
+class BaseDaoMergeTest {
+
+    private static final String DATABASE_NAME = "merge-test";
+
+    private final JavaPlugin plugin = TestDatabases.mockPlugin();
+    private DatabaseFactory<JavaPlugin> firstFactory;
+    private DatabaseFactory<JavaPlugin> secondFactory;
+    private DatabaseExecutor databaseExecutor;
+    private TestPlayerDao firstServer;
+    private TestPlayerDao secondServer;
+
+    @BeforeEach
+    void createServers() {
+        TestDatabases.deleteH2Database(DATABASE_NAME);
+
+        this.firstFactory = TestDatabases.createH2Factory(this.plugin, DATABASE_NAME);
+        this.secondFactory = TestDatabases.createH2Factory(this.plugin, DATABASE_NAME);
+        this.databaseExecutor = new DatabaseExecutor(this.plugin, 2);
+        this.firstServer = new TestPlayerDao(this.plugin, this.firstFactory, this.databaseExecutor);
+        this.secondServer = new TestPlayerDao(this.plugin, this.secondFactory, this.databaseExecutor);
+    }
+
+    @AfterEach
+    void closeServers() {
+        this.databaseExecutor.shutdown();
+        this.secondFactory.close();
+        this.firstFactory.close();
+    }
+
+    /**
+     * Merging an entity again does not conflict with its own previous merge.
+     */
+    @Test
+    void repeatedMergeDoesNotConflictWithItself() {
+        WstPlayer player = this.registerAndLoad(this.firstServer);
+
+        player.setLanguage("en");
+        assertEquals(ResultType.SUCCESS, this.firstServer.mergeAll(List.of(player)).getResultType());
+        player.setLanguage("fr");
+        assertEquals(ResultType.SUCCESS, this.firstServer.mergeAll(List.of(player)).getResultType());
+
+        assertEquals(2L, player.getVersion());
+        assertFalse(player.isDirty());
+        assertEquals("fr", this.loadFromDatabase(player.getMinecraftUUID()).getLanguage());
+    }
+
+    /**
+     * A merge that conflicts with the write of another server applies only its own changes, the changes of the other server are kept
+     * and taken over into the merged entity.
+     */
+    @Test
+    void conflictingMergeKeepsTheChangesOfBothServers() {
+        WstPlayer firstPlayer = this.registerAndLoad(this.firstServer);
+        WstPlayer secondPlayer = this.secondServer.load(firstPlayer.getMinecraftUUID());
+        assertNotNull(secondPlayer);
+
+        firstPlayer.setLanguage("en");
+        assertEquals(ResultType.SUCCESS, this.firstServer.mergeAll(List.of(firstPlayer)).getResultType());
+
+        secondPlayer.markSeen();
+        DbReturn conflictingResult = this.secondServer.mergeAll(List.of(secondPlayer));
+
+        assertEquals(ResultType.SUCCESS, conflictingResult.getResultType(), conflictingResult.getMessage());
+        assertEquals("en", secondPlayer.getLanguage());
+        assertEquals(2L, secondPlayer.getVersion());
+        assertFalse(secondPlayer.isDirty());
+
+        WstPlayer storedPlayer = this.loadFromDatabase(firstPlayer.getMinecraftUUID());
+        assertEquals("en", storedPlayer.getLanguage());
+        assertEquals(secondPlayer.getLastSeenDate().getTime(), storedPlayer.getLastSeenDate().getTime());
+        assertEquals(2L, storedPlayer.getVersion());
+    }
+
+    /**
+     * If both servers change the same field, the later write wins.
+     */
+    @Test
+    void conflictingChangeOfTheSameFieldIsWonByTheLaterWrite() {
+        WstPlayer firstPlayer = this.registerAndLoad(this.firstServer);
+        WstPlayer secondPlayer = this.secondServer.load(firstPlayer.getMinecraftUUID());
+        assertNotNull(secondPlayer);
+
+        firstPlayer.setLanguage("en");
+        secondPlayer.setLanguage("fr");
+        assertEquals(ResultType.SUCCESS, this.firstServer.mergeAll(List.of(firstPlayer)).getResultType());
+        assertEquals(ResultType.SUCCESS, this.secondServer.mergeAll(List.of(secondPlayer)).getResultType());
+
+        assertEquals("fr", this.loadFromDatabase(firstPlayer.getMinecraftUUID()).getLanguage());
+    }
+
+    /**
+     * The changes of an entity that has been deleted by another server are discarded instead of failing the merge.
+     */
+    @Test
+    void mergeOfDeletedEntityIsSkipped() {
+        WstPlayer firstPlayer = this.registerAndLoad(this.firstServer);
+        WstPlayer secondPlayer = this.secondServer.load(firstPlayer.getMinecraftUUID());
+        assertNotNull(secondPlayer);
+
+        assertEquals(ResultType.SUCCESS, this.firstServer.removeAll(List.of(firstPlayer)).getResultType());
+
+        secondPlayer.setLanguage("en");
+        DbReturn mergeResult = this.secondServer.mergeAll(List.of(secondPlayer));
+
+        assertEquals(ResultType.SUCCESS, mergeResult.getResultType(), mergeResult.getMessage());
+        assertFalse(secondPlayer.isDirty());
+        assertNull(this.firstServer.load(firstPlayer.getMinecraftUUID(), CacheMode.IGNORE));
+    }
+
+    /**
+     * Registers a new player and loads it, like a player who joins the server.
+     *
+     * @param server The server the player joins.
+     * @return The loaded player.
+     */
+    private WstPlayer registerAndLoad(final @NotNull TestPlayerDao server) {
+        UUID uuid = UUID.randomUUID();
+        assertEquals(ResultType.SUCCESS, server.persistEntity(new WstPlayer(uuid, WstPlayer.DEFAULT_LANGUAGE)).getResultType());
+
+        WstPlayer player = server.load(uuid);
+        assertNotNull(player);
+        return player;
+    }
+
+    /**
+     * Loads the stored state of the player, bypassing the second-level caches of both servers.
+     *
+     * @param uuid The UUID of the player.
+     * @return The stored player.
+     */
+    private WstPlayer loadFromDatabase(final @NotNull UUID uuid) {
+        WstPlayer player = this.firstServer.load(uuid, CacheMode.IGNORE);
+        assertNotNull(player);
+        return player;
+    }
+
+    /**
+     * A DAO of the players without the caches and the invalidation of the PlayerDao, so only the behaviour of the BaseDao is tested.
+     */
+    private static final class TestPlayerDao extends BaseDao<WstPlayer, JavaPlugin> {
+
+        /**
+         * Creates a new test DAO.
+         *
+         * @param plugin           The plugin that uses the DAO.
+         * @param databaseFactory  The database factory of the server.
+         * @param databaseExecutor The executor of the asynchronous operations.
+         */
+        private TestPlayerDao(final @NotNull JavaPlugin plugin, final @NotNull DatabaseFactory<JavaPlugin> databaseFactory, final @NotNull DatabaseExecutor databaseExecutor) {
+            super(plugin, databaseFactory, databaseExecutor);
+        }
+
+        /**
+         * Loads the player with the given UUID, using the second-level cache.
+         *
+         * @param uuid The UUID of the player.
+         * @return The player or null if it does not exist.
+         */
+        private @Nullable WstPlayer load(final @NotNull UUID uuid) {
+            return this.load(uuid, CacheMode.NORMAL);
+        }
+
+        /**
+         * Loads the player with the given UUID.
+         *
+         * @param uuid      The UUID of the player.
+         * @param cacheMode How the second-level cache is used.
+         * @return The player or null if it does not exist.
+         */
+        private @Nullable WstPlayer load(final @NotNull UUID uuid, final @NotNull CacheMode cacheMode) {
+            DbResult<WstPlayer> loadResult = this.inSession("load", "Failed to load the player", session -> {
+                session.setCacheMode(cacheMode);
+                return new DbResult<>(session.bySimpleNaturalId(WstPlayer.class).load(uuid), "Player loaded", ResultType.FOUND);
+            });
+
+            return loadResult.getResult();
+        }
+
+        @Override
+        protected Class<WstPlayer> getClazzType() {
+            return WstPlayer.class;
+        }
+
+        @Override
+        protected String getNaturalIdAttributeName() {
+            return WstPlayer.FIELD_MINECRAFT_UUID;
+        }
+
+        @Override
+        protected Object getNaturalId(final @NotNull WstPlayer entity) {
+            return entity.getMinecraftUUID();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package coffee.j4n.westonia.database.journal;
+
+import coffee.j4n.westonia.database.TestDatabases;
+import coffee.j4n.westonia.database.results.DbReturn;
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the compaction and the replay of the {@link WriteJournal}.
+ */
+class WriteJournalTest {
+
+    private static final String JOURNAL_FILE_NAME = "journal.ndjson";
+
+    @TempDir
+    Path journalFolder;
+
+    private final List<JournalEntry> writtenEntries = new ArrayList<>();
+    private WriteJournal journal;
+
+    @BeforeEach
+    void openJournal() {
+        this.journal = this.createJournal();
+        assertEquals(ResultType.SUCCESS, this.journal.open().getResultType());
+    }
+
+    @AfterEach
+    void closeJournal() {
+        this.journal.close();
+    }
+
+    /**
+     * The entries of a player are compacted into one write with the latest language and the latest last seen time,
+     * a field that has not been changed by a newer entry does not override the older value.
+     */
+    @Test
+    void replayWritesOneCompactedEntryPerPlayer() {
+        UUID firstPlayer = UUID.randomUUID();
+        UUID secondPlayer = UUID.randomUUID();
+
+        this.journal.append(new JournalEntry(firstPlayer, "en", 100L, 1L));
+        this.journal.append(new JournalEntry(firstPlayer, "fr", null, 2L));
+        this.journal.append(new JournalEntry(firstPlayer, null, 50L, 3L));
+        this.journal.append(new JournalEntry(secondPlayer, "de", 10L, 1L));
+
+        assertEquals(2, this.journal.replay(this.succeedingWriter()));
+        assertEquals(2, this.writtenEntries.size());
+
+        JournalEntry firstEntry = this.getWrittenEntry(firstPlayer);
+        assertEquals("fr", firstEntry.getLanguage());
+        assertEquals(100L, firstEntry.getLastSeenMillis());
+        assertEquals(3L, firstEntry.getTimestampMillis());
+
+        JournalEntry secondEntry = this.getWrittenEntry(secondPlayer);
+        assertEquals("de", secondEntry.getLanguage());
+        assertEquals(10L, secondEntry.getLastSeenMillis());
+
+        assertFalse(this.journal.hasEntries());
+        assertEquals(0, this.journal.replay(this.succeedingWriter()));
+    }
+
+    /**
+     * An entry that could not be written because the database is unreachable stays in the journal and is retried by the next replay.
+     */
+    @Test
+    void unreachableDatabaseKeepsTheEntry() {
+        UUID player = UUID.randomUUID();
+        this.journal.append(new JournalEntry(player, "en", 100L, 1L));
+
+        assertEquals(0, this.journal.replay(entry -> new DbReturn("The database is not reachable", ResultType.ERROR)));
+        assertTrue(this.journal.hasEntries());
+
+        assertEquals(1, this.journal.replay(this.succeedingWriter()));
+        assertEquals("en", this.getWrittenEntry(player).getLanguage());
+        assertFalse(this.journal.hasEntries());
+    }
+
+    /**
+     * An entry that failed for any other reason is dropped, so that it does not block the journal.
+     */
+    @Test
+    void failedEntryIsDropped() {
+        this.journal.append(new JournalEntry(UUID.randomUUID(), "en", 100L, 1L));
+
+        assertEquals(0, this.journal.replay(entry -> new DbReturn("The entry is invalid", ResultType.EXCEPTION)));
+        assertFalse(this.journal.hasEntries());
+        assertEquals(0, this.journal.replay(this.succeedingWriter()));
+    }
+
+    /**
+     * A replay file that is left over from an interrupted replay is replayed together with the journal.
+     */
+    @Test
+    void leftoverReplayFileIsReplayed() throws IOException {
+        UUID interruptedPlayer = UUID.randomUUID();
+        UUID newPlayer = UUID.randomUUID();
+
+        this.journal.append(new JournalEntry(interruptedPlayer, "en", 100L, 1L));
+        this.journal.close();
+        Files.move(this.journalFolder.resolve(JOURNAL_FILE_NAME), this.journalFolder.resolve(JOURNAL_FILE_NAME + ".replaying"));
+
+        this.journal = this.createJournal();
+        this.journal.open();
+        assertTrue(this.journal.hasEntries());
+        this.journal.append(new JournalEntry(newPlayer, "de", 200L, 2L));
+
+        assertEquals(2, this.journal.replay(this.succeedingWriter()));
+        assertEquals("en", this.getWrittenEntry(interruptedPlayer).getLanguage());
+        assertEquals("de", this.getWrittenEntry(newPlayer).getLanguage());
+        assertFalse(Files.exists(this.journalFolder.resolve(JOURNAL_FILE_NAME + ".replaying")));
+    }
+
+    /**
+     * Lines that cannot be read, e.g. a line that has been cut off by a crash, are skipped.
+     */
+    @Test
+    void unreadableLinesAreSkipped() throws IOException {
+        UUID player = UUID.randomUUID();
+
+        this.journal.close();
+        Files.writeString(this.journalFolder.resolve(JOURNAL_FILE_NAME), "{\"playerUUID\":\"cut-off\n\n", StandardCharsets.UTF_8);
+
+        this.journal = this.createJournal();
+        this.journal.open();
+        this.journal.append(new JournalEntry(player, "en", 100L, 1L));
+
+        assertEquals(1, this.journal.replay(this.succeedingWriter()));
+        assertEquals(List.of(player), this.writtenEntries.stream().map(JournalEntry::getPlayerUUID).toList());
+    }
+
+    /**
+     * Creates a journal in the temporary folder of the test.
+     *
+     * @return The journal, which has not been opened yet.
+     */
+    private WriteJournal createJournal() {
+        return new WriteJournal(TestDatabases.mockPlugin(), this.journalFolder.resolve(JOURNAL_FILE_NAME), 1000L);
+    }
+
+    /**
+     * Returns a writer that records every entry as written.
+     *
+     * @return The writer.
+     */
+    private Function<JournalEntry, DbReturn> succeedingWriter() {
+        return entry -> {
+            this.writtenEntries.add(entry);
+            return new DbReturn("The entry has been written", ResultType.SUCCESS);
+        };
+    }
+
+    /**
+     * Returns the only written entry of the given player.
+     *
+     * @param uuid The UUID of the player.
+     * @return The written entry.
+     */
+    private JournalEntry getWrittenEntry(final @NotNull UUID uuid) {
+        List<JournalEntry> entries = this.writtenEntries.stream().filter(entry -> entry.getPlayerUUID().equals(uuid)).toList();
+
+        assertEquals(1, entries.size(), "Every player has to be written exactly once");
+        return entries.get(0);
+    }
+}
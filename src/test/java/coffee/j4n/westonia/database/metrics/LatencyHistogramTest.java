@@ -0,0 +1,99 @@
+package coffee.j4n.westonia.database.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the percentiles of the {@link LatencyHistogram}.
+ */
+class LatencyHistogramTest {
+
+    /**
+     * An empty histogram reports 0 for every percentile.
+     */
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0D, histogram.getPercentileMillis(0.5D));
+        assertEquals(0D, histogram.getPercentileMillis(0.99D));
+        assertEquals(0D, histogram.getMaxMillis());
+    }
+
+    /**
+     * A percentile is never more than the largest recorded latency, even though the bucket reaches further.
+     */
+    @Test
+    void percentileDoesNotExceedTheMaximum() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(7));
+
+        assertEquals(7D, histogram.getMaxMillis());
+        assertTrue(histogram.getPercentileMillis(0.5D) <= histogram.getMaxMillis());
+        assertTrue(histogram.getPercentileMillis(1D) <= histogram.getMaxMillis());
+        assertTrue(histogram.getPercentileMillis(0.5D) > 7D * 0.8D);
+    }
+
+    /**
+     * The percentiles of evenly spread latencies grow with the percentile and are accurate to the size of a bucket.
+     */
+    @Test
+    void percentilesOfEvenlySpreadLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        double previousPercentile = 0D;
+
+        for (double percentile = 0.05D; percentile <= 1D; percentile += 0.05D) {
+            double percentileMillis = histogram.getPercentileMillis(percentile);
+            double expectedMillis = Math.round(percentile * 1000D);
+
+            assertTrue(percentileMillis >= previousPercentile, "The percentiles have to grow with the percentile");
+            assertTrue(Math.abs(percentileMillis - expectedMillis) <= expectedMillis * 0.2D,
+                    "p" + Math.round(percentile * 100D) + " is " + percentileMillis + " ms instead of about " + expectedMillis + " ms");
+            previousPercentile = percentileMillis;
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000D, histogram.getMaxMillis());
+    }
+
+    /**
+     * Percentiles outside of 0 and 1 are clamped to the smallest and the largest percentile.
+     */
+    @Test
+    void percentileIsClamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (int millis = 1; millis <= 100; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        assertEquals(histogram.getPercentileMillis(0D), histogram.getPercentileMillis(-1D));
+        assertEquals(histogram.getPercentileMillis(1D), histogram.getPercentileMillis(2D));
+        assertEquals(histogram.getMaxMillis(), histogram.getPercentileMillis(2D));
+    }
+
+    /**
+     * Resetting the histogram discards all recorded latencies.
+     */
+    @Test
+    void resetDiscardsTheLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(50));
+
+        histogram.reset();
+
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0D, histogram.getSumMillis());
+        assertEquals(0D, histogram.getMaxMillis());
+        assertEquals(0D, histogram.getPercentileMillis(0.99D));
+    }
+}
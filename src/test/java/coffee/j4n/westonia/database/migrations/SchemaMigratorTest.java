@@ -0,0 +1,291 @@
+package coffee.j4n.westonia.database.migrations;
+
+import coffee.j4n.westonia.database.results.DbReturn;
+import coffee.j4n.westonia.interfaces.ISchemaMigration;
+import coffee.j4n.westonia.utils.statics.enums.ResultType;
+import org.h2.jdbcx.JdbcDataSource;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the {@link SchemaMigrator} with the migrations of the plugin against an in-memory H2 database in MySQL mode.
+ */
+class SchemaMigratorTest {
+
+    private static final String MIGRATION_FOLDER = "db/migrations";
+
+    private final Logger logger = Logger.getLogger("Westonia-Test");
+    private JdbcDataSource dataSource;
+    private Connection keepAliveConnection;
+
+    @BeforeEach
+    void createDatabase() throws SQLException {
+        this.dataSource = new JdbcDataSource();
+        this.dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE");
+        // The in-memory database is dropped with its last connection, the migrator closes its own connection after every run
+        this.keepAliveConnection = this.dataSource.getConnection();
+    }
+
+    @AfterEach
+    void dropDatabase() throws SQLException {
+        this.keepAliveConnection.close();
+    }
+
+    /**
+     * Running the migrator again applies nothing, every migration is recorded exactly once.
+     */
+    @Test
+    void rerunAppliesEveryMigrationOnce() throws SQLException {
+        CountingMigration countingMigration = new CountingMigration(6, null);
+        List<ISchemaMigration> migrations = new ArrayList<>(this.createPluginMigrations());
+        migrations.add(countingMigration);
+
+        DbReturn firstResult = this.migrate(migrations);
+        DbReturn secondResult = this.migrate(migrations);
+
+        assertEquals(ResultType.SUCCESS, firstResult.getResultType(), firstResult.getMessage());
+        assertEquals(ResultType.SUCCESS, secondResult.getResultType(), secondResult.getMessage());
+        assertEquals(1, countingMigration.getRuns());
+        assertEquals(List.of(1, 3, 4, 5, 6), this.getAppliedVersions());
+    }
+
+    /**
+     * A migration whose checksum has changed after it was applied aborts the migration, the following migrations are not applied.
+     */
+    @Test
+    void changedChecksumAbortsTheMigration() throws SQLException {
+        this.migrate(List.of(new CountingMigration(1, "checksum-a")));
+
+        CountingMigration followingMigration = new CountingMigration(2, null);
+        DbReturn result = this.migrate(List.of(new CountingMigration(1, "checksum-b"), followingMigration));
+
+        assertEquals(ResultType.CONFIGURATION_ERROR, result.getResultType());
+        assertEquals(0, followingMigration.getRuns());
+        assertEquals(List.of(1), this.getAppliedVersions());
+    }
+
+    /**
+     * A migration without a checksum can replace an applied migration of the same version (e.g. a Java migration replacing a SQL script).
+     */
+    @Test
+    void migrationWithoutChecksumIsNotChecked() throws SQLException {
+        this.migrate(List.of(new CountingMigration(1, "checksum-a")));
+
+        CountingMigration replacingMigration = new CountingMigration(1, null);
+        DbReturn result = this.migrate(List.of(replacingMigration));
+
+        assertEquals(ResultType.SUCCESS, result.getResultType(), result.getMessage());
+        assertEquals(0, replacingMigration.getRuns());
+    }
+
+    /**
+     * A migration that fails is not recorded, so it is applied again with the next start.
+     */
+    @Test
+    void failedMigrationIsAppliedAgain() throws SQLException {
+        CountingMigration failingMigration = new CountingMigration(1, null);
+        failingMigration.failNextRun();
+
+        DbReturn failedResult = this.migrate(List.of(failingMigration));
+        DbReturn retriedResult = this.migrate(List.of(failingMigration));
+
+        assertEquals(ResultType.EXCEPTION, failedResult.getResultType());
+        assertEquals(ResultType.SUCCESS, retriedResult.getResultType(), retriedResult.getMessage());
+        assertEquals(2, failingMigration.getRuns());
+        assertEquals(List.of(1), this.getAppliedVersions());
+    }
+
+    /**
+     * The last seen migration is completed if it stopped after adding the column, e.g. because the server crashed.
+     */
+    @Test
+    void resumesPartlyAppliedLastSeenMigration() throws SQLException {
+        List<ISchemaMigration> migrations = this.createPluginMigrations();
+        this.migrate(migrations.subList(0, 2));
+        this.execute("INSERT INTO westonia_player (minecraft_uuid, first_join_date, global_language) VALUES (X'00000000000000000000000000000001', TIMESTAMP '2024-01-01 12:00:00', 'de')");
+        this.execute("ALTER TABLE westonia_player ADD COLUMN last_seen_date DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)");
+
+        DbReturn result = this.migrate(migrations);
+
+        assertEquals(ResultType.SUCCESS, result.getResultType(), result.getMessage());
+        assertEquals(List.of(1, 3, 4, 5), this.getAppliedVersions());
+        assertTrue(MigrationHelpers.hasIndex(this.keepAliveConnection, "westonia_player", "idx_westonia_player_last_seen_date"));
+        assertTrue(this.hasTable("westonia_player_archive"));
+        assertEquals(1L, this.queryLong("SELECT COUNT(*) FROM westonia_player WHERE last_seen_date = first_join_date"));
+    }
+
+    /**
+     * The version migration is recorded without changing the table, if the column has been added before the migration was recorded.
+     */
+    @Test
+    void resumesPartlyAppliedVersionMigration() throws SQLException {
+        List<ISchemaMigration> migrations = this.createPluginMigrations();
+        this.migrate(migrations.subList(0, 3));
+        this.execute("ALTER TABLE westonia_player ADD COLUMN version BIGINT NOT NULL DEFAULT 0");
+
+        DbReturn result = this.migrate(migrations);
+
+        assertEquals(ResultType.SUCCESS, result.getResultType(), result.getMessage());
+        assertEquals(List.of(1, 3, 4, 5), this.getAppliedVersions());
+        assertTrue(MigrationHelpers.hasColumn(this.keepAliveConnection, "westonia_player", "version"));
+    }
+
+    /**
+     * Creates the migrations of the plugin for H2, in the order the database factory creates them.
+     *
+     * @return The migrations.
+     */
+    private List<ISchemaMigration> createPluginMigrations() {
+        return List.of(
+                new SqlResourceMigration(1, "Create the player table", MIGRATION_FOLDER + "/V1__create_player_table.sql"),
+                new SqlResourceMigration(3, "Create the change log table", MIGRATION_FOLDER + "/V3__create_change_log_table.sql"),
+                new PlayerLastSeenMigration(this.logger, MIGRATION_FOLDER),
+                new PlayerVersionMigration(this.logger, MIGRATION_FOLDER)
+        );
+    }
+
+    /**
+     * Runs the migrator with the given migrations, like a start of the plugin.
+     *
+     * @param migrations The migrations.
+     * @return The result of the migrator.
+     */
+    private DbReturn migrate(final @NotNull List<ISchemaMigration> migrations) {
+        return new SchemaMigrator(this.logger, migrations, false).migrate(this.dataSource);
+    }
+
+    /**
+     * Returns the versions of the applied migrations.
+     *
+     * @return The versions in ascending order.
+     * @throws SQLException If the query fails.
+     */
+    private List<Integer> getAppliedVersions() throws SQLException {
+        List<Integer> versions = new ArrayList<>();
+
+        try (Statement statement = this.keepAliveConnection.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT version FROM westonia_schema_version ORDER BY version")) {
+            while (resultSet.next()) {
+                versions.add(resultSet.getInt(1));
+            }
+        }
+
+        return versions;
+    }
+
+    /**
+     * Checks whether the given table exists.
+     *
+     * @param tableName The name of the table.
+     * @return Whether the table exists.
+     * @throws SQLException If the metadata cannot be read.
+     */
+    private boolean hasTable(final @NotNull String tableName) throws SQLException {
+        try (ResultSet resultSet = this.keepAliveConnection.getMetaData().getTables(null, null, tableName, null)) {
+            return resultSet.next();
+        }
+    }
+
+    /**
+     * Runs a query that returns a single number.
+     *
+     * @param sql The query.
+     * @return The number.
+     * @throws SQLException If the query fails.
+     */
+    private long queryLong(final @NotNull String sql) throws SQLException {
+        try (Statement statement = this.keepAliveConnection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * Executes the given statement outside the migrator.
+     *
+     * @param sql The statement.
+     * @throws SQLException If the statement fails.
+     */
+    private void execute(final @NotNull String sql) throws SQLException {
+        try (Statement statement = this.keepAliveConnection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * A migration that only counts how often it has been run, and fails if it is told to.
+     */
+    private static final class CountingMigration implements ISchemaMigration {
+
+        private final int version;
+        private final String checksum;
+        private int runs = 0;
+        private boolean failNextRun = false;
+
+        /**
+         * Creates a new counting migration.
+         *
+         * @param version  The version of the migration.
+         * @param checksum The checksum of the migration, null if it is not checked.
+         */
+        private CountingMigration(final int version, final @Nullable String checksum) {
+            this.version = version;
+            this.checksum = checksum;
+        }
+
+        @Override
+        public int getVersion() {
+            return this.version;
+        }
+
+        @Override
+        public @NotNull String getDescription() {
+            return "Counting migration " + this.version;
+        }
+
+        @Override
+        public @Nullable String getChecksum() {
+            return this.checksum;
+        }
+
+        @Override
+        public void migrate(final @NotNull Connection connection) throws SQLException {
+            this.runs++;
+
+            if (this.failNextRun) {
+                this.failNextRun = false;
+                throw new SQLException("The migration has failed on purpose");
+            }
+        }
+
+        /**
+         * Returns how often the migration has been run.
+         *
+         * @return The amount of runs.
+         */
+        private int getRuns() {
+            return this.runs;
+        }
+
+        /**
+         * Lets the next run of the migration fail.
+         */
+        private void failNextRun() {
+            this.failNextRun = true;
+        }
+    }
+}
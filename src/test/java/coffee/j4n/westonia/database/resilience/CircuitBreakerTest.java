@@ -0,0 +1,142 @@
+package coffee.j4n.westonia.database.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the state changes of the {@link CircuitBreaker}.
+ */
+class CircuitBreakerTest {
+
+    private static final int FAILURE_THRESHOLD = 3;
+
+    private final Logger logger = Logger.getLogger("Westonia-Test");
+
+    /**
+     * The breaker stays closed until the threshold of consecutive failures is reached, then it rejects all requests.
+     */
+    @Test
+    void opensAfterTheFailureThreshold() {
+        CircuitBreaker breaker = this.createBreaker(TimeUnit.HOURS.toMillis(1));
+
+        for (int failure = 1; failure < FAILURE_THRESHOLD; failure++) {
+            breaker.recordFailure();
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+            assertTrue(breaker.allowRequest());
+        }
+
+        breaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+    }
+
+    /**
+     * A success resets the consecutive failures, so failures with successes in between do not open the breaker.
+     */
+    @Test
+    void successResetsTheFailures() {
+        CircuitBreaker breaker = this.createBreaker(TimeUnit.HOURS.toMillis(1));
+
+        for (int round = 0; round < 3; round++) {
+            for (int failure = 1; failure < FAILURE_THRESHOLD; failure++) {
+                breaker.recordFailure();
+            }
+
+            breaker.recordSuccess();
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertFalse(breaker.isOpen());
+    }
+
+    /**
+     * After the open duration only one request is let through, until its result has been recorded.
+     */
+    @Test
+    void halfOpenLetsOnlyOneRequestThrough() {
+        CircuitBreaker breaker = this.createOpenBreaker(0L);
+
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.isOpen());
+        assertFalse(breaker.allowRequest());
+    }
+
+    /**
+     * A failure of the request that has been let through opens the breaker again.
+     */
+    @Test
+    void failureWhileHalfOpenOpensTheBreaker() {
+        CircuitBreaker breaker = this.createOpenBreaker(0L);
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    /**
+     * A success of the request that has been let through closes the breaker.
+     */
+    @Test
+    void successWhileHalfOpenClosesTheBreaker() {
+        CircuitBreaker breaker = this.createOpenBreaker(0L);
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertTrue(breaker.allowRequest());
+    }
+
+    /**
+     * An open breaker keeps rejecting requests until the open duration has passed.
+     */
+    @Test
+    void staysOpenDuringTheOpenDuration() {
+        CircuitBreaker breaker = this.createOpenBreaker(TimeUnit.HOURS.toMillis(1));
+
+        for (int request = 0; request < 5; request++) {
+            assertFalse(breaker.allowRequest());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    /**
+     * Creates a closed breaker.
+     *
+     * @param openDurationMillis The time in milliseconds the breaker stays open.
+     * @return The breaker.
+     */
+    private CircuitBreaker createBreaker(final long openDurationMillis) {
+        return new CircuitBreaker(this.logger, "test database", FAILURE_THRESHOLD, openDurationMillis);
+    }
+
+    /**
+     * Creates a breaker that has been opened by reaching the threshold of failures.
+     *
+     * @param openDurationMillis The time in milliseconds the breaker stays open.
+     * @return The open breaker.
+     */
+    private CircuitBreaker createOpenBreaker(final long openDurationMillis) {
+        CircuitBreaker breaker = this.createBreaker(openDurationMillis);
+
+        for (int failure = 0; failure < FAILURE_THRESHOLD; failure++) {
+            breaker.recordFailure();
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+}